@@ -0,0 +1,161 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prueba de carga local del WebSocket de escritura en vivo (/ws/escritura).
+ *
+ * Abre muchas sesiones a la vez; cada una escribe acordes de seis puntos
+ * en lazo cerrado (envía un acorde, espera su parche, envía el siguiente)
+ * y al final se informan acordes por segundo y latencias por percentil.
+ * No usa dependencias: se ejecuta con el JDK.
+ *
+ * Uso (con la aplicación levantada):
+ *   java carga/CargaEscrituraWebSocket.java [url] [sesiones] [acordesPorSesion]
+ *   java carga/CargaEscrituraWebSocket.java ws://localhost:8080/ws/escritura?modo=acordes 2000 200
+ */
+public class CargaEscrituraWebSocket {
+
+    // "Hola 123" en acordes: mayúscula, h, o, l, a, espacio, número, a, b, c, espacio
+    private static final int[] ACORDES = {40, 19, 21, 7, 1, 0, 60, 1, 3, 9, 0};
+    private static final int CONEXIONES_SIMULTANEAS = 200;
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args.length > 0 ? args[0] : "ws://localhost:8080/ws/escritura?modo=acordes");
+        int sesiones = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int acordesPorSesion = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        HttpClient cliente = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+            .build();
+
+        // Abrir todas las sesiones antes de empezar a escribir
+        List<Sesion> abiertas = new ArrayList<>();
+        Semaphore permisos = new Semaphore(CONEXIONES_SIMULTANEAS);
+        List<CompletableFuture<WebSocket>> conexiones = new ArrayList<>();
+        for (int i = 0; i < sesiones; i++) {
+            Sesion sesion = new Sesion(acordesPorSesion);
+            abiertas.add(sesion);
+            permisos.acquire();
+            conexiones.add(cliente.newWebSocketBuilder().buildAsync(uri, sesion)
+                .whenComplete((ws, error) -> permisos.release()));
+        }
+        for (int i = 0; i < sesiones; i++) {
+            abiertas.get(i).webSocket = conexiones.get(i).get(30, TimeUnit.SECONDS);
+        }
+        System.out.printf("%d sesiones abiertas%n", sesiones);
+
+        CountDownLatch terminadas = new CountDownLatch(sesiones);
+        long inicio = System.nanoTime();
+        for (Sesion sesion : abiertas) {
+            sesion.terminada = terminadas;
+            sesion.enviarSiguiente();
+        }
+        if (!terminadas.await(10, TimeUnit.MINUTES)) {
+            System.out.println("Tiempo agotado esperando a las sesiones");
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        long[] latencias = abiertas.stream()
+            .flatMapToLong(sesion -> Arrays.stream(sesion.latencias, 0, sesion.recibidos.get()))
+            .sorted()
+            .toArray();
+        long errores = abiertas.stream().mapToLong(sesion -> sesion.errores.get()).sum();
+        System.out.printf("%d acordes en %.2f s: %.0f acordes/s, %d errores%n",
+            latencias.length, segundos, latencias.length / segundos, errores);
+        System.out.printf("latencia p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, máx %.2f ms%n",
+            percentil(latencias, 0.50), percentil(latencias, 0.99), percentil(latencias, 0.999),
+            latencias.length == 0 ? 0 : latencias[latencias.length - 1] / 1e6);
+
+        for (Sesion sesion : abiertas) {
+            sesion.webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "");
+        }
+        System.exit(0);
+    }
+
+    private static double percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        return ordenadas[(int) Math.min(ordenadas.length - 1, ordenadas.length * percentil)] / 1e6;
+    }
+
+    /**
+     * Una sesión en lazo cerrado: un acorde en vuelo a la vez.
+     */
+    private static final class Sesion implements WebSocket.Listener {
+
+        private final long[] latencias;
+        private final AtomicInteger recibidos = new AtomicInteger();
+        private final AtomicInteger errores = new AtomicInteger();
+        private volatile WebSocket webSocket;
+        private volatile CountDownLatch terminada;
+        private volatile long enviado;
+
+        Sesion(int acordes) {
+            this.latencias = new long[acordes];
+        }
+
+        void enviarSiguiente() {
+            int indice = recibidos.get();
+            if (indice == latencias.length) {
+                terminada.countDown();
+                return;
+            }
+            enviado = System.nanoTime();
+            enviar("a" + ACORDES[indice % ACORDES.length]);
+        }
+
+        private void enviar(String acorde) {
+            CompletableFuture<WebSocket> envio;
+            try {
+                envio = webSocket.sendText(acorde, true);
+            } catch (IllegalStateException e) {
+                envio = CompletableFuture.failedFuture(e);
+            }
+            envio.whenComplete((ws, error) -> {
+                Throwable causa = error instanceof CompletionException ? error.getCause() : error;
+                if (causa instanceof IllegalStateException) {
+                    // El parche puede llegar antes de que el JDK libere el envío anterior
+                    CompletableFuture.runAsync(() -> enviar(acorde),
+                        CompletableFuture.delayedExecutor(50, TimeUnit.MICROSECONDS));
+                } else if (causa != null) {
+                    onError(webSocket, causa);
+                }
+            });
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence datos, boolean ultimo) {
+            webSocket.request(1);
+            if (!ultimo) {
+                return null;
+            }
+            if (datos.length() > 0 && datos.charAt(0) == '!') {
+                errores.incrementAndGet();
+            }
+            latencias[recibidos.getAndIncrement()] = System.nanoTime() - enviado;
+            enviarSiguiente();
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            errores.incrementAndGet();
+            if (terminada != null) {
+                terminada.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.BrailleService;
+import com.example.demo.service.TablaBraille;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks del motor de conversión (BrailleService) sobre cada corpus.
+ * Cada operación convierte el siguiente texto del corpus, en ciclo.
+ *
+ * Por defecto se miden todas las tablas; para una sola:
+ *   mvn -Pjmh verify -Djmh.args="BrailleServiceBenchmark -p tabla=es"
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BrailleServiceBenchmark {
+
+    // Potencia de dos para recorrer los textos con una máscara
+    private static final int TEXTOS = 64;
+
+    @Param({"SENALETICA", "PROSA", "NUMEROS", "MATEMATICAS"})
+    private CorpusBraille corpus;
+
+    @Param({"es", "pt", "ca", "en-ueb", "computacional"})
+    private String tabla;
+
+    private BrailleService brailleService;
+    private TablaBraille tablaBraille;
+    private String[] textos;
+    private String[] braille;
+    private byte[][] celdas;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        brailleService = new BrailleService();
+        tablaBraille = brailleService.getTabla(tabla);
+        textos = corpus.textos(TEXTOS);
+        braille = new String[TEXTOS];
+        celdas = new byte[TEXTOS][];
+        for (int i = 0; i < TEXTOS; i++) {
+            braille[i] = brailleService.textoABraille(textos[i], tablaBraille);
+            celdas[i] = brailleService.textoACeldas(textos[i], tablaBraille);
+        }
+    }
+
+    private int siguiente() {
+        return siguiente++ & (TEXTOS - 1);
+    }
+
+    @Benchmark
+    public String textoABraille() {
+        return brailleService.textoABraille(textos[siguiente()], tablaBraille);
+    }
+
+    /**
+     * Mismo trabajo que textoABraille pero a un arreglo de celdas, para
+     * comparar la memoria asignada con la salida en String.
+     */
+    @Benchmark
+    public byte[] textoACeldas() {
+        return brailleService.textoACeldas(textos[siguiente()], tablaBraille);
+    }
+
+    /**
+     * Salida UTF-8 directa a un flujo, como la variante text/plain.
+     */
+    @Benchmark
+    public void textoABrailleUtf8(Blackhole agujero) throws IOException {
+        brailleService.textoABraille(textos[siguiente()], tablaBraille, new FlujoDescartado(agujero));
+    }
+
+    @Benchmark
+    public String brailleATexto() {
+        return brailleService.brailleATexto(braille[siguiente()], tablaBraille);
+    }
+
+    @Benchmark
+    public String celdasATexto() {
+        return brailleService.celdasATexto(celdas[siguiente()], tablaBraille);
+    }
+
+    @Benchmark
+    public boolean puedeConvertirABraille() {
+        return brailleService.puedeConvertirABraille(textos[siguiente()]);
+    }
+
+    @Benchmark
+    public String normalizar() {
+        return brailleService.normalizar(textos[siguiente()], tablaBraille);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.BrailleService;
+import com.example.demo.service.TablaBraille;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de un documento grande (1 MB por defecto) en secuencia y
+ * repartida entre 1 a N hilos, para ver cómo escala con los núcleos. Con
+ * hilos por encima de los núcleos disponibles solo se mide el reparto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversionParalelaBenchmark {
+
+    @Param({"PROSA", "NUMEROS"})
+    private CorpusBraille corpus;
+
+    @Param({"1048576"})
+    private int longitud;
+
+    @Param({"1", "2", "4", "8"})
+    private int hilos;
+
+    private BrailleService brailleService;
+    private TablaBraille tabla;
+    private ForkJoinPool pool;
+    private String texto;
+    private String braille;
+
+    @Setup
+    public void preparar() {
+        brailleService = new BrailleService();
+        tabla = brailleService.getTabla(BrailleService.TABLA_POR_DEFECTO);
+        pool = new ForkJoinPool(hilos);
+        texto = corpus.texto(longitud);
+        braille = brailleService.textoABraille(texto, tabla);
+    }
+
+    @TearDown
+    public void cerrar() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public String textoABrailleSecuencial() {
+        return brailleService.textoABraille(texto, tabla);
+    }
+
+    @Benchmark
+    public String textoABrailleParalelo() {
+        return brailleService.textoABrailleParalelo(texto, tabla, pool);
+    }
+
+    @Benchmark
+    public String brailleATextoParalelo() {
+        return brailleService.brailleATextoParalelo(braille, tabla, pool);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.ConversionRequest;
+import com.example.demo.dto.ConversionResponse;
+import com.example.demo.model.User;
+import com.example.demo.service.BrailleService;
+import com.example.demo.service.CacheConversionService;
+import com.example.demo.service.ConversionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConversionService.convertir de punta a punta (validación, normalización,
+ * cache, conversión y armado de la respuesta) con un repositorio en
+ * memoria en lugar de la base de datos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionServiceBenchmark {
+
+    private static final int TEXTOS = 64;
+
+    @Param({"SENALETICA", "PROSA", "NUMEROS", "MATEMATICAS"})
+    private CorpusBraille corpus;
+
+    @Param({"texto-a-braille", "braille-a-texto"})
+    private String tipo;
+
+    private ConversionService conCache;
+    private ConversionService sinCache;
+    private ConversionRequest[] solicitudes;
+    private User usuario;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        BrailleService brailleService = new BrailleService();
+        conCache = new ConversionService(brailleService, RepositorioConversionesEnMemoria.crear(),
+            new CacheConversionService(32, 4096));
+        // Longitud máxima negativa: ningún texto entra en la cache
+        sinCache = new ConversionService(brailleService, RepositorioConversionesEnMemoria.crear(),
+            new CacheConversionService(32, -1));
+
+        String[] textos = corpus.textos(TEXTOS);
+        solicitudes = new ConversionRequest[TEXTOS];
+        for (int i = 0; i < TEXTOS; i++) {
+            String texto = "braille-a-texto".equals(tipo) ? brailleService.textoABraille(textos[i]) : textos[i];
+            solicitudes[i] = new ConversionRequest(texto, tipo);
+        }
+        usuario = new User("benchmark", "benchmark@example.com", "benchmark");
+        usuario.setId(1L);
+    }
+
+    private ConversionRequest siguiente() {
+        return solicitudes[siguiente++ & (TEXTOS - 1)];
+    }
+
+    /**
+     * Los mismos 64 textos en ciclo: después del calentamiento todo son
+     * aciertos de cache.
+     */
+    @Benchmark
+    public ConversionResponse convertirConCache() {
+        return conCache.convertir(siguiente(), null, false);
+    }
+
+    @Benchmark
+    public ConversionResponse convertirSinCache() {
+        return sinCache.convertir(siguiente(), null, false);
+    }
+
+    /**
+     * Conversión más el guardado en historial (en memoria).
+     */
+    @Benchmark
+    public ConversionResponse convertirYGuardar() {
+        return sinCache.convertir(siguiente(), usuario, true);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.benchmark;
+
+import java.util.Random;
+
+/**
+ * Corpus sintéticos para los benchmarks, siempre con la misma semilla para
+ * que dos ejecuciones midan exactamente los mismos textos.
+ *
+ * - SENALETICA: textos cortos de señalética ("Piso 3", "Baño accesible").
+ * - PROSA: prosa en español con acentos, ñ, mayúsculas y puntuación.
+ * - NUMEROS: tablas con muchos números, decimales y porcentajes.
+ * - MATEMATICAS: expresiones con operadores, paréntesis y llaves.
+ */
+public enum CorpusBraille {
+
+    SENALETICA {
+        @Override
+        String generar(Random azar) {
+            String texto = elegir(azar, SENALES);
+            return azar.nextBoolean() ? texto : texto + " " + (1 + azar.nextInt(450));
+        }
+    },
+
+    PROSA {
+        @Override
+        String generar(Random azar) {
+            StringBuilder texto = new StringBuilder(LONGITUD_TEXTO + 64);
+            boolean inicioFrase = true;
+            while (texto.length() < LONGITUD_TEXTO) {
+                String palabra = elegir(azar, PALABRAS);
+                if (inicioFrase) {
+                    if (azar.nextInt(6) == 0) {
+                        texto.append(azar.nextBoolean() ? '¿' : '¡');
+                    }
+                    palabra = Character.toUpperCase(palabra.charAt(0)) + palabra.substring(1);
+                    inicioFrase = false;
+                }
+                texto.append(palabra);
+                int signo = azar.nextInt(14);
+                if (signo == 0) {
+                    texto.append(", ");
+                } else if (signo == 1) {
+                    texto.append(". ");
+                    inicioFrase = true;
+                } else if (signo == 2 && azar.nextInt(4) == 0) {
+                    texto.append(' ').append(1 + azar.nextInt(2030)).append(' ');
+                } else {
+                    texto.append(' ');
+                }
+            }
+            return texto.toString();
+        }
+    },
+
+    NUMEROS {
+        @Override
+        String generar(Random azar) {
+            StringBuilder texto = new StringBuilder(LONGITUD_TEXTO + 64);
+            while (texto.length() < LONGITUD_TEXTO) {
+                texto.append(elegir(azar, COLUMNAS)).append(": ")
+                    .append(azar.nextInt(100_000)).append(' ')
+                    .append(azar.nextInt(1000)).append(',').append(azar.nextInt(100)).append(' ')
+                    .append(azar.nextInt(100)).append("% ")
+                    .append(azar.nextInt(32)).append('.').append(1 + azar.nextInt(12)).append('.')
+                    .append(1990 + azar.nextInt(40)).append('\n');
+            }
+            return texto.toString();
+        }
+    },
+
+    MATEMATICAS {
+        @Override
+        String generar(Random azar) {
+            StringBuilder texto = new StringBuilder(LONGITUD_TEXTO + 64);
+            while (texto.length() < LONGITUD_TEXTO) {
+                texto.append('(').append(elegir(azar, VARIABLES)).append(' ')
+                    .append(elegir(azar, OPERADORES)).append(' ').append(azar.nextInt(100)).append(") ")
+                    .append(elegir(azar, OPERADORES)).append(" {").append(elegir(azar, VARIABLES))
+                    .append(" / ").append(1 + azar.nextInt(9)).append("} ")
+                    .append(azar.nextBoolean() ? "= " : "< ").append(azar.nextInt(1000)).append('°')
+                    .append(azar.nextInt(5) == 0 ? " [mod 7]\n" : " ; ");
+            }
+            return texto.toString();
+        }
+    };
+
+    /**
+     * Caracteres aproximados de cada texto de los corpus largos.
+     */
+    public static final int LONGITUD_TEXTO = 2048;
+
+    private static final String[] SENALES = {
+        "Piso", "Sala", "Baño", "Baño accesible", "Salida", "Salida de emergencia", "Ascensor",
+        "Escalera", "Recepción", "Oficina", "Auditorio", "Biblioteca", "Cafetería", "Enfermería",
+        "No pasar", "Empuje", "Tire", "Extintor", "Punto de encuentro", "Andén", "Habitación"
+    };
+
+    private static final String[] PALABRAS = {
+        "el", "la", "de", "que", "y", "en", "un", "una", "los", "las", "por", "con", "para", "como",
+        "año", "niño", "también", "está", "más", "después", "información", "educación", "país",
+        "según", "pingüino", "corazón", "música", "lápiz", "árbol", "camión", "mañana", "señal",
+        "ciudad", "tiempo", "gobierno", "trabajo", "historia", "lectura", "escritura", "tacto",
+        "puntos", "celda", "biblioteca", "estudiantes", "docentes", "acceso", "derecho"
+    };
+
+    private static final String[] COLUMNAS = {
+        "Total", "Subtotal", "Enero", "Febrero", "Marzo", "Región", "Código", "Importe", "Saldo"
+    };
+
+    private static final String[] VARIABLES = {"x", "y", "z", "a", "b", "n", "k"};
+
+    private static final String[] OPERADORES = {"+", "-", "*", "/", "×", "÷", "^", "="};
+
+    /**
+     * Genera un texto del corpus.
+     */
+    abstract String generar(Random azar);
+
+    /**
+     * Genera la cantidad de textos indicada con una semilla fija.
+     *
+     * @param cantidad los textos a generar
+     * @return los textos, siempre iguales para el mismo corpus
+     */
+    public String[] textos(int cantidad) {
+        Random azar = new Random(0x42524149L + ordinal());
+        String[] textos = new String[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            textos[i] = generar(azar);
+        }
+        return textos;
+    }
+
+    /**
+     * Un texto de aproximadamente la longitud pedida, uniendo textos del
+     * corpus.
+     *
+     * @param longitud los caracteres mínimos
+     * @return el texto
+     */
+    public String texto(int longitud) {
+        Random azar = new Random(0x42524149L + ordinal());
+        StringBuilder texto = new StringBuilder(longitud + LONGITUD_TEXTO);
+        while (texto.length() < longitud) {
+            texto.append(generar(azar)).append(' ');
+        }
+        return texto.toString();
+    }
+
+    private static String elegir(Random azar, String[] opciones) {
+        return opciones[azar.nextInt(opciones.length)];
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+
+/**
+ * OutputStream que entrega los bytes al Blackhole sin guardarlos.
+ */
+final class FlujoDescartado extends OutputStream {
+
+    private final Blackhole agujero;
+
+    FlujoDescartado(Blackhole agujero) {
+        this.agujero = agujero;
+    }
+
+    @Override
+    public void write(int dato) {
+        agujero.consume(dato);
+    }
+
+    @Override
+    public void write(byte[] datos, int desde, int cantidad) {
+        agujero.consume(datos);
+        agujero.consume(cantidad);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Conversion;
+import com.example.demo.repository.ConversionRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConversionRepository en memoria para medir ConversionService sin base de
+ * datos: save y guardarEnLote asignan un ID y descartan la entidad, así la
+ * memoria no crece durante el benchmark. El resto de operaciones no se
+ * usan al convertir y lanzan UnsupportedOperationException.
+ */
+final class RepositorioConversionesEnMemoria {
+
+    private RepositorioConversionesEnMemoria() {
+    }
+
+    static ConversionRepository crear() {
+        AtomicLong ids = new AtomicLong();
+        return (ConversionRepository) Proxy.newProxyInstance(
+            ConversionRepository.class.getClassLoader(),
+            new Class<?>[] {ConversionRepository.class},
+            (proxy, metodo, argumentos) -> {
+                switch (metodo.getName()) {
+                    case "save":
+                        Conversion conversion = (Conversion) argumentos[0];
+                        conversion.setId(ids.incrementAndGet());
+                        return conversion;
+                    case "guardarEnLote":
+                        for (Object guardada : (List<?>) argumentos[0]) {
+                            ((Conversion) guardada).setId(ids.incrementAndGet());
+                        }
+                        return null;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == argumentos[0];
+                    case "toString":
+                        return "RepositorioConversionesEnMemoria";
+                    default:
+                        throw new UnsupportedOperationException(metodo.getName());
+                }
+            });
+    }
+}
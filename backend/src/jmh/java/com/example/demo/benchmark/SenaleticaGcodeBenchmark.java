@@ -0,0 +1,54 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.DisenoSenaletica;
+import com.example.demo.service.PlanGcode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo de planificar el recorrido del G-code según la cantidad de
+ * celdas (unos 2,6 puntos por celda), para ver que crece casi linealmente.
+ *
+ *   mvn -Pjmh verify -Djmh.args="SenaleticaGcodeBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SenaleticaGcodeBenchmark {
+
+    @Param({"400", "4000", "16000"})
+    private int celdas;
+
+    private DisenoSenaletica diseno;
+
+    @Setup
+    public void preparar() {
+        Random azar = new Random(7);
+        StringBuilder braille = new StringBuilder(celdas);
+        for (int i = 0; i < celdas; i++) {
+            braille.append(i % 7 == 6 ? ' ' : (char) (0x2801 + azar.nextInt(63)));
+        }
+        diseno = new DisenoSenaletica("Prueba", "Prueba", braille.toString(), 24, "#000000", "#FFFFFF", true);
+    }
+
+    @Benchmark
+    public PlanGcode planificar() {
+        return PlanGcode.planificar(diseno, PlanGcode.PROFUNDIDAD_POR_DEFECTO, PlanGcode.ALTURA_SEGURA_POR_DEFECTO,
+            PlanGcode.VELOCIDAD_POR_DEFECTO, PlanGcode.AVANCE_POR_DEFECTO);
+    }
+}
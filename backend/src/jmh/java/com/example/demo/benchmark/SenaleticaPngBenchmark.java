@@ -0,0 +1,89 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.BrailleService;
+import com.example.demo.service.DisenoSenaletica;
+import com.example.demo.service.RasterizadorPng;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Señaléticas en PNG por segundo en un hilo (por minuto: x 60). Compara el
+ * camino del servicio (atlas de celdas y CodificadorPng) con el mismo
+ * dibujo codificado por ImageIO, y la miniatura.
+ *
+ *   mvn -Pjmh verify -Djmh.args="SenaleticaPngBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SenaleticaPngBenchmark {
+
+    private static final int TEXTOS = 64;
+
+    @Param({"200"})
+    private int dpi;
+
+    private RasterizadorPng rasterizador;
+    private DisenoSenaletica[] disenos;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        BrailleService brailleService = new BrailleService();
+        rasterizador = new RasterizadorPng(64);
+        String[] textos = CorpusBraille.SENALETICA.textos(TEXTOS);
+        disenos = new DisenoSenaletica[TEXTOS];
+        for (int i = 0; i < TEXTOS; i++) {
+            disenos[i] = new DisenoSenaletica(textos[i], textos[i], brailleService.textoABraille(textos[i]),
+                24, "#000000", "#FFFFFF", true);
+        }
+    }
+
+    private DisenoSenaletica siguiente() {
+        return disenos[siguiente++ & (TEXTOS - 1)];
+    }
+
+    @Benchmark
+    public void png(Blackhole agujero) throws IOException {
+        rasterizador.escribir(siguiente(), dpi, new FlujoDescartado(agujero));
+    }
+
+    @Benchmark
+    public void miniatura(Blackhole agujero) throws IOException {
+        rasterizador.escribirMiniatura(siguiente(), new FlujoDescartado(agujero));
+    }
+
+    /**
+     * Solo el dibujo, sin codificar.
+     */
+    @Benchmark
+    public BufferedImage dibujar() {
+        return rasterizador.dibujar(siguiente(), dpi / 25.4);
+    }
+
+    /**
+     * El mismo dibujo codificado con ImageIO, como referencia.
+     */
+    @Benchmark
+    public void pngImageIO(Blackhole agujero) throws IOException {
+        ImageIO.write(rasterizador.dibujar(siguiente(), dpi / 25.4), "png", new FlujoDescartado(agujero));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.DisenoSenaletica;
+import com.example.demo.service.ModeladorStl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo por señalética del STL según la cantidad de celdas, escribiendo
+ * en un canal que descarta los bytes.
+ *
+ *   mvn -Pjmh verify -Djmh.args="SenaleticaStlBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SenaleticaStlBenchmark {
+
+    @Param({"24", "240"})
+    private int celdas;
+
+    private ModeladorStl modelador;
+    private DisenoSenaletica diseno;
+
+    @Setup
+    public void preparar() {
+        modelador = new ModeladorStl(16);
+        Random azar = new Random(7);
+        StringBuilder braille = new StringBuilder(celdas);
+        for (int i = 0; i < celdas; i++) {
+            braille.append((char) (0x2801 + azar.nextInt(63)));
+        }
+        diseno = new DisenoSenaletica("Prueba", "Prueba", braille.toString(), 24, "#000000", "#FFFFFF", true);
+    }
+
+    @Benchmark
+    public void stl(Blackhole agujero) throws IOException {
+        modelador.escribir(diseno, ModeladorStl.ALTURA_PUNTO_POR_DEFECTO, ModeladorStl.DISTANCIA_PUNTOS_POR_DEFECTO,
+            ModeladorStl.GROSOR_PLACA_POR_DEFECTO, Channels.newChannel(new FlujoDescartado(agujero)));
+    }
+}
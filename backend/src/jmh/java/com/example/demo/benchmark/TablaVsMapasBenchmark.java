@@ -0,0 +1,83 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.BrailleService;
+import com.example.demo.service.TablaBraille;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tablas compiladas (TablaBraille y el trie de decodificación) contra el
+ * conversor anterior con HashMap, sobre los mismos textos de cada corpus
+ * y con la tabla "es", la única que tenía el conversor anterior. Los dos
+ * decodificadores reciben el mismo Braille.
+ *
+ *   mvn -Pjmh verify -Djmh.args="TablaVsMapasBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TablaVsMapasBenchmark {
+
+    // Potencia de dos para recorrer los textos con una máscara
+    private static final int TEXTOS = 64;
+
+    @Param({"SENALETICA", "PROSA", "NUMEROS", "MATEMATICAS"})
+    private CorpusBraille corpus;
+
+    private BrailleService brailleService;
+    private BrailleMapasLegado legado;
+    private TablaBraille tabla;
+    private String[] textos;
+    private String[] braille;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        brailleService = new BrailleService();
+        legado = new BrailleMapasLegado();
+        tabla = brailleService.getTabla("es");
+        textos = corpus.textos(TEXTOS);
+        braille = new String[TEXTOS];
+        for (int i = 0; i < TEXTOS; i++) {
+            braille[i] = brailleService.textoABraille(textos[i], tabla);
+        }
+    }
+
+    private int siguiente() {
+        return siguiente++ & (TEXTOS - 1);
+    }
+
+    @Benchmark
+    public String textoABrailleTablas() {
+        return brailleService.textoABraille(textos[siguiente()], tabla);
+    }
+
+    @Benchmark
+    public String textoABrailleMapas() {
+        return legado.textoABraille(textos[siguiente()]);
+    }
+
+    @Benchmark
+    public String brailleATextoTablas() {
+        return brailleService.brailleATexto(braille[siguiente()], tabla);
+    }
+
+    @Benchmark
+    public String brailleATextoMapas() {
+        return legado.brailleATexto(braille[siguiente()]);
+    }
+}
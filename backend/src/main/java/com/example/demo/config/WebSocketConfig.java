@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import com.example.demo.controller.EscrituraBrailleHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Configuration class for the WebSocket endpoints.
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    @Value("${cors.allowed.origins:http://localhost:3000}")
+    private String allowedOrigins;
+
+    private final EscrituraBrailleHandler escrituraBrailleHandler;
+
+    public WebSocketConfig(EscrituraBrailleHandler escrituraBrailleHandler) {
+        this.escrituraBrailleHandler = escrituraBrailleHandler;
+    }
+
+    /**
+     * Registers the live Braille typing endpoint with the same allowed
+     * origins as the REST API.
+     *
+     * @param registry the handler registry
+     */
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(escrituraBrailleHandler, "/ws/escritura")
+            .setAllowedOrigins(allowedOrigins.split(","));
+    }
+}
@@ -2,21 +2,39 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.ConversionRequest;
 import com.example.demo.dto.ConversionResponse;
+import com.example.demo.dto.EdicionRequest;
+import com.example.demo.dto.EdicionResponse;
 import com.example.demo.model.Conversion;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.service.CacheConversionService;
 import com.example.demo.service.ConversionService;
+import com.example.demo.service.DocumentoBraille;
+import com.example.demo.service.EdicionIncrementalService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller para endpoints de conversión Braille
  * 
  * Endpoints:
- * - POST /api/convertir - Convierte texto &lt;-&gt; Braille
+ * - POST /api/convertir - Convierte texto &lt;-&gt; Braille (grado 1 o grado 2)
+ *   (con Accept: text/plain responde solo el resultado, sin JSON)
+ * - POST /api/convertir/lote - Convierte muchos textos en una sola solicitud
+ * - GET /api/convertir/cache - Métricas de la cache de conversiones
+ * - POST /api/convertir/flujo - Convierte documentos grandes por flujo (text/plain)
+ * - POST /api/convertir/incremental - Abre un documento para conversión incremental
+ * - POST /api/convertir/incremental/{id}/edicion - Aplica una edición y devuelve el parche
+ * - DELETE /api/convertir/incremental/{id} - Cierra un documento incremental
  * - GET /api/historial - Obtiene historial de conversiones
  * - GET /api/historial/recientes - Últimas 10 conversiones
  * - DELETE /api/historial/{id} - Elimina una conversión del historial
@@ -26,11 +44,19 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000")
 public class BrailleController {
     
+    // Máximo de elementos por solicitud en /api/convertir/lote
+    private static final int MAX_ELEMENTOS_LOTE = 1000;
+    
     private final ConversionService conversionService;
+    private final CacheConversionService cacheConversionService;
+    private final EdicionIncrementalService edicionIncrementalService;
     private final UserRepository userRepository;
     
-    public BrailleController(ConversionService conversionService, UserRepository userRepository) {
+    public BrailleController(ConversionService conversionService, CacheConversionService cacheConversionService,
+                             EdicionIncrementalService edicionIncrementalService, UserRepository userRepository) {
         this.conversionService = conversionService;
+        this.cacheConversionService = cacheConversionService;
+        this.edicionIncrementalService = edicionIncrementalService;
         this.userRepository = userRepository;
     }
     
@@ -40,30 +66,34 @@ public class BrailleController {
      * POST /api/convertir
      * Body: {
      *   "texto": "Hola mundo",
-     *   "tipo": "texto-a-braille" | "braille-a-texto"
+     *   "tipo": "texto-a-braille" | "braille-a-texto" | "texto-a-grado2" | "grado2-a-texto",
+     *   "tabla": "es" | "pt" | "ca" | "en-ueb" | "computacional" (opcional, por defecto "es")
      * }
+     * El grado 2 (contraído) solo existe para la tabla "es"; la respuesta
+     * incluye ratioCompresion = celdas grado 2 / celdas grado 1.
+     * Con "reporte": true (solo texto-a-braille) la respuesta incluye, en la
+     * misma pasada que la conversión, los caracteres sin traducción (posición
+     * y código) y cuántos acentos, números, símbolos y mayúsculas hay.
+     * El texto de entrada se normaliza antes de convertirlo (NFC, comillas
+     * y rayas tipográficas, ligaduras, espacios especiales) salvo con
+     * "normalizar": false; la respuesta informa por separado el tiempo de
+     * cada etapa (tiempoNormalizacionMicros, tiempoConversionMicros).
      * Query params opcionales:
      *   - userId: ID del usuario (para guardar en historial)
      *   - guardar: true/false (guardar en historial)
      */
-    @PostMapping("/convertir")
+    @PostMapping(value = "/convertir", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ConversionResponse> convertir(
             @RequestBody ConversionRequest request,
             @RequestParam(required = false) Long userId,
             @RequestParam(defaultValue = "false") boolean guardar
     ) {
         // Validaciones básicas
-        if (request.getTexto() == null || request.getTexto().isEmpty()) {
-            ConversionResponse errorResponse = new ConversionResponse();
-            errorResponse.setExito(false);
-            errorResponse.setMensaje("El texto no puede estar vacío");
-            return ResponseEntity.badRequest().body(errorResponse);
-        }
-        
-        if (!("texto-a-braille".equals(request.getTipo()) || "braille-a-texto".equals(request.getTipo()))) {
+        String error = conversionService.validar(request);
+        if (error != null) {
             ConversionResponse errorResponse = new ConversionResponse();
             errorResponse.setExito(false);
-            errorResponse.setMensaje("Tipo debe ser 'texto-a-braille' o 'braille-a-texto'");
+            errorResponse.setMensaje(error);
             return ResponseEntity.badRequest().body(errorResponse);
         }
         
@@ -83,6 +113,200 @@ public class BrailleController {
         }
     }
     
+    /**
+     * Variante text/plain de /api/convertir para resultados grandes
+     * 
+     * POST /api/convertir
+     * Accept: text/plain
+     * Body: el mismo JSON que /api/convertir
+     * 
+     * Responde solo el resultado (text/plain; charset=UTF-8), sin JSON. En
+     * texto-a-braille cada celda se codifica en UTF-8 directamente en el
+     * flujo de la respuesta, sin String intermedio. Los errores de
+     * validación responden 400 con el mensaje. No se guarda en historial.
+     */
+    @PostMapping(value = "/convertir", produces = MediaType.TEXT_PLAIN_VALUE)
+    public void convertirTextoPlano(
+            @RequestBody ConversionRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        String error = conversionService.validar(request);
+        if (error != null) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), error);
+            return;
+        }
+        
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        conversionService.convertirUtf8(request, response.getOutputStream());
+    }
+    
+    /**
+     * Conversión por lotes para muchos textos cortos (señalética, etiquetas)
+     * 
+     * POST /api/convertir/lote
+     * Body: [ { "texto": "Piso 1", "tipo": "texto-a-braille" }, ... ]
+     * Query params opcionales: userId, guardar (igual que /api/convertir)
+     * 
+     * Devuelve una respuesta por elemento y en el mismo orden; un elemento
+     * inválido lleva exito=false y su mensaje sin afectar al resto.
+     */
+    @PostMapping("/convertir/lote")
+    public ResponseEntity<?> convertirLote(
+            @RequestBody List<ConversionRequest> requests,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean guardar
+    ) {
+        if (requests == null || requests.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("exito", false, "mensaje", "El lote no puede estar vacío"));
+        }
+        if (requests.size() > MAX_ELEMENTOS_LOTE) {
+            return ResponseEntity.badRequest().body(Map.of("exito", false,
+                "mensaje", "El lote admite como máximo " + MAX_ELEMENTOS_LOTE + " elementos"));
+        }
+        
+        // Un solo acceso a la BD para el usuario de todo el lote
+        User user = null;
+        if (userId != null) {
+            user = userRepository.findById(userId).orElse(null);
+        }
+        
+        return ResponseEntity.ok(conversionService.convertirLote(requests, user, guardar));
+    }
+    
+    /**
+     * Métricas de la cache de conversiones (aciertos, desalojos, memoria)
+     * 
+     * GET /api/convertir/cache
+     */
+    @GetMapping("/convertir/cache")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticasCache() {
+        return ResponseEntity.ok(cacheConversionService.obtenerEstadisticas());
+    }
+    
+    /**
+     * Conversión por flujo para documentos grandes
+     * 
+     * POST /api/convertir/flujo?tipo=texto-a-braille&amp;tabla=es&amp;normalizar=true
+     * Content-Type: text/plain
+     * Body: el texto a convertir, sin JSON
+     * 
+     * La respuesta (text/plain; charset=UTF-8) se escribe a medida que se
+     * convierte y se envía por partes, así la memoria usada no depende del
+     * tamaño del documento. No se guarda en historial.
+     */
+    @PostMapping(value = "/convertir/flujo", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public void convertirFlujo(
+            @RequestParam(defaultValue = "texto-a-braille") String tipo,
+            @RequestParam(required = false) String tabla,
+            @RequestParam(defaultValue = "true") boolean normalizar,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        if (!("texto-a-braille".equals(tipo) || "braille-a-texto".equals(tipo))) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Tipo debe ser 'texto-a-braille' o 'braille-a-texto'");
+            return;
+        }
+        if (!conversionService.existeTabla(tabla)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Tabla Braille no soportada: " + tabla);
+            return;
+        }
+        
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        
+        conversionService.convertirFlujo(tipo, tabla, normalizar, request.getReader(), response.getOutputStream());
+    }
+    
+    /**
+     * Abre un documento para conversión incremental texto a Braille (grado 1),
+     * pensado para convertir mientras se escribe
+     * 
+     * POST /api/convertir/incremental
+     * Body: { "texto": "Hola", "tabla": "es" }
+     * 
+     * La respuesta trae documentoId, version=0 y el Braille completo en
+     * "insertado". Después se envían solo las ediciones a
+     * /api/convertir/incremental/{id}/edicion.
+     */
+    @PostMapping("/convertir/incremental")
+    public ResponseEntity<EdicionResponse> abrirDocumentoIncremental(@RequestBody ConversionRequest request) {
+        if (!conversionService.existeTabla(request.getTabla())) {
+            return ResponseEntity.badRequest()
+                .body(new EdicionResponse(false, "Tabla Braille no soportada: " + request.getTabla()));
+        }
+        
+        String id = edicionIncrementalService.abrir(request.getTexto(), request.getTabla());
+        DocumentoBraille documento = edicionIncrementalService.obtener(id).orElseThrow();
+        String resultado = documento.getResultado();
+        
+        EdicionResponse response = new EdicionResponse(true, "Documento abierto");
+        response.setDocumentoId(id);
+        response.setVersion(documento.getVersion());
+        response.setInsertado(resultado);
+        response.setLongitudResultado(resultado.length());
+        response.setTabla(documento.getTabla().getCodigo());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Aplica una edición a un documento incremental
+     * 
+     * POST /api/convertir/incremental/{id}/edicion
+     * Body: { "version": 3, "inicio": 10, "eliminados": 1, "insertado": "ab" }
+     * 
+     * Devuelve el parche sobre el Braille de la versión anterior: borrar
+     * "eliminados" caracteres desde "desde" e insertar "insertado". Si la
+     * versión no es la actual responde 409 con la versión vigente; si el
+     * documento expiró responde 404 y el cliente debe abrirlo de nuevo.
+     */
+    @PostMapping("/convertir/incremental/{id}/edicion")
+    public ResponseEntity<EdicionResponse> editarDocumentoIncremental(
+            @PathVariable String id,
+            @RequestBody EdicionRequest request
+    ) {
+        DocumentoBraille documento = edicionIncrementalService.obtener(id).orElse(null);
+        if (documento == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new EdicionResponse(false, "Documento no encontrado o expirado"));
+        }
+        
+        EdicionResponse response;
+        try {
+            DocumentoBraille.Parche parche = documento.editar(request.getVersion(), request.getInicio(),
+                request.getEliminados(), request.getInsertado());
+            response = new EdicionResponse(true, null);
+            response.setVersion(parche.getVersion());
+            response.setDesde(parche.getDesde());
+            response.setEliminados(parche.getEliminados());
+            response.setInsertado(parche.getInsertado());
+            response.setLongitudResultado(parche.getLongitudResultado());
+        } catch (IllegalStateException e) {
+            response = new EdicionResponse(false, e.getMessage());
+            response.setVersion(documento.getVersion());
+            response.setDocumentoId(id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new EdicionResponse(false, e.getMessage()));
+        }
+        response.setDocumentoId(id);
+        response.setTabla(documento.getTabla().getCodigo());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Cierra un documento incremental
+     * 
+     * DELETE /api/convertir/incremental/{id}
+     */
+    @DeleteMapping("/convertir/incremental/{id}")
+    public ResponseEntity<Void> cerrarDocumentoIncremental(@PathVariable String id) {
+        if (edicionIncrementalService.cerrar(id)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+    
     /**
      * Historia 6: Obtener historial completo de conversiones
      * 
@@ -139,14 +363,14 @@ public class BrailleController {
      * Obtener historial filtrado por tipo
      * 
      * GET /api/historial/tipo/{tipo}?userId=1
-     * tipo puede ser: texto-a-braille o braille-a-texto
+     * tipo puede ser: texto-a-braille, braille-a-texto, texto-a-grado2 o grado2-a-texto
      */
     @GetMapping("/historial/tipo/{tipo}")
     public ResponseEntity<List<Conversion>> obtenerHistorialPorTipo(
             @PathVariable String tipo,
             @RequestParam Long userId
     ) {
-        if (!("texto-a-braille".equals(tipo) || "braille-a-texto".equals(tipo))) {
+        if (!esTipoValido(tipo)) {
             return ResponseEntity.badRequest().build();
         }
         
@@ -187,5 +411,9 @@ public class BrailleController {
             })
             .orElse(ResponseEntity.notFound().build());
     }
+    
+    private boolean esTipoValido(String tipo) {
+        return "texto-a-braille".equals(tipo) || "braille-a-texto".equals(tipo)
+            || "texto-a-grado2".equals(tipo) || "grado2-a-texto".equals(tipo);
+    }
 }
-
@@ -0,0 +1,88 @@
+package com.example.demo.controller;
+
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.DiccionarioService;
+import com.example.demo.service.TablaBraille;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller para el diccionario Braille
+ * 
+ * Endpoints:
+ * - GET /api/diccionario/version - Versión del diccionario en uso
+ * - GET /api/diccionario/tablas - Tablas Braille disponibles
+ * - POST /api/diccionario/recargar - Recarga el diccionario desde la BD (solo admin)
+ */
+@RestController
+@RequestMapping("/api/diccionario")
+@CrossOrigin(origins = "http://localhost:3000")
+public class DiccionarioController {
+    
+    private final DiccionarioService diccionarioService;
+    private final UserRepository userRepository;
+    
+    public DiccionarioController(DiccionarioService diccionarioService, UserRepository userRepository) {
+        this.diccionarioService = diccionarioService;
+        this.userRepository = userRepository;
+    }
+    
+    /**
+     * Obtiene la versión del diccionario en uso
+     * 
+     * GET /api/diccionario/version
+     */
+    @GetMapping("/version")
+    public ResponseEntity<?> obtenerVersion() {
+        return ResponseEntity.ok(describir(diccionarioService.obtenerTablaActual()));
+    }
+    
+    /**
+     * Lista las tablas Braille que se pueden indicar en el campo "tabla"
+     * 
+     * GET /api/diccionario/tablas
+     */
+    @GetMapping("/tablas")
+    public ResponseEntity<List<Map<String, Object>>> listarTablas() {
+        List<Map<String, Object>> tablas = new ArrayList<>();
+        for (TablaBraille tabla : diccionarioService.obtenerTablas()) {
+            Map<String, Object> descripcion = new LinkedHashMap<>();
+            descripcion.put("codigo", tabla.getCodigo());
+            descripcion.put("nombre", tabla.getNombre());
+            descripcion.putAll(describir(tabla));
+            tablas.add(descripcion);
+        }
+        return ResponseEntity.ok(tablas);
+    }
+    
+    /**
+     * Recarga el diccionario desde la tabla diccionario_braille
+     * 
+     * POST /api/diccionario/recargar?userId=1
+     * Solo usuarios con rol 'admin'.
+     */
+    @PostMapping("/recargar")
+    public ResponseEntity<?> recargar(@RequestParam Long userId) {
+        return userRepository.findById(userId)
+            .map(user -> {
+                if (!"admin".equals(user.getRol())) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+                }
+                return ResponseEntity.ok(describir(diccionarioService.recargar()));
+            })
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    private Map<String, Object> describir(TablaBraille tabla) {
+        return Map.of(
+            "version", tabla.getVersion(),
+            "entradas", tabla.getEntradas()
+        );
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Envía un archivo del disco como descarga sin pasarlo por el heap, con
+ * soporte de rangos (un solo rango por petición, "Range: bytes=a-b", "a-"
+ * o "-n") para reanudar descargas grandes.
+ *
+ * Si Tomcat ofrece sendfile se le entrega el tramo del archivo y el
+ * sistema operativo lo copia al socket al terminar la petición; si no, se
+ * copia con FileChannel.transferTo al canal de la respuesta.
+ */
+final class EnvioArchivo {
+
+    // Atributos de petición con los que Tomcat hace sendfile
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+    // Marca de un rango fuera del archivo (respuesta 416)
+    private static final long[] RANGO_NO_SATISFACIBLE = new long[0];
+
+    private EnvioArchivo() {}
+
+    /**
+     * @param archivo el archivo a enviar; no debe cambiar mientras se envía
+     * @param tipoContenido el Content-Type de la respuesta
+     * @param nombreDescarga el nombre de archivo que se propone al cliente
+     */
+    static void enviar(Path archivo, String tipoContenido, String nombreDescarga,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long longitud = canal.size();
+            // El nombre del archivo ya identifica su contenido
+            String etag = "\"" + archivo.getFileName() + "\"";
+
+            long inicio = 0;
+            long fin = longitud; // exclusivo
+            String rango = request.getHeader(HttpHeaders.RANGE);
+            String siRango = request.getHeader(HttpHeaders.IF_RANGE);
+            if (rango != null && (siRango == null || siRango.equals(etag))) {
+                long[] tramo = leerRango(rango, longitud);
+                if (tramo == RANGO_NO_SATISFACIBLE) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + longitud);
+                    return;
+                }
+                if (tramo != null) {
+                    inicio = tramo[0];
+                    fin = tramo[1];
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + inicio + "-" + (fin - 1) + "/" + longitud);
+                }
+            }
+
+            response.setContentType(tipoContenido);
+            response.setContentLengthLong(fin - inicio);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(nombreDescarga).build().toString());
+            if ("HEAD".equals(request.getMethod()) || fin == inicio) {
+                return;
+            }
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+                request.setAttribute(SENDFILE_ARCHIVO, archivo.toRealPath().toString());
+                request.setAttribute(SENDFILE_INICIO, inicio);
+                request.setAttribute(SENDFILE_FIN, fin);
+                return;
+            }
+
+            WritableByteChannel salida = Channels.newChannel(response.getOutputStream());
+            long posicion = inicio;
+            while (posicion < fin) {
+                posicion += canal.transferTo(posicion, fin - posicion, salida);
+            }
+            response.flushBuffer();
+        }
+    }
+
+    /**
+     * Interpreta la cabecera Range.
+     *
+     * @return {inicio, fin exclusivo}; null si la cabecera no es válida o
+     *         pide varios rangos (se envía el archivo entero);
+     *         RANGO_NO_SATISFACIBLE si el rango cae fuera del archivo
+     */
+    private static long[] leerRango(String rango, long longitud) {
+        if (!rango.startsWith("bytes=") || rango.indexOf(',') >= 0) {
+            return null;
+        }
+        String tramo = rango.substring("bytes=".length()).trim();
+        int guion = tramo.indexOf('-');
+        if (guion < 0) {
+            return null;
+        }
+        try {
+            String desde = tramo.substring(0, guion).trim();
+            String hasta = tramo.substring(guion + 1).trim();
+            if (desde.isEmpty()) {
+                // Los últimos n bytes
+                long sufijo = Long.parseLong(hasta);
+                if (sufijo <= 0 || longitud == 0) {
+                    return RANGO_NO_SATISFACIBLE;
+                }
+                return new long[] {Math.max(0, longitud - sufijo), longitud};
+            }
+            long inicio = Long.parseLong(desde);
+            long ultimo = hasta.isEmpty() ? longitud - 1 : Long.parseLong(hasta);
+            if (inicio < 0 || (!hasta.isEmpty() && ultimo < inicio)) {
+                return null;
+            }
+            if (inicio >= longitud) {
+                return RANGO_NO_SATISFACIBLE;
+            }
+            // Un último byte más allá del archivo se recorta al final (sin
+            // sumar antes, que con Long.MAX_VALUE desborda)
+            return new long[] {inicio, Math.min(ultimo, longitud - 1) + 1};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
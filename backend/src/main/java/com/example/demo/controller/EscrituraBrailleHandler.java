@@ -0,0 +1,149 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.BrailleService;
+import com.example.demo.service.DocumentoBraille;
+import com.example.demo.service.SesionAcordes;
+import com.example.demo.service.TablaBraille;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+
+/**
+ * WebSocket para escritura en vivo: una sesión de conversión por conexión,
+ * sin HTTP, JSON ni búsqueda de usuario por tecla.
+ *
+ * ws://host/ws/escritura?modo=acordes|teclado&amp;tabla=es
+ *
+ * Mensajes del cliente (texto, una letra de comando y sus datos):
+ * - modo acordes (Braille a texto):
+ *   - "a&lt;puntos&gt;" acorde; puntos es la máscara de bits de los puntos 1-6
+ *     (punto 1 = 1, punto 2 = 2, punto 3 = 4, ...); "a0" es espacio
+ *   - "b" borra la última celda
+ * - modo teclado (texto a Braille):
+ *   - "t&lt;texto&gt;" agrega texto al final
+ *   - "b" borra el último carácter
+ *   - "e&lt;inicio&gt;,&lt;eliminados&gt;,&lt;texto&gt;" edición en cualquier posición
+ *
+ * Cada mensaje recibe un parche "&lt;desde&gt;,&lt;eliminados&gt;,&lt;insertado&gt;"
+ * sobre la salida anterior (vacío si no cambió nada, p. ej. tras un
+ * indicador de mayúscula); los errores se responden con "!&lt;mensaje&gt;".
+ */
+@Component
+public class EscrituraBrailleHandler extends TextWebSocketHandler {
+
+    // Máximo de caracteres de entrada por sesión
+    private static final int MAX_CARACTERES_SESION = 100_000;
+    private static final String ATRIBUTO_SESION = "sesionEscritura";
+
+    private final BrailleService brailleService;
+
+    public EscrituraBrailleHandler(BrailleService brailleService) {
+        this.brailleService = brailleService;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        MultiValueMap<String, String> parametros = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams();
+        String modo = parametros.getFirst("modo");
+        String codigoTabla = parametros.getFirst("tabla");
+
+        TablaBraille tabla;
+        try {
+            tabla = brailleService.getTabla(codigoTabla);
+        } catch (IllegalArgumentException e) {
+            session.close(CloseStatus.BAD_DATA.withReason(e.getMessage()));
+            return;
+        }
+
+        if (modo == null || "acordes".equals(modo)) {
+            session.getAttributes().put(ATRIBUTO_SESION, new SesionAcordes(tabla));
+        } else if ("teclado".equals(modo)) {
+            session.getAttributes().put(ATRIBUTO_SESION, new DocumentoBraille("", tabla));
+        } else {
+            session.close(CloseStatus.BAD_DATA.withReason("Modo debe ser 'acordes' o 'teclado'"));
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        String mensaje = message.getPayload();
+        Object estado = session.getAttributes().get(ATRIBUTO_SESION);
+        if (mensaje.isEmpty() || estado == null) {
+            session.sendMessage(new TextMessage("!Mensaje vacío"));
+            return;
+        }
+
+        DocumentoBraille.Parche parche;
+        try {
+            if (estado instanceof SesionAcordes) {
+                parche = procesarAcorde((SesionAcordes) estado, mensaje);
+            } else {
+                parche = procesarTecla((DocumentoBraille) estado, mensaje);
+            }
+        } catch (IllegalArgumentException e) {
+            session.sendMessage(new TextMessage("!" + e.getMessage()));
+            return;
+        }
+
+        session.sendMessage(new TextMessage(
+            parche.getDesde() + "," + parche.getEliminados() + "," + parche.getInsertado()));
+    }
+
+    private DocumentoBraille.Parche procesarAcorde(SesionAcordes sesion, String mensaje) {
+        switch (mensaje.charAt(0)) {
+            case 'a':
+                if (sesion.getLongitudBraille() >= MAX_CARACTERES_SESION) {
+                    throw new IllegalArgumentException("La sesión admite como máximo " + MAX_CARACTERES_SESION + " celdas");
+                }
+                return sesion.acorde(leerEntero(mensaje, 1, mensaje.length()));
+            case 'b':
+                return sesion.borrar();
+            default:
+                throw new IllegalArgumentException("Comando no válido en modo acordes: " + mensaje.charAt(0));
+        }
+    }
+
+    private DocumentoBraille.Parche procesarTecla(DocumentoBraille documento, String mensaje) {
+        int longitud = documento.getLongitudTexto();
+        switch (mensaje.charAt(0)) {
+            case 't':
+                validarLongitud(longitud + mensaje.length() - 1);
+                return documento.editar(documento.getVersion(), longitud, 0, mensaje.substring(1));
+            case 'b':
+                return documento.editar(documento.getVersion(), Math.max(longitud - 1, 0), longitud > 0 ? 1 : 0, "");
+            case 'e':
+                int coma = mensaje.indexOf(',');
+                int segundaComa = coma < 0 ? -1 : mensaje.indexOf(',', coma + 1);
+                if (segundaComa < 0) {
+                    throw new IllegalArgumentException("Formato: e<inicio>,<eliminados>,<texto>");
+                }
+                int inicio = leerEntero(mensaje, 1, coma);
+                int eliminados = leerEntero(mensaje, coma + 1, segundaComa);
+                String insertado = mensaje.substring(segundaComa + 1);
+                validarLongitud(longitud - eliminados + insertado.length());
+                return documento.editar(documento.getVersion(), inicio, eliminados, insertado);
+            default:
+                throw new IllegalArgumentException("Comando no válido en modo teclado: " + mensaje.charAt(0));
+        }
+    }
+
+    private static void validarLongitud(int longitud) {
+        if (longitud > MAX_CARACTERES_SESION) {
+            throw new IllegalArgumentException("La sesión admite como máximo " + MAX_CARACTERES_SESION + " caracteres");
+        }
+    }
+
+    private static int leerEntero(String mensaje, int inicio, int fin) {
+        try {
+            return Integer.parseInt(mensaje, inicio, fin, 10);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Número no válido: " + mensaje.substring(inicio, fin));
+        }
+    }
+}
@@ -0,0 +1,578 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.PlanGcodeResponse;
+import com.example.demo.model.Conversion;
+import com.example.demo.model.Senaletica;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.ConversionService;
+import com.example.demo.service.EscritorPdf;
+import com.example.demo.service.EscritorPef;
+import com.example.demo.service.EscritorSvg;
+import com.example.demo.service.ExportacionService;
+import com.example.demo.service.ModeladorStl;
+import com.example.demo.service.PaginadoService;
+import com.example.demo.service.PlanGcode;
+import com.example.demo.service.RasterizadorPng;
+import com.example.demo.service.SenaleticaService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Controller para exportar conversiones y señaléticas a formatos de
+ * impresora Braille
+ * 
+ * Endpoints:
+ * - GET /api/exportar/historial/{id}/brf - Conversión del historial en BRF
+ * - GET /api/exportar/senaletica/{id}/brf - Señalética en BRF
+ * - GET /api/exportar/historial/{id}/pef - Conversión del historial en PEF
+ * - GET /api/exportar/senaletica/{id}/pef - Señalética en PEF
+ * - POST /api/exportar/pef - Convierte un texto y responde el PEF por flujo
+ * - GET /api/exportar/historial/{id}/pdf - Conversión del historial en PDF
+ * - POST /api/exportar/pdf - Convierte un texto y responde el PDF por flujo
+ * - GET /api/exportar/senaletica/{id}/pdf - Señalética en PDF a tamaño real
+ * - GET /api/exportar/senaletica/pdf - PDF con una página por señalética del usuario
+ * - GET /api/exportar/senaletica/{id}/svg - Señalética dibujada en SVG
+ * - GET /api/exportar/senaletica/svg - ZIP con el SVG de las señaléticas del usuario
+ * - GET /api/exportar/senaletica/{id}/png - Señalética dibujada en PNG (o miniatura)
+ * - GET /api/exportar/senaletica/png - ZIP con el PNG de las señaléticas del usuario
+ * - GET /api/exportar/senaletica/{id}/stl - Señalética como modelo 3D (STL binario)
+ * - GET /api/exportar/senaletica/{id}/gcode - G-code para marcar los puntos con CNC o prensa
+ * - GET /api/exportar/senaletica/{id}/gcode/plan - Puntos, recorrido y tiempo estimado del G-code
+ * 
+ * Los archivos del historial y de señalética se generan una vez y se
+ * sirven desde disco con soporte de rangos (Range: bytes=...), así se
+ * pueden reanudar descargas de libros grandes.
+ */
+@RestController
+@RequestMapping("/api/exportar")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ExportacionController {
+    
+    // Braille ASCII norteamericano
+    private static final String TIPO_BRF = "application/x-brf";
+    
+    private final ExportacionService exportacionService;
+    private final ConversionService conversionService;
+    private final SenaleticaService senaleticaService;
+    private final UserRepository userRepository;
+    
+    public ExportacionController(ExportacionService exportacionService, ConversionService conversionService,
+                                 SenaleticaService senaleticaService, UserRepository userRepository) {
+        this.exportacionService = exportacionService;
+        this.conversionService = conversionService;
+        this.senaleticaService = senaleticaService;
+        this.userRepository = userRepository;
+    }
+    
+    /**
+     * Exporta una conversión del historial a BRF
+     * 
+     * GET /api/exportar/historial/{id}/brf?userId=1&amp;celdasPorLinea=40&amp;lineasPorPagina=25&amp;numerar=true
+     * 
+     * Se exporta el lado Braille de la conversión, compaginado en líneas
+     * de celdasPorLinea celdas y páginas de lineasPorPagina líneas.
+     */
+    @RequestMapping(value = "/historial/{id}/brf", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void exportarConversionBrf(
+            @PathVariable Long id,
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "" + PaginadoService.CELDAS_POR_LINEA_POR_DEFECTO) int celdasPorLinea,
+            @RequestParam(defaultValue = "" + PaginadoService.LINEAS_POR_PAGINA_POR_DEFECTO) int lineasPorPagina,
+            @RequestParam(defaultValue = "true") boolean numerar,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Optional<Conversion> conversion = userRepository.findById(userId)
+            .flatMap(user -> conversionService.obtenerConversion(id, user));
+        if (conversion.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path archivo;
+        try {
+            archivo = exportacionService.exportarBrf(conversion.get(), celdasPorLinea, lineasPorPagina, numerar);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        EnvioArchivo.enviar(archivo, TIPO_BRF, "conversion-" + id + ".brf", request, response);
+    }
+    
+    /**
+     * Exporta una señalética a BRF
+     * 
+     * GET /api/exportar/senaletica/{id}/brf?celdasPorLinea=40&amp;lineasPorPagina=25&amp;numerar=false
+     */
+    @RequestMapping(value = "/senaletica/{id}/brf", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void exportarSenaleticaBrf(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "" + PaginadoService.CELDAS_POR_LINEA_POR_DEFECTO) int celdasPorLinea,
+            @RequestParam(defaultValue = "" + PaginadoService.LINEAS_POR_PAGINA_POR_DEFECTO) int lineasPorPagina,
+            @RequestParam(defaultValue = "false") boolean numerar,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Optional<Senaletica> senaletica = senaleticaService.obtenerSenaleticaPorId(id);
+        if (senaletica.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path archivo;
+        try {
+            archivo = exportacionService.exportarBrf(senaletica.get(), celdasPorLinea, lineasPorPagina, numerar);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        EnvioArchivo.enviar(archivo, TIPO_BRF, "senaletica-" + id + ".brf", request, response);
+    }
+    
+    /**
+     * Exporta una conversión del historial a PEF (Portable Embosser Format)
+     * 
+     * GET /api/exportar/historial/{id}/pef?userId=1&amp;celdasPorLinea=40&amp;lineasPorPagina=25&amp;numerar=true&amp;paginasPorVolumen=50
+     * 
+     * Misma compaginación que el BRF; las páginas se agrupan en volúmenes
+     * de paginasPorVolumen páginas.
+     */
+    @RequestMapping(value = "/historial/{id}/pef", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void exportarConversionPef(
+            @PathVariable Long id,
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "" + PaginadoService.CELDAS_POR_LINEA_POR_DEFECTO) int celdasPorLinea,
+            @RequestParam(defaultValue = "" + PaginadoService.LINEAS_POR_PAGINA_POR_DEFECTO) int lineasPorPagina,
+            @RequestParam(defaultValue = "true") boolean numerar,
+            @RequestParam(defaultValue = "" + ExportacionService.PAGINAS_POR_VOLUMEN_POR_DEFECTO) int paginasPorVolumen,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Optional<Conversion> conversion = userRepository.findById(userId)
+            .flatMap(user -> conversionService.obtenerConversion(id, user));
+        if (conversion.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path archivo;
+        try {
+            archivo = exportacionService.exportarPef(conversion.get(), celdasPorLinea, lineasPorPagina, numerar,
+                paginasPorVolumen);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        EnvioArchivo.enviar(archivo, EscritorPef.TIPO_CONTENIDO, "conversion-" + id + ".pef", request, response);
+    }
+    
+    /**
+     * Exporta una señalética a PEF
+     * 
+     * GET /api/exportar/senaletica/{id}/pef?celdasPorLinea=40&amp;lineasPorPagina=25&amp;numerar=false
+     */
+    @RequestMapping(value = "/senaletica/{id}/pef", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void exportarSenaleticaPef(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "" + PaginadoService.CELDAS_POR_LINEA_POR_DEFECTO) int celdasPorLinea,
+            @RequestParam(defaultValue = "" + PaginadoService.LINEAS_POR_PAGINA_POR_DEFECTO) int lineasPorPagina,
+            @RequestParam(defaultValue = "false") boolean numerar,
+            @RequestParam(defaultValue = "" + ExportacionService.PAGINAS_POR_VOLUMEN_POR_DEFECTO) int paginasPorVolumen,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Optional<Senaletica> senaletica = senaleticaService.obtenerSenaleticaPorId(id);
+        if (senaletica.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path archivo;
+        try {
+            archivo = exportacionService.exportarPef(senaletica.get(), celdasPorLinea, lineasPorPagina, numerar,
+                paginasPorVolumen);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        EnvioArchivo.enviar(archivo, EscritorPef.TIPO_CONTENIDO, "senaletica-" + id + ".pef", request, response);
+    }
+    
+    /**
+     * Convierte un texto y responde el PEF por flujo
+     * 
+     * POST /api/exportar/pef?tabla=es&amp;celdasPorLinea=40&amp;lineasPorPagina=25&amp;numerar=true&amp;paginasPorVolumen=50&amp;titulo=Libro
+     * Content-Type: text/plain
+     * Body: el texto a convertir, sin JSON
+     * 
+     * El XML se escribe mientras avanza la conversión, así la memoria
+     * usada no depende del tamaño del documento. No se guarda en historial.
+     */
+    @PostMapping(value = "/pef", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public void convertirPef(
+            @RequestParam(required = false) String tabla,
+            @RequestParam(defaultValue = "" + PaginadoService.CELDAS_POR_LINEA_POR_DEFECTO) int celdasPorLinea,
+            @RequestParam(defaultValue = "" + PaginadoService.LINEAS_POR_PAGINA_POR_DEFECTO) int lineasPorPagina,
+            @RequestParam(defaultValue = "true") boolean numerar,
+            @RequestParam(defaultValue = "" + ExportacionService.PAGINAS_POR_VOLUMEN_POR_DEFECTO) int paginasPorVolumen,
+            @RequestParam(required = false) String titulo,
+            @RequestParam(defaultValue = "true") boolean normalizar,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        if (!conversionService.existeTabla(tabla)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Tabla Braille no soportada: " + tabla);
+            return;
+        }
+        String error = exportacionService.validarFormato(celdasPorLinea, lineasPorPagina, paginasPorVolumen);
+        if (error != null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, error);
+            return;
+        }
+        
+        response.setContentType(EscritorPef.TIPO_CONTENIDO);
+        response.setCharacterEncoding("UTF-8");
+        OutputStream salida = new BufferedOutputStream(response.getOutputStream(), 16 * 1024);
+        exportacionService.convertirPef(request.getReader(), tabla, celdasPorLinea, lineasPorPagina, numerar,
+            paginasPorVolumen, titulo, normalizar, salida);
+        salida.flush();
+    }
+    
+    /**
+     * Exporta una conversión del historial a PDF
+     * 
+     * GET /api/exportar/historial/{id}/pdf?userId=1&amp;celdasPorLinea=40&amp;lineasPorPagina=25&amp;numerar=true
+     * 
+     * Misma compaginación que el BRF, con los puntos dibujados como
+     * círculos a la medida táctil estándar (para papel microcapsulado o
+     * impresión en relieve).
+     */
+    @RequestMapping(value = "/historial/{id}/pdf", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void exportarConversionPdf(
+            @PathVariable Long id,
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "" + PaginadoService.CELDAS_POR_LINEA_POR_DEFECTO) int celdasPorLinea,
+            @RequestParam(defaultValue = "" + PaginadoService.LINEAS_POR_PAGINA_POR_DEFECTO) int lineasPorPagina,
+            @RequestParam(defaultValue = "true") boolean numerar,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Optional<Conversion> conversion = userRepository.findById(userId)
+            .flatMap(user -> conversionService.obtenerConversion(id, user));
+        if (conversion.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path archivo;
+        try {
+            archivo = exportacionService.exportarPdf(conversion.get(), celdasPorLinea, lineasPorPagina, numerar);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        EnvioArchivo.enviar(archivo, EscritorPdf.TIPO_CONTENIDO, "conversion-" + id + ".pdf", request, response);
+    }
+    
+    /**
+     * Convierte un texto y responde el PDF por flujo
+     * 
+     * POST /api/exportar/pdf?tabla=es&amp;celdasPorLinea=40&amp;lineasPorPagina=25&amp;numerar=true&amp;titulo=Libro
+     * Content-Type: text/plain
+     * Body: el texto a convertir, sin JSON
+     * 
+     * Cada página se escribe en cuanto está armada. No se guarda en historial.
+     */
+    @PostMapping(value = "/pdf", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public void convertirPdf(
+            @RequestParam(required = false) String tabla,
+            @RequestParam(defaultValue = "" + PaginadoService.CELDAS_POR_LINEA_POR_DEFECTO) int celdasPorLinea,
+            @RequestParam(defaultValue = "" + PaginadoService.LINEAS_POR_PAGINA_POR_DEFECTO) int lineasPorPagina,
+            @RequestParam(defaultValue = "true") boolean numerar,
+            @RequestParam(required = false) String titulo,
+            @RequestParam(defaultValue = "true") boolean normalizar,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        if (!conversionService.existeTabla(tabla)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Tabla Braille no soportada: " + tabla);
+            return;
+        }
+        String error = exportacionService.validarFormato(celdasPorLinea, lineasPorPagina, 1);
+        if (error != null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, error);
+            return;
+        }
+        
+        response.setContentType(EscritorPdf.TIPO_CONTENIDO);
+        OutputStream salida = new BufferedOutputStream(response.getOutputStream(), 16 * 1024);
+        exportacionService.convertirPdf(request.getReader(), tabla, celdasPorLinea, lineasPorPagina, numerar,
+            titulo, normalizar, salida);
+        salida.flush();
+    }
+    
+    /**
+     * Dibuja una señalética en PDF
+     * 
+     * GET /api/exportar/senaletica/{id}/pdf
+     * 
+     * Una página del tamaño de la señalética, con el mismo diseño que el SVG.
+     */
+    @GetMapping("/senaletica/{id}/pdf")
+    public void exportarSenaleticaPdf(@PathVariable Long id, HttpServletResponse response) throws IOException {
+        Optional<Senaletica> senaletica = senaleticaService.obtenerSenaleticaPorId(id);
+        if (senaletica.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setContentType(EscritorPdf.TIPO_CONTENIDO);
+        OutputStream salida = new BufferedOutputStream(response.getOutputStream(), 16 * 1024);
+        exportacionService.escribirPdf(senaletica.get(), salida);
+        salida.flush();
+    }
+    
+    /**
+     * Dibuja en un PDF todas las señaléticas de un usuario, una por página
+     * 
+     * GET /api/exportar/senaletica/pdf?userId=1
+     */
+    @GetMapping("/senaletica/pdf")
+    public void exportarSenaleticasPdf(@RequestParam Long userId, HttpServletResponse response) throws IOException {
+        Optional<List<Senaletica>> senaleticas = userRepository.findById(userId)
+            .map(senaleticaService::obtenerSenaleticasPorUsuario);
+        if (senaleticas.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setContentType(EscritorPdf.TIPO_CONTENIDO);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("senaleticas.pdf").build().toString());
+        OutputStream salida = new BufferedOutputStream(response.getOutputStream(), 16 * 1024);
+        exportacionService.escribirPdf(senaleticas.get(), "Señaléticas", salida);
+        salida.flush();
+    }
+    
+    /**
+     * Dibuja una señalética en SVG
+     * 
+     * GET /api/exportar/senaletica/{id}/svg
+     * 
+     * Medidas reales en mm con el espaciado táctil estándar, los colores
+     * de la señalética y, con alto contraste, un contraste mínimo de 7:1.
+     */
+    @GetMapping("/senaletica/{id}/svg")
+    public void exportarSenaleticaSvg(@PathVariable Long id, HttpServletResponse response) throws IOException {
+        Optional<Senaletica> senaletica = senaleticaService.obtenerSenaleticaPorId(id);
+        if (senaletica.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setContentType(EscritorSvg.TIPO_CONTENIDO);
+        response.setCharacterEncoding("UTF-8");
+        exportacionService.escribirSvg(senaletica.get(), response.getOutputStream());
+    }
+    
+    /**
+     * Dibuja en SVG todas las señaléticas de un usuario, en un ZIP
+     * 
+     * GET /api/exportar/senaletica/svg?userId=1
+     * 
+     * El ZIP se escribe en la respuesta a medida que se dibuja cada
+     * señalética.
+     */
+    @GetMapping("/senaletica/svg")
+    public void exportarSenaleticasSvg(@RequestParam Long userId, HttpServletResponse response) throws IOException {
+        Optional<List<Senaletica>> senaleticas = userRepository.findById(userId)
+            .map(senaleticaService::obtenerSenaleticasPorUsuario);
+        if (senaleticas.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("senaleticas.zip").build().toString());
+        OutputStream salida = new BufferedOutputStream(response.getOutputStream(), 16 * 1024);
+        exportacionService.escribirSvgZip(senaleticas.get(), salida);
+        salida.flush();
+    }
+    
+    /**
+     * Dibuja una señalética en PNG
+     * 
+     * GET /api/exportar/senaletica/{id}/png?dpi=200&amp;miniatura=false
+     * 
+     * Con miniatura=true la imagen tiene hasta 240 píxeles de ancho y se
+     * ignora dpi.
+     */
+    @GetMapping("/senaletica/{id}/png")
+    public void exportarSenaleticaPng(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "" + RasterizadorPng.PUNTOS_POR_PULGADA_POR_DEFECTO) int dpi,
+            @RequestParam(defaultValue = "false") boolean miniatura,
+            HttpServletResponse response
+    ) throws IOException {
+        String error = RasterizadorPng.validarResolucion(dpi);
+        if (error != null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, error);
+            return;
+        }
+        Optional<Senaletica> senaletica = senaleticaService.obtenerSenaleticaPorId(id);
+        if (senaletica.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setContentType(RasterizadorPng.TIPO_CONTENIDO);
+        OutputStream salida = new BufferedOutputStream(response.getOutputStream(), 16 * 1024);
+        exportacionService.escribirPng(senaletica.get(), dpi, miniatura, salida);
+        salida.flush();
+    }
+    
+    /**
+     * Dibuja en PNG todas las señaléticas de un usuario, en un ZIP
+     * 
+     * GET /api/exportar/senaletica/png?userId=1&amp;dpi=200&amp;miniatura=false
+     */
+    @GetMapping("/senaletica/png")
+    public void exportarSenaleticasPng(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "" + RasterizadorPng.PUNTOS_POR_PULGADA_POR_DEFECTO) int dpi,
+            @RequestParam(defaultValue = "false") boolean miniatura,
+            HttpServletResponse response
+    ) throws IOException {
+        String error = RasterizadorPng.validarResolucion(dpi);
+        if (error != null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, error);
+            return;
+        }
+        Optional<List<Senaletica>> senaleticas = userRepository.findById(userId)
+            .map(senaleticaService::obtenerSenaleticasPorUsuario);
+        if (senaleticas.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("senaleticas.zip").build().toString());
+        OutputStream salida = new BufferedOutputStream(response.getOutputStream(), 16 * 1024);
+        exportacionService.escribirPngZip(senaleticas.get(), dpi, miniatura, salida);
+        salida.flush();
+    }
+    
+    /**
+     * Modelo 3D de una señalética en STL binario, para imprimirla
+     * 
+     * GET /api/exportar/senaletica/{id}/stl?alturaPunto=0.8&amp;distanciaPuntos=2.5&amp;grosorPlaca=3
+     * 
+     * Placa con los puntos Braille en relieve; medidas en mm. La distancia
+     * entre puntos escala todo el diseño.
+     */
+    @GetMapping("/senaletica/{id}/stl")
+    public void exportarSenaleticaStl(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "" + ModeladorStl.ALTURA_PUNTO_POR_DEFECTO) double alturaPunto,
+            @RequestParam(defaultValue = "" + ModeladorStl.DISTANCIA_PUNTOS_POR_DEFECTO) double distanciaPuntos,
+            @RequestParam(defaultValue = "" + ModeladorStl.GROSOR_PLACA_POR_DEFECTO) double grosorPlaca,
+            HttpServletResponse response
+    ) throws IOException {
+        String error = ModeladorStl.validarForma(alturaPunto, distanciaPuntos, grosorPlaca);
+        if (error != null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, error);
+            return;
+        }
+        Optional<Senaletica> senaletica = senaleticaService.obtenerSenaleticaPorId(id);
+        if (senaletica.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setContentType(ModeladorStl.TIPO_CONTENIDO);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("senaletica-" + id + ".stl").build().toString());
+        OutputStream salida = response.getOutputStream();
+        exportacionService.escribirStl(senaletica.get(), alturaPunto, distanciaPuntos, grosorPlaca,
+            Channels.newChannel(salida));
+        salida.flush();
+    }
+    
+    /**
+     * G-code para marcar los puntos de una señalética con CNC o prensa de punzones
+     * 
+     * GET /api/exportar/senaletica/{id}/gcode?profundidad=0.6&amp;alturaSegura=2&amp;velocidad=3000&amp;avance=600
+     * 
+     * Medidas en mm y velocidades en mm/min, con el origen en la esquina
+     * inferior izquierda y Z = 0 en la superficie. velocidad es la de los
+     * desplazamientos y subidas (G1 ... F), avance la de bajada del punzón.
+     * Los puntos se ordenan para acortar los desplazamientos; el recorrido
+     * y el tiempo estimado van en los comentarios del principio.
+     */
+    @GetMapping("/senaletica/{id}/gcode")
+    public void exportarSenaleticaGcode(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "" + PlanGcode.PROFUNDIDAD_POR_DEFECTO) double profundidad,
+            @RequestParam(defaultValue = "" + PlanGcode.ALTURA_SEGURA_POR_DEFECTO) double alturaSegura,
+            @RequestParam(defaultValue = "" + PlanGcode.VELOCIDAD_POR_DEFECTO) double velocidad,
+            @RequestParam(defaultValue = "" + PlanGcode.AVANCE_POR_DEFECTO) double avance,
+            HttpServletResponse response
+    ) throws IOException {
+        String error = PlanGcode.validarMaquina(profundidad, alturaSegura, velocidad, avance);
+        if (error != null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, error);
+            return;
+        }
+        Optional<Senaletica> senaletica = senaleticaService.obtenerSenaleticaPorId(id);
+        if (senaletica.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        PlanGcode plan = exportacionService.planificarGcode(senaletica.get(), profundidad, alturaSegura, velocidad,
+            avance);
+        response.setContentType(PlanGcode.TIPO_CONTENIDO);
+        response.setCharacterEncoding("US-ASCII");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("senaletica-" + id + ".gcode").build().toString());
+        Writer salida = response.getWriter();
+        plan.escribir(salida);
+    }
+    
+    /**
+     * Resumen del G-code de una señalética, sin el G-code
+     * 
+     * GET /api/exportar/senaletica/{id}/gcode/plan?profundidad=0.6&amp;alturaSegura=2&amp;velocidad=3000&amp;avance=600
+     * 
+     * Responde los puntos, el recorrido ordenado y en orden de lectura, y
+     * el tiempo estimado de máquina (sin aceleraciones).
+     */
+    @GetMapping("/senaletica/{id}/gcode/plan")
+    public ResponseEntity<PlanGcodeResponse> planificarSenaleticaGcode(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "" + PlanGcode.PROFUNDIDAD_POR_DEFECTO) double profundidad,
+            @RequestParam(defaultValue = "" + PlanGcode.ALTURA_SEGURA_POR_DEFECTO) double alturaSegura,
+            @RequestParam(defaultValue = "" + PlanGcode.VELOCIDAD_POR_DEFECTO) double velocidad,
+            @RequestParam(defaultValue = "" + PlanGcode.AVANCE_POR_DEFECTO) double avance
+    ) {
+        String error = PlanGcode.validarMaquina(profundidad, alturaSegura, velocidad, avance);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(new PlanGcodeResponse(false, error));
+        }
+        Optional<Senaletica> senaletica = senaleticaService.obtenerSenaleticaPorId(id);
+        if (senaletica.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        PlanGcode plan = exportacionService.planificarGcode(senaletica.get(), profundidad, alturaSegura, velocidad,
+            avance);
+        PlanGcodeResponse respuesta = new PlanGcodeResponse(true, "Recorrido planificado");
+        respuesta.setPuntos(plan.getPuntos());
+        respuesta.setRecorridoMm(Math.round(plan.getRecorrido() * 10) / 10.0);
+        respuesta.setRecorridoSinOrdenarMm(Math.round(plan.getRecorridoSinOrdenar() * 10) / 10.0);
+        respuesta.setTiempoEstimadoSegundos(Math.round(plan.getTiempoEstimado()));
+        return ResponseEntity.ok(respuesta);
+    }
+}
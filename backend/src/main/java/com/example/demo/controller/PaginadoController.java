@@ -0,0 +1,130 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.PaginadoResponse;
+import com.example.demo.service.ConversionService;
+import com.example.demo.service.DocumentoPaginado;
+import com.example.demo.service.PaginadoService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Controller para compaginar documentos para impresoras Braille
+ * 
+ * Endpoints:
+ * - POST /api/paginado - Convierte y compagina un documento (text/plain)
+ * - GET /api/paginado/{id} - Datos del documento compaginado
+ * - GET /api/paginado/{id}/paginas/{numero} - Una página (text/plain)
+ * - DELETE /api/paginado/{id} - Cierra el documento
+ */
+@RestController
+@RequestMapping("/api/paginado")
+@CrossOrigin(origins = "http://localhost:3000")
+public class PaginadoController {
+    
+    private final PaginadoService paginadoService;
+    private final ConversionService conversionService;
+    
+    public PaginadoController(PaginadoService paginadoService, ConversionService conversionService) {
+        this.paginadoService = paginadoService;
+        this.conversionService = conversionService;
+    }
+    
+    /**
+     * Convierte y compagina un documento
+     * 
+     * POST /api/paginado?tabla=es&amp;celdasPorLinea=40&amp;lineasPorPagina=25&amp;encabezado=Capítulo 1&amp;numerar=true
+     * Content-Type: text/plain
+     * Body: el texto a convertir, sin JSON
+     * 
+     * El texto se lee, convierte y compagina por flujo. Las líneas se
+     * cortan entre palabras; si hay encabezado o numeración, la primera
+     * línea de cada página lleva el encabezado y el número de página.
+     * Después se pide cada página por número.
+     */
+    @PostMapping(consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<PaginadoResponse> paginar(
+            @RequestParam(required = false) String tabla,
+            @RequestParam(defaultValue = "" + PaginadoService.CELDAS_POR_LINEA_POR_DEFECTO) int celdasPorLinea,
+            @RequestParam(defaultValue = "" + PaginadoService.LINEAS_POR_PAGINA_POR_DEFECTO) int lineasPorPagina,
+            @RequestParam(required = false) String encabezado,
+            @RequestParam(defaultValue = "true") boolean numerar,
+            @RequestParam(defaultValue = "true") boolean normalizar,
+            HttpServletRequest request
+    ) throws IOException {
+        String error = paginadoService.validarFormato(celdasPorLinea, lineasPorPagina);
+        if (error == null && !conversionService.existeTabla(tabla)) {
+            error = "Tabla Braille no soportada: " + tabla;
+        }
+        if (error != null) {
+            return ResponseEntity.badRequest().body(new PaginadoResponse(false, error));
+        }
+        
+        String id = paginadoService.paginar(request.getReader(), tabla, celdasPorLinea, lineasPorPagina,
+            encabezado, numerar, normalizar);
+        DocumentoPaginado documento = paginadoService.obtener(id).orElseThrow();
+        return ResponseEntity.ok(crearRespuesta(id, documento, "Documento compaginado"));
+    }
+    
+    /**
+     * Datos de un documento compaginado
+     * 
+     * GET /api/paginado/{id}
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<PaginadoResponse> obtenerDocumento(@PathVariable String id) {
+        Optional<DocumentoPaginado> documento = paginadoService.obtener(id);
+        if (documento.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new PaginadoResponse(false, "Documento no encontrado"));
+        }
+        return ResponseEntity.ok(crearRespuesta(id, documento.get(), "Documento encontrado"));
+    }
+    
+    /**
+     * Una página del documento, con sus líneas separadas por '\n'
+     * 
+     * GET /api/paginado/{id}/paginas/{numero} (numero desde 1)
+     */
+    @GetMapping(value = "/{id}/paginas/{numero}", produces = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8")
+    public ResponseEntity<String> obtenerPagina(@PathVariable String id, @PathVariable int numero) throws IOException {
+        Optional<DocumentoPaginado> documento = paginadoService.obtener(id);
+        if (documento.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Documento no encontrado");
+        }
+        if (numero < 1 || numero > documento.get().getPaginas()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("La página " + numero + " no existe (hay " + documento.get().getPaginas() + ")");
+        }
+        return ResponseEntity.ok(documento.get().leerPagina(numero));
+    }
+    
+    /**
+     * Cierra un documento compaginado y borra sus páginas
+     * 
+     * DELETE /api/paginado/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cerrarDocumento(@PathVariable String id) {
+        if (!paginadoService.cerrar(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+    
+    private PaginadoResponse crearRespuesta(String id, DocumentoPaginado documento, String mensaje) {
+        PaginadoResponse response = new PaginadoResponse(true, mensaje);
+        response.setDocumentoId(id);
+        response.setPaginas(documento.getPaginas());
+        response.setCeldasPorLinea(documento.getCeldasPorLinea());
+        response.setLineasPorPagina(documento.getLineasPorPagina());
+        response.setBytes(documento.getBytes());
+        response.setTabla(documento.getTabla().getCodigo());
+        return response;
+    }
+}
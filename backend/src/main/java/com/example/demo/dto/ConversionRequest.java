@@ -5,7 +5,10 @@ package com.example.demo.dto;
  */
 public class ConversionRequest {
     private String texto;
-    private String tipo; // "texto-a-braille" o "braille-a-texto"
+    private String tipo; // "texto-a-braille", "braille-a-texto", "texto-a-grado2" o "grado2-a-texto"
+    private String tabla; // Código de tabla Braille, opcional (por defecto "es")
+    private boolean reporte; // Pedir informe de validación (solo texto-a-braille)
+    private boolean normalizar = true; // Normalizar el texto de entrada (NFC, signos tipográficos)
     private String dispositivo;
     private String navegador;
     private String ipOrigen;
@@ -62,6 +65,60 @@ public class ConversionRequest {
         this.tipo = tipo;
     }
     
+    /**
+     * Gets the Braille table code.
+     *
+     * @return the table code, or null for the default table
+     */
+    public String getTabla() {
+        return tabla;
+    }
+
+    /**
+     * Sets the Braille table code.
+     *
+     * @param tabla the table code
+     */
+    public void setTabla(String tabla) {
+        this.tabla = tabla;
+    }
+    
+    /**
+     * Indicates whether a validation report is requested.
+     *
+     * @return true to validate in the same pass as the conversion
+     */
+    public boolean isReporte() {
+        return reporte;
+    }
+
+    /**
+     * Sets whether a validation report is requested.
+     *
+     * @param reporte true to get the report
+     */
+    public void setReporte(boolean reporte) {
+        this.reporte = reporte;
+    }
+    
+    /**
+     * Indicates whether input text is normalized before conversion.
+     *
+     * @return true (the default) to normalize text input
+     */
+    public boolean isNormalizar() {
+        return normalizar;
+    }
+
+    /**
+     * Sets whether input text is normalized before conversion.
+     *
+     * @param normalizar false to convert the text exactly as received
+     */
+    public void setNormalizar(boolean normalizar) {
+        this.normalizar = normalizar;
+    }
+    
     /**
      * Gets the device.
      *
@@ -14,6 +14,12 @@ public class ConversionResponse {
     private Integer longitudResultado;
     private Integer tiempoConversionMs;
     private String fecha;
+    private String versionDiccionario;
+    private String tabla;
+    private Double ratioCompresion; // Solo grado 2: celdas grado 2 / celdas grado 1
+    private ReporteConversion reporte; // Solo si se pidió: validación en la misma pasada
+    private Long tiempoNormalizacionMicros; // Etapa de normalización del texto de entrada
+    private Long tiempoConversionMicros; // Etapa de conversión (incluida la cache)
 
     public ConversionResponse() {}
 
@@ -106,4 +112,52 @@ public class ConversionResponse {
     public void setFecha(String fecha) {
         this.fecha = fecha;
     }
+
+    public String getVersionDiccionario() {
+        return versionDiccionario;
+    }
+
+    public void setVersionDiccionario(String versionDiccionario) {
+        this.versionDiccionario = versionDiccionario;
+    }
+
+    public String getTabla() {
+        return tabla;
+    }
+
+    public void setTabla(String tabla) {
+        this.tabla = tabla;
+    }
+
+    public Double getRatioCompresion() {
+        return ratioCompresion;
+    }
+
+    public void setRatioCompresion(Double ratioCompresion) {
+        this.ratioCompresion = ratioCompresion;
+    }
+
+    public ReporteConversion getReporte() {
+        return reporte;
+    }
+
+    public void setReporte(ReporteConversion reporte) {
+        this.reporte = reporte;
+    }
+
+    public Long getTiempoNormalizacionMicros() {
+        return tiempoNormalizacionMicros;
+    }
+
+    public void setTiempoNormalizacionMicros(Long tiempoNormalizacionMicros) {
+        this.tiempoNormalizacionMicros = tiempoNormalizacionMicros;
+    }
+
+    public Long getTiempoConversionMicros() {
+        return tiempoConversionMicros;
+    }
+
+    public void setTiempoConversionMicros(Long tiempoConversionMicros) {
+        this.tiempoConversionMicros = tiempoConversionMicros;
+    }
 }
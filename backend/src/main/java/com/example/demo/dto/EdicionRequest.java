@@ -0,0 +1,89 @@
+package com.example.demo.dto;
+
+/**
+ * DTO for an edit to an incremental document: replace {@code eliminados}
+ * characters starting at {@code inicio} with {@code insertado}.
+ */
+public class EdicionRequest {
+    private int version; // Versión del documento sobre la que se hizo la edición
+    private int inicio;
+    private int eliminados;
+    private String insertado;
+
+    /**
+     * Default constructor.
+     */
+    public EdicionRequest() {}
+
+    /**
+     * Gets the document version the edit applies to.
+     *
+     * @return the version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the document version the edit applies to.
+     *
+     * @param version the version
+     */
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    /**
+     * Gets the text offset where the edit starts.
+     *
+     * @return the offset
+     */
+    public int getInicio() {
+        return inicio;
+    }
+
+    /**
+     * Sets the text offset where the edit starts.
+     *
+     * @param inicio the offset
+     */
+    public void setInicio(int inicio) {
+        this.inicio = inicio;
+    }
+
+    /**
+     * Gets the number of deleted characters.
+     *
+     * @return the deleted length
+     */
+    public int getEliminados() {
+        return eliminados;
+    }
+
+    /**
+     * Sets the number of deleted characters.
+     *
+     * @param eliminados the deleted length
+     */
+    public void setEliminados(int eliminados) {
+        this.eliminados = eliminados;
+    }
+
+    /**
+     * Gets the inserted text.
+     *
+     * @return the inserted text
+     */
+    public String getInsertado() {
+        return insertado;
+    }
+
+    /**
+     * Sets the inserted text.
+     *
+     * @param insertado the inserted text
+     */
+    public void setInsertado(String insertado) {
+        this.insertado = insertado;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.dto;
+
+/**
+ * DTO para respuestas de conversión incremental: el parche a aplicar sobre
+ * el Braille de la versión anterior (al abrir, el Braille completo).
+ */
+public class EdicionResponse {
+    private String documentoId;
+    private int version;
+    private int desde; // Posición en el Braille anterior
+    private int eliminados; // Caracteres Braille a borrar desde 'desde'
+    private String insertado; // Braille a insertar en 'desde'
+    private int longitudResultado; // Longitud del Braille completo tras el parche
+    private String tabla;
+    private boolean exito;
+    private String mensaje;
+
+    // Constructores
+    public EdicionResponse() {}
+
+    public EdicionResponse(boolean exito, String mensaje) {
+        this.exito = exito;
+        this.mensaje = mensaje;
+    }
+
+    // Getters y Setters
+    public String getDocumentoId() {
+        return documentoId;
+    }
+
+    public void setDocumentoId(String documentoId) {
+        this.documentoId = documentoId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public int getDesde() {
+        return desde;
+    }
+
+    public void setDesde(int desde) {
+        this.desde = desde;
+    }
+
+    public int getEliminados() {
+        return eliminados;
+    }
+
+    public void setEliminados(int eliminados) {
+        this.eliminados = eliminados;
+    }
+
+    public String getInsertado() {
+        return insertado;
+    }
+
+    public void setInsertado(String insertado) {
+        this.insertado = insertado;
+    }
+
+    public int getLongitudResultado() {
+        return longitudResultado;
+    }
+
+    public void setLongitudResultado(int longitudResultado) {
+        this.longitudResultado = longitudResultado;
+    }
+
+    public String getTabla() {
+        return tabla;
+    }
+
+    public void setTabla(String tabla) {
+        this.tabla = tabla;
+    }
+
+    public boolean isExito() {
+        return exito;
+    }
+
+    public void setExito(boolean exito) {
+        this.exito = exito;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+}
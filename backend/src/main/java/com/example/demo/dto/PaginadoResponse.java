@@ -0,0 +1,88 @@
+package com.example.demo.dto;
+
+/**
+ * DTO con los datos de un documento compaginado para impresora Braille.
+ */
+public class PaginadoResponse {
+    private String documentoId;
+    private int paginas;
+    private int celdasPorLinea;
+    private int lineasPorPagina; // Incluida la línea de encabezado
+    private long bytes; // Tamaño de las páginas en UTF-8
+    private String tabla;
+    private boolean exito;
+    private String mensaje;
+
+    // Constructores
+    public PaginadoResponse() {}
+
+    public PaginadoResponse(boolean exito, String mensaje) {
+        this.exito = exito;
+        this.mensaje = mensaje;
+    }
+
+    // Getters y Setters
+    public String getDocumentoId() {
+        return documentoId;
+    }
+
+    public void setDocumentoId(String documentoId) {
+        this.documentoId = documentoId;
+    }
+
+    public int getPaginas() {
+        return paginas;
+    }
+
+    public void setPaginas(int paginas) {
+        this.paginas = paginas;
+    }
+
+    public int getCeldasPorLinea() {
+        return celdasPorLinea;
+    }
+
+    public void setCeldasPorLinea(int celdasPorLinea) {
+        this.celdasPorLinea = celdasPorLinea;
+    }
+
+    public int getLineasPorPagina() {
+        return lineasPorPagina;
+    }
+
+    public void setLineasPorPagina(int lineasPorPagina) {
+        this.lineasPorPagina = lineasPorPagina;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public String getTabla() {
+        return tabla;
+    }
+
+    public void setTabla(String tabla) {
+        this.tabla = tabla;
+    }
+
+    public boolean isExito() {
+        return exito;
+    }
+
+    public void setExito(boolean exito) {
+        this.exito = exito;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.dto;
+
+/**
+ * DTO con el resumen del recorrido de una señalética en CNC o prensa de punzones.
+ */
+public class PlanGcodeResponse {
+    private int puntos;
+    private double recorridoMm; // Desplazamientos entre puntos, ida y vuelta al origen incluidas
+    private double recorridoSinOrdenarMm; // El mismo recorrido en orden de lectura
+    private long tiempoEstimadoSegundos;
+    private boolean exito;
+    private String mensaje;
+
+    // Constructores
+    public PlanGcodeResponse() {}
+
+    public PlanGcodeResponse(boolean exito, String mensaje) {
+        this.exito = exito;
+        this.mensaje = mensaje;
+    }
+
+    // Getters y Setters
+    public int getPuntos() {
+        return puntos;
+    }
+
+    public void setPuntos(int puntos) {
+        this.puntos = puntos;
+    }
+
+    public double getRecorridoMm() {
+        return recorridoMm;
+    }
+
+    public void setRecorridoMm(double recorridoMm) {
+        this.recorridoMm = recorridoMm;
+    }
+
+    public double getRecorridoSinOrdenarMm() {
+        return recorridoSinOrdenarMm;
+    }
+
+    public void setRecorridoSinOrdenarMm(double recorridoSinOrdenarMm) {
+        this.recorridoSinOrdenarMm = recorridoSinOrdenarMm;
+    }
+
+    public long getTiempoEstimadoSegundos() {
+        return tiempoEstimadoSegundos;
+    }
+
+    public void setTiempoEstimadoSegundos(long tiempoEstimadoSegundos) {
+        this.tiempoEstimadoSegundos = tiempoEstimadoSegundos;
+    }
+
+    public boolean isExito() {
+        return exito;
+    }
+
+    public void setExito(boolean exito) {
+        this.exito = exito;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+}
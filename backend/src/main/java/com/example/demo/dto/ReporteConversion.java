@@ -0,0 +1,124 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con el informe de validación que se obtiene en la misma pasada que
+ * la conversión texto a Braille: caracteres sin traducción y cuántos
+ * caracteres hay de cada categoría.
+ */
+public class ReporteConversion {
+    private boolean convertible; // true si todos los caracteres tienen Braille
+    private int totalNoConvertibles;
+    private List<CaracterNoConvertible> noConvertibles = new ArrayList<>(); // Hasta un máximo, en orden
+    private int acentos;
+    private int numeros;
+    private int simbolos;
+    private int mayusculas;
+
+    // Constructores
+    public ReporteConversion() {}
+
+    // Getters y Setters
+    public boolean isConvertible() {
+        return convertible;
+    }
+
+    public void setConvertible(boolean convertible) {
+        this.convertible = convertible;
+    }
+
+    public int getTotalNoConvertibles() {
+        return totalNoConvertibles;
+    }
+
+    public void setTotalNoConvertibles(int totalNoConvertibles) {
+        this.totalNoConvertibles = totalNoConvertibles;
+    }
+
+    public List<CaracterNoConvertible> getNoConvertibles() {
+        return noConvertibles;
+    }
+
+    public void setNoConvertibles(List<CaracterNoConvertible> noConvertibles) {
+        this.noConvertibles = noConvertibles;
+    }
+
+    public int getAcentos() {
+        return acentos;
+    }
+
+    public void setAcentos(int acentos) {
+        this.acentos = acentos;
+    }
+
+    public int getNumeros() {
+        return numeros;
+    }
+
+    public void setNumeros(int numeros) {
+        this.numeros = numeros;
+    }
+
+    public int getSimbolos() {
+        return simbolos;
+    }
+
+    public void setSimbolos(int simbolos) {
+        this.simbolos = simbolos;
+    }
+
+    public int getMayusculas() {
+        return mayusculas;
+    }
+
+    public void setMayusculas(int mayusculas) {
+        this.mayusculas = mayusculas;
+    }
+
+    /**
+     * Carácter sin traducción: posición en el texto ya normalizado (en
+     * unidades UTF-16, como los índices de JavaScript) y su código Unicode.
+     * Coincide con el texto enviado si se pidió "normalizar": false.
+     */
+    public static class CaracterNoConvertible {
+        private int posicion;
+        private int codigo;
+        private String caracter;
+
+        // Constructores
+        public CaracterNoConvertible() {}
+
+        public CaracterNoConvertible(int posicion, int codigo) {
+            this.posicion = posicion;
+            this.codigo = codigo;
+            this.caracter = new String(Character.toChars(codigo));
+        }
+
+        // Getters y Setters
+        public int getPosicion() {
+            return posicion;
+        }
+
+        public void setPosicion(int posicion) {
+            this.posicion = posicion;
+        }
+
+        public int getCodigo() {
+            return codigo;
+        }
+
+        public void setCodigo(int codigo) {
+            this.codigo = codigo;
+        }
+
+        public String getCaracter() {
+            return caracter;
+        }
+
+        public void setCaracter(String caracter) {
+            this.caracter = caracter;
+        }
+    }
+}
@@ -13,6 +13,7 @@ public class SenaleticaRequest {
     private Integer tamanoFuente;
     private String colorFondo;
     private String colorTexto;
+    private String tabla; // Código de tabla Braille, opcional (por defecto "es")
     
     // Constructores
     public SenaleticaRequest() {}
@@ -86,4 +87,12 @@ public class SenaleticaRequest {
     public void setColorTexto(String colorTexto) {
         this.colorTexto = colorTexto;
     }
+    
+    public String getTabla() {
+        return tabla;
+    }
+    
+    public void setTabla(String tabla) {
+        this.tabla = tabla;
+    }
 }
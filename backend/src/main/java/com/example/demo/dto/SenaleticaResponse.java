@@ -14,6 +14,7 @@ public class SenaleticaResponse {
     private String tipoSenaletica;
     private String formatoSalida;
     private Boolean altoContraste;
+    private String tabla;
     private String urlArchivo;
     private LocalDateTime fechaCreacion;
     private Integer descargas;
@@ -77,6 +78,14 @@ public class SenaleticaResponse {
         this.formatoSalida = formatoSalida;
     }
     
+    public String getTabla() {
+        return tabla;
+    }
+    
+    public void setTabla(String tabla) {
+        this.tabla = tabla;
+    }
+    
     public Boolean getAltoContraste() {
         return altoContraste;
     }
@@ -21,7 +21,7 @@ public class Conversion {
     private String resultado;
     
     @Column(name = "tipo", nullable = false)
-    private String tipo; // "texto-a-braille" o "braille-a-texto"
+    private String tipo; // "texto-a-braille", "braille-a-texto", "texto-a-grado2" o "grado2-a-texto"
     
     @Column(name = "longitud_original")
     private Integer longitudOriginal;
@@ -44,6 +44,12 @@ public class Conversion {
     @Column(name = "tiempo_conversion_ms")
     private Integer tiempoConversionMs;
     
+    @Column(name = "version_diccionario", length = 20)
+    private String versionDiccionario;
+    
+    @Column(name = "tabla_braille", length = 20)
+    private String tabla = "es";
+    
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
@@ -271,6 +277,42 @@ public class Conversion {
         this.tiempoConversionMs = tiempoConversionMs;
     }
     
+    /**
+     * Gets the version of the Braille dictionary that produced the result.
+     *
+     * @return the dictionary version
+     */
+    public String getVersionDiccionario() {
+        return versionDiccionario;
+    }
+    
+    /**
+     * Sets the version of the Braille dictionary that produced the result.
+     *
+     * @param versionDiccionario the dictionary version
+     */
+    public void setVersionDiccionario(String versionDiccionario) {
+        this.versionDiccionario = versionDiccionario;
+    }
+    
+    /**
+     * Gets the code of the Braille table used, e.g. "es".
+     *
+     * @return the table code
+     */
+    public String getTabla() {
+        return tabla;
+    }
+    
+    /**
+     * Sets the code of the Braille table used.
+     *
+     * @param tabla the table code
+     */
+    public void setTabla(String tabla) {
+        this.tabla = tabla;
+    }
+    
     /**
      * Gets the associated user.
      *
@@ -0,0 +1,99 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Entidad para una entrada del diccionario Braille
+ */
+@Entity
+@Table(name = "diccionario_braille")
+public class DiccionarioBraille {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    
+    @Column(name = "caracter", length = 5, unique = true, nullable = false)
+    private String caracter;
+    
+    @Column(name = "braille", length = 5, nullable = false)
+    private String braille;
+    
+    @Column(name = "puntos", length = 10)
+    private String puntos;
+    
+    @Column(name = "categoria", length = 20)
+    private String categoria;
+    
+    @Column(name = "descripcion", columnDefinition = "TEXT")
+    private String descripcion;
+    
+    @Column(name = "es_especial")
+    private Boolean esEspecial = false;
+    
+    // Constructores
+    public DiccionarioBraille() {}
+    
+    public DiccionarioBraille(String caracter, String braille, String categoria) {
+        this.caracter = caracter;
+        this.braille = braille;
+        this.categoria = categoria;
+    }
+    
+    // Getters y Setters
+    public Integer getId() {
+        return id;
+    }
+    
+    public void setId(Integer id) {
+        this.id = id;
+    }
+    
+    public String getCaracter() {
+        return caracter;
+    }
+    
+    public void setCaracter(String caracter) {
+        this.caracter = caracter;
+    }
+    
+    public String getBraille() {
+        return braille;
+    }
+    
+    public void setBraille(String braille) {
+        this.braille = braille;
+    }
+    
+    public String getPuntos() {
+        return puntos;
+    }
+    
+    public void setPuntos(String puntos) {
+        this.puntos = puntos;
+    }
+    
+    public String getCategoria() {
+        return categoria;
+    }
+    
+    public void setCategoria(String categoria) {
+        this.categoria = categoria;
+    }
+    
+    public String getDescripcion() {
+        return descripcion;
+    }
+    
+    public void setDescripcion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+    
+    public Boolean getEsEspecial() {
+        return esEspecial;
+    }
+    
+    public void setEsEspecial(Boolean esEspecial) {
+        this.esEspecial = esEspecial;
+    }
+}
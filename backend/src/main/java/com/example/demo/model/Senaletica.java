@@ -41,6 +41,9 @@ public class Senaletica {
     @Column(name = "alto_contraste")
     private Boolean altoContraste = true;
     
+    @Column(name = "tabla_braille", length = 20)
+    private String tabla = "es";
+    
     @Column(name = "url_archivo")
     private String urlArchivo;
     
@@ -146,6 +149,14 @@ public class Senaletica {
         return altoContraste;
     }
     
+    public String getTabla() {
+        return tabla;
+    }
+    
+    public void setTabla(String tabla) {
+        this.tabla = tabla;
+    }
+    
     public void setAltoContraste(Boolean altoContraste) {
         this.altoContraste = altoContraste;
     }
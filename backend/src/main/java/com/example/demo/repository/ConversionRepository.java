@@ -13,7 +13,7 @@ import java.util.List;
  * Repository interface for Conversion entity operations.
  */
 @Repository
-public interface ConversionRepository extends JpaRepository<Conversion, Long> {
+public interface ConversionRepository extends JpaRepository<Conversion, Long>, ConversionRepositoryCustom {
     
     /**
      * Finds conversions by user.
@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Conversion;
+
+import java.util.List;
+
+/**
+ * Operaciones de ConversionRepository que no genera Spring Data.
+ */
+public interface ConversionRepositoryCustom {
+    
+    /**
+     * Inserts the conversions with a single JDBC batch and sets the
+     * generated ID on each one. Hibernate does not batch inserts for
+     * IDENTITY keys, so this bypasses it.
+     *
+     * @param conversiones the conversions to insert, in order
+     */
+    void guardarEnLote(List<Conversion> conversiones);
+}
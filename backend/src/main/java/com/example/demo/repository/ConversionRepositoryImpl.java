@@ -0,0 +1,87 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Conversion;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación de {@link ConversionRepositoryCustom} con JdbcTemplate.
+ * Se ejecuta dentro de la transacción JPA en curso.
+ */
+public class ConversionRepositoryImpl implements ConversionRepositoryCustom {
+    
+    private static final String INSERTAR =
+        "INSERT INTO conversiones (user_id, texto_original, resultado, tipo, longitud_original, "
+        + "longitud_resultado, fecha, ip_origen, dispositivo, navegador, tiempo_conversion_ms, "
+        + "version_diccionario, tabla_braille) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public ConversionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    @Transactional
+    public void guardarEnLote(List<Conversion> conversiones) {
+        if (conversiones.isEmpty()) {
+            return;
+        }
+        
+        KeyHolder claves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            conexion -> conexion.prepareStatement(INSERTAR, new String[] {"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Conversion conversion = conversiones.get(i);
+                    if (conversion.getUser() != null) {
+                        ps.setLong(1, conversion.getUser().getId());
+                    } else {
+                        ps.setNull(1, Types.BIGINT);
+                    }
+                    ps.setString(2, conversion.getTextoOriginal());
+                    ps.setString(3, conversion.getResultado());
+                    ps.setString(4, conversion.getTipo());
+                    ps.setObject(5, conversion.getLongitudOriginal(), Types.INTEGER);
+                    ps.setObject(6, conversion.getLongitudResultado(), Types.INTEGER);
+                    ps.setTimestamp(7, Timestamp.valueOf(conversion.getFecha()));
+                    ps.setString(8, conversion.getIpOrigen());
+                    ps.setString(9, conversion.getDispositivo());
+                    ps.setString(10, conversion.getNavegador());
+                    ps.setObject(11, conversion.getTiempoConversionMs(), Types.INTEGER);
+                    ps.setString(12, conversion.getVersionDiccionario());
+                    ps.setString(13, conversion.getTabla());
+                }
+                
+                @Override
+                public int getBatchSize() {
+                    return conversiones.size();
+                }
+            },
+            claves
+        );
+        
+        // Las claves llegan en el mismo orden que las filas del lote
+        List<Map<String, Object>> generadas = claves.getKeyList();
+        for (int i = 0; i < conversiones.size() && i < generadas.size(); i++) {
+            Object id = generadas.get(i).get("id");
+            if (id == null) {
+                id = generadas.get(i).get("ID");
+            }
+            if (id instanceof Number) {
+                conversiones.get(i).setId(((Number) id).longValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.DiccionarioBraille;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for DiccionarioBraille entity operations.
+ */
+@Repository
+public interface DiccionarioBrailleRepository extends JpaRepository<DiccionarioBraille, Integer> {
+}
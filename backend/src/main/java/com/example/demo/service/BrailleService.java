@@ -1,8 +1,23 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.ReporteConversion;
 import org.springframework.stereotype.Service;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service for Braille conversion.
@@ -11,282 +26,1493 @@ import java.util.Map;
 @Service
 public class BrailleService {
     
-    private static final Map<Character, String> TEXTO_A_BRAILLE = new HashMap<>();
-    private static final Map<String, Character> BRAILLE_A_TEXTO = new HashMap<>();
-    private static final String INDICADOR_MAYUSCULA = "⠨";
-    private static final String INDICADOR_NUMERO = "⠼"; // Prefijo para números
+    private static final char SIN_TRADUCCION = TablaBraille.SIN_TRADUCCION;
+    
+    // Celda sin puntos (U+2800); en las celdas representa también el espacio
+    private static final byte CELDA_VACIA = 0;
+    
+    // Tamaño del buffer de lectura para la conversión por flujo
+    private static final int TAMANO_BUFFER_FLUJO = 8192;
+    
+    // Tamaño del buffer por hilo de la salida UTF-8 directa
+    private static final int TAMANO_BUFFER_UTF8 = 16 * 1024;
+    
+    // Tamaño por debajo del cual un fragmento de la conversión paralela ya no se divide
+    private static final int TAMANO_FRAGMENTO_PARALELO = 64 * 1024;
+    
+    // Máximo de caracteres sin traducción que se detallan en el informe de validación
+    private static final int MAX_NO_CONVERTIBLES_REPORTE = 1000;
+    
+    /**
+     * Código de la tabla usada cuando la petición no indica ninguna.
+     */
+    public static final String TABLA_POR_DEFECTO = "es";
+    
+    /**
+     * Tablas incorporadas en el código, compiladas una vez. La española se
+     * reemplaza al cargar el diccionario de la base de datos.
+     */
+    private static final Map<String, TablaBraille> TABLAS_INCORPORADAS;
     
     static {
-        // Alfabeto español
-        TEXTO_A_BRAILLE.put('a', "⠁");
-        TEXTO_A_BRAILLE.put('b', "⠃");
-        TEXTO_A_BRAILLE.put('c', "⠉");
-        TEXTO_A_BRAILLE.put('d', "⠙");
-        TEXTO_A_BRAILLE.put('e', "⠑");
-        TEXTO_A_BRAILLE.put('f', "⠋");
-        TEXTO_A_BRAILLE.put('g', "⠛");
-        TEXTO_A_BRAILLE.put('h', "⠓");
-        TEXTO_A_BRAILLE.put('i', "⠊");
-        TEXTO_A_BRAILLE.put('j', "⠚");
-        TEXTO_A_BRAILLE.put('k', "⠅");
-        TEXTO_A_BRAILLE.put('l', "⠇");
-        TEXTO_A_BRAILLE.put('m', "⠍");
-        TEXTO_A_BRAILLE.put('n', "⠝");
-        TEXTO_A_BRAILLE.put('ñ', "⠻");
-        TEXTO_A_BRAILLE.put('o', "⠕");
-        TEXTO_A_BRAILLE.put('p', "⠏");
-        TEXTO_A_BRAILLE.put('q', "⠟");
-        TEXTO_A_BRAILLE.put('r', "⠗");
-        TEXTO_A_BRAILLE.put('s', "⠎");
-        TEXTO_A_BRAILLE.put('t', "⠞");
-        TEXTO_A_BRAILLE.put('u', "⠥");
-        TEXTO_A_BRAILLE.put('v', "⠧");
-        TEXTO_A_BRAILLE.put('w', "⠺");
-        TEXTO_A_BRAILLE.put('x', "⠭");
-        TEXTO_A_BRAILLE.put('y', "⠽");
-        TEXTO_A_BRAILLE.put('z', "⠵");
-        
-        // Vocales con acento
-        TEXTO_A_BRAILLE.put('á', "⠷");
-        TEXTO_A_BRAILLE.put('é', "⠮");
-        TEXTO_A_BRAILLE.put('í', "⠌");
-        TEXTO_A_BRAILLE.put('ó', "⠬"); // CORREGIDO: era ⠾ (de ú)
-        TEXTO_A_BRAILLE.put('ú', "⠾");
-        TEXTO_A_BRAILLE.put('ü', "⠳");
-        
-        // Números (sin indicador, solo el patrón)
-        TEXTO_A_BRAILLE.put('0', "⠚");
-        TEXTO_A_BRAILLE.put('1', "⠁");
-        TEXTO_A_BRAILLE.put('2', "⠃");
-        TEXTO_A_BRAILLE.put('3', "⠉");
-        TEXTO_A_BRAILLE.put('4', "⠙");
-        TEXTO_A_BRAILLE.put('5', "⠑");
-        TEXTO_A_BRAILLE.put('6', "⠋");
-        TEXTO_A_BRAILLE.put('7', "⠛");
-        TEXTO_A_BRAILLE.put('8', "⠓");
-        TEXTO_A_BRAILLE.put('9', "⠊");
-        
-        // Puntuación
-        TEXTO_A_BRAILLE.put(' ', " ");
-        TEXTO_A_BRAILLE.put(',', "⠂");
-        TEXTO_A_BRAILLE.put('.', "⠄"); // CORREGIDO: punto en Braille
-        TEXTO_A_BRAILLE.put('?', "⠢");
-        TEXTO_A_BRAILLE.put('¿', "⠢"); // AGREGADO: mismo que ?
-        TEXTO_A_BRAILLE.put('!', "⠖");
-        TEXTO_A_BRAILLE.put('¡', "⠖"); // AGREGADO: mismo que !
-        TEXTO_A_BRAILLE.put(';', "⠆");
-        TEXTO_A_BRAILLE.put(':', "⠒");
-        TEXTO_A_BRAILLE.put('-', "⠤"); // Resta/Guion
-        TEXTO_A_BRAILLE.put('(', "⠐⠣");
-        TEXTO_A_BRAILLE.put(')', "⠐⠜");
-        
-        // Operadores matemáticos y símbolos especiales
-        TEXTO_A_BRAILLE.put('+', "⠐⠖"); // Suma
-        TEXTO_A_BRAILLE.put('*', "⠡"); // Multiplicación
-        TEXTO_A_BRAILLE.put('×', "⠡"); // Multiplicación alternativo
-        TEXTO_A_BRAILLE.put('/', "⠸⠌"); // División (con prefijo para evitar conflicto con í)
-        TEXTO_A_BRAILLE.put('÷', "⠸⠌"); // División alternativo
-        TEXTO_A_BRAILLE.put('=', "⠶"); // Igual
-        TEXTO_A_BRAILLE.put('<', "⠐⠅"); // Menor que
-        TEXTO_A_BRAILLE.put('>', "⠨⠂"); // Mayor que
-        TEXTO_A_BRAILLE.put('%', "⠚⠴"); // Porcentaje
-        TEXTO_A_BRAILLE.put('@', "⠈⠁"); // Arroba
-        TEXTO_A_BRAILLE.put('#', "⠼"); // Numeral/hashtag
-        TEXTO_A_BRAILLE.put('$', "⠈⠎"); // Dólar
-        TEXTO_A_BRAILLE.put('€', "⠈⠑"); // Euro
-        TEXTO_A_BRAILLE.put('&', "⠯"); // Ampersand
-        TEXTO_A_BRAILLE.put('_', "⠤⠤"); // Guion bajo
-        TEXTO_A_BRAILLE.put('"', "⠦"); // Comillas
-        TEXTO_A_BRAILLE.put('\'', "⠄"); // Apóstrofe
-        TEXTO_A_BRAILLE.put('[', "⠷"); // Corchete izq
-        TEXTO_A_BRAILLE.put(']', "⠾"); // Corchete der
-        TEXTO_A_BRAILLE.put('{', "⠐⠷"); // Llave izq
-        TEXTO_A_BRAILLE.put('}', "⠐⠾"); // Llave der
-        TEXTO_A_BRAILLE.put('\\', "⠸⠡"); // Backslash
-        TEXTO_A_BRAILLE.put('`', "⠸⠳"); // Backtick
-        TEXTO_A_BRAILLE.put('~', "⠈⠱"); // Tilde
-        TEXTO_A_BRAILLE.put('^', "⠈⠢"); // Caret
-        TEXTO_A_BRAILLE.put('°', "⠴"); // Grado
-        
-        // Crear mapa inverso
-        TEXTO_A_BRAILLE.forEach((key, value) -> {
-            if (!value.equals(" ")) {
-                BRAILLE_A_TEXTO.put(value, key);
-            }
+        Map<String, TablaBraille> tablas = new LinkedHashMap<>();
+        registrar(tablas, TablaBraille.compilar("es", "Español", DefinicionesBraille.espanol()));
+        registrar(tablas, TablaBraille.compilar("pt", "Português", DefinicionesBraille.portugues()));
+        registrar(tablas, TablaBraille.compilar("ca", "Català", DefinicionesBraille.catalan()));
+        registrar(tablas, TablaBraille.compilar("en-ueb", "English (UEB)", DefinicionesBraille.inglesUeb(),
+            '⠠', TablaBraille.INDICADOR_NUMERO));
+        registrar(tablas, TablaBraille.compilar("computacional", "Braille computacional",
+            DefinicionesBraille.computacional(), TablaBraille.SIN_INDICADOR, TablaBraille.SIN_INDICADOR));
+        TABLAS_INCORPORADAS = Collections.unmodifiableMap(tablas);
+    }
+    
+    /**
+     * Reglas de contracción del español grado 2, compiladas una vez.
+     */
+    private static final ContraccionesBraille CONTRACCIONES_ESPANOL = ContraccionesBraille.espanol();
+    
+    /**
+     * Tablas en uso por código. Al recargar una tabla se publica un mapa
+     * nuevo entero; cada conversión lee la referencia una vez y trabaja con
+     * la tabla que obtuvo.
+     */
+    private final AtomicReference<Map<String, TablaBraille>> tablas = new AtomicReference<>(TABLAS_INCORPORADAS);
+    
+    private static void registrar(Map<String, TablaBraille> tablas, TablaBraille tabla) {
+        tablas.put(tabla.getCodigo(), tabla);
+    }
+    
+    /**
+     * Gets the built-in character to Braille definitions of the default table.
+     *
+     * @return an unmodifiable map of character to Braille
+     */
+    public static Map<Character, String> getDefinicionesPorDefecto() {
+        return TABLAS_INCORPORADAS.get(TABLA_POR_DEFECTO).getDefiniciones();
+    }
+    
+    /**
+     * Gets the default table currently used for conversions.
+     *
+     * @return the current compiled table
+     */
+    public TablaBraille getTabla() {
+        return tablas.get().get(TABLA_POR_DEFECTO);
+    }
+    
+    /**
+     * Gets a table by its code.
+     *
+     * @param codigo the table code, or null for the default table
+     * @return the current compiled table
+     * @throws IllegalArgumentException if no table has that code
+     */
+    public TablaBraille getTabla(String codigo) {
+        if (codigo == null || codigo.isBlank()) {
+            return getTabla();
+        }
+        TablaBraille tabla = tablas.get().get(codigo);
+        if (tabla == null) {
+            throw new IllegalArgumentException("Tabla Braille no soportada: " + codigo);
+        }
+        return tabla;
+    }
+    
+    /**
+     * Gets all available tables in registration order.
+     *
+     * @return the tables
+     */
+    public Collection<TablaBraille> getTablas() {
+        return tablas.get().values();
+    }
+    
+    /**
+     * Replaces the table with the same code. Conversions already running
+     * finish with the table they started with.
+     *
+     * @param tabla the new compiled table
+     */
+    public void actualizarTabla(TablaBraille tabla) {
+        tablas.updateAndGet(actuales -> {
+            Map<String, TablaBraille> nuevas = new LinkedHashMap<>(actuales);
+            nuevas.put(tabla.getCodigo(), tabla);
+            return Collections.unmodifiableMap(nuevas);
         });
-        BRAILLE_A_TEXTO.put(" ", ' ');
-        
-        // Sobrescribir caracteres ambiguos - priorizar vocales sobre operadores
-        BRAILLE_A_TEXTO.put("⠌", 'í'); // í tiene prioridad sobre división simple
-        
-        // Caracteres con secuencias de 2+ caracteres Braille (manejo especial)
-        BRAILLE_A_TEXTO.put("⠐⠣", '(');
-        BRAILLE_A_TEXTO.put("⠐⠜", ')');
-        BRAILLE_A_TEXTO.put("⠐⠖", '+'); // Suma
-        BRAILLE_A_TEXTO.put("⠸⠌", '/'); // División (con prefijo)
-        BRAILLE_A_TEXTO.put("⠐⠅", '<'); // Menor que
-        BRAILLE_A_TEXTO.put("⠨⠂", '>'); // Mayor que
-        BRAILLE_A_TEXTO.put("⠚⠴", '%'); // Porcentaje
-        BRAILLE_A_TEXTO.put("⠈⠁", '@'); // Arroba
-        BRAILLE_A_TEXTO.put("⠈⠎", '$'); // Dólar
-        BRAILLE_A_TEXTO.put("⠈⠑", '€'); // Euro
-        BRAILLE_A_TEXTO.put("⠤⠤", '_'); // Guion bajo
-        BRAILLE_A_TEXTO.put("⠐⠷", '{'); // Llave izq
-        BRAILLE_A_TEXTO.put("⠐⠾", '}'); // Llave der
-        BRAILLE_A_TEXTO.put("⠸⠡", '\\'); // Backslash
-        BRAILLE_A_TEXTO.put("⠸⠳", '`'); // Backtick
-        BRAILLE_A_TEXTO.put("⠈⠱", '~'); // Tilde
-        BRAILLE_A_TEXTO.put("⠈⠢", '^'); // Caret
     }
     
     /**
-     * Converts Spanish text to Braille.
-     * Correctly handles the number indicator (⠼) once per numeric sequence.
+     * Converts Spanish text to Braille.
+     * Correctly handles the number indicator (⠼) once per numeric sequence.
+     *
+     * @param texto the text to convert
+     * @return the Braille representation
+     */
+    public String textoABraille(String texto) {
+        return textoABraille(texto, getTabla());
+    }
+    
+    /**
+     * Converts Spanish text to Braille with the given table.
+     *
+     * @param texto the text to convert
+     * @param tabla the compiled table to use
+     * @return the Braille representation
+     */
+    public String textoABraille(String texto, TablaBraille tabla) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        
+        StringBuilder resultado = new StringBuilder();
+        new EstadoTextoABraille(tabla).codificar(texto, 0, texto.length(), resultado);
+        return resultado.toString();
+    }
+    
+    /**
+     * Converts text to Braille appending to a caller-owned buffer, so many
+     * short texts can share one buffer.
+     *
+     * @param texto the text to convert
+     * @param tabla the compiled table to use
+     * @param resultado the buffer the Braille is appended to
+     */
+    public void textoABraille(CharSequence texto, TablaBraille tabla, StringBuilder resultado) {
+        if (texto != null && texto.length() > 0) {
+            new EstadoTextoABraille(tabla).codificar(texto, 0, texto.length(), resultado);
+        }
+    }
+    
+    /**
+     * Converts text to Braille and validates it in the same pass: the
+     * report gets the position and code point of every character without
+     * a translation (up to a limit) and the count of accented letters,
+     * digits, symbols and capitals. Large documents need one traversal
+     * instead of a validation pass followed by a conversion.
+     *
+     * @param texto the text to convert
+     * @param tabla the compiled table to use
+     * @param resultado the buffer the Braille is appended to
+     * @param reporte the report to fill
+     */
+    public void textoABraille(CharSequence texto, TablaBraille tabla, StringBuilder resultado,
+                              ReporteConversion reporte) {
+        ContadorReporte contador = new ContadorReporte(tabla);
+        if (texto != null && texto.length() > 0) {
+            EstadoTextoABraille estado = new EstadoTextoABraille(tabla);
+            estado.reporte = contador;
+            estado.codificar(texto, 0, texto.length(), resultado);
+        }
+        contador.completar(reporte);
+    }
+    
+    /**
+     * Converts Spanish text to Braille reading from a stream.
+     * The number-mode state is kept across buffer refills, so the output is
+     * identical to {@link #textoABraille(String)} while memory stays bounded
+     * by the buffer size regardless of the input length.
+     *
+     * @param entrada the text source
+     * @param salida the Braille destination
+     * @return the number of characters read
+     * @throws IOException if reading or writing fails
+     */
+    public long textoABraille(Reader entrada, Writer salida) throws IOException {
+        return textoABraille(entrada, salida, getTabla());
+    }
+    
+    /**
+     * Converts text to Braille reading from a stream with the given table.
+     *
+     * @param entrada the text source
+     * @param salida the Braille destination
+     * @param tabla the compiled table to use
+     * @return the number of characters read
+     * @throws IOException if reading or writing fails
+     */
+    public long textoABraille(Reader entrada, Writer salida, TablaBraille tabla) throws IOException {
+        char[] buffer = new char[TAMANO_BUFFER_FLUJO];
+        CharBuffer vista = CharBuffer.wrap(buffer);
+        StringBuilder bloque = new StringBuilder(TAMANO_BUFFER_FLUJO * 2);
+        EstadoTextoABraille estado = new EstadoTextoABraille(tabla);
+        long total = 0;
+        
+        int leidos;
+        while ((leidos = entrada.read(buffer)) != -1) {
+            bloque.setLength(0);
+            estado.codificar(vista, 0, leidos, bloque);
+            salida.append(bloque);
+            total += leidos;
+        }
+        salida.flush();
+        return total;
+    }
+    
+    /**
+     * Normalizes text before converting it with the given table: composes
+     * NFD input, replaces typographic characters (curly quotes, dashes,
+     * ligatures, special spaces) and transliterates what the table cannot
+     * convert. Text that is already ASCII or convertible is returned as is.
+     *
+     * @param texto the text to normalize
+     * @param tabla the compiled table the text will be converted with
+     * @return the normalized text, or the same instance if nothing changes
+     */
+    public String normalizar(String texto, TablaBraille tabla) {
+        return tabla.getNormalizador().normalizar(texto);
+    }
+    
+    /**
+     * Normalizes a text stream block by block, with the same result as
+     * {@link #normalizar(String, TablaBraille)} on the whole text.
+     *
+     * @param entrada the text source
+     * @param tabla the compiled table the text will be converted with
+     * @return a reader over the normalized text
+     */
+    public Reader normalizar(Reader entrada, TablaBraille tabla) {
+        return tabla.getNormalizador().normalizar(entrada);
+    }
+    
+    /**
+     * Converts text to Braille writing the UTF-8 bytes of each cell straight
+     * to a byte stream. No intermediate String or encoder is involved: cells
+     * are encoded as E2 A0/A1 xx into a per-thread buffer that is flushed to
+     * the stream whenever it fills up.
+     *
+     * @param texto the text to convert
+     * @param tabla the compiled table to use
+     * @param salida the stream the UTF-8 Braille is written to
+     * @throws IOException if writing fails
+     */
+    public void textoABraille(CharSequence texto, TablaBraille tabla, OutputStream salida) throws IOException {
+        if (texto == null || texto.length() == 0) {
+            return;
+        }
+        SalidaUtf8 resultado = new SalidaUtf8(tabla, salida);
+        try {
+            new EstadoTextoABraille(tabla).codificar(texto, 0, texto.length(), resultado);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        resultado.vaciar();
+    }
+    
+    /**
+     * Converts text to Braille reading from a stream and writing UTF-8 bytes
+     * directly, with the same state handling as
+     * {@link #textoABraille(Reader, Writer, TablaBraille)}.
+     *
+     * @param entrada the text source
+     * @param salida the stream the UTF-8 Braille is written to
+     * @param tabla the compiled table to use
+     * @return the number of characters read
+     * @throws IOException if reading or writing fails
+     */
+    public long textoABraille(Reader entrada, OutputStream salida, TablaBraille tabla) throws IOException {
+        char[] buffer = new char[TAMANO_BUFFER_FLUJO];
+        CharBuffer vista = CharBuffer.wrap(buffer);
+        SalidaUtf8 resultado = new SalidaUtf8(tabla, salida);
+        EstadoTextoABraille estado = new EstadoTextoABraille(tabla);
+        long total = 0;
+        
+        int leidos;
+        try {
+            while ((leidos = entrada.read(buffer)) != -1) {
+                estado.codificar(vista, 0, leidos, resultado);
+                total += leidos;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        resultado.vaciar();
+        salida.flush();
+        return total;
+    }
+    
+    /**
+     * Converts Braille to Spanish text.
+     * Correctly handles the number indicator (⠼) and decodes multi-cell
+     * symbols such as "⠐⠣" by greedy longest match.
+     *
+     * @param braille the Braille text to convert
+     * @return the Spanish text representation
+     */
+    public String brailleATexto(String braille) {
+        return brailleATexto(braille, getTabla());
+    }
+    
+    /**
+     * Converts Braille to Spanish text with the given table.
+     *
+     * @param braille the Braille text to convert
+     * @param tabla the compiled table to use
+     * @return the Spanish text representation
+     */
+    public String brailleATexto(String braille, TablaBraille tabla) {
+        if (braille == null || braille.isEmpty()) {
+            return "";
+        }
+        
+        StringBuilder resultado = new StringBuilder();
+        new EstadoBrailleATexto(tabla, false).decodificar(braille, 0, braille.length(), true, resultado);
+        return resultado.toString();
+    }
+    
+    /**
+     * Converts Braille to text appending to a caller-owned buffer.
+     *
+     * @param braille the Braille text to convert
+     * @param tabla the compiled table to use
+     * @param resultado the buffer the text is appended to
+     */
+    public void brailleATexto(CharSequence braille, TablaBraille tabla, StringBuilder resultado) {
+        if (braille != null && braille.length() > 0) {
+            new EstadoBrailleATexto(tabla, false).decodificar(braille, 0, braille.length(), true, resultado);
+        }
+    }
+    
+    /**
+     * Converts Braille to Spanish text reading from a stream.
+     * Cells that could start a multi-cell symbol at the end of a buffer are
+     * carried over to the next refill, as are the capital and number modes.
+     *
+     * @param entrada the Braille source
+     * @param salida the text destination
+     * @return the number of characters read
+     * @throws IOException if reading or writing fails
+     */
+    public long brailleATexto(Reader entrada, Writer salida) throws IOException {
+        return brailleATexto(entrada, salida, getTabla());
+    }
+    
+    /**
+     * Converts Braille to text reading from a stream with the given table.
+     *
+     * @param entrada the Braille source
+     * @param salida the text destination
+     * @param tabla the compiled table to use
+     * @return the number of characters read
+     * @throws IOException if reading or writing fails
+     */
+    public long brailleATexto(Reader entrada, Writer salida, TablaBraille tabla) throws IOException {
+        char[] buffer = new char[TAMANO_BUFFER_FLUJO];
+        CharBuffer vista = CharBuffer.wrap(buffer);
+        StringBuilder bloque = new StringBuilder(TAMANO_BUFFER_FLUJO);
+        EstadoBrailleATexto estado = new EstadoBrailleATexto(tabla, false);
+        long total = 0;
+        int pendientes = 0;
+        
+        int leidos;
+        while ((leidos = entrada.read(buffer, pendientes, buffer.length - pendientes)) != -1) {
+            int fin = pendientes + leidos;
+            bloque.setLength(0);
+            int consumidos = estado.decodificar(vista, 0, fin, false, bloque);
+            salida.append(bloque);
+            pendientes = fin - consumidos;
+            System.arraycopy(buffer, consumidos, buffer, 0, pendientes);
+            total += leidos;
+        }
+        bloque.setLength(0);
+        estado.decodificar(vista, 0, pendientes, true, bloque);
+        salida.append(bloque);
+        salida.flush();
+        return total;
+    }
+    
+    /**
+     * Converts Spanish text to contracted (Grade 2) Braille.
+     *
+     * @param texto the text to convert
+     * @return the contracted Braille representation
+     */
+    public String textoABrailleGrado2(String texto) {
+        return textoABrailleGrado2(texto, getTabla());
+    }
+    
+    /**
+     * Converts Spanish text to contracted (Grade 2) Braille with the given table.
+     * Words are contracted with the Grade 2 rules; numbers and punctuation
+     * follow the Grade 1 rules. A capitalized word takes one capital
+     * indicator and a word in capitals takes two (⠨⠨); words with mixed case
+     * are written letter by letter.
+     *
+     * @param texto the text to convert
+     * @param tabla the compiled Spanish table to use
+     * @return the contracted Braille representation
+     * @throws IllegalArgumentException if the table is not Spanish
+     */
+    public String textoABrailleGrado2(String texto, TablaBraille tabla) {
+        validarGrado2(tabla);
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        
+        StringBuilder resultado = new StringBuilder(texto.length());
+        StringBuilder palabra = new StringBuilder();
+        EstadoTextoABraille estado = new EstadoTextoABraille(tabla);
+        int i = 0;
+        while (i < texto.length()) {
+            if (!esLetraDePalabra(tabla, texto.charAt(i))) {
+                estado.codificar(texto, i, i + 1, resultado);
+                i++;
+                continue;
+            }
+            
+            int fin = i + 1;
+            while (fin < texto.length() && esLetraDePalabra(tabla, texto.charAt(fin))) {
+                fin++;
+            }
+            
+            // Una palabra termina cualquier secuencia numérica anterior
+            estado.terminarSecuencia();
+            int mayusculas = 0;
+            for (int j = i; j < fin; j++) {
+                if (Character.isUpperCase(texto.charAt(j))) {
+                    mayusculas++;
+                }
+            }
+            boolean inicial = Character.isUpperCase(texto.charAt(i));
+            if (mayusculas == 0 || (inicial && mayusculas == 1) || mayusculas == fin - i) {
+                if (mayusculas == fin - i && fin - i > 1) {
+                    resultado.append(tabla.getIndicadorMayuscula()).append(tabla.getIndicadorMayuscula());
+                } else if (inicial) {
+                    resultado.append(tabla.getIndicadorMayuscula());
+                }
+                palabra.setLength(0);
+                for (int j = i; j < fin; j++) {
+                    palabra.append(Character.toLowerCase(texto.charAt(j)));
+                }
+                CONTRACCIONES_ESPANOL.contraer(palabra, tabla, resultado);
+            } else {
+                // Mayúsculas intercaladas: letra a letra, sin contraer
+                estado.codificar(texto, i, fin, resultado);
+            }
+            i = fin;
+        }
+        return resultado.toString();
+    }
+    
+    /**
+     * Converts contracted (Grade 2) Braille to Spanish text.
+     *
+     * @param braille the contracted Braille to convert
+     * @return the Spanish text representation
+     */
+    public String brailleGrado2ATexto(String braille) {
+        return brailleGrado2ATexto(braille, getTabla());
+    }
+    
+    /**
+     * Converts contracted (Grade 2) Braille to Spanish text with the given table.
+     *
+     * @param braille the contracted Braille to convert
+     * @param tabla the compiled Spanish table to use
+     * @return the Spanish text representation
+     * @throws IllegalArgumentException if the table is not Spanish
+     */
+    public String brailleGrado2ATexto(String braille, TablaBraille tabla) {
+        validarGrado2(tabla);
+        if (braille == null || braille.isEmpty()) {
+            return "";
+        }
+        
+        StringBuilder resultado = new StringBuilder(braille.length() * 2);
+        char indicadorMayuscula = tabla.getIndicadorMayuscula();
+        boolean enModoNumero = false;
+        int mayuscula = 0; // 0 ninguna, 1 inicial, 2 palabra entera
+        int i = 0;
+        while (i < braille.length()) {
+            char celda = braille.charAt(i);
+            
+            // Símbolos de varias celdas del grado 1 (p. ej. "⠐⠣")
+            int coincidencia = tabla.getDecodificador().buscar(braille, i);
+            if (TrieBraille.longitud(coincidencia) > 1) {
+                char simbolo = TrieBraille.caracter(coincidencia);
+                resultado.append(mayuscula > 0 ? Character.toUpperCase(simbolo) : simbolo);
+                mayuscula = 0;
+                enModoNumero = false;
+                i += TrieBraille.longitud(coincidencia);
+                continue;
+            }
+            
+            if (celda == indicadorMayuscula) {
+                boolean doble = i + 1 < braille.length() && braille.charAt(i + 1) == indicadorMayuscula;
+                mayuscula = doble ? 2 : 1;
+                i += doble ? 2 : 1;
+                continue;
+            }
+            
+            if (celda == tabla.getIndicadorNumero()) {
+                enModoNumero = true;
+                i++;
+                continue;
+            }
+            
+            if (enModoNumero) {
+                char texto = tabla.buscarTexto(celda);
+                if (tabla.esSeparadorNumerico(celda)) {
+                    resultado.append(texto);
+                    i++;
+                    continue;
+                }
+                char numero = letraANumero(texto);
+                if (numero != texto) {
+                    resultado.append(numero);
+                    i++;
+                    continue;
+                }
+                enModoNumero = false;
+            }
+            
+            if (CONTRACCIONES_ESPANOL.esCeldaDePalabra(tabla, celda)) {
+                int fin = i + 1;
+                while (fin < braille.length()
+                        && CONTRACCIONES_ESPANOL.esCeldaDePalabra(tabla, braille.charAt(fin))
+                        && TrieBraille.longitud(tabla.getDecodificador().buscar(braille, fin)) <= 1) {
+                    fin++;
+                }
+                int inicioPalabra = resultado.length();
+                CONTRACCIONES_ESPANOL.expandir(braille, i, fin, tabla, resultado);
+                if (mayuscula == 2) {
+                    for (int j = inicioPalabra; j < resultado.length(); j++) {
+                        resultado.setCharAt(j, Character.toUpperCase(resultado.charAt(j)));
+                    }
+                } else if (mayuscula == 1) {
+                    resultado.setCharAt(inicioPalabra, Character.toUpperCase(resultado.charAt(inicioPalabra)));
+                }
+                mayuscula = 0;
+                i = fin;
+                continue;
+            }
+            
+            // Espacio, puntuación o celda sin traducción
+            char texto = tabla.buscarTexto(celda);
+            if (texto == SIN_TRADUCCION) {
+                resultado.append(celda);
+            } else {
+                resultado.append(mayuscula > 0 ? Character.toUpperCase(texto) : texto);
+                mayuscula = 0;
+            }
+            i++;
+        }
+        return resultado.toString();
+    }
+    
+    private static void validarGrado2(TablaBraille tabla) {
+        if (!TABLA_POR_DEFECTO.equals(tabla.getCodigo())) {
+            throw new IllegalArgumentException("Braille grado 2 solo disponible para la tabla '"
+                + TABLA_POR_DEFECTO + "'");
+        }
+    }
+    
+    /**
+     * Indica si el carácter forma parte de una palabra que se puede contraer:
+     * una letra que la tabla escribe en una sola celda.
+     */
+    private static boolean esLetraDePalabra(TablaBraille tabla, char caracter) {
+        if (!Character.isLetter(caracter)) {
+            return false;
+        }
+        String braille = tabla.buscarBraille(Character.toLowerCase(caracter));
+        return braille != null && braille.length() == 1;
+    }
+    
+    /**
+     * Converts text to Braille cells with the default table.
+     *
+     * @param texto the text to convert
+     * @return one byte per cell holding its dot pattern (bit n = dot n+1)
+     */
+    public byte[] textoACeldas(CharSequence texto) {
+        return textoACeldas(texto, getTabla());
+    }
+    
+    /**
+     * Converts text to Braille cells without building Unicode strings.
+     * Each cell is the offset from U+2800, i.e. its dot pattern. Spaces and
+     * characters without translation become the empty cell.
+     *
+     * @param texto the text to convert
+     * @param tabla the compiled table to use
+     * @return one byte per cell
+     */
+    public byte[] textoACeldas(CharSequence texto, TablaBraille tabla) {
+        if (texto == null || texto.length() == 0) {
+            return new byte[0];
+        }
+        
+        SalidaCeldas resultado = new SalidaCeldas(tabla, texto.length() + texto.length() / 4);
+        new EstadoTextoABraille(tabla).codificar(texto, 0, texto.length(), resultado);
+        return resultado.toArray();
+    }
+    
+    /**
+     * Converts Braille cells to text with the default table.
+     *
+     * @param celdas one byte per cell holding its dot pattern
+     * @return the text representation
+     */
+    public String celdasATexto(byte[] celdas) {
+        return celdasATexto(celdas, getTabla());
+    }
+    
+    /**
+     * Converts Braille cells to text. The cells are read through a view, so
+     * no Unicode copy of the input is made; the empty cell reads as a space.
+     *
+     * @param celdas one byte per cell holding its dot pattern
+     * @param tabla the compiled table to use
+     * @return the text representation
+     */
+    public String celdasATexto(byte[] celdas, TablaBraille tabla) {
+        if (celdas == null || celdas.length == 0) {
+            return "";
+        }
+        
+        StringBuilder resultado = new StringBuilder(celdas.length);
+        new EstadoBrailleATexto(tabla, false)
+            .decodificar(new VistaCeldas(celdas, 0, celdas.length), 0, celdas.length, true, resultado);
+        return resultado.toString();
+    }
+    
+    /**
+     * Renders cells as Unicode Braille (U+2800 - U+28FF). The empty cell is
+     * rendered as a space, like the rest of the service does.
+     *
+     * @param celdas one byte per cell
+     * @return the Unicode Braille text
+     */
+    public static String celdasABraille(byte[] celdas) {
+        char[] braille = new char[celdas.length];
+        for (int i = 0; i < celdas.length; i++) {
+            braille[i] = celdaAChar(celdas[i]);
+        }
+        return new String(braille);
+    }
+    
+    /**
+     * Parses Unicode Braille into cells. Spaces and any character outside
+     * the Braille block become the empty cell.
+     *
+     * @param braille the Unicode Braille text
+     * @return one byte per cell
+     */
+    public static byte[] brailleACeldas(CharSequence braille) {
+        byte[] celdas = new byte[braille.length()];
+        for (int i = 0; i < celdas.length; i++) {
+            char caracter = braille.charAt(i);
+            celdas[i] = TablaBraille.esCeldaBraille(caracter)
+                ? (byte) (caracter - TablaBraille.BRAILLE_BASE)
+                : CELDA_VACIA;
+        }
+        return celdas;
+    }
+    
+    private static char celdaAChar(byte celda) {
+        return celda == CELDA_VACIA ? ' ' : (char) (TablaBraille.BRAILLE_BASE + (celda & 0xFF));
+    }
+    
+    /**
+     * Converts Spanish text to Braille using the common fork-join pool.
+     *
+     * @param texto the text to convert
+     * @return the Braille representation, identical to {@link #textoABraille(String)}
+     */
+    public String textoABrailleParalelo(String texto) {
+        return textoABrailleParalelo(texto, getTabla(), ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Converts Spanish text to Braille splitting it across the given pool.
+     * Chunks are cut at whitespace: a whitespace character always ends a
+     * numeric sequence and its own output does not depend on the state, so
+     * each chunk can start from a fresh state and the joined output is
+     * identical to the sequential path.
+     *
+     * @param texto the text to convert
+     * @param tabla the compiled table to use
+     * @param pool the pool that runs the chunks
+     * @return the Braille representation
+     */
+    public String textoABrailleParalelo(String texto, TablaBraille tabla, ForkJoinPool pool) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        return pool.invoke(new ConversionParalela(texto, 0, texto.length(), tabla, false)).resultado.toString();
+    }
+    
+    /**
+     * Converts Braille to Spanish text using the common fork-join pool.
      *
-     * @param texto the text to convert
-     * @return the Braille representation
+     * @param braille the Braille text to convert
+     * @return the Spanish text, identical to {@link #brailleATexto(String)}
      */
-    public String textoABraille(String texto) {
-        if (texto == null || texto.isEmpty()) {
+    public String brailleATextoParalelo(String braille) {
+        return brailleATextoParalelo(braille, getTabla(), ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Converts Braille to Spanish text splitting it across the given pool.
+     * Chunks are cut before a space cell, which ends number mode and cannot
+     * be part of a multi-cell symbol. A pending capital indicator is the only
+     * state that can cross a space; when a chunk ends with one, the next
+     * chunk is converted again with it (this only happens on malformed input).
+     *
+     * @param braille the Braille text to convert
+     * @param tabla the compiled table to use
+     * @param pool the pool that runs the chunks
+     * @return the Spanish text representation
+     */
+    public String brailleATextoParalelo(String braille, TablaBraille tabla, ForkJoinPool pool) {
+        if (braille == null || braille.isEmpty()) {
             return "";
         }
+        return pool.invoke(new ConversionParalela(braille, 0, braille.length(), tabla, true)).resultado.toString();
+    }
+    
+    /**
+     * Resultado parcial de una conversión paralela.
+     */
+    private static final class Fragmento {
         
-        StringBuilder resultado = new StringBuilder();
-        boolean enSecuenciaNumerica = false; // Flag para saber si estamos en números
+        private final StringBuilder resultado;
+        private final boolean mayusculaPendiente;
         
-        for (int i = 0; i < texto.length(); i++) {
-            char caracter = texto.charAt(i);
-            char caracterMinuscula = Character.toLowerCase(caracter);
+        Fragmento(StringBuilder resultado, boolean mayusculaPendiente) {
+            this.resultado = resultado;
+            this.mayusculaPendiente = mayusculaPendiente;
+        }
+    }
+    
+    /**
+     * Tarea fork-join que divide el texto en cortes seguros y une los resultados en orden.
+     */
+    private static final class ConversionParalela extends RecursiveTask<Fragmento> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final String texto;
+        private final int inicio;
+        private final int fin;
+        private final TablaBraille tabla;
+        private final boolean desdeBraille;
+        
+        ConversionParalela(String texto, int inicio, int fin, TablaBraille tabla, boolean desdeBraille) {
+            this.texto = texto;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.tabla = tabla;
+            this.desdeBraille = desdeBraille;
+        }
+        
+        @Override
+        protected Fragmento compute() {
+            int corte = fin - inicio > TAMANO_FRAGMENTO_PARALELO ? buscarCorte() : -1;
+            if (corte < 0) {
+                return convertir(inicio, fin, false);
+            }
             
-            boolean esDigito = Character.isDigit(caracter);
+            ConversionParalela izquierda = new ConversionParalela(texto, inicio, corte, tabla, desdeBraille);
+            ConversionParalela derecha = new ConversionParalela(texto, corte, fin, tabla, desdeBraille);
+            izquierda.fork();
+            Fragmento resultadoDerecha = derecha.compute();
+            Fragmento resultadoIzquierda = izquierda.join();
             
-            // Detectar inicio de secuencia numérica
-            if (esDigito && !enSecuenciaNumerica) {
-                // Nueva secuencia de números, agregar indicador ⠼
-                resultado.append(INDICADOR_NUMERO);
-                enSecuenciaNumerica = true;
+            if (resultadoIzquierda.mayusculaPendiente) {
+                // El indicador de mayúscula cruza el corte: repetir la parte derecha con él
+                resultadoDerecha = convertir(corte, fin, true);
             }
-            
-            // Detectar separadores que terminan secuencia numérica pero inician una nueva
-            // Separadores en contexto numérico: guion (-), coma (,), punto (.)
-            if (enSecuenciaNumerica && (caracter == '-' || caracter == ',' || caracter == '.')) {
-                // Agregar el separador
-                String brailleSeparador = TEXTO_A_BRAILLE.get(caracter);
-                if (brailleSeparador != null) {
-                    resultado.append(brailleSeparador);
+            resultadoIzquierda.resultado.append(resultadoDerecha.resultado);
+            return new Fragmento(resultadoIzquierda.resultado, resultadoDerecha.mayusculaPendiente);
+        }
+        
+        /**
+         * Busca el corte seguro más cercano a la mitad del rango.
+         *
+         * @return la posición del corte, o -1 si no hay ninguno
+         */
+        private int buscarCorte() {
+            int medio = (inicio + fin) >>> 1;
+            for (int i = medio; i < fin; i++) {
+                if (esCorteSeguro(texto.charAt(i))) {
+                    return i;
+                }
+            }
+            for (int i = medio - 1; i > inicio; i--) {
+                if (esCorteSeguro(texto.charAt(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        private boolean esCorteSeguro(char caracter) {
+            return desdeBraille ? caracter == ' ' : Character.isWhitespace(caracter);
+        }
+        
+        private Fragmento convertir(int desde, int hasta, boolean mayuscula) {
+            StringBuilder resultado = new StringBuilder((hasta - desde) * 2);
+            if (desdeBraille) {
+                EstadoBrailleATexto estado = new EstadoBrailleATexto(tabla, mayuscula);
+                estado.decodificar(texto, desde, hasta, true, resultado);
+                return new Fragmento(resultado, estado.siguienteMayuscula);
+            }
+            new EstadoTextoABraille(tabla).codificar(texto, desde, hasta, resultado);
+            return new Fragmento(resultado, false);
+        }
+    }
+    
+    /**
+     * Estado de la conversión texto a Braille.
+     * En lugar de mirar el carácter siguiente tras un separador numérico,
+     * deja la decisión pendiente hasta recibirlo; así el mismo estado sirve
+     * para cadenas completas y para texto que llega por bloques.
+     */
+    static final class EstadoTextoABraille {
+        
+        private final TablaBraille tabla;
+        private final char indicadorMayuscula;
+        private final char indicadorNumero;
+        private final boolean usaIndicadorMayuscula;
+        private final boolean usaIndicadorNumero;
+        private boolean enSecuenciaNumerica; // Flag para saber si estamos en números
+        private boolean separadorPendiente; // Separador numérico esperando el siguiente carácter
+        private final char[] tramo = new char[64]; // Celdas del camino rápido antes de escribirlas
+        private ContadorReporte reporte; // Solo si se pidió el informe de validación
+        
+        EstadoTextoABraille(TablaBraille tabla) {
+            this.tabla = tabla;
+            this.indicadorMayuscula = tabla.getIndicadorMayuscula();
+            this.indicadorNumero = tabla.getIndicadorNumero();
+            this.usaIndicadorMayuscula = indicadorMayuscula != TablaBraille.SIN_INDICADOR;
+            this.usaIndicadorNumero = indicadorNumero != TablaBraille.SIN_INDICADOR;
+        }
+        
+        /**
+         * Guarda el estado en un entero, para puntos de control.
+         */
+        int guardar() {
+            return (enSecuenciaNumerica ? 1 : 0) | (separadorPendiente ? 2 : 0);
+        }
+        
+        /**
+         * Restaura un estado obtenido con {@link #guardar()}.
+         */
+        void restaurar(int estado) {
+            enSecuenciaNumerica = (estado & 1) != 0;
+            separadorPendiente = (estado & 2) != 0;
+        }
+        
+        /**
+         * Cierra la secuencia numérica en curso, como si hubiera llegado una letra.
+         */
+        void terminarSecuencia() {
+            enSecuenciaNumerica = false;
+            separadorPendiente = false;
+        }
+        
+        void codificar(CharSequence texto, int inicio, int fin, StringBuilder resultado) {
+            codificar(texto, inicio, fin, new SalidaTexto(tabla, resultado));
+        }
+        
+        void codificar(CharSequence texto, int inicio, int fin, SalidaBraille resultado) {
+            char[] celdasSimples = tabla.getCeldasAsciiSimples();
+            for (int i = inicio; i < fin; i++) {
+                char caracter = texto.charAt(i);
+                
+                // Camino rápido: tramos de minúsculas ASCII, espacios y signos de
+                // una celda. Cierran cualquier secuencia numérica, no llevan
+                // indicador y sus celdas salen directo de la tabla
+                if (caracter < celdasSimples.length && celdasSimples[caracter] != SIN_TRADUCCION) {
+                    separadorPendiente = false;
+                    enSecuenciaNumerica = false;
+                    int n = 0;
+                    do {
+                        tramo[n++] = celdasSimples[caracter];
+                    } while (++i < fin && n < tramo.length && (caracter = texto.charAt(i)) < celdasSimples.length
+                            && celdasSimples[caracter] != SIN_TRADUCCION);
+                    resultado.celdas(tramo, n);
+                    if (reporte != null) {
+                        reporte.registrarTramo(texto, i - n, i);
+                    }
+                    i--; // El for avanza al primer carácter fuera del tramo
+                    continue;
                 }
                 
-                // Verificar si el siguiente carácter es un número
-                if (i + 1 < texto.length() && Character.isDigit(texto.charAt(i + 1))) {
-                    // Agregar indicador de número después del separador
-                    resultado.append(INDICADOR_NUMERO);
+                if (reporte != null) {
+                    reporte.registrar(texto, i, caracter);
+                }
+                
+                // Sin indicador de número (Braille computacional) los dígitos son celdas propias
+                boolean esDigito = usaIndicadorNumero && Character.isDigit(caracter);
+                
+                // Resolver separador del bloque anterior: si sigue un número, nueva secuencia
+                if (separadorPendiente) {
+                    separadorPendiente = false;
+                    if (esDigito) {
+                        // Agregar indicador de número después del separador
+                        resultado.indicador(indicadorNumero);
+                        enSecuenciaNumerica = true;
+                    } else {
+                        enSecuenciaNumerica = false;
+                    }
+                }
+                
+                // Detectar inicio de secuencia numérica
+                if (esDigito && !enSecuenciaNumerica) {
+                    // Nueva secuencia de números, agregar indicador ⠼
+                    resultado.indicador(indicadorNumero);
                     enSecuenciaNumerica = true;
-                } else {
+                }
+                
+                // Detectar separadores que terminan secuencia numérica pero inician una nueva
+                // Separadores en contexto numérico: guion (-), coma (,), punto (.)
+                if (enSecuenciaNumerica && TablaBraille.esSeparadorNumericoTexto(caracter)) {
+                    // Agregar el separador
+                    resultado.separador(caracter);
+                    separadorPendiente = true;
+                    continue;
+                }
+                
+                // Detectar fin de secuencia numérica (espacio, letra, etc.)
+                if (!esDigito && !TablaBraille.esSeparadorNumericoTexto(caracter)) {
                     enSecuenciaNumerica = false;
                 }
-                continue;
+                
+                // Si es mayúscula (y no es número ni espacio), agregar indicador
+                if (usaIndicadorMayuscula && Character.isUpperCase(caracter) && !esDigito && caracter != ' ') {
+                    resultado.indicador(indicadorMayuscula);
+                }
+                
+                // Convertir el carácter
+                resultado.caracter(Character.toLowerCase(caracter), caracter);
             }
-            
-            // Detectar fin de secuencia numérica (espacio, letra, etc.)
-            if (!esDigito && caracter != '-' && caracter != ',' && caracter != '.') {
-                enSecuenciaNumerica = false;
+        }
+    }
+    
+    /**
+     * Cuenta, mientras se codifica, lo que lleva el informe de validación.
+     * La pertenencia se consulta en mapas de bits precalculados.
+     */
+    private static final class ContadorReporte {
+        
+        private final TablaBraille tabla;
+        private final List<ReporteConversion.CaracterNoConvertible> noConvertibles = new ArrayList<>();
+        private int totalNoConvertibles;
+        private int acentos;
+        private int numeros;
+        private int simbolos;
+        private int mayusculas;
+        
+        ContadorReporte(TablaBraille tabla) {
+            this.tabla = tabla;
+        }
+        
+        /**
+         * Registra un tramo del camino rápido: todos convertibles, sin
+         * mayúsculas, dígitos ni acentos; solo puede haber signos.
+         */
+        void registrarTramo(CharSequence texto, int inicio, int fin) {
+            for (int i = inicio; i < fin; i++) {
+                if (ConjuntoCaracteres.Categorias.SIMBOLOS.contiene(texto.charAt(i))) {
+                    simbolos++;
+                }
             }
-            
-            // Si es mayúscula (y no es número ni espacio), agregar indicador
-            if (Character.isUpperCase(caracter) && !esDigito && caracter != ' ') {
-                resultado.append(INDICADOR_MAYUSCULA);
+        }
+        
+        void registrar(CharSequence texto, int posicion, char caracter) {
+            if (Character.isUpperCase(caracter)) {
+                mayusculas++;
             }
-            
-            // Convertir el carácter
-            String brailleChar = TEXTO_A_BRAILLE.get(caracterMinuscula);
+            if (ConjuntoCaracteres.Categorias.ACENTOS.contiene(caracter)) {
+                acentos++;
+            } else if (Character.isDigit(caracter)) {
+                numeros++;
+            } else if (ConjuntoCaracteres.Categorias.SIMBOLOS.contiene(caracter)) {
+                simbolos++;
+            }
+            if (!tabla.esConvertible(caracter)) {
+                // Un par sustituto (p. ej. un emoji) cuenta una sola vez
+                if (Character.isLowSurrogate(caracter) && posicion > 0
+                        && Character.isHighSurrogate(texto.charAt(posicion - 1))) {
+                    return;
+                }
+                totalNoConvertibles++;
+                if (noConvertibles.size() < MAX_NO_CONVERTIBLES_REPORTE) {
+                    noConvertibles.add(new ReporteConversion.CaracterNoConvertible(
+                        posicion, Character.codePointAt(texto, posicion)));
+                }
+            }
+        }
+        
+        void completar(ReporteConversion reporte) {
+            reporte.setConvertible(totalNoConvertibles == 0);
+            reporte.setTotalNoConvertibles(totalNoConvertibles);
+            reporte.setNoConvertibles(noConvertibles);
+            reporte.setAcentos(acentos);
+            reporte.setNumeros(numeros);
+            reporte.setSimbolos(simbolos);
+            reporte.setMayusculas(mayusculas);
+        }
+    }
+    
+    /**
+     * Destino de la conversión texto a Braille: texto Unicode o celdas.
+     */
+    private interface SalidaBraille {
+        
+        void indicador(char celda);
+        
+        /**
+         * @param celda una celda Braille o espacio
+         */
+        void celda(char celda);
+        
+        void celdas(char[] celdas, int cantidad);
+        
+        void separador(char caracter);
+        
+        /**
+         * @param caracter el carácter en minúscula
+         * @param original el carácter tal como venía en el texto
+         */
+        void caracter(char caracter, char original);
+    }
+    
+    /**
+     * Escribe Braille Unicode en un StringBuilder.
+     */
+    private static final class SalidaTexto implements SalidaBraille {
+        
+        private final TablaBraille tabla;
+        private final StringBuilder resultado;
+        
+        SalidaTexto(TablaBraille tabla, StringBuilder resultado) {
+            this.tabla = tabla;
+            this.resultado = resultado;
+        }
+        
+        @Override
+        public void indicador(char celda) {
+            resultado.append(celda);
+        }
+        
+        @Override
+        public void celda(char celda) {
+            resultado.append(celda);
+        }
+        
+        @Override
+        public void celdas(char[] celdas, int cantidad) {
+            resultado.append(celdas, 0, cantidad);
+        }
+        
+        @Override
+        public void separador(char caracter) {
+            String brailleSeparador = tabla.buscarBraille(caracter);
+            if (brailleSeparador != null) {
+                resultado.append(brailleSeparador);
+            }
+        }
+        
+        @Override
+        public void caracter(char caracter, char original) {
+            String brailleChar = tabla.buscarBraille(caracter);
             if (brailleChar != null) {
                 resultado.append(brailleChar);
             } else {
                 // Si no se encuentra, mantener el carácter original
-                resultado.append(caracter);
+                resultado.append(original);
             }
         }
-        
-        return resultado.toString();
     }
     
     /**
-     * Converts Braille to Spanish text.
-     * Correctly handles the number indicator (⠼).
-     *
-     * @param braille the Braille text to convert
-     * @return the Spanish text representation
+     * Escribe celdas como patrones de puntos en un arreglo de bytes que crece
+     * según haga falta.
      */
-    public String brailleATexto(String braille) {
-        if (braille == null || braille.isEmpty()) {
-            return "";
+    private static final class SalidaCeldas implements SalidaBraille {
+        
+        private final TablaBraille tabla;
+        private byte[] celdas;
+        private int longitud;
+        
+        SalidaCeldas(TablaBraille tabla, int capacidad) {
+            this.tabla = tabla;
+            this.celdas = new byte[Math.max(capacidad, 16)];
         }
         
-        StringBuilder resultado = new StringBuilder();
-        boolean siguienteMayuscula = false;
-        boolean enModoNumero = false;
+        @Override
+        public void indicador(char celda) {
+            agregar((byte) (celda - TablaBraille.BRAILLE_BASE));
+        }
         
-        for (int i = 0; i < braille.length(); i++) {
-            String caracterActual = String.valueOf(braille.charAt(i));
-            
-            // Detectar indicador de mayúscula
-            if (caracterActual.equals(INDICADOR_MAYUSCULA)) {
-                siguienteMayuscula = true;
-                continue;
+        @Override
+        public void celda(char celda) {
+            agregar(celda == ' ' ? CELDA_VACIA : (byte) (celda - TablaBraille.BRAILLE_BASE));
+        }
+        
+        @Override
+        public void celdas(char[] otras, int cantidad) {
+            if (longitud + cantidad > celdas.length) {
+                celdas = Arrays.copyOf(celdas, Math.max(celdas.length * 2, longitud + cantidad));
             }
-            
-            // Detectar indicador de número
-            if (caracterActual.equals(INDICADOR_NUMERO)) {
-                enModoNumero = true;
-                continue;
+            for (int i = 0; i < cantidad; i++) {
+                char celda = otras[i];
+                celdas[longitud++] = celda == ' ' ? CELDA_VACIA : (byte) (celda - TablaBraille.BRAILLE_BASE);
             }
-            
-            // Detectar separadores que mantienen o terminan el modo número
-            if (caracterActual.equals("⠤") || caracterActual.equals("⠂") || caracterActual.equals("⠄")) {
-                // Es un separador (guion, coma, punto)
-                Character textoChar = BRAILLE_A_TEXTO.get(caracterActual);
-                if (textoChar != null) {
-                    resultado.append(textoChar);
-                }
-                // No salir de modo número, el siguiente indicador lo decidirá
-                continue;
+        }
+        
+        @Override
+        public void separador(char caracter) {
+            byte[] celdasSeparador = tabla.buscarCeldas(caracter);
+            if (celdasSeparador != null) {
+                agregar(celdasSeparador);
             }
-            
-            // Espacios terminan el modo número
-            if (caracterActual.equals(" ")) {
-                resultado.append(' ');
-                enModoNumero = false;
-                continue;
+        }
+        
+        @Override
+        public void caracter(char caracter, char original) {
+            byte[] celdasCaracter = tabla.buscarCeldas(caracter);
+            if (celdasCaracter != null) {
+                agregar(celdasCaracter);
+            } else {
+                // Sin traducción no hay patrón que escribir: celda vacía
+                agregar(CELDA_VACIA);
             }
-            
-            // Convertir el carácter
-            Character textoChar = BRAILLE_A_TEXTO.get(caracterActual);
-            
-            if (textoChar != null) {
-                if (enModoNumero) {
-                    // En modo número: convertir letras a-j como números 1-0
-                    char numeroChar = letraANumero(textoChar);
-                    resultado.append(numeroChar);
-                } else if (siguienteMayuscula && textoChar != ' ') {
-                    resultado.append(Character.toUpperCase(textoChar));
-                    siguienteMayuscula = false;
+        }
+        
+        private void agregar(byte celda) {
+            if (longitud == celdas.length) {
+                celdas = Arrays.copyOf(celdas, celdas.length * 2);
+            }
+            celdas[longitud++] = celda;
+        }
+        
+        private void agregar(byte[] otras) {
+            if (longitud + otras.length > celdas.length) {
+                celdas = Arrays.copyOf(celdas, Math.max(celdas.length * 2, longitud + otras.length));
+            }
+            System.arraycopy(otras, 0, celdas, longitud, otras.length);
+            longitud += otras.length;
+        }
+        
+        byte[] toArray() {
+            return Arrays.copyOf(celdas, longitud);
+        }
+    }
+    
+    /**
+     * Escribe Braille Unicode como bytes UTF-8 en un buffer por hilo que se
+     * vuelca a un OutputStream al llenarse. Una celda U+2800 + p ocupa tres
+     * bytes: E2, A0 | (p &gt;&gt; 6) y 80 | (p &amp; 3F). Los caracteres sin
+     * traducción se codifican en UTF-8 como vienen; un sustituto suelto se
+     * escribe como '?', igual que String.getBytes.
+     */
+    private static final class SalidaUtf8 implements SalidaBraille {
+        
+        private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[TAMANO_BUFFER_UTF8]);
+        
+        private final TablaBraille tabla;
+        private final OutputStream destino;
+        private final byte[] bytes = BUFFERS.get();
+        private int longitud;
+        private char sustitutoAlto;
+        
+        SalidaUtf8(TablaBraille tabla, OutputStream destino) {
+            this.tabla = tabla;
+            this.destino = destino;
+        }
+        
+        @Override
+        public void indicador(char celda) {
+            reservar(3);
+            agregarCelda(celda);
+        }
+        
+        @Override
+        public void celda(char celda) {
+            reservar(3);
+            if (celda == ' ') {
+                bytes[longitud++] = ' ';
+            } else {
+                agregarCelda(celda);
+            }
+        }
+        
+        @Override
+        public void celdas(char[] celdas, int cantidad) {
+            reservar(cantidad * 3);
+            for (int i = 0; i < cantidad; i++) {
+                char celda = celdas[i];
+                if (celda == ' ') {
+                    bytes[longitud++] = ' ';
                 } else {
-                    resultado.append(textoChar);
+                    agregarCelda(celda);
                 }
+            }
+        }
+        
+        @Override
+        public void separador(char caracter) {
+            String brailleSeparador = tabla.buscarBraille(caracter);
+            if (brailleSeparador != null) {
+                agregar(brailleSeparador);
+            }
+        }
+        
+        @Override
+        public void caracter(char caracter, char original) {
+            String brailleChar = tabla.buscarBraille(caracter);
+            if (brailleChar != null) {
+                agregar(brailleChar);
             } else {
                 // Si no se encuentra, mantener el carácter original
-                resultado.append(braille.charAt(i));
+                agregar(original);
             }
         }
         
-        return resultado.toString();
+        private void agregar(String braille) {
+            for (int i = 0; i < braille.length(); i++) {
+                agregar(braille.charAt(i));
+            }
+        }
+        
+        private void agregar(char caracter) {
+            if (sustitutoAlto != 0 && Character.isLowSurrogate(caracter)) {
+                int codigo = Character.toCodePoint(sustitutoAlto, caracter);
+                sustitutoAlto = 0;
+                reservar(4);
+                bytes[longitud++] = (byte) (0xF0 | (codigo >> 18));
+                bytes[longitud++] = (byte) (0x80 | ((codigo >> 12) & 0x3F));
+                bytes[longitud++] = (byte) (0x80 | ((codigo >> 6) & 0x3F));
+                bytes[longitud++] = (byte) (0x80 | (codigo & 0x3F));
+                return;
+            }
+            reservar(3);
+            if (caracter < 0x80) {
+                bytes[longitud++] = (byte) caracter;
+            } else if (caracter < 0x800) {
+                bytes[longitud++] = (byte) (0xC0 | (caracter >> 6));
+                bytes[longitud++] = (byte) (0x80 | (caracter & 0x3F));
+            } else if (Character.isHighSurrogate(caracter)) {
+                sustitutoAlto = caracter;
+            } else if (Character.isLowSurrogate(caracter)) {
+                bytes[longitud++] = '?';
+            } else {
+                bytes[longitud++] = (byte) (0xE0 | (caracter >> 12));
+                bytes[longitud++] = (byte) (0x80 | ((caracter >> 6) & 0x3F));
+                bytes[longitud++] = (byte) (0x80 | (caracter & 0x3F));
+            }
+        }
+        
+        private void agregarCelda(char celda) {
+            bytes[longitud++] = (byte) 0xE2;
+            bytes[longitud++] = (byte) (0xA0 | ((celda >> 6) & 0x03));
+            bytes[longitud++] = (byte) (0x80 | (celda & 0x3F));
+        }
+        
+        /**
+         * Garantiza espacio para la cantidad de bytes indicada, volcando el
+         * buffer si hace falta; celdas() nunca pide más de 3 * 64. Un
+         * sustituto alto pendiente que no va seguido del bajo se escribe
+         * aquí como '?', antes de lo que venga después.
+         */
+        private void reservar(int cantidad) {
+            if (longitud + cantidad + 1 > bytes.length) {
+                volcar();
+            }
+            if (sustitutoAlto != 0) {
+                sustitutoAlto = 0;
+                bytes[longitud++] = '?';
+            }
+        }
+        
+        private void volcar() {
+            try {
+                destino.write(bytes, 0, longitud);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            longitud = 0;
+        }
+        
+        /**
+         * Escribe lo que quede en el buffer, incluido un sustituto alto
+         * pendiente al final del texto.
+         */
+        void vaciar() throws IOException {
+            try {
+                reservar(0);
+                volcar();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+    
+    /**
+     * Vista de un arreglo de celdas como texto Braille Unicode, para
+     * decodificarlo con el mismo autómata sin copiarlo. La celda vacía se
+     * lee como espacio.
+     */
+    private static final class VistaCeldas implements CharSequence {
+        
+        private final byte[] celdas;
+        private final int desde;
+        private final int hasta;
+        
+        VistaCeldas(byte[] celdas, int desde, int hasta) {
+            this.celdas = celdas;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+        
+        @Override
+        public int length() {
+            return hasta - desde;
+        }
+        
+        @Override
+        public char charAt(int indice) {
+            return celdaAChar(celdas[desde + indice]);
+        }
+        
+        @Override
+        public CharSequence subSequence(int inicio, int fin) {
+            return new VistaCeldas(celdas, desde + inicio, desde + fin);
+        }
+        
+        @Override
+        public String toString() {
+            return new StringBuilder(this).toString();
+        }
+    }
+    
+    /**
+     * Estado de la conversión Braille a texto (modos mayúscula y número).
+     */
+    static final class EstadoBrailleATexto {
+        
+        private final TablaBraille tabla;
+        private final char indicadorMayuscula;
+        private final char indicadorNumero;
+        private boolean siguienteMayuscula;
+        private boolean enModoNumero;
+        
+        EstadoBrailleATexto(TablaBraille tabla, boolean siguienteMayuscula) {
+            this.tabla = tabla;
+            this.indicadorMayuscula = tabla.getIndicadorMayuscula();
+            this.indicadorNumero = tabla.getIndicadorNumero();
+            this.siguienteMayuscula = siguienteMayuscula;
+        }
+        
+        /**
+         * Guarda el estado en un entero, para puntos de control.
+         */
+        int guardar() {
+            return (siguienteMayuscula ? 1 : 0) | (enModoNumero ? 2 : 0);
+        }
+        
+        /**
+         * Restaura un estado obtenido con {@link #guardar()}.
+         */
+        void restaurar(int estado) {
+            siguienteMayuscula = (estado & 1) != 0;
+            enModoNumero = (estado & 2) != 0;
+        }
+        
+        /**
+         * Decodifica el rango indicado.
+         *
+         * @param braille el texto Braille
+         * @param inicio la posición de inicio
+         * @param fin la posición final (exclusiva)
+         * @param ultimo si no llegará más entrada después de este rango
+         * @param resultado destino del texto
+         * @return la posición hasta la que se consumió la entrada; si no es
+         *         el último bloque, puede quedar un prefijo de símbolo sin consumir
+         */
+        int decodificar(CharSequence braille, int inicio, int fin, boolean ultimo, StringBuilder resultado) {
+            for (int i = inicio; i < fin; i++) {
+                // Símbolos de varias celdas: tienen prioridad sobre los
+                // indicadores y separadores con los que comparten prefijo
+                int coincidencia = tabla.getDecodificador().buscar(braille, i, fin, ultimo);
+                if (coincidencia == TrieBraille.INCOMPLETA) {
+                    return i;
+                }
+                if (TrieBraille.longitud(coincidencia) > 1) {
+                    char simbolo = TrieBraille.caracter(coincidencia);
+                    if (siguienteMayuscula) {
+                        resultado.append(Character.toUpperCase(simbolo));
+                        siguienteMayuscula = false;
+                    } else {
+                        resultado.append(simbolo);
+                    }
+                    // Un símbolo termina la secuencia numérica (el texto vuelve a llevar ⠼)
+                    enModoNumero = false;
+                    i += TrieBraille.longitud(coincidencia) - 1;
+                    continue;
+                }
+                
+                char caracterActual = braille.charAt(i);
+                
+                // Detectar indicador de mayúscula
+                if (caracterActual == indicadorMayuscula && indicadorMayuscula != TablaBraille.SIN_INDICADOR) {
+                    siguienteMayuscula = true;
+                    continue;
+                }
+                
+                // Detectar indicador de número
+                if (caracterActual == indicadorNumero && indicadorNumero != TablaBraille.SIN_INDICADOR) {
+                    enModoNumero = true;
+                    continue;
+                }
+                
+                // Detectar separadores que mantienen o terminan el modo número
+                if (tabla.esSeparadorNumerico(caracterActual)) {
+                    // Es un separador (guion, coma, punto)
+                    resultado.append(tabla.buscarTexto(caracterActual));
+                    // No salir de modo número, el siguiente indicador lo decidirá
+                    continue;
+                }
+                
+                // Espacios terminan el modo número
+                if (caracterActual == ' ') {
+                    resultado.append(' ');
+                    enModoNumero = false;
+                    continue;
+                }
+                
+                // Convertir el carácter
+                char textoChar = tabla.buscarTexto(caracterActual);
+                
+                if (textoChar != SIN_TRADUCCION) {
+                    if (enModoNumero) {
+                        // En modo número: convertir letras a-j como números 1-0
+                        char numeroChar = letraANumero(textoChar);
+                        resultado.append(numeroChar);
+                    } else if (siguienteMayuscula && textoChar != ' ') {
+                        resultado.append(Character.toUpperCase(textoChar));
+                        siguienteMayuscula = false;
+                    } else {
+                        resultado.append(textoChar);
+                    }
+                } else {
+                    // Si no se encuentra, mantener el carácter original
+                    resultado.append(caracterActual);
+                }
+            }
+            return fin;
+        }
     }
     
     /**
      * Convierte letra Braille a número cuando está en modo numérico
      * a=1, b=2, c=3, d=4, e=5, f=6, g=7, h=8, i=9, j=0
      */
-    private char letraANumero(char letra) {
+    private static char letraANumero(char letra) {
         switch (letra) {
             case 'a': return '1';
             case 'b': return '2';
@@ -314,8 +1540,11 @@ public class BrailleService {
             return false;
         }
         
-        for (char c : texto.toLowerCase().toCharArray()) {
-            if (!TEXTO_A_BRAILLE.containsKey(c)) {
+        // Misma regla que la conversión (carácter a carácter en minúscula),
+        // consultada en el mapa de bits de la tabla y sin copiar el texto
+        TablaBraille tabla = getTabla();
+        for (int i = 0; i < texto.length(); i++) {
+            if (!tabla.esConvertible(texto.charAt(i))) {
                 return false;
             }
         }
@@ -0,0 +1,135 @@
+package com.example.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Cache de resultados de conversión para los textos que se repiten mucho
+ * (señalética, plantillas). Caffeine usa la política W-TinyLFU: una ventana
+ * LRU pequeña para lo recién llegado y un filtro de frecuencia que decide si
+ * una entrada nueva merece desplazar a una antigua.
+ *
+ * La clave incluye la versión de la tabla, así una tabla recargada nunca
+ * sirve resultados viejos; al recargar además se vacía para liberar memoria.
+ */
+@Service
+public class CacheConversionService {
+    
+    // Memoria aproximada de una entrada además de sus cadenas (clave, nodo, objetos)
+    private static final int BYTES_POR_ENTRADA = 96;
+    
+    private final Cache<Clave, String> cache;
+    private final int longitudMaximaTexto;
+    
+    public CacheConversionService(
+            @Value("${braille.cache.peso-maximo-mb:32}") long pesoMaximoMb,
+            @Value("${braille.cache.longitud-maxima-texto:4096}") int longitudMaximaTexto) {
+        this.longitudMaximaTexto = longitudMaximaTexto;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(pesoMaximoMb * 1024 * 1024)
+            .weigher((Clave clave, String resultado) -> peso(clave.texto, resultado))
+            .recordStats()
+            .build();
+    }
+    
+    /**
+     * Obtiene el resultado de la cache o lo calcula y lo guarda. Los textos
+     * largos se convierten sin pasar por la cache.
+     *
+     * @param tipo el tipo de conversión
+     * @param tabla la tabla con la que se convierte
+     * @param texto el texto de entrada
+     * @param conversion la conversión a ejecutar si no está en cache
+     * @return el resultado
+     */
+    public String obtener(String tipo, TablaBraille tabla, String texto, Function<String, String> conversion) {
+        if (texto == null || texto.length() > longitudMaximaTexto) {
+            return conversion.apply(texto);
+        }
+        return cache.get(new Clave(tipo, tabla.getCodigo(), tabla.getVersion(), texto), clave -> conversion.apply(texto));
+    }
+    
+    /**
+     * Vacía la cache (p. ej. tras recargar el diccionario)
+     */
+    public void invalidar() {
+        cache.invalidateAll();
+    }
+    
+    /**
+     * Obtiene las métricas de la cache
+     */
+    public Map<String, Object> obtenerEstadisticas() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("aciertos", stats.hitCount());
+        estadisticas.put("fallos", stats.missCount());
+        estadisticas.put("tasaAciertos", stats.hitRate());
+        estadisticas.put("desalojos", stats.evictionCount());
+        estadisticas.put("entradas", cache.estimatedSize());
+        Policy.Eviction<Clave, String> desalojo = cache.policy().eviction().orElseThrow();
+        estadisticas.put("pesoBytes", desalojo.weightedSize().orElse(0L));
+        estadisticas.put("pesoMaximoBytes", desalojo.getMaximum());
+        estadisticas.put("longitudMaximaTexto", longitudMaximaTexto);
+        return estadisticas;
+    }
+    
+    /**
+     * Memoria aproximada de una entrada: dos bytes por carácter (peor caso de
+     * String en Java) más la estructura.
+     */
+    private static int peso(String texto, String resultado) {
+        long bytes = 2L * (texto.length() + resultado.length()) + BYTES_POR_ENTRADA;
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Clave de la cache: dirección, tabla, versión de la tabla y texto
+     */
+    private static final class Clave {
+        
+        private final String tipo;
+        private final String tabla;
+        private final String version;
+        private final String texto;
+        private final int hash;
+        
+        Clave(String tipo, String tabla, String version, String texto) {
+            this.tipo = tipo;
+            this.tabla = tabla;
+            this.version = version;
+            this.texto = texto;
+            this.hash = Objects.hash(tipo, tabla, version, texto);
+        }
+        
+        @Override
+        public boolean equals(Object otro) {
+            if (this == otro) {
+                return true;
+            }
+            if (!(otro instanceof Clave)) {
+                return false;
+            }
+            Clave clave = (Clave) otro;
+            return hash == clave.hash
+                && tipo.equals(clave.tipo)
+                && tabla.equals(clave.tabla)
+                && version.equals(clave.version)
+                && texto.equals(clave.texto);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
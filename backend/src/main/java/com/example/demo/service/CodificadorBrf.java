@@ -0,0 +1,47 @@
+package com.example.demo.service;
+
+/**
+ * Braille ASCII norteamericano (BRF), el formato que aceptan las impresoras
+ * Braille: cada celda es un byte ASCII según la tabla de 64 patrones de
+ * seis puntos. Los puntos 7 y 8 no existen en BRF y se descartan.
+ */
+public final class CodificadorBrf {
+
+    /**
+     * Byte BRF de cada patrón de seis puntos (celda - U+2800).
+     */
+    private static final byte[] BYTES = new byte[64];
+
+    static {
+        for (int patron = 0; patron < BYTES.length; patron++) {
+            BYTES[patron] = (byte) DefinicionesBraille.ASCII_BRAILLE.charAt(patron);
+        }
+    }
+
+    private CodificadorBrf() {}
+
+    /**
+     * Codifica un carácter. Las celdas U+2800-U+28FF dan su byte BRF; los
+     * espacios, un espacio; cualquier otro carácter (texto que quedó sin
+     * convertir) también un espacio, porque en BRF cada letra ASCII es una
+     * celda y copiarla cambiaría su significado.
+     */
+    public static byte codificar(char caracter) {
+        if (caracter >= '\u2800' && caracter <= '\u28FF') {
+            return BYTES[(caracter - '\u2800') & 0x3F];
+        }
+        return ' ';
+    }
+
+    /**
+     * Codifica las celdas de un arreglo.
+     *
+     * @return cuántos bytes se escribieron en destino (uno por celda)
+     */
+    public static int codificar(char[] celdas, int desde, int cantidad, byte[] destino, int posicion) {
+        for (int i = 0; i < cantidad; i++) {
+            destino[posicion + i] = codificar(celdas[desde + i]);
+        }
+        return cantidad;
+    }
+}
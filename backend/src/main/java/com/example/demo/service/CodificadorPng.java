@@ -0,0 +1,192 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Codificador PNG mínimo para imágenes de 8 bits por muestra, pensado
+ * para la señalética: grandes zonas de un solo color con bordes
+ * suavizados entre dos colores.
+ *
+ * Frente a ImageIO se ahorra la búsqueda del writer, los metadatos y la
+ * conversión a través del Raster: los píxeles se leen directamente del
+ * int[] de la imagen. Si la imagen tiene hasta 256 colores (lo normal en
+ * una señalética) se escribe con paleta, un byte por píxel en lugar de
+ * tres, y si no en RGB. Cada fila usa el filtro Sub (diferencia con el
+ * píxel de la izquierda), que deja en cero las zonas lisas, así el
+ * deflate a velocidad máxima comprime casi igual que el nivel por defecto.
+ */
+public final class CodificadorPng {
+
+    private static final byte[] FIRMA = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int TAMANO_IDAT = 32 * 1024;
+    private static final int TAMANO_BLOQUE = 64 * 1024;
+    private static final int MAX_PALETA = 256;
+
+    private CodificadorPng() {}
+
+    /**
+     * Escribe una imagen en PNG. No cierra la salida.
+     *
+     * @param pixeles los píxeles 0xRRGGBB por filas
+     * @param ancho el ancho en píxeles
+     * @param alto el alto en píxeles
+     * @param nivel el nivel de compresión de Deflater (0-9)
+     */
+    public static void escribir(int[] pixeles, int ancho, int alto, int nivel, OutputStream salida)
+            throws IOException {
+        int[] paleta = new int[MAX_PALETA];
+        byte[] indices = new byte[pixeles.length];
+        int colores = indexar(pixeles, paleta, indices);
+
+        salida.write(FIRMA);
+        byte[] cabecera = new byte[13];
+        entero(cabecera, 0, ancho);
+        entero(cabecera, 4, alto);
+        cabecera[8] = 8;                        // bits por muestra
+        cabecera[9] = (byte) (colores > 0 ? 3 : 2); // con paleta o RGB
+        cabecera[10] = 0;                       // deflate
+        cabecera[11] = 0;                       // filtros adaptativos
+        cabecera[12] = 0;                       // sin entrelazado
+        bloque(salida, "IHDR", cabecera, cabecera.length);
+
+        if (colores > 0) {
+            byte[] plte = new byte[colores * 3];
+            for (int i = 0; i < colores; i++) {
+                plte[i * 3] = (byte) (paleta[i] >> 16);
+                plte[i * 3 + 1] = (byte) (paleta[i] >> 8);
+                plte[i * 3 + 2] = (byte) paleta[i];
+            }
+            bloque(salida, "PLTE", plte, plte.length);
+        }
+
+        Deflater deflater = new Deflater(nivel);
+        try {
+            // Las filas filtradas se juntan en bloques para no llamar al deflate por fila
+            int bytesFila = 1 + ancho * (colores > 0 ? 1 : 3);
+            byte[] filas = new byte[Math.max(bytesFila, TAMANO_BLOQUE / bytesFila * bytesFila)];
+            byte[] comprimido = new byte[TAMANO_IDAT];
+            int enFilas = 0;
+            int enComprimido = 0;
+            for (int y = 0; y < alto; y++) {
+                int desde = y * ancho;
+                filas[enFilas] = 1; // filtro Sub
+                if (colores > 0) {
+                    byte anterior = 0;
+                    for (int x = 0, j = enFilas + 1; x < ancho; x++, j++) {
+                        byte indice = indices[desde + x];
+                        filas[j] = (byte) (indice - anterior);
+                        anterior = indice;
+                    }
+                } else {
+                    int anterior = 0;
+                    for (int x = 0, j = enFilas + 1; x < ancho; x++, j += 3) {
+                        int pixel = pixeles[desde + x];
+                        filas[j] = (byte) ((pixel >> 16) - (anterior >> 16));
+                        filas[j + 1] = (byte) ((pixel >> 8) - (anterior >> 8));
+                        filas[j + 2] = (byte) (pixel - anterior);
+                        anterior = pixel;
+                    }
+                }
+                enFilas += bytesFila;
+                boolean fin = y == alto - 1;
+                if (fin || enFilas + bytesFila > filas.length) {
+                    deflater.setInput(filas, 0, enFilas);
+                    if (fin) {
+                        deflater.finish();
+                    }
+                    enComprimido = comprimir(deflater, comprimido, enComprimido, fin, salida);
+                    enFilas = 0;
+                }
+            }
+            if (enComprimido > 0) {
+                bloque(salida, "IDAT", comprimido, enComprimido);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        bloque(salida, "IEND", cabecera, 0);
+    }
+
+    /**
+     * Comprime la entrada pendiente del deflater (y, al final, lo que
+     * queda) y escribe un IDAT cada vez que se llena el búfer.
+     *
+     * @param enComprimido los bytes ya en el búfer
+     * @return los bytes que quedan en el búfer sin escribir
+     */
+    private static int comprimir(Deflater deflater, byte[] comprimido, int enComprimido, boolean fin,
+                                 OutputStream salida) throws IOException {
+        while (fin ? !deflater.finished() : !deflater.needsInput()) {
+            enComprimido += deflater.deflate(comprimido, enComprimido, comprimido.length - enComprimido);
+            if (enComprimido == comprimido.length) {
+                bloque(salida, "IDAT", comprimido, enComprimido);
+                enComprimido = 0;
+            }
+        }
+        return enComprimido;
+    }
+
+    /**
+     * Arma la paleta de la imagen y el índice de cada píxel. Los píxeles
+     * iguales al anterior (casi todos) no consultan la tabla.
+     *
+     * @return los colores de la paleta, o 0 si hay más de 256
+     */
+    private static int indexar(int[] pixeles, int[] paleta, byte[] indices) {
+        // Tabla hash abierta color -> índice + 1 (0 = libre)
+        int[] claves = new int[MAX_PALETA * 4];
+        int[] valores = new int[MAX_PALETA * 4];
+        int mascara = claves.length - 1;
+        int colores = 0;
+        int anterior = -1;
+        byte indiceAnterior = 0;
+        for (int i = 0; i < pixeles.length; i++) {
+            int pixel = pixeles[i] & 0xFFFFFF;
+            if (pixel != anterior) {
+                int h = (pixel * 0x9E3779B1) >>> 22 & mascara;
+                while (valores[h] != 0 && claves[h] != pixel) {
+                    h = (h + 1) & mascara;
+                }
+                if (valores[h] == 0) {
+                    if (colores == MAX_PALETA) {
+                        return 0;
+                    }
+                    paleta[colores] = pixel;
+                    claves[h] = pixel;
+                    valores[h] = ++colores;
+                }
+                anterior = pixel;
+                indiceAnterior = (byte) (valores[h] - 1);
+            }
+            indices[i] = indiceAnterior;
+        }
+        return colores;
+    }
+
+    private static void bloque(OutputStream salida, String tipo, byte[] datos, int longitud) throws IOException {
+        byte[] encabezado = new byte[8];
+        entero(encabezado, 0, longitud);
+        for (int i = 0; i < 4; i++) {
+            encabezado[4 + i] = (byte) tipo.charAt(i);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(encabezado, 4, 4);
+        crc.update(datos, 0, longitud);
+        salida.write(encabezado);
+        salida.write(datos, 0, longitud);
+        byte[] suma = new byte[4];
+        entero(suma, 0, (int) crc.getValue());
+        salida.write(suma);
+    }
+
+    private static void entero(byte[] destino, int posicion, int valor) {
+        destino[posicion] = (byte) (valor >>> 24);
+        destino[posicion + 1] = (byte) (valor >>> 16);
+        destino[posicion + 2] = (byte) (valor >>> 8);
+        destino[posicion + 3] = (byte) valor;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Conjunto de caracteres del plano básico (U+0000 - U+FFFF) como mapa de
+ * bits: 8 KB por conjunto y una consulta sin objetos ni búsquedas. Los
+ * caracteres fuera del plano básico llegan como sustitutos, que nunca
+ * pertenecen a un conjunto.
+ */
+final class ConjuntoCaracteres {
+
+    private static final int CARACTERES = Character.MAX_VALUE + 1;
+
+    // Las letras con diacrítico precompuestas están antes de este código
+    // (latín, griego, cirílico, latín extendido adicional)
+    private static final int FIN_LETRAS_CON_DIACRITICO = 0x2000;
+
+    /**
+     * Caracteres cuya minúscula es otro carácter (A, Á, İ, el signo Kelvin...),
+     * para no recorrer todo el plano por cada tabla.
+     */
+    private static final char[] CON_OTRA_MINUSCULA = conOtraMinuscula();
+
+    private final long[] bits = new long[CARACTERES / Long.SIZE];
+
+    private ConjuntoCaracteres() {
+    }
+
+    ConjuntoCaracteres(IntPredicate pertenece) {
+        for (int caracter = 0; caracter < CARACTERES; caracter++) {
+            if (pertenece.test(caracter)) {
+                agregar((char) caracter);
+            }
+        }
+    }
+
+    /**
+     * Conjunto de los caracteres cuya minúscula está en las claves dadas,
+     * es decir, los que el codificador sabe convertir.
+     *
+     * @param minusculas los caracteres definidos en la tabla
+     */
+    static ConjuntoCaracteres porMinuscula(Set<Character> minusculas) {
+        ConjuntoCaracteres conjunto = new ConjuntoCaracteres();
+        for (char caracter : minusculas) {
+            if (Character.toLowerCase(caracter) == caracter) {
+                conjunto.agregar(caracter);
+            }
+        }
+        for (char caracter : CON_OTRA_MINUSCULA) {
+            if (minusculas.contains(Character.toLowerCase(caracter))) {
+                conjunto.agregar(caracter);
+            }
+        }
+        return conjunto;
+    }
+
+    boolean contiene(char caracter) {
+        return (bits[caracter >>> 6] & (1L << caracter)) != 0;
+    }
+
+    private void agregar(char caracter) {
+        bits[caracter >>> 6] |= 1L << caracter;
+    }
+
+    private static char[] conOtraMinuscula() {
+        char[] caracteres = new char[CARACTERES];
+        int cantidad = 0;
+        for (int caracter = 0; caracter < CARACTERES; caracter++) {
+            if (Character.toLowerCase((char) caracter) != caracter) {
+                caracteres[cantidad++] = (char) caracter;
+            }
+        }
+        return Arrays.copyOf(caracteres, cantidad);
+    }
+
+    /**
+     * Categorías del informe de validación. Van aparte para calcularlas
+     * solo cuando se pide el primer informe, no al arrancar.
+     */
+    static final class Categorias {
+
+        /**
+         * Letras con diacrítico: á, é, ü, ñ, ç, à...
+         */
+        static final ConjuntoCaracteres ACENTOS = new ConjuntoCaracteres(ConjuntoCaracteres::tieneDiacritico);
+
+        /**
+         * Signos y símbolos: lo que no es letra, dígito ni espacio en blanco.
+         */
+        static final ConjuntoCaracteres SIMBOLOS = new ConjuntoCaracteres(caracter ->
+            !Character.isLetterOrDigit(caracter) && !Character.isWhitespace(caracter)
+                && !Character.isSurrogate((char) caracter) && Character.getType(caracter) != Character.CONTROL);
+
+        private Categorias() {
+        }
+    }
+
+    private static boolean tieneDiacritico(int caracter) {
+        if (caracter < 0x80 || caracter >= FIN_LETRAS_CON_DIACRITICO || !Character.isLetter(caracter)) {
+            return false;
+        }
+        String descompuesto = Normalizer.normalize(String.valueOf((char) caracter), Normalizer.Form.NFD);
+        return descompuesto.length() > 1 && Character.getType(descompuesto.charAt(1)) == Character.NON_SPACING_MARK;
+    }
+}
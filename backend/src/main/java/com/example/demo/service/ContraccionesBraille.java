@@ -0,0 +1,318 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reglas de contracción del Braille español grado 2 (estenografía),
+ * compiladas en dos autómatas de coincidencia más larga: uno sobre el texto
+ * para contraer y otro sobre las celdas para expandir.
+ *
+ * Cada regla solo vale en una posición de la palabra (palabra completa,
+ * inicio, final o cualquier lugar). Como la regla más larga está acotada,
+ * contraer y expandir una palabra es lineal en su longitud.
+ *
+ * Las contracciones de grupo usan celdas que el grado 1 no asigna a ningún
+ * carácter, así la expansión no es ambigua. Las palabras completas usan la
+ * celda de una consonante; como en cualquier Braille contraído, una
+ * consonante aislada se lee como su palabra abreviada.
+ */
+final class ContraccionesBraille {
+
+    /**
+     * Posición de la palabra en la que se aplica una regla. El orden es la
+     * prioridad cuando varias reglas coinciden con la misma longitud.
+     */
+    enum Posicion {
+        PALABRA,    // La palabra completa
+        INICIO,     // Al inicio de la palabra
+        FINAL,      // Al final de la palabra
+        CUALQUIERA  // En cualquier lugar
+    }
+
+    private static final int POSICIONES = Posicion.values().length;
+    private static final int SIN_REGLA = -1;
+
+    private final String[] textos;
+    private final String[] braille;
+    private final Automata contraccion;
+    private final Automata expansion;
+
+    /**
+     * Celdas con las que empieza alguna contracción, indexadas por
+     * desplazamiento respecto a U+2800.
+     */
+    private final boolean[] celdaDeContraccion = new boolean[256];
+
+    private ContraccionesBraille(List<Regla> reglas) {
+        int total = reglas.size();
+        this.textos = new String[total];
+        this.braille = new String[total];
+        Map<String, int[]> porTexto = new TreeMap<>();
+        Map<String, int[]> porBraille = new TreeMap<>();
+
+        for (int indice = 0; indice < total; indice++) {
+            Regla regla = reglas.get(indice);
+            textos[indice] = regla.texto;
+            braille[indice] = regla.braille;
+            int posicion = regla.posicion.ordinal();
+            registrar(porTexto, textos[indice], posicion, indice);
+            registrar(porBraille, braille[indice], posicion, indice);
+            celdaDeContraccion[braille[indice].charAt(0) - TablaBraille.BRAILLE_BASE] = true;
+        }
+        this.contraccion = new Automata(porTexto);
+        this.expansion = new Automata(porBraille);
+    }
+
+    private static void registrar(Map<String, int[]> reglas, String clave, int posicion, int indice) {
+        int[] porPosicion = reglas.computeIfAbsent(clave, k -> {
+            int[] vacias = new int[POSICIONES];
+            Arrays.fill(vacias, SIN_REGLA);
+            return vacias;
+        });
+        if (porPosicion[posicion] != SIN_REGLA) {
+            throw new IllegalArgumentException("Regla de contracción repetida: " + clave);
+        }
+        porPosicion[posicion] = indice;
+    }
+
+    /**
+     * Compila las reglas del español. Las celdas de grupo (⠔ ⠜ ⠣ ⠩ ⠪ ⠫ ⠱ ⠲
+     * ⠹ ⠿ y los prefijos ⠘ ⠰) no están asignadas en la tabla de grado 1.
+     *
+     * @return las contracciones compiladas
+     */
+    static ContraccionesBraille espanol() {
+        List<Regla> reglas = new ArrayList<>();
+
+        // Palabras frecuentes abreviadas con una consonante
+        reglas.add(new Regla("bien", "⠃", Posicion.PALABRA));
+        reglas.add(new Regla("con", "⠉", Posicion.PALABRA));
+        reglas.add(new Regla("de", "⠙", Posicion.PALABRA));
+        reglas.add(new Regla("fue", "⠋", Posicion.PALABRA));
+        reglas.add(new Regla("gran", "⠛", Posicion.PALABRA));
+        reglas.add(new Regla("hay", "⠓", Posicion.PALABRA));
+        reglas.add(new Regla("los", "⠇", Posicion.PALABRA));
+        reglas.add(new Regla("muy", "⠍", Posicion.PALABRA));
+        reglas.add(new Regla("no", "⠝", Posicion.PALABRA));
+        reglas.add(new Regla("para", "⠏", Posicion.PALABRA));
+        reglas.add(new Regla("que", "⠟", Posicion.PALABRA));
+        reglas.add(new Regla("por", "⠗", Posicion.PALABRA));
+        reglas.add(new Regla("se", "⠎", Posicion.PALABRA));
+        reglas.add(new Regla("todo", "⠞", Posicion.PALABRA));
+        reglas.add(new Regla("vez", "⠧", Posicion.PALABRA));
+
+        // Grupos de letras en cualquier lugar de la palabra
+        reglas.add(new Regla("es", "⠔", Posicion.CUALQUIERA));
+        reglas.add(new Regla("ar", "⠜", Posicion.CUALQUIERA));
+        reglas.add(new Regla("er", "⠣", Posicion.CUALQUIERA));
+        reglas.add(new Regla("ch", "⠩", Posicion.CUALQUIERA));
+        reglas.add(new Regla("or", "⠪", Posicion.CUALQUIERA));
+        reglas.add(new Regla("en", "⠫", Posicion.CUALQUIERA));
+        reglas.add(new Regla("ll", "⠱", Posicion.CUALQUIERA));
+        reglas.add(new Regla("qu", "⠹", Posicion.CUALQUIERA));
+        reglas.add(new Regla("ent", "⠿", Posicion.CUALQUIERA));
+
+        // Terminaciones
+        reglas.add(new Regla("ción", "⠲", Posicion.FINAL));
+        reglas.add(new Regla("mente", "⠰⠍", Posicion.FINAL));
+        reglas.add(new Regla("dad", "⠰⠙", Posicion.FINAL));
+        reglas.add(new Regla("ando", "⠰⠁", Posicion.FINAL));
+        reglas.add(new Regla("endo", "⠰⠑", Posicion.FINAL));
+        reglas.add(new Regla("mos", "⠰⠎", Posicion.FINAL));
+
+        // Prefijos
+        reglas.add(new Regla("con", "⠘⠉", Posicion.INICIO));
+        reglas.add(new Regla("des", "⠘⠙", Posicion.INICIO));
+        reglas.add(new Regla("pre", "⠘⠏", Posicion.INICIO));
+        reglas.add(new Regla("tra", "⠘⠞", Posicion.INICIO));
+        reglas.add(new Regla("sub", "⠘⠎", Posicion.INICIO));
+
+        return new ContraccionesBraille(reglas);
+    }
+
+    /**
+     * Regla de contracción: un grupo de letras y sus celdas en una posición.
+     */
+    private static final class Regla {
+
+        private final String texto;
+        private final String braille;
+        private final Posicion posicion;
+
+        Regla(String texto, String braille, Posicion posicion) {
+            this.texto = texto;
+            this.braille = braille;
+            this.posicion = posicion;
+        }
+    }
+
+    /**
+     * Indica si la celda forma parte de una palabra contraída: una letra de
+     * la tabla o una celda propia de las contracciones.
+     */
+    boolean esCeldaDePalabra(TablaBraille tabla, char celda) {
+        if (!TablaBraille.esCeldaBraille(celda)) {
+            return false;
+        }
+        return celdaDeContraccion[celda - TablaBraille.BRAILLE_BASE] || Character.isLetter(tabla.buscarTexto(celda));
+    }
+
+    /**
+     * Contrae una palabra en minúsculas. Los tramos sin regla se escriben
+     * letra a letra con la tabla de grado 1.
+     *
+     * @param palabra la palabra, solo letras en minúscula
+     * @param tabla la tabla de grado 1
+     * @param resultado destino del Braille
+     */
+    void contraer(CharSequence palabra, TablaBraille tabla, StringBuilder resultado) {
+        int fin = palabra.length();
+        int i = 0;
+        while (i < fin) {
+            int regla = contraccion.buscar(palabra, i, fin);
+            if (regla != SIN_REGLA) {
+                resultado.append(braille[regla]);
+                i += textos[regla].length();
+                continue;
+            }
+            char letra = palabra.charAt(i);
+            String celda = tabla.buscarBraille(letra);
+            resultado.append(celda != null ? celda : String.valueOf(letra));
+            i++;
+        }
+    }
+
+    /**
+     * Expande una palabra contraída. Las celdas sin regla se leen con la
+     * tabla de grado 1.
+     *
+     * @param celdas el texto Braille
+     * @param inicio el inicio de la palabra
+     * @param fin el final de la palabra (exclusivo)
+     * @param tabla la tabla de grado 1
+     * @param resultado destino del texto
+     */
+    void expandir(CharSequence celdas, int inicio, int fin, TablaBraille tabla, StringBuilder resultado) {
+        int i = inicio;
+        while (i < fin) {
+            int regla = expansion.buscar(celdas, i, fin, inicio);
+            if (regla != SIN_REGLA) {
+                resultado.append(textos[regla]);
+                i += braille[regla].length();
+                continue;
+            }
+            char celda = celdas.charAt(i);
+            char letra = tabla.buscarTexto(celda);
+            resultado.append(letra != TablaBraille.SIN_TRADUCCION ? letra : celda);
+            i++;
+        }
+    }
+
+    /**
+     * Trie de coincidencia más larga con las reglas de cada nodo separadas
+     * por posición. Los hijos de cada nodo se guardan ordenados en arreglos
+     * planos y se buscan por búsqueda binaria.
+     */
+    private static final class Automata {
+
+        private final int[] primerHijo;
+        private final int[] cantidadHijos;
+        private final char[] etiquetas;
+        private final int[] destinos;
+        // nodo * POSICIONES + posición -> índice de regla, o SIN_REGLA
+        private final int[] reglas;
+
+        Automata(Map<String, int[]> claves) {
+            // Construcción con mapas ordenados; luego se aplana
+            List<TreeMap<Character, Integer>> hijos = new ArrayList<>();
+            List<int[]> reglasDeNodo = new ArrayList<>();
+            hijos.add(new TreeMap<>());
+            reglasDeNodo.add(null);
+
+            for (Map.Entry<String, int[]> clave : claves.entrySet()) {
+                int nodo = 0;
+                for (char caracter : clave.getKey().toCharArray()) {
+                    Integer siguiente = hijos.get(nodo).get(caracter);
+                    if (siguiente == null) {
+                        siguiente = hijos.size();
+                        hijos.get(nodo).put(caracter, siguiente);
+                        hijos.add(new TreeMap<>());
+                        reglasDeNodo.add(null);
+                    }
+                    nodo = siguiente;
+                }
+                reglasDeNodo.set(nodo, clave.getValue());
+            }
+
+            int nodos = hijos.size();
+            this.primerHijo = new int[nodos];
+            this.cantidadHijos = new int[nodos];
+            this.etiquetas = new char[nodos - 1];
+            this.destinos = new int[nodos - 1];
+            this.reglas = new int[nodos * POSICIONES];
+            Arrays.fill(reglas, SIN_REGLA);
+
+            int arista = 0;
+            for (int nodo = 0; nodo < nodos; nodo++) {
+                primerHijo[nodo] = arista;
+                cantidadHijos[nodo] = hijos.get(nodo).size();
+                for (Map.Entry<Character, Integer> hijo : hijos.get(nodo).entrySet()) {
+                    etiquetas[arista] = hijo.getKey();
+                    destinos[arista] = hijo.getValue();
+                    arista++;
+                }
+                if (reglasDeNodo.get(nodo) != null) {
+                    System.arraycopy(reglasDeNodo.get(nodo), 0, reglas, nodo * POSICIONES, POSICIONES);
+                }
+            }
+        }
+
+        /**
+         * Busca la regla más larga válida que empieza en la posición indicada
+         * de una palabra que ocupa [inicioPalabra, fin).
+         */
+        int buscar(CharSequence texto, int inicio, int fin, int inicioPalabra) {
+            int nodo = 0;
+            int mejor = SIN_REGLA;
+            for (int i = inicio; i < fin; i++) {
+                nodo = hijo(nodo, texto.charAt(i));
+                if (nodo < 0) {
+                    break;
+                }
+                int regla = reglaValida(nodo, inicio == inicioPalabra, i + 1 == fin);
+                if (regla != SIN_REGLA) {
+                    mejor = regla;
+                }
+            }
+            return mejor;
+        }
+
+        int buscar(CharSequence palabra, int inicio, int fin) {
+            return buscar(palabra, inicio, fin, 0);
+        }
+
+        private int hijo(int nodo, char caracter) {
+            int desde = primerHijo[nodo];
+            int indice = Arrays.binarySearch(etiquetas, desde, desde + cantidadHijos[nodo], caracter);
+            return indice >= 0 ? destinos[indice] : -1;
+        }
+
+        private int reglaValida(int nodo, boolean alInicio, boolean alFinal) {
+            int base = nodo * POSICIONES;
+            if (alInicio && alFinal && reglas[base + Posicion.PALABRA.ordinal()] != SIN_REGLA) {
+                return reglas[base + Posicion.PALABRA.ordinal()];
+            }
+            if (alInicio && reglas[base + Posicion.INICIO.ordinal()] != SIN_REGLA) {
+                return reglas[base + Posicion.INICIO.ordinal()];
+            }
+            if (alFinal && reglas[base + Posicion.FINAL.ordinal()] != SIN_REGLA) {
+                return reglas[base + Posicion.FINAL.ordinal()];
+            }
+            return reglas[base + Posicion.CUALQUIERA.ordinal()];
+        }
+    }
+}
@@ -2,13 +2,26 @@ package com.example.demo.service;
 
 import com.example.demo.dto.ConversionRequest;
 import com.example.demo.dto.ConversionResponse;
+import com.example.demo.dto.ReporteConversion;
 import com.example.demo.model.Conversion;
 import com.example.demo.model.User;
 import com.example.demo.repository.ConversionRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Servicio para gestionar conversiones y su persistencia
@@ -16,12 +29,18 @@ import java.util.List;
 @Service
 public class ConversionService {
     
+    // Textos a partir de este tamaño se convierten en paralelo
+    private static final int UMBRAL_CONVERSION_PARALELA = 256 * 1024;
+    
     private final BrailleService brailleService;
     private final ConversionRepository conversionRepository;
+    private final CacheConversionService cacheConversionService;
     
-    public ConversionService(BrailleService brailleService, ConversionRepository conversionRepository) {
+    public ConversionService(BrailleService brailleService, ConversionRepository conversionRepository,
+                             CacheConversionService cacheConversionService) {
         this.brailleService = brailleService;
         this.conversionRepository = conversionRepository;
+        this.cacheConversionService = cacheConversionService;
     }
     
     /**
@@ -33,16 +52,35 @@ public class ConversionService {
         String mensaje = "Conversión exitosa";
         long startTime = System.currentTimeMillis();
         Conversion savedConversion = null;
+        // Tomar la tabla una sola vez: aunque se recargue el diccionario,
+        // esta conversión y la versión registrada usan la misma
+        TablaBraille tabla;
+        try {
+            tabla = brailleService.getTabla(request.getTabla());
+        } catch (IllegalArgumentException e) {
+            ConversionResponse response = new ConversionResponse(request.getTexto(), "", request.getTipo(), false);
+            response.setMensaje(e.getMessage());
+            return response;
+        }
+        
+        Double ratioCompresion = null;
+        ReporteConversion reporte = crearReporte(request);
+        Long tiempoNormalizacion = null;
+        Long tiempoConversionMicros = null;
         
         try {
-            if ("texto-a-braille".equals(request.getTipo())) {
-                resultado = brailleService.textoABraille(request.getTexto());
-            } else if ("braille-a-texto".equals(request.getTipo())) {
-                resultado = brailleService.brailleATexto(request.getTexto());
-            } else {
+            long inicioNormalizacion = System.nanoTime();
+            String texto = normalizarEntrada(request, tabla);
+            long inicioConversion = System.nanoTime();
+            resultado = convertirTexto(request, texto, tabla, new StringBuilder(), reporte);
+            tiempoNormalizacion = (inicioConversion - inicioNormalizacion) / 1000;
+            tiempoConversionMicros = (System.nanoTime() - inicioConversion) / 1000;
+            if (resultado == null) {
                 exito = false;
                 mensaje = "Tipo de conversión no válido";
                 resultado = "";
+            } else {
+                ratioCompresion = calcularRatioCompresion(request, texto, resultado, tabla);
             }
             
             // Calcular tiempo de conversión
@@ -51,28 +89,15 @@ public class ConversionService {
             
             // Guardar en historial si se solicita y hay un usuario
             if (guardar && user != null && exito) {
-                Conversion conversion = new Conversion(request.getTexto(), resultado, request.getTipo());
-                conversion.setUser(user);
-                conversion.setTiempoConversionMs(tiempoConversion);
-                
-                // Establecer información adicional si está disponible en el request
-                if (request.getDispositivo() != null) {
-                    conversion.setDispositivo(request.getDispositivo());
-                }
-                if (request.getNavegador() != null) {
-                    conversion.setNavegador(request.getNavegador());
-                }
-                if (request.getIpOrigen() != null) {
-                    conversion.setIpOrigen(request.getIpOrigen());
-                }
-                
-                savedConversion = conversionRepository.save(conversion);
+                savedConversion = conversionRepository.save(
+                    crearConversion(request, resultado, user, tabla, tiempoConversion));
             }
             
         } catch (Exception e) {
             exito = false;
             mensaje = "Error en la conversión: " + e.getMessage();
             resultado = "";
+            reporte = null;
         }
         
         ConversionResponse response = new ConversionResponse(
@@ -82,6 +107,12 @@ public class ConversionService {
             exito
         );
         response.setMensaje(mensaje);
+        response.setVersionDiccionario(tabla.getVersion());
+        response.setTabla(tabla.getCodigo());
+        response.setRatioCompresion(ratioCompresion);
+        response.setReporte(reporte);
+        response.setTiempoNormalizacionMicros(tiempoNormalizacion);
+        response.setTiempoConversionMicros(tiempoConversionMicros);
         
         // Si se guardó, agregar el ID y fecha
         if (savedConversion != null) {
@@ -93,6 +124,291 @@ public class ConversionService {
         return response;
     }
     
+    /**
+     * Convierte un lote de textos en orden. Cada elemento se valida por
+     * separado: uno con error no detiene al resto. Las tablas se resuelven
+     * una vez por lote, el buffer de conversión se reutiliza y, si se pide
+     * guardar, todas las conversiones exitosas se insertan en un único lote JDBC.
+     *
+     * @return una respuesta por cada solicitud, en el mismo orden
+     */
+    public List<ConversionResponse> convertirLote(List<ConversionRequest> requests, User user, boolean guardar) {
+        List<ConversionResponse> respuestas = new ArrayList<>(requests.size());
+        List<Conversion> porGuardar = new ArrayList<>();
+        List<ConversionResponse> respuestasPorGuardar = new ArrayList<>();
+        Map<String, TablaBraille> tablas = new HashMap<>();
+        StringBuilder buffer = new StringBuilder(256);
+        
+        for (ConversionRequest request : requests) {
+            String error = validar(request);
+            if (error != null) {
+                ConversionResponse response = new ConversionResponse(
+                    request != null ? request.getTexto() : null, "", request != null ? request.getTipo() : null, false);
+                response.setMensaje(error);
+                respuestas.add(response);
+                continue;
+            }
+            
+            String codigoTabla = request.getTabla() == null || request.getTabla().isBlank()
+                ? BrailleService.TABLA_POR_DEFECTO : request.getTabla();
+            TablaBraille tabla = tablas.computeIfAbsent(codigoTabla, brailleService::getTabla);
+            long inicio = System.nanoTime();
+            ConversionResponse response;
+            try {
+                ReporteConversion reporte = crearReporte(request);
+                String texto = normalizarEntrada(request, tabla);
+                long inicioConversion = System.nanoTime();
+                String resultado = convertirTexto(request, texto, tabla, buffer, reporte);
+                long fin = System.nanoTime();
+                int tiempoConversion = (int) ((fin - inicio) / 1_000_000);
+                
+                response = new ConversionResponse(request.getTexto(), resultado, request.getTipo(), true);
+                response.setMensaje("Conversión exitosa");
+                response.setRatioCompresion(calcularRatioCompresion(request, texto, resultado, tabla));
+                response.setReporte(reporte);
+                response.setTiempoNormalizacionMicros((inicioConversion - inicio) / 1000);
+                response.setTiempoConversionMicros((fin - inicioConversion) / 1000);
+                if (guardar && user != null) {
+                    porGuardar.add(crearConversion(request, resultado, user, tabla, tiempoConversion));
+                    respuestasPorGuardar.add(response);
+                }
+            } catch (RuntimeException e) {
+                response = new ConversionResponse(request.getTexto(), "", request.getTipo(), false);
+                response.setMensaje("Error en la conversión: " + e.getMessage());
+            }
+            response.setVersionDiccionario(tabla.getVersion());
+            response.setTabla(tabla.getCodigo());
+            respuestas.add(response);
+        }
+        
+        if (!porGuardar.isEmpty()) {
+            conversionRepository.guardarEnLote(porGuardar);
+            for (int i = 0; i < porGuardar.size(); i++) {
+                Conversion conversion = porGuardar.get(i);
+                ConversionResponse response = respuestasPorGuardar.get(i);
+                response.setId(conversion.getId());
+                response.setFecha(conversion.getFecha().toString());
+                response.setTiempoConversionMs(conversion.getTiempoConversionMs());
+            }
+        }
+        
+        return respuestas;
+    }
+    
+    /**
+     * Valida una solicitud de conversión
+     *
+     * @return el mensaje de error, o null si es válida
+     */
+    public String validar(ConversionRequest request) {
+        if (request == null || request.getTexto() == null || request.getTexto().isEmpty()) {
+            return "El texto no puede estar vacío";
+        }
+        String tipo = request.getTipo();
+        if (!("texto-a-braille".equals(tipo) || "braille-a-texto".equals(tipo)
+                || "texto-a-grado2".equals(tipo) || "grado2-a-texto".equals(tipo))) {
+            return "Tipo debe ser 'texto-a-braille', 'braille-a-texto', 'texto-a-grado2' o 'grado2-a-texto'";
+        }
+        if (!existeTabla(request.getTabla())) {
+            return "Tabla Braille no soportada: " + request.getTabla();
+        }
+        boolean grado2 = "texto-a-grado2".equals(tipo) || "grado2-a-texto".equals(tipo);
+        if (grado2 && request.getTabla() != null && !request.getTabla().isBlank()
+                && !BrailleService.TABLA_POR_DEFECTO.equals(request.getTabla())) {
+            return "Braille grado 2 solo disponible para la tabla 'es'";
+        }
+        return null;
+    }
+    
+    /**
+     * Etapa previa a la conversión: normaliza el texto de entrada (NFC,
+     * signos tipográficos, transliteración) salvo que la solicitud lo
+     * desactive. El Braille de entrada no se toca.
+     *
+     * @return el texto a convertir; el mismo objeto si no hubo cambios
+     */
+    private String normalizarEntrada(ConversionRequest request, TablaBraille tabla) {
+        boolean desdeTexto = "texto-a-braille".equals(request.getTipo()) || "texto-a-grado2".equals(request.getTipo());
+        if (desdeTexto && request.isNormalizar()) {
+            return brailleService.normalizar(request.getTexto(), tabla);
+        }
+        return request.getTexto();
+    }
+    
+    /**
+     * Convierte el texto (ya normalizado) con la tabla indicada. Con informe
+     * de validación se convierte y valida en una sola pasada; si no, pasa
+     * primero por la cache de resultados.
+     *
+     * @param reporte el informe a llenar, o null si no se pidió
+     * @return el resultado, o null si el tipo no es válido
+     */
+    private String convertirTexto(ConversionRequest request, String texto, TablaBraille tabla, StringBuilder buffer,
+                                  ReporteConversion reporte) {
+        if (reporte != null) {
+            buffer.setLength(0);
+            brailleService.textoABraille(texto, tabla, buffer, reporte);
+            return buffer.toString();
+        }
+        return cacheConversionService.obtener(request.getTipo(), tabla, texto,
+            clave -> convertirSinCache(request.getTipo(), texto, tabla, buffer));
+    }
+    
+    /**
+     * Crea el informe de validación si la solicitud lo pide. Solo existe
+     * para texto a Braille grado 1.
+     */
+    private ReporteConversion crearReporte(ConversionRequest request) {
+        if (request.isReporte() && "texto-a-braille".equals(request.getTipo())) {
+            return new ReporteConversion();
+        }
+        return null;
+    }
+    
+    /**
+     * Convierte el texto con la tabla indicada. Los textos
+     * grandes van por la ruta paralela; el resto usa el buffer recibido.
+     *
+     * @return el resultado, o null si el tipo no es válido
+     */
+    private String convertirSinCache(String tipo, String texto, TablaBraille tabla, StringBuilder buffer) {
+        boolean paralelo = usarConversionParalela(texto);
+        if ("texto-a-braille".equals(tipo)) {
+            if (paralelo) {
+                return brailleService.textoABrailleParalelo(texto, tabla, ForkJoinPool.commonPool());
+            }
+            buffer.setLength(0);
+            brailleService.textoABraille(texto, tabla, buffer);
+            return buffer.toString();
+        } else if ("braille-a-texto".equals(tipo)) {
+            if (paralelo) {
+                return brailleService.brailleATextoParalelo(texto, tabla, ForkJoinPool.commonPool());
+            }
+            buffer.setLength(0);
+            brailleService.brailleATexto(texto, tabla, buffer);
+            return buffer.toString();
+        } else if ("texto-a-grado2".equals(tipo)) {
+            return brailleService.textoABrailleGrado2(texto, tabla);
+        } else if ("grado2-a-texto".equals(tipo)) {
+            return brailleService.brailleGrado2ATexto(texto, tabla);
+        }
+        return null;
+    }
+    
+    /**
+     * Crea la entidad de historial para una conversión exitosa
+     */
+    private Conversion crearConversion(ConversionRequest request, String resultado, User user,
+                                       TablaBraille tabla, int tiempoConversion) {
+        Conversion conversion = new Conversion(request.getTexto(), resultado, request.getTipo());
+        conversion.setUser(user);
+        conversion.setTiempoConversionMs(tiempoConversion);
+        conversion.setVersionDiccionario(tabla.getVersion());
+        conversion.setTabla(tabla.getCodigo());
+        
+        // Establecer información adicional si está disponible en el request
+        if (request.getDispositivo() != null) {
+            conversion.setDispositivo(request.getDispositivo());
+        }
+        if (request.getNavegador() != null) {
+            conversion.setNavegador(request.getNavegador());
+        }
+        if (request.getIpOrigen() != null) {
+            conversion.setIpOrigen(request.getIpOrigen());
+        }
+        return conversion;
+    }
+    
+    /**
+     * Indica si existe una tabla con ese código (null es la tabla por defecto)
+     */
+    public boolean existeTabla(String codigoTabla) {
+        try {
+            brailleService.getTabla(codigoTabla);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Para grado 2, calcula celdas en grado 2 / celdas en grado 1 (menor que
+     * 1 = más corto). Devuelve null en grado 1.
+     */
+    private Double calcularRatioCompresion(ConversionRequest request, String texto, String resultado,
+                                           TablaBraille tabla) {
+        if ("texto-a-grado2".equals(request.getTipo())) {
+            return calcularRatioCompresion(resultado, brailleService.textoABraille(texto, tabla));
+        } else if ("grado2-a-texto".equals(request.getTipo())) {
+            return calcularRatioCompresion(texto, brailleService.textoABraille(resultado, tabla));
+        }
+        return null;
+    }
+    
+    private Double calcularRatioCompresion(String grado2, String grado1) {
+        if (grado1.isEmpty()) {
+            return null;
+        }
+        return Math.round(grado2.length() * 1000.0 / grado1.length()) / 1000.0;
+    }
+    
+    /**
+     * Decide si conviene repartir la conversión entre varios núcleos
+     */
+    private boolean usarConversionParalela(String texto) {
+        return texto != null
+            && texto.length() >= UMBRAL_CONVERSION_PARALELA
+            && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+    
+    /**
+     * Realiza una conversión por flujo, sin cargar el documento completo en
+     * memoria. Pensado para documentos grandes; no se guarda en historial.
+     * Con normalizar, el texto de texto-a-braille se normaliza por bloques.
+     *
+     * @return número de caracteres leídos
+     */
+    public long convertirFlujo(String tipo, String codigoTabla, boolean normalizar, Reader entrada,
+                               OutputStream salida) throws IOException {
+        TablaBraille tabla = brailleService.getTabla(codigoTabla);
+        if ("texto-a-braille".equals(tipo)) {
+            if (normalizar) {
+                entrada = brailleService.normalizar(entrada, tabla);
+            }
+            // El Braille se escribe como bytes UTF-8, sin pasar por un Writer
+            return brailleService.textoABraille(entrada, salida, tabla);
+        } else if ("braille-a-texto".equals(tipo)) {
+            Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+            return brailleService.brailleATexto(entrada, escritor, tabla);
+        }
+        throw new IllegalArgumentException("Tipo de conversión no válido");
+    }
+    
+    /**
+     * Convierte y escribe el resultado como bytes UTF-8, para la variante
+     * text/plain de /api/convertir. Texto a Braille grado 1 codifica cada
+     * celda directamente en el flujo, sin String intermedio, JSON ni cache;
+     * el resto de tipos se resuelve como siempre (con la cache) y se escribe
+     * codificado. No se guarda en historial.
+     *
+     * @param request la solicitud ya validada
+     * @param salida el flujo de la respuesta
+     * @throws IllegalArgumentException si la tabla o el tipo no son válidos
+     */
+    public void convertirUtf8(ConversionRequest request, OutputStream salida) throws IOException {
+        TablaBraille tabla = brailleService.getTabla(request.getTabla());
+        String texto = normalizarEntrada(request, tabla);
+        if ("texto-a-braille".equals(request.getTipo())) {
+            brailleService.textoABraille(texto, tabla, salida);
+            return;
+        }
+        String resultado = convertirTexto(request, texto, tabla, new StringBuilder(), null);
+        if (resultado == null) {
+            throw new IllegalArgumentException("Tipo de conversión no válido");
+        }
+        salida.write(resultado.getBytes(StandardCharsets.UTF_8));
+    }
+    
     /**
      * Obtiene historial de conversiones de un usuario
      */
@@ -107,6 +423,14 @@ public class ConversionService {
         return conversionRepository.findTop10ByUserOrderByFechaDesc(user);
     }
     
+    /**
+     * Obtiene una conversión del historial si pertenece al usuario
+     */
+    public Optional<Conversion> obtenerConversion(Long id, User user) {
+        return conversionRepository.findById(id)
+            .filter(conversion -> conversion.getUser().getId().equals(user.getId()));
+    }
+    
     /**
      * Elimina una conversión del historial
      */
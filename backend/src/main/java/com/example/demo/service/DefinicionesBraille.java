@@ -0,0 +1,296 @@
+package com.example.demo.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Definiciones carácter -> Braille de las tablas incorporadas en el código.
+ * Todas son de grado 1 (letra a letra); se compilan una vez al arrancar en
+ * {@link TablaBraille} y comparten las reglas de número y mayúscula del motor.
+ */
+final class DefinicionesBraille {
+
+    /**
+     * Braille ASCII norteamericano: el carácter de cada posición es el que
+     * representa la celda con ese patrón de puntos (U+2800 + posición).
+     */
+    static final String ASCII_BRAILLE =
+        " A1B'K2L@CIF/MSP\"E3H9O6R^DJG>NTQ,*5<-U8V.%[$+X!&;:4\\0Z7(_?W]#Y)=";
+
+    private DefinicionesBraille() {}
+
+    /**
+     * Español grado 1.
+     */
+    static Map<Character, String> espanol() {
+        Map<Character, String> definiciones = new TreeMap<>();
+        
+        // Alfabeto español
+        definiciones.put('a', "⠁");
+        definiciones.put('b', "⠃");
+        definiciones.put('c', "⠉");
+        definiciones.put('d', "⠙");
+        definiciones.put('e', "⠑");
+        definiciones.put('f', "⠋");
+        definiciones.put('g', "⠛");
+        definiciones.put('h', "⠓");
+        definiciones.put('i', "⠊");
+        definiciones.put('j', "⠚");
+        definiciones.put('k', "⠅");
+        definiciones.put('l', "⠇");
+        definiciones.put('m', "⠍");
+        definiciones.put('n', "⠝");
+        definiciones.put('ñ', "⠻");
+        definiciones.put('o', "⠕");
+        definiciones.put('p', "⠏");
+        definiciones.put('q', "⠟");
+        definiciones.put('r', "⠗");
+        definiciones.put('s', "⠎");
+        definiciones.put('t', "⠞");
+        definiciones.put('u', "⠥");
+        definiciones.put('v', "⠧");
+        definiciones.put('w', "⠺");
+        definiciones.put('x', "⠭");
+        definiciones.put('y', "⠽");
+        definiciones.put('z', "⠵");
+        
+        // Vocales con acento
+        definiciones.put('á', "⠷");
+        definiciones.put('é', "⠮");
+        definiciones.put('í', "⠌");
+        definiciones.put('ó', "⠬"); // CORREGIDO: era ⠾ (de ú)
+        definiciones.put('ú', "⠾");
+        definiciones.put('ü', "⠳");
+        
+        // Números (sin indicador, solo el patrón)
+        definiciones.put('0', "⠚");
+        definiciones.put('1', "⠁");
+        definiciones.put('2', "⠃");
+        definiciones.put('3', "⠉");
+        definiciones.put('4', "⠙");
+        definiciones.put('5', "⠑");
+        definiciones.put('6', "⠋");
+        definiciones.put('7', "⠛");
+        definiciones.put('8', "⠓");
+        definiciones.put('9', "⠊");
+        
+        // Puntuación
+        definiciones.put(' ', " ");
+        definiciones.put(',', "⠂");
+        definiciones.put('.', "⠄"); // CORREGIDO: punto en Braille
+        definiciones.put('?', "⠢");
+        definiciones.put('¿', "⠢"); // AGREGADO: mismo que ?
+        definiciones.put('!', "⠖");
+        definiciones.put('¡', "⠖"); // AGREGADO: mismo que !
+        definiciones.put(';', "⠆");
+        definiciones.put(':', "⠒");
+        definiciones.put('-', "⠤"); // Resta/Guion
+        definiciones.put('(', "⠐⠣");
+        definiciones.put(')', "⠐⠜");
+        
+        // Operadores matemáticos y símbolos especiales
+        definiciones.put('+', "⠐⠖"); // Suma
+        definiciones.put('*', "⠡"); // Multiplicación
+        definiciones.put('×', "⠡"); // Multiplicación alternativo
+        definiciones.put('/', "⠸⠌"); // División (con prefijo para evitar conflicto con í)
+        definiciones.put('÷', "⠸⠌"); // División alternativo
+        definiciones.put('=', "⠶"); // Igual
+        definiciones.put('<', "⠐⠅"); // Menor que
+        definiciones.put('>', "⠨⠂"); // Mayor que
+        definiciones.put('%', "⠚⠴"); // Porcentaje
+        definiciones.put('@', "⠈⠁"); // Arroba
+        definiciones.put('#', "⠼"); // Numeral/hashtag
+        definiciones.put('$', "⠈⠎"); // Dólar
+        definiciones.put('€', "⠈⠑"); // Euro
+        definiciones.put('&', "⠯"); // Ampersand
+        definiciones.put('_', "⠤⠤"); // Guion bajo
+        definiciones.put('"', "⠦"); // Comillas
+        definiciones.put('\'', "⠄"); // Apóstrofe
+        definiciones.put('[', "⠷"); // Corchete izq
+        definiciones.put(']', "⠾"); // Corchete der
+        definiciones.put('{', "⠐⠷"); // Llave izq
+        definiciones.put('}', "⠐⠾"); // Llave der
+        definiciones.put('\\', "⠸⠡"); // Backslash
+        definiciones.put('`', "⠸⠳"); // Backtick
+        definiciones.put('~', "⠈⠱"); // Tilde
+        definiciones.put('^', "⠈⠢"); // Caret
+        definiciones.put('°', "⠴"); // Grado
+        return definiciones;
+    }
+
+    /**
+     * Portugués grado 1.
+     */
+    static Map<Character, String> portugues() {
+        Map<Character, String> definiciones = new TreeMap<>();
+        agregarAlfabeto(definiciones);
+        agregarDigitos(definiciones);
+
+        // Vocales acentuadas y cedilla
+        definiciones.put('á', "⠷");
+        definiciones.put('à', "⠫");
+        definiciones.put('â', "⠡");
+        definiciones.put('ã', "⠜");
+        definiciones.put('ç', "⠯");
+        definiciones.put('é', "⠿");
+        definiciones.put('ê', "⠣");
+        definiciones.put('í', "⠌");
+        definiciones.put('ó', "⠬");
+        definiciones.put('ô', "⠹");
+        definiciones.put('õ', "⠪");
+        definiciones.put('ú', "⠾");
+        definiciones.put('ü', "⠳");
+
+        // Puntuación
+        definiciones.put(' ', " ");
+        definiciones.put(',', "⠂");
+        definiciones.put('.', "⠄");
+        definiciones.put(';', "⠆");
+        definiciones.put(':', "⠒");
+        definiciones.put('?', "⠢");
+        definiciones.put('!', "⠖");
+        definiciones.put('-', "⠤");
+        definiciones.put('(', "⠣⠄");
+        definiciones.put(')', "⠠⠜");
+        definiciones.put('"', "⠦");
+        definiciones.put('\'', "⠄⠄");
+        definiciones.put('+', "⠖");
+        definiciones.put('=', "⠶");
+        definiciones.put('*', "⠔");
+        definiciones.put('/', "⠠⠂");
+        definiciones.put('%', "⠸⠴");
+        definiciones.put('@', "⠜⠈");
+        definiciones.put('$', "⠰⠎");
+        definiciones.put('€', "⠰⠑");
+        return definiciones;
+    }
+
+    /**
+     * Catalán grado 1.
+     */
+    static Map<Character, String> catalan() {
+        Map<Character, String> definiciones = new TreeMap<>();
+        agregarAlfabeto(definiciones);
+        agregarDigitos(definiciones);
+
+        // Vocales acentuadas, diéresis y cedilla
+        definiciones.put('à', "⠷");
+        definiciones.put('è', "⠮");
+        definiciones.put('é', "⠿");
+        definiciones.put('í', "⠌");
+        definiciones.put('ï', "⠻");
+        definiciones.put('ò', "⠪");
+        definiciones.put('ó', "⠬");
+        definiciones.put('ú', "⠾");
+        definiciones.put('ü', "⠳");
+        definiciones.put('ç', "⠯");
+        definiciones.put('·', "⠄"); // Punt volat (l·l)
+
+        // Puntuación (igual que en español)
+        definiciones.put(' ', " ");
+        definiciones.put(',', "⠂");
+        definiciones.put('.', "⠄");
+        definiciones.put(';', "⠆");
+        definiciones.put(':', "⠒");
+        definiciones.put('?', "⠢");
+        definiciones.put('¿', "⠢");
+        definiciones.put('!', "⠖");
+        definiciones.put('¡', "⠖");
+        definiciones.put('-', "⠤");
+        definiciones.put('(', "⠐⠣");
+        definiciones.put(')', "⠐⠜");
+        definiciones.put('"', "⠦");
+        definiciones.put('\'', "⠄");
+        definiciones.put('+', "⠐⠖");
+        definiciones.put('=', "⠶");
+        definiciones.put('/', "⠸⠌");
+        definiciones.put('%', "⠚⠴");
+        definiciones.put('@', "⠈⠁");
+        definiciones.put('€', "⠈⠑");
+        return definiciones;
+    }
+
+    /**
+     * Inglés UEB (Unified English Braille) grado 1. El indicador de
+     * mayúscula es ⠠ (punto 6) en lugar de ⠨.
+     */
+    static Map<Character, String> inglesUeb() {
+        Map<Character, String> definiciones = new TreeMap<>();
+        agregarAlfabeto(definiciones);
+        agregarDigitos(definiciones);
+
+        // Puntuación
+        definiciones.put(' ', " ");
+        definiciones.put(',', "⠂");
+        definiciones.put('.', "⠲");
+        definiciones.put(';', "⠆");
+        definiciones.put(':', "⠒");
+        definiciones.put('?', "⠦");
+        definiciones.put('!', "⠖");
+        definiciones.put('\'', "⠄");
+        definiciones.put('-', "⠤");
+        definiciones.put('"', "⠠⠶");
+        definiciones.put('(', "⠐⠣");
+        definiciones.put(')', "⠐⠜");
+        definiciones.put('[', "⠨⠣");
+        definiciones.put(']', "⠨⠜");
+        definiciones.put('{', "⠸⠣");
+        definiciones.put('}', "⠸⠜");
+
+        // Símbolos
+        definiciones.put('+', "⠐⠖");
+        definiciones.put('=', "⠐⠶");
+        definiciones.put('*', "⠐⠔");
+        definiciones.put('×', "⠐⠦");
+        definiciones.put('÷', "⠐⠌");
+        definiciones.put('/', "⠸⠌");
+        definiciones.put('\\', "⠸⠡");
+        definiciones.put('<', "⠈⠣");
+        definiciones.put('>', "⠈⠜");
+        definiciones.put('%', "⠨⠴");
+        definiciones.put('@', "⠈⠁");
+        definiciones.put('#', "⠸⠹");
+        definiciones.put('&', "⠈⠯");
+        definiciones.put('$', "⠈⠎");
+        definiciones.put('€', "⠈⠑");
+        definiciones.put('_', "⠨⠤");
+        definiciones.put('~', "⠈⠔");
+        definiciones.put('°', "⠘⠚");
+        return definiciones;
+    }
+
+    /**
+     * Braille computacional: cada carácter ASCII imprimible ocupa exactamente
+     * una celda según la tabla Braille ASCII, sin indicadores de número ni de
+     * mayúscula. Las letras mayúsculas usan la misma celda que las minúsculas.
+     */
+    static Map<Character, String> computacional() {
+        Map<Character, String> definiciones = new TreeMap<>();
+        for (int patron = 0; patron < ASCII_BRAILLE.length(); patron++) {
+            char caracter = Character.toLowerCase(ASCII_BRAILLE.charAt(patron));
+            String celda = patron == 0 ? " " : String.valueOf((char) (TablaBraille.BRAILLE_BASE + patron));
+            definiciones.put(caracter, celda);
+        }
+        return definiciones;
+    }
+
+    /**
+     * Letras a-z, comunes a todas las tablas latinas de grado 1.
+     */
+    private static void agregarAlfabeto(Map<Character, String> definiciones) {
+        String celdas = "⠁⠃⠉⠙⠑⠋⠛⠓⠊⠚⠅⠇⠍⠝⠕⠏⠟⠗⠎⠞⠥⠧⠺⠭⠽⠵";
+        for (int i = 0; i < celdas.length(); i++) {
+            definiciones.put((char) ('a' + i), String.valueOf(celdas.charAt(i)));
+        }
+    }
+
+    /**
+     * Dígitos 1-9 y 0 con las celdas de a-j (van precedidos por el indicador de número).
+     */
+    private static void agregarDigitos(Map<Character, String> definiciones) {
+        String celdas = "⠚⠁⠃⠉⠙⠑⠋⠛⠓⠊";
+        for (int i = 0; i < celdas.length(); i++) {
+            definiciones.put((char) ('0' + i), String.valueOf(celdas.charAt(i)));
+        }
+    }
+}
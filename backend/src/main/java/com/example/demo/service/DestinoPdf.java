@@ -0,0 +1,147 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Destino del paginador que escribe cada página Braille como una página
+ * PDF, con los puntos a la medida táctil estándar (la de
+ * {@link DisenoSenaletica}) y márgenes de {@link #MARGEN} mm.
+ *
+ * Las páginas se arman (flujo de contenido comprimido) en el ejecutor
+ * mientras el paginador sigue con las siguientes, y se escriben en orden
+ * en cuanto están listas. Como mucho hay {@code ventana} páginas armándose
+ * o esperando a la vez, así la memoria no depende del largo del documento.
+ */
+public final class DestinoPdf implements PaginadorBraille.Destino {
+
+    public static final double MARGEN = 15.0;
+
+    private final EscritorPdf pdf;
+    private final int celdasPorLinea;
+    private final int lineasPorPagina;
+    private final double ancho;
+    private final double alto;
+    private final Executor ejecutor;
+    private final int ventana;
+    private final ArrayDeque<CompletableFuture<PaginaArmada>> pendientes = new ArrayDeque<>();
+    private char[][] lineas;
+    private int lineasEnPagina;
+    private long lineasEscritas;
+
+    /**
+     * @param pdf el documento donde se agregan las páginas
+     * @param ejecutor donde se arman las páginas
+     * @param ventana cuántas páginas pueden estar pendientes a la vez
+     */
+    public DestinoPdf(EscritorPdf pdf, int celdasPorLinea, int lineasPorPagina, Executor ejecutor, int ventana) {
+        this.pdf = pdf;
+        this.celdasPorLinea = celdasPorLinea;
+        this.lineasPorPagina = lineasPorPagina;
+        this.ancho = anchoPagina(celdasPorLinea);
+        this.alto = altoPagina(lineasPorPagina);
+        this.ejecutor = ejecutor;
+        this.ventana = Math.max(1, ventana);
+        this.lineas = new char[lineasPorPagina][];
+    }
+
+    /**
+     * @return el ancho en mm de una página con esas celdas por línea
+     */
+    public static double anchoPagina(int celdasPorLinea) {
+        return 2 * MARGEN + (celdasPorLinea - 1) * DisenoSenaletica.DISTANCIA_CELDAS
+            + DisenoSenaletica.DISTANCIA_PUNTOS + DisenoSenaletica.DIAMETRO_PUNTO;
+    }
+
+    /**
+     * @return el alto en mm de una página con esas líneas
+     */
+    public static double altoPagina(int lineasPorPagina) {
+        return 2 * MARGEN + (lineasPorPagina - 1) * DisenoSenaletica.DISTANCIA_LINEAS
+            + 2 * DisenoSenaletica.DISTANCIA_PUNTOS + DisenoSenaletica.DIAMETRO_PUNTO;
+    }
+
+    @Override
+    public long posicion() {
+        return lineasEscritas;
+    }
+
+    @Override
+    public void linea(char[] celdas, int cantidad) throws IOException {
+        if (lineasEnPagina == lineasPorPagina) {
+            // No debería pasar con el paginador; se empieza otra página
+            finPagina();
+        }
+        char[] copia = new char[Math.min(cantidad, celdasPorLinea)];
+        System.arraycopy(celdas, 0, copia, 0, copia.length);
+        lineas[lineasEnPagina++] = copia;
+        lineasEscritas++;
+    }
+
+    @Override
+    public void finPagina() throws IOException {
+        char[][] pagina = lineas;
+        int cantidad = lineasEnPagina;
+        lineas = new char[lineasPorPagina][];
+        lineasEnPagina = 0;
+
+        pendientes.add(CompletableFuture.supplyAsync(() -> armar(pagina, cantidad), ejecutor));
+        while (pendientes.size() >= ventana || (!pendientes.isEmpty() && pendientes.peek().isDone())) {
+            escribirPrimera();
+        }
+    }
+
+    /**
+     * Escribe las páginas que faltan y termina el documento.
+     */
+    public void terminar() throws IOException {
+        if (lineasEnPagina > 0) {
+            finPagina();
+        }
+        while (!pendientes.isEmpty()) {
+            escribirPrimera();
+        }
+        pdf.terminar();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        while (!pendientes.isEmpty() && pendientes.peek().isDone()) {
+            escribirPrimera();
+        }
+    }
+
+    private void escribirPrimera() throws IOException {
+        PaginaArmada pagina = pendientes.poll().join();
+        pdf.pagina(ancho, alto, pagina.contenido, pagina.patrones);
+    }
+
+    private PaginaArmada armar(char[][] pagina, int cantidad) {
+        EscritorPdf.Contenido contenido = new EscritorPdf.Contenido(alto);
+        double inicio = MARGEN + DisenoSenaletica.DIAMETRO_PUNTO / 2;
+        for (int linea = 0; linea < cantidad; linea++) {
+            char[] celdas = pagina[linea];
+            double y = inicio + linea * DisenoSenaletica.DISTANCIA_LINEAS;
+            for (int i = 0; i < celdas.length; i++) {
+                char celda = celdas[i];
+                if (celda > 0x2800 && celda <= 0x28FF) {
+                    contenido.celda(celda - 0x2800, inicio + i * DisenoSenaletica.DISTANCIA_CELDAS, y);
+                }
+            }
+        }
+        return new PaginaArmada(contenido.comprimir(), contenido.getPatrones());
+    }
+
+    private static final class PaginaArmada {
+
+        private final byte[] contenido;
+        private final long[] patrones;
+
+        PaginaArmada(byte[] contenido, long[] patrones) {
+            this.contenido = contenido;
+            this.patrones = patrones;
+        }
+    }
+}
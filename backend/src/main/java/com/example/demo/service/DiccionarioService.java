@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.model.DiccionarioBraille;
+import com.example.demo.repository.DiccionarioBrailleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Servicio que carga el diccionario Braille desde la tabla diccionario_braille
+ * y lo publica en {@link BrailleService} como una tabla compilada nueva.
+ * El diccionario de la base de datos corresponde a la tabla española.
+ */
+@Service
+public class DiccionarioService {
+    
+    private static final Logger log = LoggerFactory.getLogger(DiccionarioService.class);
+    
+    private final DiccionarioBrailleRepository diccionarioRepository;
+    private final BrailleService brailleService;
+    private final CacheConversionService cacheConversionService;
+    
+    public DiccionarioService(DiccionarioBrailleRepository diccionarioRepository, BrailleService brailleService,
+                              CacheConversionService cacheConversionService) {
+        this.diccionarioRepository = diccionarioRepository;
+        this.brailleService = brailleService;
+        this.cacheConversionService = cacheConversionService;
+    }
+    
+    /**
+     * Carga el diccionario al arrancar. Si la base de datos no responde se
+     * sigue con la tabla incorporada en el código.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        try {
+            TablaBraille tabla = recargar();
+            log.info("Diccionario Braille cargado: versión {} ({} entradas)", tabla.getVersion(), tabla.getEntradas());
+        } catch (RuntimeException e) {
+            log.warn("No se pudo cargar diccionario_braille, se usa la tabla incorporada: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Lee el diccionario, compila una tabla nueva y la reemplaza de una vez.
+     * Las entradas de la base de datos tienen prioridad; los caracteres que
+     * no define se toman de la tabla incorporada en el código.
+     *
+     * @return la tabla compilada que quedó en uso
+     */
+    public synchronized TablaBraille recargar() {
+        TablaBraille incorporada = brailleService.getTabla(BrailleService.TABLA_POR_DEFECTO);
+        Map<Character, String> definiciones = new TreeMap<>(BrailleService.getDefinicionesPorDefecto());
+        
+        for (DiccionarioBraille entrada : diccionarioRepository.findAll()) {
+            String caracter = entrada.getCaracter();
+            String braille = entrada.getBraille();
+            
+            // Solo caracteres simples; los indicadores (p. ej. '⠨') no son texto
+            if (caracter == null || caracter.length() != 1 || braille == null || braille.isEmpty()
+                    || TablaBraille.esCeldaBraille(caracter.charAt(0))) {
+                continue;
+            }
+            definiciones.put(Character.toLowerCase(caracter.charAt(0)), braille);
+        }
+        
+        TablaBraille tabla = incorporada.conDefiniciones(definiciones);
+        brailleService.actualizarTabla(tabla);
+        // Las entradas viejas ya no coinciden con la versión nueva; se liberan
+        cacheConversionService.invalidar();
+        return tabla;
+    }
+    
+    /**
+     * Obtiene la tabla en uso
+     */
+    public TablaBraille obtenerTablaActual() {
+        return brailleService.getTabla();
+    }
+    
+    /**
+     * Obtiene todas las tablas disponibles
+     */
+    public Collection<TablaBraille> obtenerTablas() {
+        return brailleService.getTablas();
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Senaletica;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Disposición de una señalética en milímetros, común a todos los formatos
+ * de salida: el texto en tinta arriba, centrado y en mayúsculas, y debajo
+ * las celdas Braille con el espaciado estándar de la señalización táctil.
+ *
+ * Las celdas se guardan en arreglos paralelos (patrón de puntos y posición
+ * del punto 1), sin un objeto por celda ni por punto, para que cada
+ * formato las recorra sin asignar memoria.
+ *
+ * Colores: se usan los de la señalética; con alto contraste, si la
+ * relación de contraste entre fondo y texto es menor de 7:1 (WCAG AAA) se
+ * reemplazan por negro y blanco, conservando si el fondo era oscuro o claro.
+ */
+public final class DisenoSenaletica {
+
+    // Espaciado de la señalización táctil (mm)
+    public static final double DISTANCIA_PUNTOS = 2.5;   // entre puntos de una celda
+    public static final double DISTANCIA_CELDAS = 6.2;   // entre el punto 1 de celdas vecinas
+    public static final double DISTANCIA_LINEAS = 10.0;  // entre el punto 1 de líneas vecinas
+    public static final double DIAMETRO_PUNTO = 1.5;
+
+    // Máximo de celdas por línea de Braille
+    public static final int CELDAS_POR_LINEA = 24;
+
+    private static final double MARGEN = 12.0;
+    private static final double SEPARACION = 10.0; // entre el texto y el Braille
+    private static final double PUNTOS_A_MM = 25.4 / 72;
+    // Ancho medio de un carácter en mayúsculas, en tamaños de letra
+    private static final double ANCHO_CARACTER = 0.68;
+    private static final double INTERLINEADO = 1.2;
+    private static final double CONTRASTE_MINIMO = 7.0;
+
+    private static final Pattern COLOR = Pattern.compile("#[0-9a-fA-F]{6}|#[0-9a-fA-F]{3}");
+
+    private final String titulo;
+    private final String[] lineasTexto;
+    private final double tamanoTexto;
+    private final double[] baseLineasTexto;
+    private final double ancho;
+    private final double alto;
+    private final String colorFondo;
+    private final String colorTexto;
+
+    private final int celdas;
+    private final byte[] patrones;
+    private final double[] xCeldas;
+    private final double[] yCeldas;
+
+    /**
+     * @param titulo el título (no se dibuja; va en los metadatos)
+     * @param texto el texto en tinta
+     * @param braille el Braille del texto
+     * @param tamanoFuente tamaño del texto en puntos, o null
+     * @param colorFondo color de fondo #RRGGBB o #RGB, o null
+     * @param colorTexto color del texto y los puntos, o null
+     * @param altoContraste si se fuerza un contraste de al menos 7:1
+     */
+    public DisenoSenaletica(String titulo, String texto, String braille, Integer tamanoFuente,
+                            String colorFondo, String colorTexto, Boolean altoContraste) {
+        this.titulo = titulo != null ? titulo : "";
+
+        // Colores
+        String fondo = color(colorFondo, "#000000");
+        String tinta = color(colorTexto, "#FFFFFF");
+        if (!Boolean.FALSE.equals(altoContraste) && contraste(fondo, tinta) < CONTRASTE_MINIMO) {
+            boolean fondoOscuro = luminancia(fondo) < 0.5;
+            fondo = fondoOscuro ? "#000000" : "#FFFFFF";
+            tinta = fondoOscuro ? "#FFFFFF" : "#000000";
+        }
+        this.colorFondo = fondo;
+        this.colorTexto = tinta;
+
+        // Braille: líneas cortadas entre palabras
+        List<String> lineasBraille = cortarBraille(braille != null ? braille : "");
+        int maxCeldas = 0;
+        int total = 0;
+        for (String linea : lineasBraille) {
+            maxCeldas = Math.max(maxCeldas, linea.length());
+            total += linea.length();
+        }
+        double anchoBraille = maxCeldas == 0 ? 0 : (maxCeldas - 1) * DISTANCIA_CELDAS + DISTANCIA_PUNTOS;
+
+        // Texto: tamaño pedido, cortado al ancho del Braille (o a un ancho razonable)
+        this.tamanoTexto = (tamanoFuente != null && tamanoFuente > 0 ? tamanoFuente : 24) * PUNTOS_A_MM;
+        double anchoTexto = Math.max(anchoBraille, CELDAS_POR_LINEA * DISTANCIA_CELDAS);
+        String mayusculas = texto != null ? texto.strip().toUpperCase(Locale.ROOT) : "";
+        int caracteresPorLinea = Math.max(1, (int) (anchoTexto / (tamanoTexto * ANCHO_CARACTER)));
+        this.lineasTexto = cortarTexto(mayusculas, caracteresPorLinea);
+        double anchoLineas = 0;
+        for (String linea : lineasTexto) {
+            anchoLineas = Math.max(anchoLineas, linea.length() * tamanoTexto * ANCHO_CARACTER);
+        }
+
+        this.ancho = Math.max(anchoBraille, anchoLineas) + 2 * MARGEN;
+
+        double y = MARGEN;
+        this.baseLineasTexto = new double[lineasTexto.length];
+        for (int i = 0; i < lineasTexto.length; i++) {
+            y += tamanoTexto * (i == 0 ? 1 : INTERLINEADO);
+            baseLineasTexto[i] = y;
+        }
+        if (lineasTexto.length > 0 && !lineasBraille.isEmpty()) {
+            y += SEPARACION;
+        }
+
+        // Celdas, centradas línea por línea; se omiten las vacías
+        this.patrones = new byte[total];
+        this.xCeldas = new double[total];
+        this.yCeldas = new double[total];
+        int cantidad = 0;
+        double alturaCelda = 2 * DISTANCIA_PUNTOS;
+        for (int l = 0; l < lineasBraille.size(); l++) {
+            String linea = lineasBraille.get(l);
+            double anchoLinea = (linea.length() - 1) * DISTANCIA_CELDAS + DISTANCIA_PUNTOS;
+            double x = (ancho - anchoLinea) / 2;
+            double yLinea = y + l * DISTANCIA_LINEAS;
+            for (int i = 0; i < linea.length(); i++) {
+                char caracter = linea.charAt(i);
+                if (caracter > '\u2800' && caracter <= '\u28FF') {
+                    patrones[cantidad] = (byte) (caracter - '\u2800');
+                    xCeldas[cantidad] = x + i * DISTANCIA_CELDAS;
+                    yCeldas[cantidad] = yLinea;
+                    cantidad++;
+                }
+            }
+        }
+        this.celdas = cantidad;
+        if (!lineasBraille.isEmpty()) {
+            y += (lineasBraille.size() - 1) * DISTANCIA_LINEAS + alturaCelda;
+        }
+        this.alto = y + MARGEN;
+    }
+
+    public static DisenoSenaletica de(Senaletica senaletica) {
+        return new DisenoSenaletica(senaletica.getTitulo(), senaletica.getTextoOriginal(),
+            senaletica.getTextoBraille(), senaletica.getTamanoFuente(), senaletica.getColorFondo(),
+            senaletica.getColorTexto(), senaletica.getAltoContraste());
+    }
+
+    private static List<String> cortarBraille(String braille) {
+        List<String> lineas = new ArrayList<>();
+        StringBuilder linea = new StringBuilder(CELDAS_POR_LINEA);
+        for (String parrafo : braille.split("\n")) {
+            for (String palabra : parrafo.split("[ \u2800\t\r]+")) {
+                while (palabra.length() > CELDAS_POR_LINEA) {
+                    if (linea.length() > 0) {
+                        lineas.add(linea.toString());
+                        linea.setLength(0);
+                    }
+                    lineas.add(palabra.substring(0, CELDAS_POR_LINEA));
+                    palabra = palabra.substring(CELDAS_POR_LINEA);
+                }
+                if (palabra.isEmpty()) {
+                    continue;
+                }
+                if (linea.length() > 0 && linea.length() + 1 + palabra.length() > CELDAS_POR_LINEA) {
+                    lineas.add(linea.toString());
+                    linea.setLength(0);
+                }
+                if (linea.length() > 0) {
+                    linea.append('\u2800');
+                }
+                linea.append(palabra);
+            }
+            if (linea.length() > 0) {
+                lineas.add(linea.toString());
+                linea.setLength(0);
+            }
+        }
+        return lineas;
+    }
+
+    private static String[] cortarTexto(String texto, int caracteresPorLinea) {
+        if (texto.isEmpty()) {
+            return new String[0];
+        }
+        List<String> lineas = new ArrayList<>();
+        StringBuilder linea = new StringBuilder();
+        for (String palabra : texto.split("\\s+")) {
+            if (linea.length() > 0 && linea.length() + 1 + palabra.length() > caracteresPorLinea) {
+                lineas.add(linea.toString());
+                linea.setLength(0);
+            }
+            if (linea.length() > 0) {
+                linea.append(' ');
+            }
+            linea.append(palabra);
+        }
+        lineas.add(linea.toString());
+        return lineas.toArray(new String[0]);
+    }
+
+    /**
+     * El color en forma #RRGGBB, o el color por defecto si no es válido
+     * (así nunca llega al SVG ni al PDF algo que no sea un color).
+     */
+    private static String color(String color, String porDefecto) {
+        if (color == null || !COLOR.matcher(color.strip()).matches()) {
+            return porDefecto;
+        }
+        String valor = color.strip().toUpperCase(Locale.ROOT);
+        if (valor.length() == 4) {
+            valor = "#" + valor.charAt(1) + valor.charAt(1) + valor.charAt(2) + valor.charAt(2)
+                + valor.charAt(3) + valor.charAt(3);
+        }
+        return valor;
+    }
+
+    /**
+     * Luminancia relativa de un color #RRGGBB según WCAG.
+     */
+    private static double luminancia(String color) {
+        int rgb = Integer.parseInt(color.substring(1), 16);
+        return 0.2126 * lineal(rgb >> 16) + 0.7152 * lineal(rgb >> 8) + 0.0722 * lineal(rgb);
+    }
+
+    private static double lineal(int componente) {
+        double c = (componente & 0xFF) / 255.0;
+        return c <= 0.03928 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+    }
+
+    private static double contraste(String a, String b) {
+        double la = luminancia(a);
+        double lb = luminancia(b);
+        return (Math.max(la, lb) + 0.05) / (Math.min(la, lb) + 0.05);
+    }
+
+    /**
+     * Desplazamiento (x, y) del centro de cada punto respecto del punto 1:
+     * puntos 1-3 en la columna izquierda, 4-6 en la derecha y 7-8 abajo.
+     */
+    public static double xPunto(int punto) {
+        return punto < 3 || punto == 6 ? 0 : DISTANCIA_PUNTOS;
+    }
+
+    public static double yPunto(int punto) {
+        switch (punto) {
+            case 0: case 3: return 0;
+            case 1: case 4: return DISTANCIA_PUNTOS;
+            case 2: case 5: return 2 * DISTANCIA_PUNTOS;
+            default: return 3 * DISTANCIA_PUNTOS;
+        }
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public String[] getLineasTexto() {
+        return lineasTexto.clone();
+    }
+
+    /**
+     * @return la línea base de cada línea de texto (mm desde arriba)
+     */
+    public double[] getBaseLineasTexto() {
+        return baseLineasTexto.clone();
+    }
+
+    /**
+     * @return el tamaño del texto en mm
+     */
+    public double getTamanoTexto() {
+        return tamanoTexto;
+    }
+
+    public double getAncho() {
+        return ancho;
+    }
+
+    public double getAlto() {
+        return alto;
+    }
+
+    public String getColorFondo() {
+        return colorFondo;
+    }
+
+    public String getColorTexto() {
+        return colorTexto;
+    }
+
+    /**
+     * @return las celdas con puntos (las vacías no se guardan)
+     */
+    public int getCeldas() {
+        return celdas;
+    }
+
+    /**
+     * @return el patrón de puntos de la celda i (bit 0 = punto 1, ...)
+     */
+    public int patron(int i) {
+        return patrones[i] & 0xFF;
+    }
+
+    /**
+     * @return la x del centro del punto 1 de la celda i (mm)
+     */
+    public double x(int i) {
+        return xCeldas[i];
+    }
+
+    /**
+     * @return la y del centro del punto 1 de la celda i (mm desde arriba)
+     */
+    public double y(int i) {
+        return yCeldas[i];
+    }
+
+    /**
+     * @return los patrones distintos que se usan, en orden
+     */
+    public int[] patronesUsados() {
+        boolean[] usados = new boolean[256];
+        int distintos = 0;
+        for (int i = 0; i < celdas; i++) {
+            if (!usados[patron(i)]) {
+                usados[patron(i)] = true;
+                distintos++;
+            }
+        }
+        int[] resultado = new int[distintos];
+        int n = 0;
+        for (int patron = 0; patron < usados.length; patron++) {
+            if (usados[patron]) {
+                resultado[n++] = patron;
+            }
+        }
+        return resultado;
+    }
+}
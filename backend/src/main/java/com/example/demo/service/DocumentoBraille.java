@@ -0,0 +1,315 @@
+package com.example.demo.service;
+
+import java.util.Arrays;
+
+/**
+ * Documento de texto con su Braille, que se actualiza por ediciones.
+ *
+ * Mientras se escribe, cada tecla cambia unos pocos caracteres; volver a
+ * convertir todo el texto hace que el tiempo por tecla crezca con el
+ * documento. Aquí se guardan puntos de control cada cierto número de
+ * caracteres con el estado del codificador (secuencia numérica, separador
+ * pendiente) y la posición en ambos textos. Una edición se recodifica desde
+ * el punto de control anterior y solo hasta que el estado vuelve a
+ * coincidir con un punto de control posterior; el resto del Braille se
+ * conserva y se devuelve un parche mínimo. Texto y Braille se guardan con
+ * hueco (ver {@link TextoConHueco}), así escribir en un punto no desplaza
+ * el resto del documento en memoria.
+ *
+ * Cada edición indica la versión del documento sobre la que se hizo; si no
+ * coincide con la actual se rechaza para que el cliente se resincronice.
+ */
+public final class DocumentoBraille {
+
+    // Caracteres de texto entre puntos de control
+    static final int INTERVALO_PUNTOS_CONTROL = 1024;
+
+    private final TablaBraille tabla;
+    private final TextoConHueco texto;
+    private final TextoConHueco resultado;
+    private final PuntosControl puntos = new PuntosControl();
+    private int version;
+
+    /**
+     * Convierte el texto completo y prepara los puntos de control.
+     *
+     * @param texto el texto inicial
+     * @param tabla la tabla con la que se convierte el documento
+     */
+    public DocumentoBraille(String texto, TablaBraille tabla) {
+        this.tabla = tabla;
+        this.texto = new TextoConHueco(texto == null ? "" : texto);
+        StringBuilder braille = new StringBuilder(this.texto.length() + 16);
+        BrailleService.EstadoTextoABraille estado = new BrailleService.EstadoTextoABraille(tabla);
+        puntos.agregar(0, 0, estado.guardar());
+        codificar(estado, 0, this.texto.length(), 0, braille, 0, puntos);
+        this.resultado = new TextoConHueco(braille);
+    }
+
+    /**
+     * Aplica una edición: reemplaza {@code eliminados} caracteres desde
+     * {@code inicio} por {@code insertado}.
+     *
+     * @param versionEsperada la versión sobre la que se hizo la edición
+     * @param inicio la posición de la edición en el texto
+     * @param eliminados cuántos caracteres se borran
+     * @param insertado el texto insertado (puede ser vacío)
+     * @return el parche que lleva el Braille anterior al nuevo
+     * @throws IllegalStateException si la versión no es la actual
+     * @throws IllegalArgumentException si la edición cae fuera del texto
+     */
+    public synchronized Parche editar(int versionEsperada, int inicio, int eliminados, String insertado) {
+        if (versionEsperada != version) {
+            throw new IllegalStateException("La versión actual del documento es " + version);
+        }
+        if (inicio < 0 || eliminados < 0 || inicio > texto.length() - eliminados) {
+            throw new IllegalArgumentException("La edición queda fuera del documento");
+        }
+        if (insertado == null) {
+            insertado = "";
+        }
+        int finEliminado = inicio + eliminados;
+        int diferenciaTexto = insertado.length() - eliminados;
+
+        // El estado en el punto de control anterior a la edición no cambia
+        int desde = puntos.ultimoHasta(inicio);
+        int textoDesde = puntos.texto(desde);
+        int salidaDesde = puntos.salida(desde);
+        BrailleService.EstadoTextoABraille estado = new BrailleService.EstadoTextoABraille(tabla);
+        estado.restaurar(puntos.estado(desde));
+
+        texto.reemplazar(inicio, finEliminado, insertado);
+
+        // Recodificar hasta un punto de control posterior a la edición con el
+        // mismo estado: desde ahí el Braille anterior sigue siendo válido
+        StringBuilder nuevo = new StringBuilder();
+        PuntosControl nuevos = new PuntosControl();
+        int hasta = puntos.primeroDesde(finEliminado, desde + 1);
+        int salidaHasta = resultado.length();
+        int posicion = textoDesde;
+        int ultimoPunto = textoDesde;
+        while (true) {
+            int objetivo = hasta < puntos.cantidad ? puntos.texto(hasta) + diferenciaTexto : texto.length();
+            ultimoPunto = codificar(estado, posicion, objetivo, ultimoPunto, nuevo, salidaDesde, nuevos);
+            posicion = objetivo;
+            if (hasta == puntos.cantidad) {
+                break;
+            }
+            if (estado.guardar() == puntos.estado(hasta)) {
+                salidaHasta = puntos.salida(hasta);
+                break;
+            }
+            hasta++;
+        }
+
+        // Recortar lo que no cambió al principio y al final del tramo
+        int largoAnterior = salidaHasta - salidaDesde;
+        int comunInicio = 0;
+        int maximo = Math.min(largoAnterior, nuevo.length());
+        while (comunInicio < maximo && resultado.charAt(salidaDesde + comunInicio) == nuevo.charAt(comunInicio)) {
+            comunInicio++;
+        }
+        int comunFin = 0;
+        maximo -= comunInicio;
+        while (comunFin < maximo
+                && resultado.charAt(salidaHasta - 1 - comunFin) == nuevo.charAt(nuevo.length() - 1 - comunFin)) {
+            comunFin++;
+        }
+        String reemplazo = nuevo.substring(comunInicio, nuevo.length() - comunFin);
+        int parcheDesde = salidaDesde + comunInicio;
+        int parcheEliminados = largoAnterior - comunInicio - comunFin;
+        resultado.reemplazar(parcheDesde, parcheDesde + parcheEliminados, reemplazo);
+
+        puntos.reemplazar(desde + 1, hasta, nuevos, diferenciaTexto, nuevo.length() - largoAnterior);
+        version++;
+        return new Parche(version, parcheDesde, parcheEliminados, reemplazo, resultado.length());
+    }
+
+    /**
+     * Gets the current document version; it grows by one with each edit.
+     *
+     * @return the version
+     */
+    public synchronized int getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the current text length.
+     *
+     * @return the number of characters in the text
+     */
+    public synchronized int getLongitudTexto() {
+        return texto.length();
+    }
+
+    /**
+     * Gets the current text.
+     *
+     * @return the text
+     */
+    public synchronized String getTexto() {
+        return texto.toString();
+    }
+
+    /**
+     * Gets the current Braille for the whole document.
+     *
+     * @return the Braille text
+     */
+    public synchronized String getResultado() {
+        return resultado.toString();
+    }
+
+    /**
+     * Gets the table the document is converted with.
+     *
+     * @return the table
+     */
+    public TablaBraille getTabla() {
+        return tabla;
+    }
+
+    /**
+     * Codifica texto[inicio, fin) y agrega un punto de control cada
+     * INTERVALO_PUNTOS_CONTROL caracteres, salvo en la posición final.
+     *
+     * @return la posición del último punto de control
+     */
+    private int codificar(BrailleService.EstadoTextoABraille estado, int inicio, int fin, int ultimoPunto,
+                          StringBuilder destino, int salidaBase, PuntosControl destinoPuntos) {
+        int posicion = inicio;
+        while (posicion < fin) {
+            int siguiente = Math.min(fin, ultimoPunto + INTERVALO_PUNTOS_CONTROL);
+            estado.codificar(texto, posicion, siguiente, destino);
+            posicion = siguiente;
+            if (posicion - ultimoPunto >= INTERVALO_PUNTOS_CONTROL && posicion < fin) {
+                destinoPuntos.agregar(posicion, salidaBase + destino.length(), estado.guardar());
+                ultimoPunto = posicion;
+            }
+        }
+        return ultimoPunto;
+    }
+
+    /**
+     * Cambio a aplicar sobre la salida de la versión anterior: reemplazar
+     * {@code eliminados} caracteres desde {@code desde} por {@code insertado}.
+     */
+    public static final class Parche {
+
+        private final int version;
+        private final int desde;
+        private final int eliminados;
+        private final String insertado;
+        private final int longitudResultado;
+
+        Parche(int version, int desde, int eliminados, String insertado, int longitudResultado) {
+            this.version = version;
+            this.desde = desde;
+            this.eliminados = eliminados;
+            this.insertado = insertado;
+            this.longitudResultado = longitudResultado;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public int getDesde() {
+            return desde;
+        }
+
+        public int getEliminados() {
+            return eliminados;
+        }
+
+        public String getInsertado() {
+            return insertado;
+        }
+
+        public int getLongitudResultado() {
+            return longitudResultado;
+        }
+    }
+
+    /**
+     * Puntos de control ordenados por posición en el texto, en arreglos
+     * paralelos para no crear un objeto por punto.
+     */
+    private static final class PuntosControl {
+
+        private int[] texto = new int[8];
+        private int[] salida = new int[8];
+        private int[] estado = new int[8];
+        private int cantidad;
+
+        void agregar(int posicionTexto, int posicionSalida, int estadoCodificador) {
+            asegurarCapacidad(cantidad + 1);
+            texto[cantidad] = posicionTexto;
+            salida[cantidad] = posicionSalida;
+            estado[cantidad] = estadoCodificador;
+            cantidad++;
+        }
+
+        int texto(int indice) {
+            return texto[indice];
+        }
+
+        int salida(int indice) {
+            return salida[indice];
+        }
+
+        int estado(int indice) {
+            return estado[indice];
+        }
+
+        /**
+         * Índice del último punto con posición de texto menor o igual a la dada.
+         * El primer punto siempre está en 0.
+         */
+        int ultimoHasta(int posicionTexto) {
+            int indice = Arrays.binarySearch(texto, 0, cantidad, posicionTexto);
+            return indice >= 0 ? indice : -indice - 2;
+        }
+
+        /**
+         * Índice del primer punto, a partir de {@code desdeIndice}, con posición
+         * de texto mayor o igual a la dada; {@code cantidad} si no hay.
+         */
+        int primeroDesde(int posicionTexto, int desdeIndice) {
+            int indice = Arrays.binarySearch(texto, desdeIndice, cantidad, posicionTexto);
+            return indice >= 0 ? indice : -indice - 1;
+        }
+
+        /**
+         * Sustituye los puntos [desde, hasta) por los nuevos y desplaza los
+         * siguientes según lo que creció o encogió cada texto.
+         */
+        void reemplazar(int desde, int hasta, PuntosControl nuevos, int diferenciaTexto, int diferenciaSalida) {
+            int restantes = cantidad - hasta;
+            int nuevaCantidad = desde + nuevos.cantidad + restantes;
+            asegurarCapacidad(nuevaCantidad);
+            int destino = desde + nuevos.cantidad;
+            System.arraycopy(texto, hasta, texto, destino, restantes);
+            System.arraycopy(salida, hasta, salida, destino, restantes);
+            System.arraycopy(estado, hasta, estado, destino, restantes);
+            System.arraycopy(nuevos.texto, 0, texto, desde, nuevos.cantidad);
+            System.arraycopy(nuevos.salida, 0, salida, desde, nuevos.cantidad);
+            System.arraycopy(nuevos.estado, 0, estado, desde, nuevos.cantidad);
+            for (int i = destino; i < nuevaCantidad; i++) {
+                texto[i] += diferenciaTexto;
+                salida[i] += diferenciaSalida;
+            }
+            cantidad = nuevaCantidad;
+        }
+
+        private void asegurarCapacidad(int minima) {
+            if (minima > texto.length) {
+                int capacidad = Math.max(minima, texto.length * 2);
+                texto = Arrays.copyOf(texto, capacidad);
+                salida = Arrays.copyOf(salida, capacidad);
+                estado = Arrays.copyOf(estado, capacidad);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Documento Braille ya compaginado. Las páginas están en un archivo
+ * temporal (UTF-8, líneas terminadas en '\n' y páginas en '\f') y en
+ * memoria solo queda el índice con el byte donde empieza cada página, así
+ * leer la página N es una lectura directa de su tramo del archivo.
+ */
+public final class DocumentoPaginado {
+
+    private final Path archivo;
+    private final long[] inicioPaginas;
+    private final int celdasPorLinea;
+    private final int lineasPorPagina;
+    private final TablaBraille tabla;
+
+    DocumentoPaginado(Path archivo, long[] inicioPaginas, int celdasPorLinea, int lineasPorPagina,
+                      TablaBraille tabla) {
+        this.archivo = archivo;
+        this.inicioPaginas = inicioPaginas;
+        this.celdasPorLinea = celdasPorLinea;
+        this.lineasPorPagina = lineasPorPagina;
+        this.tabla = tabla;
+    }
+
+    /**
+     * Lee una página.
+     *
+     * @param numero el número de página, desde 1
+     * @return las líneas de la página separadas por '\n'
+     * @throws IndexOutOfBoundsException si la página no existe
+     */
+    public String leerPagina(int numero) throws IOException {
+        if (numero < 1 || numero > getPaginas()) {
+            throw new IndexOutOfBoundsException("La página " + numero + " no existe (hay " + getPaginas() + ")");
+        }
+        long inicio = inicioPaginas[numero - 1];
+        // Sin el '\f' final
+        ByteBuffer pagina = ByteBuffer.allocate((int) (inicioPaginas[numero] - inicio - 1));
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            while (pagina.hasRemaining()) {
+                if (canal.read(pagina, inicio + pagina.position()) < 0) {
+                    throw new IOException("Archivo de páginas incompleto: " + archivo);
+                }
+            }
+        }
+        return new String(pagina.array(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Borra el archivo de páginas. El documento deja de poder leerse.
+     */
+    void eliminar() {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int getPaginas() {
+        return inicioPaginas.length - 1;
+    }
+
+    /**
+     * @return el tamaño del archivo de páginas en bytes
+     */
+    public long getBytes() {
+        return inicioPaginas[inicioPaginas.length - 1];
+    }
+
+    public int getCeldasPorLinea() {
+        return celdasPorLinea;
+    }
+
+    public int getLineasPorPagina() {
+        return lineasPorPagina;
+    }
+
+    public TablaBraille getTabla() {
+        return tabla;
+    }
+
+    Path getArchivo() {
+        return archivo;
+    }
+}
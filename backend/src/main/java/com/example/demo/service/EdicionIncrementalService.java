@@ -0,0 +1,69 @@
+package com.example.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Documentos abiertos para conversión incremental texto a Braille mientras
+ * el usuario escribe. El cliente abre un documento con el texto inicial y
+ * después envía solo sus ediciones; cada respuesta es un parche pequeño
+ * sobre el Braille que ya tiene.
+ *
+ * Los documentos viven en memoria y se descartan tras un tiempo sin uso o
+ * al superar el máximo; un cliente cuyo documento ya no existe vuelve a
+ * abrirlo con el texto completo.
+ */
+@Service
+public class EdicionIncrementalService {
+
+    private final BrailleService brailleService;
+    private final Cache<String, DocumentoBraille> documentos;
+
+    public EdicionIncrementalService(
+            BrailleService brailleService,
+            @Value("${braille.incremental.max-documentos:1000}") long maxDocumentos,
+            @Value("${braille.incremental.minutos-inactividad:30}") long minutosInactividad) {
+        this.brailleService = brailleService;
+        this.documentos = Caffeine.newBuilder()
+            .maximumSize(maxDocumentos)
+            .expireAfterAccess(Duration.ofMinutes(minutosInactividad))
+            .build();
+    }
+
+    /**
+     * Abre un documento convirtiendo el texto completo.
+     *
+     * @param texto el texto inicial
+     * @param codigoTabla la tabla a usar, o null para la tabla por defecto
+     * @return el identificador del documento
+     * @throws IllegalArgumentException si la tabla no existe
+     */
+    public String abrir(String texto, String codigoTabla) {
+        DocumentoBraille documento = new DocumentoBraille(texto, brailleService.getTabla(codigoTabla));
+        String id = UUID.randomUUID().toString();
+        documentos.put(id, documento);
+        return id;
+    }
+
+    /**
+     * Obtiene un documento abierto
+     */
+    public Optional<DocumentoBraille> obtener(String id) {
+        return Optional.ofNullable(documentos.getIfPresent(id));
+    }
+
+    /**
+     * Cierra un documento y libera su memoria
+     *
+     * @return true si el documento existía
+     */
+    public boolean cerrar(String id) {
+        return documentos.asMap().remove(id) != null;
+    }
+}
@@ -0,0 +1,481 @@
+package com.example.demo.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Escritor de PDF por partes: cada página se escribe en la salida en
+ * cuanto se agrega y solo queda en memoria la posición de cada objeto,
+ * así un documento de cientos de páginas no se arma en memoria.
+ *
+ * Los puntos Braille son círculos vectoriales. Cada patrón de puntos se
+ * dibuja una sola vez, en un Form XObject (/C00 a /Cff) que se escribe la
+ * primera vez que una página lo usa; las páginas solo lo colocan con
+ * "cm" y "Do" y le dan el color de relleno. Todas las páginas comparten
+ * un diccionario de recursos, que se escribe al final con los patrones
+ * usados y la fuente Helvetica-Bold para el texto en tinta.
+ *
+ * Unidades: milímetros en la API, puntos PDF (1/72") en el archivo, con el
+ * origen arriba a la izquierda como en {@link DisenoSenaletica}.
+ */
+public final class EscritorPdf {
+
+    public static final String TIPO_CONTENIDO = "application/pdf";
+
+    public static final double PUNTOS_POR_MM = 72 / 25.4;
+
+    // Objetos fijos; los demás se numeran a medida que se escriben
+    private static final int CATALOGO = 1;
+    private static final int PAGINAS = 2;
+    private static final int RECURSOS = 3;
+    private static final int FUENTE = 4;
+    private static final int INFORMACION = 5;
+
+    // Aproximación de un cuarto de círculo con una curva de Bézier
+    private static final double KAPPA = 0.5522847498;
+
+    private final Salida salida;
+    private long[] posiciones = new long[64];
+    private int siguienteObjeto = INFORMACION + 1;
+    private int[] paginas = new int[64];
+    private int cantidadPaginas;
+    private final int[] patrones = new int[256]; // objeto de cada patrón, 0 si aún no se escribió
+    private final String titulo;
+    private boolean terminado;
+
+    /**
+     * Escribe la cabecera del documento.
+     *
+     * @param salida donde se escribe el PDF; no se cierra
+     * @param titulo el título del documento, o null
+     */
+    public EscritorPdf(OutputStream salida, String titulo) throws IOException {
+        this.salida = new Salida(salida);
+        this.titulo = titulo;
+        // Comentario con bytes altos: indica a los lectores que el archivo es binario
+        this.salida.escribir("%PDF-1.4\n%âãÏÓ\n");
+    }
+
+    /**
+     * Agrega una página.
+     *
+     * @param anchoMm el ancho de la página
+     * @param altoMm el alto de la página
+     * @param contenido el contenido de la página armado con {@link Contenido}
+     */
+    public void pagina(double anchoMm, double altoMm, Contenido contenido) throws IOException {
+        pagina(anchoMm, altoMm, contenido.comprimir(), contenido.patrones);
+    }
+
+    /**
+     * Agrega una página con una señalética a tamaño real, con el mismo
+     * diseño que el SVG: fondo, borde, texto en tinta y celdas.
+     */
+    public void senaletica(DisenoSenaletica diseno) throws IOException {
+        double ancho = diseno.getAncho();
+        double alto = diseno.getAlto();
+        double borde = 1.5;
+        Contenido contenido = new Contenido(alto)
+            .relleno(diseno.getColorFondo())
+            .rectanguloRelleno(0, 0, ancho, alto)
+            .relleno(diseno.getColorTexto())
+            .trazo(diseno.getColorTexto())
+            .rectanguloTrazo(borde, borde, ancho - 2 * borde, alto - 2 * borde, borde);
+
+        String[] lineas = diseno.getLineasTexto();
+        double[] bases = diseno.getBaseLineasTexto();
+        for (int i = 0; i < lineas.length; i++) {
+            contenido.textoCentrado(lineas[i], ancho / 2, bases[i], diseno.getTamanoTexto());
+        }
+        for (int i = 0; i < diseno.getCeldas(); i++) {
+            contenido.celda(diseno.patron(i), diseno.x(i), diseno.y(i));
+        }
+        pagina(ancho, alto, contenido);
+    }
+
+    /**
+     * Agrega una página con el contenido ya comprimido (por ejemplo armado
+     * en otro hilo con {@link Contenido#comprimir()}).
+     *
+     * @param contenido el flujo de contenido comprimido con deflate
+     * @param patronesUsados los patrones que dibuja, como los devuelve {@link Contenido#getPatrones()}
+     */
+    public void pagina(double anchoMm, double altoMm, byte[] contenido, long[] patronesUsados) throws IOException {
+        for (int patron = 0; patron < 256; patron++) {
+            if ((patronesUsados[patron >> 6] & (1L << patron)) != 0 && patrones[patron] == 0) {
+                patrones[patron] = escribirPatron(patron);
+            }
+        }
+
+        int flujo = nuevoObjeto();
+        salida.escribir("<< /Length " + contenido.length + " /Filter /FlateDecode >>\nstream\n");
+        salida.escribir(contenido, contenido.length);
+        salida.escribir("\nendstream\nendobj\n");
+
+        int pagina = nuevoObjeto();
+        StringBuilder texto = new StringBuilder(160);
+        texto.append("<< /Type /Page /Parent ").append(PAGINAS).append(" 0 R /MediaBox [0 0 ");
+        FormatoNumero.anexar(texto, anchoMm * PUNTOS_POR_MM).append(' ');
+        FormatoNumero.anexar(texto, altoMm * PUNTOS_POR_MM).append("] /Resources ").append(RECURSOS)
+            .append(" 0 R /Contents ").append(flujo).append(" 0 R >>\nendobj\n");
+        salida.escribir(texto.toString());
+
+        if (cantidadPaginas == paginas.length) {
+            paginas = Arrays.copyOf(paginas, paginas.length * 2);
+        }
+        paginas[cantidadPaginas++] = pagina;
+    }
+
+    /**
+     * Form XObject con los puntos de un patrón; el origen es el centro del
+     * punto 1 y el relleno es el color vigente al colocarlo.
+     */
+    private int escribirPatron(int patron) throws IOException {
+        double radio = DisenoSenaletica.DIAMETRO_PUNTO / 2 * PUNTOS_POR_MM;
+        StringBuilder dibujo = new StringBuilder(256);
+        for (int punto = 0; punto < 8; punto++) {
+            if ((patron & (1 << punto)) != 0) {
+                double x = DisenoSenaletica.xPunto(punto) * PUNTOS_POR_MM;
+                double y = -DisenoSenaletica.yPunto(punto) * PUNTOS_POR_MM;
+                circulo(dibujo, x, y, radio);
+            }
+        }
+        dibujo.append("f\n");
+
+        int objeto = nuevoObjeto();
+        StringBuilder texto = new StringBuilder(128 + dibujo.length());
+        texto.append("<< /Type /XObject /Subtype /Form /BBox [");
+        FormatoNumero.anexar(texto, -radio).append(' ');
+        FormatoNumero.anexar(texto, -(3 * DisenoSenaletica.DISTANCIA_PUNTOS * PUNTOS_POR_MM + radio)).append(' ');
+        FormatoNumero.anexar(texto, DisenoSenaletica.DISTANCIA_PUNTOS * PUNTOS_POR_MM + radio).append(' ');
+        FormatoNumero.anexar(texto, radio).append("] /Length ").append(dibujo.length()).append(" >>\nstream\n")
+            .append(dibujo).append("endstream\nendobj\n");
+        salida.escribir(texto.toString());
+        return objeto;
+    }
+
+    private static void circulo(StringBuilder dibujo, double x, double y, double r) {
+        double k = r * KAPPA;
+        FormatoNumero.anexar(dibujo, x + r).append(' ');
+        FormatoNumero.anexar(dibujo, y).append(" m\n");
+        curva(dibujo, x + r, y + k, x + k, y + r, x, y + r);
+        curva(dibujo, x - k, y + r, x - r, y + k, x - r, y);
+        curva(dibujo, x - r, y - k, x - k, y - r, x, y - r);
+        curva(dibujo, x + k, y - r, x + r, y - k, x + r, y);
+    }
+
+    private static void curva(StringBuilder dibujo, double x1, double y1, double x2, double y2,
+                              double x3, double y3) {
+        FormatoNumero.anexar(dibujo, x1).append(' ');
+        FormatoNumero.anexar(dibujo, y1).append(' ');
+        FormatoNumero.anexar(dibujo, x2).append(' ');
+        FormatoNumero.anexar(dibujo, y2).append(' ');
+        FormatoNumero.anexar(dibujo, x3).append(' ');
+        FormatoNumero.anexar(dibujo, y3).append(" c\n");
+    }
+
+    /**
+     * Escribe los recursos, el árbol de páginas, el catálogo y la tabla de
+     * referencias. Un documento sin páginas recibe una página A4 en blanco.
+     */
+    public void terminar() throws IOException {
+        if (terminado) {
+            return;
+        }
+        if (cantidadPaginas == 0) {
+            pagina(210, 297, new Contenido(297));
+        }
+
+        StringBuilder texto = new StringBuilder(256);
+        texto.append("<< /Font << /F1 ").append(FUENTE).append(" 0 R >> /XObject <<");
+        for (int patron = 0; patron < 256; patron++) {
+            if (patrones[patron] != 0) {
+                nombrePatron(texto.append(' '), patron).append(' ').append(patrones[patron]).append(" 0 R");
+            }
+        }
+        texto.append(" >> >>\nendobj\n");
+        objeto(RECURSOS, texto.toString());
+
+        objeto(FUENTE, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold"
+            + " /Encoding /WinAnsiEncoding >>\nendobj\n");
+
+        // Las referencias a las páginas ocupan pocos bytes por página
+        texto.setLength(0);
+        texto.append("<< /Type /Pages /Count ").append(cantidadPaginas).append(" /Kids [");
+        for (int i = 0; i < cantidadPaginas; i++) {
+            texto.append(i == 0 ? "" : " ").append(paginas[i]).append(" 0 R");
+        }
+        objeto(PAGINAS, texto.append("] >>\nendobj\n").toString());
+
+        objeto(CATALOGO, "<< /Type /Catalog /Pages " + PAGINAS + " 0 R >>\nendobj\n");
+        texto.setLength(0);
+        texto.append("<< /Producer (Braille)");
+        if (titulo != null && !titulo.isBlank()) {
+            cadena(texto.append(" /Title "), titulo);
+        }
+        objeto(INFORMACION, texto.append(" >>\nendobj\n").toString());
+
+        // Tabla de referencias
+        long inicioTabla = salida.posicion;
+        texto.setLength(0);
+        texto.append("xref\n0 ").append(siguienteObjeto).append("\n0000000000 65535 f \n");
+        for (int objeto = 1; objeto < siguienteObjeto; objeto++) {
+            String posicion = Long.toString(posiciones[objeto]);
+            texto.append("0000000000", posicion.length(), 10).append(posicion).append(" 00000 n \n");
+            if (texto.length() > 8 * 1024) {
+                salida.escribir(texto.toString());
+                texto.setLength(0);
+            }
+        }
+        texto.append("trailer\n<< /Size ").append(siguienteObjeto).append(" /Root ").append(CATALOGO)
+            .append(" 0 R /Info ").append(INFORMACION).append(" 0 R >>\nstartxref\n").append(inicioTabla)
+            .append("\n%%EOF\n");
+        salida.escribir(texto.toString());
+        salida.flush();
+        terminado = true;
+    }
+
+    private int nuevoObjeto() throws IOException {
+        int objeto = siguienteObjeto++;
+        posicion(objeto);
+        salida.escribir(objeto + " 0 obj\n");
+        return objeto;
+    }
+
+    private void objeto(int objeto, String cuerpo) throws IOException {
+        posicion(objeto);
+        salida.escribir(objeto + " 0 obj\n" + cuerpo);
+    }
+
+    private void posicion(int objeto) {
+        if (objeto >= posiciones.length) {
+            posiciones = Arrays.copyOf(posiciones, Math.max(objeto + 1, posiciones.length * 2));
+        }
+        posiciones[objeto] = salida.posicion;
+    }
+
+    public int getPaginas() {
+        return cantidadPaginas;
+    }
+
+    static StringBuilder nombrePatron(StringBuilder texto, int patron) {
+        return texto.append("/C").append(Character.forDigit(patron >> 4, 16))
+            .append(Character.forDigit(patron & 0xF, 16));
+    }
+
+    /**
+     * Agrega una cadena literal PDF en WinAnsi; los caracteres que no
+     * existen en esa codificación se escriben como '?'.
+     */
+    static StringBuilder cadena(StringBuilder texto, String valor) {
+        texto.append('(');
+        for (int i = 0; i < valor.length(); i++) {
+            char caracter = valor.charAt(i);
+            if (caracter == '(' || caracter == ')' || caracter == '\\') {
+                texto.append('\\').append(caracter);
+            } else if (caracter >= 0x20 && caracter < 0x7F) {
+                texto.append(caracter);
+            } else if (caracter >= 0xA0 && caracter <= 0xFF) {
+                // Latin-1 coincide con WinAnsi en este tramo
+                texto.append('\\').append(Integer.toOctalString(caracter));
+            } else {
+                texto.append('?');
+            }
+        }
+        return texto.append(')');
+    }
+
+    /**
+     * Contenido de una página: celdas, rectángulos y texto, en mm desde
+     * arriba a la izquierda. No es seguro entre hilos, pero cada página
+     * puede armarse en un hilo distinto.
+     */
+    public static final class Contenido {
+
+        private final double altoMm;
+        private final StringBuilder texto = new StringBuilder(4096);
+        private final long[] patrones = new long[4];
+
+        /**
+         * @param altoMm el alto de la página, para invertir el eje y
+         */
+        public Contenido(double altoMm) {
+            this.altoMm = altoMm;
+        }
+
+        /**
+         * Color de relleno (#RRGGBB) para lo que se dibuje después.
+         */
+        public Contenido relleno(String color) {
+            return color(color, "rg");
+        }
+
+        /**
+         * Color de trazo (#RRGGBB) para lo que se dibuje después.
+         */
+        public Contenido trazo(String color) {
+            return color(color, "RG");
+        }
+
+        private Contenido color(String color, String operador) {
+            int rgb = Integer.parseInt(color.substring(1), 16);
+            componente(rgb >> 16).append(' ');
+            componente(rgb >> 8).append(' ');
+            componente(rgb).append(' ').append(operador).append('\n');
+            return this;
+        }
+
+        private StringBuilder componente(int valor) {
+            return FormatoNumero.anexar(texto, (valor & 0xFF) / 255.0);
+        }
+
+        public Contenido rectanguloRelleno(double x, double y, double ancho, double alto) {
+            rectangulo(x, y, ancho, alto).append(" re f\n");
+            return this;
+        }
+
+        public Contenido rectanguloTrazo(double x, double y, double ancho, double alto, double grosor) {
+            FormatoNumero.anexar(texto, grosor * PUNTOS_POR_MM).append(" w ");
+            rectangulo(x, y, ancho, alto).append(" re S\n");
+            return this;
+        }
+
+        private StringBuilder rectangulo(double x, double y, double ancho, double alto) {
+            FormatoNumero.anexar(texto, x * PUNTOS_POR_MM).append(' ');
+            FormatoNumero.anexar(texto, (altoMm - y - alto) * PUNTOS_POR_MM).append(' ');
+            FormatoNumero.anexar(texto, ancho * PUNTOS_POR_MM).append(' ');
+            return FormatoNumero.anexar(texto, alto * PUNTOS_POR_MM);
+        }
+
+        /**
+         * Coloca una celda con el centro del punto 1 en (x, y).
+         *
+         * @param patron el patrón de puntos (bit 0 = punto 1, ...)
+         */
+        public Contenido celda(int patron, double x, double y) {
+            if (patron == 0) {
+                return this;
+            }
+            patrones[patron >> 6] |= 1L << patron;
+            texto.append("q 1 0 0 1 ");
+            FormatoNumero.anexar(texto, x * PUNTOS_POR_MM).append(' ');
+            FormatoNumero.anexar(texto, (altoMm - y) * PUNTOS_POR_MM).append(" cm ");
+            nombrePatron(texto, patron).append(" Do Q\n");
+            return this;
+        }
+
+        /**
+         * Escribe texto en Helvetica-Bold centrado en x, con la línea base en y.
+         *
+         * @param tamano el tamaño de la letra en mm
+         */
+        public Contenido textoCentrado(String linea, double x, double y, double tamano) {
+            double ancho = HelveticaBold.ancho(linea) * tamano;
+            texto.append("BT /F1 ");
+            FormatoNumero.anexar(texto, tamano * PUNTOS_POR_MM).append(" Tf ");
+            FormatoNumero.anexar(texto, (x - ancho / 2) * PUNTOS_POR_MM).append(' ');
+            FormatoNumero.anexar(texto, (altoMm - y) * PUNTOS_POR_MM).append(" Td ");
+            cadena(texto, linea).append(" Tj ET\n");
+            return this;
+        }
+
+        /**
+         * @return los patrones usados, un bit por patrón en 4 long
+         */
+        public long[] getPatrones() {
+            return patrones.clone();
+        }
+
+        /**
+         * @return el flujo de contenido comprimido con deflate
+         */
+        public byte[] comprimir() {
+            byte[] bytes = texto.toString().getBytes(StandardCharsets.ISO_8859_1);
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(bytes);
+                deflater.finish();
+                ByteArrayOutputStream comprimido = new ByteArrayOutputStream(bytes.length / 4 + 64);
+                byte[] bloque = new byte[8 * 1024];
+                while (!deflater.finished()) {
+                    int cantidad = deflater.deflate(bloque);
+                    comprimido.write(bloque, 0, cantidad);
+                }
+                return comprimido.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * Anchos de Helvetica-Bold (métricas AFM estándar, en milésimas del
+     * tamaño de letra) para centrar el texto sin incrustar la fuente.
+     */
+    static final class HelveticaBold {
+
+        // Caracteres 32 a 126
+        private static final short[] ANCHOS = {
+            278, 333, 474, 556, 556, 889, 722, 238, 333, 333, 389, 584, 278, 333, 278, 278,
+            556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 333, 333, 584, 584, 584, 611,
+            975, 722, 722, 722, 722, 667, 611, 778, 722, 278, 556, 722, 611, 833, 722, 778,
+            667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 333, 278, 333, 584, 556,
+            333, 556, 611, 556, 611, 556, 333, 611, 611, 278, 278, 556, 278, 889, 611, 611,
+            611, 611, 389, 556, 333, 611, 556, 778, 556, 556, 500, 389, 280, 389, 584
+        };
+
+        private HelveticaBold() {}
+
+        /**
+         * @return el ancho del texto en tamaños de letra
+         */
+        static double ancho(String texto) {
+            int total = 0;
+            for (int i = 0; i < texto.length(); i++) {
+                char caracter = texto.charAt(i);
+                if (caracter >= 32 && caracter <= 126) {
+                    total += ANCHOS[caracter - 32];
+                } else {
+                    // Letras acentuadas: el ancho de la letra base
+                    String base = java.text.Normalizer.normalize(String.valueOf(caracter),
+                        java.text.Normalizer.Form.NFD);
+                    char letra = base.charAt(0);
+                    total += letra >= 32 && letra <= 126 ? ANCHOS[letra - 32] : 611;
+                }
+            }
+            return total / 1000.0;
+        }
+    }
+
+    /**
+     * Salida que cuenta los bytes escritos, para la tabla de referencias.
+     */
+    private static final class Salida {
+
+        private final OutputStream flujo;
+        private long posicion;
+
+        Salida(OutputStream flujo) {
+            this.flujo = flujo;
+        }
+
+        void escribir(String texto) throws IOException {
+            byte[] bytes = texto.getBytes(StandardCharsets.ISO_8859_1);
+            flujo.write(bytes);
+            posicion += bytes.length;
+        }
+
+        void escribir(byte[] bytes, int cantidad) throws IOException {
+            flujo.write(bytes, 0, cantidad);
+            posicion += cantidad;
+        }
+
+        void flush() throws IOException {
+            flujo.flush();
+        }
+    }
+}
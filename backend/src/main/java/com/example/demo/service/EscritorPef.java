@@ -0,0 +1,193 @@
+package com.example.demo.service;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Destino de {@link PaginadorBraille} que escribe PEF (Portable Embosser
+ * Format): XML de volúmenes, secciones, páginas y filas de celdas Unicode.
+ *
+ * Se escribe con StAX a medida que el paginador cierra cada línea, sin
+ * armar el documento en memoria: un libro de cientos de páginas ocupa lo
+ * mismo que una. Cada volumen tiene una sección y se abre uno nuevo cada
+ * paginasPorVolumen páginas.
+ *
+ * Las filas de PEF solo admiten celdas U+2800-U+28FF: los espacios (y
+ * cualquier carácter que no sea una celda) se escriben como la celda vacía.
+ */
+public final class EscritorPef implements PaginadorBraille.Destino {
+
+    public static final String ESPACIO_NOMBRES = "http://www.daisy.org/ns/2008/pef";
+    private static final String ESPACIO_NOMBRES_DC = "http://purl.org/dc/elements/1.1/";
+    public static final String TIPO_CONTENIDO = "application/x-pef+xml";
+
+    private static final XMLOutputFactory FABRICA = XMLOutputFactory.newFactory();
+
+    private final XMLStreamWriter xml;
+    private final int celdasPorLinea;
+    private final int lineasPorPagina;
+    private final int paginasPorVolumen;
+    private final char[] fila;
+
+    private boolean paginaAbierta;
+    private int paginasEnVolumen;
+    private int paginas;
+    private long filas;
+    private boolean terminado;
+
+    /**
+     * Escribe la cabecera del documento.
+     *
+     * @param salida donde se escribe el XML (UTF-8); no se cierra
+     * @param identificador el dc:identifier del documento
+     * @param titulo el dc:title, o null
+     * @param celdasPorLinea las columnas de los volúmenes
+     * @param lineasPorPagina las filas de los volúmenes, incluida la del encabezado
+     * @param paginasPorVolumen páginas de cada volumen
+     */
+    public EscritorPef(OutputStream salida, String identificador, String titulo, int celdasPorLinea,
+                       int lineasPorPagina, int paginasPorVolumen) throws IOException {
+        if (paginasPorVolumen < 1) {
+            throw new IllegalArgumentException("paginasPorVolumen debe ser al menos 1");
+        }
+        this.celdasPorLinea = celdasPorLinea;
+        this.lineasPorPagina = lineasPorPagina;
+        this.paginasPorVolumen = paginasPorVolumen;
+        this.fila = new char[celdasPorLinea];
+        try {
+            xml = FABRICA.createXMLStreamWriter(salida, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.setDefaultNamespace(ESPACIO_NOMBRES);
+            xml.writeStartElement(ESPACIO_NOMBRES, "pef");
+            xml.writeDefaultNamespace(ESPACIO_NOMBRES);
+            xml.writeAttribute("version", "2008-1");
+
+            xml.writeStartElement(ESPACIO_NOMBRES, "head");
+            xml.writeStartElement(ESPACIO_NOMBRES, "meta");
+            xml.writeNamespace("dc", ESPACIO_NOMBRES_DC);
+            elementoDc("format", TIPO_CONTENIDO);
+            elementoDc("identifier", identificador);
+            if (titulo != null && !titulo.isBlank()) {
+                elementoDc("title", titulo);
+            }
+            elementoDc("date", LocalDate.now().toString());
+            xml.writeEndElement(); // meta
+            xml.writeEndElement(); // head
+
+            xml.writeStartElement(ESPACIO_NOMBRES, "body");
+        } catch (XMLStreamException e) {
+            throw new IOException("No se pudo escribir el PEF", e);
+        }
+    }
+
+    private void elementoDc(String nombre, String valor) throws XMLStreamException {
+        xml.writeStartElement("dc", nombre, ESPACIO_NOMBRES_DC);
+        xml.writeCharacters(valor);
+        xml.writeEndElement();
+    }
+
+    /**
+     * @return las filas escritas
+     */
+    @Override
+    public long posicion() {
+        return filas;
+    }
+
+    @Override
+    public void linea(char[] celdas, int cantidad) throws IOException {
+        try {
+            if (!paginaAbierta) {
+                abrirPagina();
+            }
+            for (int i = 0; i < cantidad; i++) {
+                char caracter = celdas[i];
+                fila[i] = caracter >= '\u2800' && caracter <= '\u28FF' ? caracter : '\u2800';
+            }
+            xml.writeStartElement(ESPACIO_NOMBRES, "row");
+            xml.writeCharacters(fila, 0, cantidad);
+            xml.writeEndElement();
+            filas++;
+        } catch (XMLStreamException e) {
+            throw new IOException("No se pudo escribir el PEF", e);
+        }
+    }
+
+    private void abrirPagina() throws XMLStreamException {
+        if (paginasEnVolumen == paginasPorVolumen) {
+            xml.writeEndElement(); // section
+            xml.writeEndElement(); // volume
+            paginasEnVolumen = 0;
+        }
+        if (paginasEnVolumen == 0) {
+            xml.writeStartElement(ESPACIO_NOMBRES, "volume");
+            xml.writeAttribute("cols", Integer.toString(celdasPorLinea));
+            xml.writeAttribute("rows", Integer.toString(lineasPorPagina));
+            xml.writeAttribute("rowgap", "0");
+            xml.writeAttribute("duplex", "false");
+            xml.writeStartElement(ESPACIO_NOMBRES, "section");
+        }
+        xml.writeStartElement(ESPACIO_NOMBRES, "page");
+        paginaAbierta = true;
+    }
+
+    @Override
+    public void finPagina() throws IOException {
+        try {
+            if (!paginaAbierta) {
+                abrirPagina();
+            }
+            xml.writeEndElement(); // page
+            paginaAbierta = false;
+            paginasEnVolumen++;
+            paginas++;
+        } catch (XMLStreamException e) {
+            throw new IOException("No se pudo escribir el PEF", e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        try {
+            xml.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("No se pudo escribir el PEF", e);
+        }
+    }
+
+    /**
+     * Cierra los elementos abiertos y termina el documento. Se llama
+     * después de cerrar el paginador; un documento sin texto queda con
+     * una página vacía, porque PEF pide al menos una.
+     */
+    public void terminar() throws IOException {
+        if (terminado) {
+            return;
+        }
+        if (paginas == 0 || paginaAbierta) {
+            finPagina();
+        }
+        try {
+            xml.writeEndElement(); // section
+            xml.writeEndElement(); // volume
+            xml.writeEndElement(); // body
+            xml.writeEndElement(); // pef
+            xml.writeEndDocument();
+            xml.flush();
+            terminado = true;
+        } catch (XMLStreamException e) {
+            throw new IOException("No se pudo escribir el PEF", e);
+        }
+    }
+
+    /**
+     * @return las páginas escritas
+     */
+    public int getPaginas() {
+        return paginas;
+    }
+}
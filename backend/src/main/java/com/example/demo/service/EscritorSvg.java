@@ -0,0 +1,153 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Dibuja una señalética en SVG, en milímetros reales (width y height en
+ * mm), con el texto en tinta y los puntos Braille.
+ *
+ * Cada patrón de puntos que aparece se define una sola vez como
+ * &lt;symbol&gt; y cada celda es un &lt;use&gt; que lo coloca: el tamaño del
+ * archivo crece con las celdas y los patrones distintos (64 como máximo
+ * en Braille de seis puntos), no con los puntos. El color de los puntos
+ * se da una vez en el grupo que contiene las celdas.
+ *
+ * Se escribe directamente en el Writer, por partes, sin armar el documento.
+ */
+public final class EscritorSvg {
+
+    public static final String TIPO_CONTENIDO = "image/svg+xml";
+
+    // Se vuelca al Writer cada vez que el búfer pasa este tamaño
+    private static final int TAMANO_BUFFER = 8 * 1024;
+
+    private final Writer salida;
+    private final StringBuilder buffer = new StringBuilder(TAMANO_BUFFER + 256);
+
+    private EscritorSvg(Writer salida) {
+        this.salida = salida;
+    }
+
+    /**
+     * Escribe el SVG de una señalética. No cierra el Writer.
+     */
+    public static void escribir(DisenoSenaletica diseno, Writer salida) throws IOException {
+        new EscritorSvg(salida).escribir(diseno);
+    }
+
+    private void escribir(DisenoSenaletica diseno) throws IOException {
+        double ancho = diseno.getAncho();
+        double alto = diseno.getAlto();
+
+        buffer.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+            .append("<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\"")
+            .append(" width=\"");
+        FormatoNumero.anexar(buffer, ancho).append("mm\" height=\"");
+        FormatoNumero.anexar(buffer, alto).append("mm\" viewBox=\"0 0 ");
+        FormatoNumero.anexar(buffer, ancho).append(' ');
+        FormatoNumero.anexar(buffer, alto).append("\">\n");
+        if (!diseno.getTitulo().isEmpty()) {
+            buffer.append("<title>");
+            escapar(diseno.getTitulo()).append("</title>\n");
+        }
+
+        // Un símbolo por patrón usado, con el punto 1 en el origen
+        int[] patrones = diseno.patronesUsados();
+        if (patrones.length > 0) {
+            buffer.append("<defs>\n");
+            for (int patron : patrones) {
+                buffer.append("<symbol id=\"");
+                id(patron).append("\" overflow=\"visible\">");
+                for (int punto = 0; punto < 8; punto++) {
+                    if ((patron & (1 << punto)) != 0) {
+                        buffer.append("<circle cx=\"");
+                        FormatoNumero.anexar(buffer, DisenoSenaletica.xPunto(punto)).append("\" cy=\"");
+                        FormatoNumero.anexar(buffer, DisenoSenaletica.yPunto(punto)).append("\" r=\"");
+                        FormatoNumero.anexar(buffer, DisenoSenaletica.DIAMETRO_PUNTO / 2).append("\"/>");
+                    }
+                }
+                buffer.append("</symbol>\n");
+            }
+            buffer.append("</defs>\n");
+        }
+
+        // Fondo y borde
+        double borde = 1.5;
+        buffer.append("<rect width=\"");
+        FormatoNumero.anexar(buffer, ancho).append("\" height=\"");
+        FormatoNumero.anexar(buffer, alto).append("\" fill=\"").append(diseno.getColorFondo()).append("\"/>\n");
+        buffer.append("<rect x=\"");
+        FormatoNumero.anexar(buffer, borde).append("\" y=\"");
+        FormatoNumero.anexar(buffer, borde).append("\" width=\"");
+        FormatoNumero.anexar(buffer, ancho - 2 * borde).append("\" height=\"");
+        FormatoNumero.anexar(buffer, alto - 2 * borde).append("\" fill=\"none\" stroke=\"")
+            .append(diseno.getColorTexto()).append("\" stroke-width=\"");
+        FormatoNumero.anexar(buffer, borde).append("\"/>\n");
+
+        // Texto en tinta
+        String[] lineas = diseno.getLineasTexto();
+        if (lineas.length > 0) {
+            double[] bases = diseno.getBaseLineasTexto();
+            buffer.append("<g font-family=\"Arial, Helvetica, sans-serif\" font-weight=\"bold\" font-size=\"");
+            FormatoNumero.anexar(buffer, diseno.getTamanoTexto()).append("\" text-anchor=\"middle\" fill=\"")
+                .append(diseno.getColorTexto()).append("\">\n");
+            for (int i = 0; i < lineas.length; i++) {
+                buffer.append("<text x=\"");
+                FormatoNumero.anexar(buffer, ancho / 2).append("\" y=\"");
+                FormatoNumero.anexar(buffer, bases[i]).append("\">");
+                escapar(lineas[i]).append("</text>\n");
+                volcarSiLleno();
+            }
+            buffer.append("</g>\n");
+        }
+
+        // Celdas
+        if (diseno.getCeldas() > 0) {
+            buffer.append("<g fill=\"").append(diseno.getColorTexto()).append("\">\n");
+            for (int i = 0; i < diseno.getCeldas(); i++) {
+                buffer.append("<use xlink:href=\"#");
+                id(diseno.patron(i)).append("\" x=\"");
+                FormatoNumero.anexar(buffer, diseno.x(i)).append("\" y=\"");
+                FormatoNumero.anexar(buffer, diseno.y(i)).append("\"/>\n");
+                volcarSiLleno();
+            }
+            buffer.append("</g>\n");
+        }
+
+        buffer.append("</svg>\n");
+        salida.append(buffer);
+        buffer.setLength(0);
+        salida.flush();
+    }
+
+    private void volcarSiLleno() throws IOException {
+        if (buffer.length() >= TAMANO_BUFFER) {
+            salida.append(buffer);
+            buffer.setLength(0);
+        }
+    }
+
+    private StringBuilder id(int patron) {
+        return buffer.append('c').append(Character.forDigit(patron >> 4, 16))
+            .append(Character.forDigit(patron & 0xF, 16));
+    }
+
+    private StringBuilder escapar(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char caracter = texto.charAt(i);
+            switch (caracter) {
+                case '<': buffer.append("&lt;"); break;
+                case '>': buffer.append("&gt;"); break;
+                case '&': buffer.append("&amp;"); break;
+                case '"': buffer.append("&quot;"); break;
+                default:
+                    // Sin caracteres de control, que XML no admite
+                    if (caracter >= 0x20 || caracter == '\t') {
+                        buffer.append(caracter);
+                    }
+            }
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,458 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Conversion;
+import com.example.demo.model.Senaletica;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exportación de conversiones y señaléticas a archivos para impresoras
+ * Braille (BRF y PEF), a PDF con los puntos en vectores, y de señaléticas
+ * a imagen (SVG y PNG), a modelo 3D para imprimir (STL) y a G-code para
+ * marcar los puntos con CNC o prensa de punzones.
+ *
+ * Los archivos para impresora se generan una vez en el directorio de
+ * artefactos y se reutilizan mientras no cambie el contenido ni el
+ * formato; el nombre lleva el origen, el formato y un resumen del
+ * contenido, y al generarse una versión nueva se borran las anteriores del
+ * mismo origen y formato. Las imágenes se dibujan directamente en la
+ * respuesta.
+ *
+ * Los archivos se escriben primero con nombre temporal y se mueven al
+ * final, así nunca se sirve un archivo a medio escribir.
+ */
+@Service
+public class ExportacionService {
+
+    // Páginas por volumen de PEF
+    public static final int PAGINAS_POR_VOLUMEN_POR_DEFECTO = 50;
+    private static final int MAX_PAGINAS_POR_VOLUMEN = 1000;
+
+    private final BrailleService brailleService;
+    private final PaginadoService paginadoService;
+    private final Path directorio;
+    private final RasterizadorPng rasterizadorPng;
+    private final ModeladorStl modeladorStl;
+
+    public ExportacionService(
+            BrailleService brailleService,
+            PaginadoService paginadoService,
+            @Value("${braille.artefactos.directorio:${java.io.tmpdir}/braille-artefactos}") String directorio,
+            @Value("${braille.png.max-atlas:64}") long maxAtlas,
+            @Value("${braille.stl.max-mallas:16}") long maxMallas)
+            throws IOException {
+        this.brailleService = brailleService;
+        this.paginadoService = paginadoService;
+        this.directorio = Files.createDirectories(Paths.get(directorio).toAbsolutePath());
+        this.rasterizadorPng = new RasterizadorPng(maxAtlas);
+        this.modeladorStl = new ModeladorStl(maxMallas);
+    }
+
+    /**
+     * Valida el formato de página y de volumen
+     *
+     * @return el mensaje de error, o null si es válido
+     */
+    public String validarFormato(int celdasPorLinea, int lineasPorPagina, int paginasPorVolumen) {
+        String error = paginadoService.validarFormato(celdasPorLinea, lineasPorPagina);
+        if (error == null && (paginasPorVolumen < 1 || paginasPorVolumen > MAX_PAGINAS_POR_VOLUMEN)) {
+            error = "paginasPorVolumen debe estar entre 1 y " + MAX_PAGINAS_POR_VOLUMEN;
+        }
+        return error;
+    }
+
+    private void comprobarFormato(int celdasPorLinea, int lineasPorPagina, int paginasPorVolumen) {
+        String error = validarFormato(celdasPorLinea, lineasPorPagina, paginasPorVolumen);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+    }
+
+    /**
+     * Exporta una conversión del historial a BRF. Se exporta el lado Braille
+     * de la conversión: el resultado si fue de texto a Braille, el texto
+     * original si fue de Braille a texto.
+     *
+     * @return el archivo BRF
+     * @throws IllegalArgumentException si el formato de página no es válido
+     */
+    public Path exportarBrf(Conversion conversion, int celdasPorLinea, int lineasPorPagina, boolean numerar)
+            throws IOException {
+        return exportarBrf("conversion-" + conversion.getId(), brailleDe(conversion), conversion.getTabla(),
+            celdasPorLinea, lineasPorPagina, numerar);
+    }
+
+    /**
+     * Exporta el Braille de una señalética a BRF.
+     *
+     * @return el archivo BRF
+     * @throws IllegalArgumentException si el formato de página no es válido
+     */
+    public Path exportarBrf(Senaletica senaletica, int celdasPorLinea, int lineasPorPagina, boolean numerar)
+            throws IOException {
+        return exportarBrf("senaletica-" + senaletica.getId(), senaletica.getTextoBraille(), senaletica.getTabla(),
+            celdasPorLinea, lineasPorPagina, numerar);
+    }
+
+    /**
+     * Exporta una conversión del historial a PEF, con el mismo Braille y
+     * la misma compaginación que {@link #exportarBrf(Conversion, int, int, boolean)}.
+     *
+     * @return el archivo PEF
+     * @throws IllegalArgumentException si el formato de página no es válido
+     */
+    public Path exportarPef(Conversion conversion, int celdasPorLinea, int lineasPorPagina, boolean numerar,
+                            int paginasPorVolumen) throws IOException {
+        return exportarPef("conversion-" + conversion.getId(), null, brailleDe(conversion), conversion.getTabla(),
+            celdasPorLinea, lineasPorPagina, numerar, paginasPorVolumen);
+    }
+
+    /**
+     * Exporta el Braille de una señalética a PEF; el título de la
+     * señalética es el dc:title del documento.
+     *
+     * @return el archivo PEF
+     * @throws IllegalArgumentException si el formato de página no es válido
+     */
+    public Path exportarPef(Senaletica senaletica, int celdasPorLinea, int lineasPorPagina, boolean numerar,
+                            int paginasPorVolumen) throws IOException {
+        return exportarPef("senaletica-" + senaletica.getId(), senaletica.getTitulo(), senaletica.getTextoBraille(),
+            senaletica.getTabla(), celdasPorLinea, lineasPorPagina, numerar, paginasPorVolumen);
+    }
+
+    /**
+     * Convierte un texto leído por flujo y escribe el PEF en la salida a
+     * medida que avanza la conversión: ni el texto, ni el Braille, ni el
+     * XML están completos en memoria en ningún momento.
+     *
+     * @param texto el texto a convertir
+     * @param codigoTabla la tabla a usar, o null para la tabla por defecto
+     * @param titulo el dc:title del documento, o null
+     * @param normalizar si el texto pasa por la etapa de normalización
+     * @return las páginas escritas
+     * @throws IllegalArgumentException si la tabla o el formato no son válidos
+     */
+    public int convertirPef(Reader texto, String codigoTabla, int celdasPorLinea, int lineasPorPagina,
+                            boolean numerar, int paginasPorVolumen, String titulo, boolean normalizar,
+                            OutputStream salida) throws IOException {
+        comprobarFormato(celdasPorLinea, lineasPorPagina, paginasPorVolumen);
+        TablaBraille tabla = brailleService.getTabla(codigoTabla);
+        Reader entrada = normalizar ? brailleService.normalizar(texto, tabla) : texto;
+        EscritorPef pef = new EscritorPef(salida, "urn:uuid:" + UUID.randomUUID(), titulo, celdasPorLinea,
+            lineasPorPagina, paginasPorVolumen);
+        PaginadorBraille paginador = new PaginadorBraille(tabla, celdasPorLinea, lineasPorPagina, null, numerar, pef);
+        brailleService.textoABraille(entrada, paginador, tabla);
+        paginador.close();
+        pef.terminar();
+        return pef.getPaginas();
+    }
+
+    /**
+     * Exporta una conversión del historial a PDF, con la misma compaginación
+     * que el BRF: una página PDF por página Braille, con los puntos a la
+     * medida táctil estándar.
+     *
+     * @return el archivo PDF
+     * @throws IllegalArgumentException si el formato de página no es válido
+     */
+    public Path exportarPdf(Conversion conversion, int celdasPorLinea, int lineasPorPagina, boolean numerar)
+            throws IOException {
+        comprobarFormato(celdasPorLinea, lineasPorPagina, 1);
+        String braille = brailleDe(conversion);
+        String texto = braille != null ? braille : "";
+        String formato = celdasPorLinea + "x" + lineasPorPagina + (numerar ? "n" : "");
+        return exportar("conversion-" + conversion.getId(), formato, texto, ".pdf", salida -> {
+            EscritorPdf pdf = new EscritorPdf(salida, null);
+            DestinoPdf destino = destinoPdf(pdf, celdasPorLinea, lineasPorPagina);
+            PaginadorBraille paginador = new PaginadorBraille(tabla(conversion.getTabla()), celdasPorLinea,
+                lineasPorPagina, null, numerar, destino);
+            paginador.write(texto);
+            paginador.close();
+            destino.terminar();
+        });
+    }
+
+    /**
+     * Convierte un texto leído por flujo y escribe el PDF en la salida a
+     * medida que se completan las páginas.
+     *
+     * @param texto el texto a convertir
+     * @param codigoTabla la tabla a usar, o null para la tabla por defecto
+     * @param titulo el título del documento, o null
+     * @param normalizar si el texto pasa por la etapa de normalización
+     * @return las páginas escritas
+     * @throws IllegalArgumentException si la tabla o el formato no son válidos
+     */
+    public int convertirPdf(Reader texto, String codigoTabla, int celdasPorLinea, int lineasPorPagina,
+                            boolean numerar, String titulo, boolean normalizar, OutputStream salida)
+            throws IOException {
+        comprobarFormato(celdasPorLinea, lineasPorPagina, 1);
+        TablaBraille tabla = brailleService.getTabla(codigoTabla);
+        Reader entrada = normalizar ? brailleService.normalizar(texto, tabla) : texto;
+        EscritorPdf pdf = new EscritorPdf(salida, titulo);
+        DestinoPdf destino = destinoPdf(pdf, celdasPorLinea, lineasPorPagina);
+        PaginadorBraille paginador = new PaginadorBraille(tabla, celdasPorLinea, lineasPorPagina, null, numerar,
+            destino);
+        brailleService.textoABraille(entrada, paginador, tabla);
+        paginador.close();
+        destino.terminar();
+        return pdf.getPaginas();
+    }
+
+    /**
+     * Las páginas se arman en el pool común; se admiten unas pocas por
+     * hilo pendientes de escribir.
+     */
+    private static DestinoPdf destinoPdf(EscritorPdf pdf, int celdasPorLinea, int lineasPorPagina) {
+        return new DestinoPdf(pdf, celdasPorLinea, lineasPorPagina, ForkJoinPool.commonPool(),
+            2 * ForkJoinPool.getCommonPoolParallelism() + 2);
+    }
+
+    /**
+     * Escribe en PDF una señalética a tamaño real. No cierra la salida.
+     */
+    public void escribirPdf(Senaletica senaletica, OutputStream salida) throws IOException {
+        escribirPdf(List.of(senaletica), senaletica.getTitulo(), salida);
+    }
+
+    /**
+     * Escribe un PDF con una página por señalética, cada una a tamaño
+     * real. No cierra la salida.
+     *
+     * @param titulo el título del documento, o null
+     */
+    public void escribirPdf(List<Senaletica> senaleticas, String titulo, OutputStream salida) throws IOException {
+        EscritorPdf pdf = new EscritorPdf(salida, titulo);
+        for (Senaletica senaletica : senaleticas) {
+            pdf.senaletica(DisenoSenaletica.de(senaletica));
+        }
+        pdf.terminar();
+    }
+
+    /**
+     * Escribe el SVG de una señalética. No cierra la salida.
+     */
+    public void escribirSvg(Senaletica senaletica, OutputStream salida) throws IOException {
+        Writer escritor = new OutputStreamWriter(salida, StandardCharsets.UTF_8);
+        EscritorSvg.escribir(DisenoSenaletica.de(senaletica), escritor);
+        escritor.flush();
+    }
+
+    /**
+     * Escribe el PNG de una señalética. No cierra la salida.
+     *
+     * @param puntosPorPulgada la resolución; se ignora en miniatura
+     * @param miniatura si se dibuja en miniatura
+     */
+    public void escribirPng(Senaletica senaletica, int puntosPorPulgada, boolean miniatura, OutputStream salida)
+            throws IOException {
+        DisenoSenaletica diseno = DisenoSenaletica.de(senaletica);
+        if (miniatura) {
+            rasterizadorPng.escribirMiniatura(diseno, salida);
+        } else {
+            rasterizadorPng.escribir(diseno, puntosPorPulgada, salida);
+        }
+    }
+
+    /**
+     * Escribe el modelo STL binario de una señalética en el canal. No
+     * cierra el canal.
+     *
+     * @param alturaPunto la altura de los puntos sobre la placa, en mm
+     * @param distanciaPuntos la distancia entre puntos de una celda, en mm
+     * @param grosorPlaca el grosor de la placa, en mm
+     * @throws IllegalArgumentException si la forma no es válida
+     */
+    public void escribirStl(Senaletica senaletica, double alturaPunto, double distanciaPuntos, double grosorPlaca,
+                            WritableByteChannel canal) throws IOException {
+        modeladorStl.escribir(DisenoSenaletica.de(senaletica), alturaPunto, distanciaPuntos, grosorPlaca, canal);
+    }
+
+    /**
+     * Planifica el recorrido de la máquina por los puntos de una
+     * señalética; el plan escribe el G-code.
+     *
+     * @param profundidad cuánto baja el punzón bajo la superficie, en mm
+     * @param alturaSegura la altura de los desplazamientos, en mm
+     * @param velocidad la velocidad de los desplazamientos, en mm/min
+     * @param avance la velocidad de bajada del punzón, en mm/min
+     * @throws IllegalArgumentException si la máquina no es válida
+     */
+    public PlanGcode planificarGcode(Senaletica senaletica, double profundidad, double alturaSegura,
+                                     double velocidad, double avance) {
+        return PlanGcode.planificar(DisenoSenaletica.de(senaletica), profundidad, alturaSegura, velocidad, avance);
+    }
+
+    /**
+     * Escribe un ZIP con el SVG de cada señalética (senaletica-{id}.svg),
+     * uno tras otro. No cierra la salida.
+     */
+    public void escribirSvgZip(List<Senaletica> senaleticas, OutputStream salida) throws IOException {
+        escribirZip(senaleticas, ".svg", this::escribirSvg, salida);
+    }
+
+    /**
+     * Escribe un ZIP con el PNG de cada señalética (senaletica-{id}.png),
+     * uno tras otro. No cierra la salida.
+     */
+    public void escribirPngZip(List<Senaletica> senaleticas, int puntosPorPulgada, boolean miniatura,
+                               OutputStream salida) throws IOException {
+        escribirZip(senaleticas, ".png",
+            (senaletica, entrada) -> escribirPng(senaletica, puntosPorPulgada, miniatura, entrada), salida);
+    }
+
+    private void escribirZip(List<Senaletica> senaleticas, String extension, Dibujo dibujo, OutputStream salida)
+            throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(salida, StandardCharsets.UTF_8);
+        for (Senaletica senaletica : senaleticas) {
+            zip.putNextEntry(new ZipEntry("senaletica-" + senaletica.getId() + extension));
+            dibujo.dibujar(senaletica, zip);
+            zip.closeEntry();
+        }
+        zip.finish();
+    }
+
+    private Path exportarBrf(String origen, String braille, String codigoTabla, int celdasPorLinea,
+                             int lineasPorPagina, boolean numerar) throws IOException {
+        comprobarFormato(celdasPorLinea, lineasPorPagina, 1);
+        String texto = braille != null ? braille : "";
+        String formato = celdasPorLinea + "x" + lineasPorPagina + (numerar ? "n" : "");
+        return exportar(origen, formato, texto, ".brf", salida -> {
+            PaginadorBraille paginador = new PaginadorBraille(tabla(codigoTabla), celdasPorLinea,
+                lineasPorPagina, null, numerar, new PaginadorBraille.DestinoBrf(salida, celdasPorLinea));
+            paginador.write(texto);
+            paginador.close();
+        });
+    }
+
+    private Path exportarPef(String origen, String titulo, String braille, String codigoTabla, int celdasPorLinea,
+                             int lineasPorPagina, boolean numerar, int paginasPorVolumen) throws IOException {
+        comprobarFormato(celdasPorLinea, lineasPorPagina, paginasPorVolumen);
+        String texto = braille != null ? braille : "";
+        String formato = celdasPorLinea + "x" + lineasPorPagina + (numerar ? "n" : "") + "v" + paginasPorVolumen;
+        return exportar(origen, formato, texto, ".pef", salida -> {
+            EscritorPef pef = new EscritorPef(salida, origen, titulo, celdasPorLinea, lineasPorPagina,
+                paginasPorVolumen);
+            PaginadorBraille paginador = new PaginadorBraille(tabla(codigoTabla), celdasPorLinea,
+                lineasPorPagina, null, numerar, pef);
+            paginador.write(texto);
+            paginador.close();
+            pef.terminar();
+        });
+    }
+
+
+    /**
+     * Genera (si no existe ya) el archivo de un origen en un formato.
+     *
+     * @param origen de qué es el archivo, p. ej. "conversion-12"
+     * @param formato los parámetros que cambian el archivo
+     * @param contenido lo que se exporta; su resumen va en el nombre
+     * @param extension la extensión del archivo
+     * @param escritura escribe el archivo en la salida que recibe
+     */
+    private Path exportar(String origen, String formato, String contenido, String extension,
+                          Escritura escritura) throws IOException {
+        String prefijo = origen + "-" + formato + "-";
+        String nombre = prefijo + resumen(contenido) + extension;
+        Path archivo = directorio.resolve(nombre);
+        if (Files.exists(archivo)) {
+            return archivo;
+        }
+
+        Path temporal = Files.createTempFile(directorio, origen + "-", ".tmp");
+        try {
+            try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(temporal))) {
+                escritura.escribir(salida);
+            }
+            Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+        eliminarVersionesAnteriores(prefijo, extension, archivo);
+        return archivo;
+    }
+
+    /**
+     * SHA-256 del contenido en hexadecimal, como la versión de las tablas:
+     * dos contenidos distintos no pueden compartir archivo ni ETag.
+     */
+    private static String resumen(String contenido) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(contenido.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Lado Braille de una conversión: el resultado si fue de texto a
+     * Braille, el texto original si fue de Braille a texto.
+     */
+    private static String brailleDe(Conversion conversion) {
+        String tipo = conversion.getTipo();
+        return "texto-a-braille".equals(tipo) || "texto-a-grado2".equals(tipo)
+            ? conversion.getResultado() : conversion.getTextoOriginal();
+    }
+
+    /**
+     * La tabla con la que se guardó el contenido (para los números de
+     * página), o la tabla por defecto si ya no existe.
+     */
+    private TablaBraille tabla(String codigoTabla) {
+        try {
+            return brailleService.getTabla(codigoTabla);
+        } catch (IllegalArgumentException e) {
+            return brailleService.getTabla();
+        }
+    }
+
+    private void eliminarVersionesAnteriores(String prefijo, String extension, Path actual) throws IOException {
+        try (DirectoryStream<Path> anteriores = Files.newDirectoryStream(directorio, prefijo + "*" + extension)) {
+            for (Path anterior : anteriores) {
+                if (!anterior.equals(actual)) {
+                    Files.deleteIfExists(anterior);
+                }
+            }
+        }
+    }
+
+    /**
+     * Escribe un archivo exportado.
+     */
+    @FunctionalInterface
+    private interface Escritura {
+        void escribir(OutputStream salida) throws IOException;
+    }
+
+    /**
+     * Dibuja una señalética en un formato de imagen.
+     */
+    @FunctionalInterface
+    private interface Dibujo {
+        void dibujar(Senaletica senaletica, OutputStream salida) throws IOException;
+    }
+}
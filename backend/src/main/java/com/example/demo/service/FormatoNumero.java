@@ -0,0 +1,33 @@
+package com.example.demo.service;
+
+/**
+ * Formato de números para los archivos que se escriben a mano (SVG, PDF,
+ * G-code): hasta dos decimales, sin ceros de sobra ni notación científica
+ * y sin pasar por String.format.
+ */
+final class FormatoNumero {
+
+    private FormatoNumero() {}
+
+    /**
+     * Agrega un número con hasta dos decimales, sin ceros de sobra.
+     *
+     * @return el mismo texto, para encadenar
+     */
+    static StringBuilder anexar(StringBuilder texto, double valor) {
+        long centesimas = Math.round(valor * 100);
+        if (centesimas < 0) {
+            texto.append('-');
+            centesimas = -centesimas;
+        }
+        texto.append(centesimas / 100);
+        int decimales = (int) (centesimas % 100);
+        if (decimales != 0) {
+            texto.append('.').append(decimales / 10);
+            if (decimales % 10 != 0) {
+                texto.append(decimales % 10);
+            }
+        }
+        return texto;
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Modelo 3D de una señalética en STL binario, para imprimirla: una placa
+ * con los puntos Braille en relieve como casquetes esféricos (semiesferas
+ * cuando la altura es igual al radio).
+ *
+ * La malla de un punto se calcula una vez por forma (altura, distancia
+ * entre puntos y grosor de la placa), y con ella la de cada patrón la
+ * primera vez que aparece: un arreglo de floats con sus triángulos
+ * relativos al centro del punto 1. Cada celda de la señalética es esa
+ * malla desplazada a su lugar, escrita directamente en un ByteBuffer que
+ * se vuelca al canal; no se crea ningún objeto por punto ni por celda.
+ * Las mallas se guardan en una cache acotada.
+ *
+ * Cada punto es un sólido cerrado que se hunde un poco en la placa, así
+ * los programas de laminado unen ambos sin huecos. El texto en tinta no
+ * se modela.
+ */
+public final class ModeladorStl {
+
+    public static final String TIPO_CONTENIDO = "model/stl";
+
+    // Forma por defecto, en mm
+    public static final double ALTURA_PUNTO_POR_DEFECTO = 0.8;
+    public static final double DISTANCIA_PUNTOS_POR_DEFECTO = DisenoSenaletica.DISTANCIA_PUNTOS;
+    public static final double GROSOR_PLACA_POR_DEFECTO = 3.0;
+    private static final double MIN_ALTURA_PUNTO = 0.2;
+    private static final double MAX_ALTURA_PUNTO = 1.5;
+    private static final double MIN_DISTANCIA_PUNTOS = 2.0;
+    private static final double MAX_DISTANCIA_PUNTOS = 4.0;
+    private static final double MIN_GROSOR_PLACA = 1.0;
+    private static final double MAX_GROSOR_PLACA = 10.0;
+
+    // Resolución de la malla de un punto
+    private static final int SEGMENTOS = 16;
+    private static final int ANILLOS = 4;
+    private static final int TRIANGULOS_POR_PUNTO = SEGMENTOS * (2 * ANILLOS + 2);
+    private static final double HUNDIMIENTO = 0.2; // mm del punto dentro de la placa
+
+    private static final int BYTES_CABECERA = 84;
+    private static final int BYTES_TRIANGULO = 50;
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final Cache<Long, Mallas> mallas;
+
+    /**
+     * @param maxMallas cuántas formas distintas se guardan
+     */
+    public ModeladorStl(long maxMallas) {
+        this.mallas = Caffeine.newBuilder()
+            .maximumSize(maxMallas)
+            .build();
+    }
+
+    /**
+     * Valida la forma
+     *
+     * @return el mensaje de error, o null si es válida
+     */
+    public static String validarForma(double alturaPunto, double distanciaPuntos, double grosorPlaca) {
+        if (!(alturaPunto >= MIN_ALTURA_PUNTO && alturaPunto <= MAX_ALTURA_PUNTO)) {
+            return "alturaPunto debe estar entre " + MIN_ALTURA_PUNTO + " y " + MAX_ALTURA_PUNTO + " mm";
+        }
+        if (!(distanciaPuntos >= MIN_DISTANCIA_PUNTOS && distanciaPuntos <= MAX_DISTANCIA_PUNTOS)) {
+            return "distanciaPuntos debe estar entre " + MIN_DISTANCIA_PUNTOS + " y " + MAX_DISTANCIA_PUNTOS + " mm";
+        }
+        if (!(grosorPlaca >= MIN_GROSOR_PLACA && grosorPlaca <= MAX_GROSOR_PLACA)) {
+            return "grosorPlaca debe estar entre " + MIN_GROSOR_PLACA + " y " + MAX_GROSOR_PLACA + " mm";
+        }
+        return null;
+    }
+
+    /**
+     * El tamaño en bytes del STL de una señalética, que no depende de la forma.
+     */
+    public static long tamano(DisenoSenaletica diseno) {
+        return BYTES_CABECERA + (long) BYTES_TRIANGULO * triangulos(diseno);
+    }
+
+    private static long triangulos(DisenoSenaletica diseno) {
+        long puntos = 0;
+        for (int i = 0; i < diseno.getCeldas(); i++) {
+            puntos += Integer.bitCount(diseno.patron(i));
+        }
+        return 12 + puntos * TRIANGULOS_POR_PUNTO;
+    }
+
+    /**
+     * Escribe el STL de una señalética en el canal. No cierra el canal.
+     *
+     * La distancia entre puntos escala todo el diseño (celdas, líneas,
+     * diámetro de los puntos y placa) respecto de la medida estándar.
+     *
+     * @param alturaPunto la altura de los puntos sobre la placa, en mm
+     * @param distanciaPuntos la distancia entre puntos de una celda, en mm
+     * @param grosorPlaca el grosor de la placa, en mm
+     * @throws IllegalArgumentException si la forma no es válida
+     */
+    public void escribir(DisenoSenaletica diseno, double alturaPunto, double distanciaPuntos, double grosorPlaca,
+                         WritableByteChannel canal) throws IOException {
+        String error = validarForma(alturaPunto, distanciaPuntos, grosorPlaca);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        Mallas forma = mallas(alturaPunto, distanciaPuntos, grosorPlaca);
+        double escala = forma.escala;
+        float ancho = (float) (diseno.getAncho() * escala);
+        float alto = (float) (diseno.getAlto() * escala);
+
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        cabecera(buffer, diseno.getTitulo());
+        buffer.putInt((int) triangulos(diseno));
+        placa(buffer, ancho, alto, (float) forma.grosor);
+
+        for (int i = 0; i < diseno.getCeldas(); i++) {
+            float[] malla = forma.patron(diseno.patron(i));
+            // El eje y del diseño va hacia abajo; el del modelo, hacia arriba
+            float dx = (float) (diseno.x(i) * escala);
+            float dy = (float) ((diseno.getAlto() - diseno.y(i)) * escala);
+            for (int t = 0; t < malla.length; t += 12) {
+                if (buffer.remaining() < BYTES_TRIANGULO) {
+                    vaciar(buffer, canal);
+                }
+                buffer.putFloat(malla[t]).putFloat(malla[t + 1]).putFloat(malla[t + 2])
+                    .putFloat(malla[t + 3] + dx).putFloat(malla[t + 4] + dy).putFloat(malla[t + 5])
+                    .putFloat(malla[t + 6] + dx).putFloat(malla[t + 7] + dy).putFloat(malla[t + 8])
+                    .putFloat(malla[t + 9] + dx).putFloat(malla[t + 10] + dy).putFloat(malla[t + 11])
+                    .putShort((short) 0);
+            }
+        }
+        vaciar(buffer, canal);
+    }
+
+    private Mallas mallas(double alturaPunto, double distanciaPuntos, double grosorPlaca) {
+        // En centésimas de mm: la misma forma pedida dos veces da las mismas mallas
+        long altura = Math.round(alturaPunto * 100);
+        long distancia = Math.round(distanciaPuntos * 100);
+        long grosor = Math.round(grosorPlaca * 100);
+        long clave = altura << 32 | distancia << 16 | grosor;
+        return mallas.get(clave, k -> new Mallas(altura / 100.0, distancia / 100.0, grosor / 100.0));
+    }
+
+    private static void vaciar(ByteBuffer buffer, WritableByteChannel canal) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * 80 bytes de texto libre. No empieza con "solid", que algunos
+     * programas toman como STL de texto.
+     */
+    private static void cabecera(ByteBuffer buffer, String titulo) {
+        String texto = "Senaletica Braille " + (titulo != null ? titulo : "");
+        for (int i = 0; i < 80; i++) {
+            char caracter = i < texto.length() ? texto.charAt(i) : ' ';
+            buffer.put((byte) (caracter >= 0x20 && caracter < 0x7F ? caracter : '?'));
+        }
+    }
+
+    /**
+     * La placa: una caja de 12 triángulos de (0, 0, 0) a (ancho, alto, grosor).
+     */
+    private static void placa(ByteBuffer buffer, float ancho, float alto, float grosor) {
+        float[][] v = {
+            {0, 0, 0}, {ancho, 0, 0}, {ancho, alto, 0}, {0, alto, 0},
+            {0, 0, grosor}, {ancho, 0, grosor}, {ancho, alto, grosor}, {0, alto, grosor}
+        };
+        int[][] caras = {
+            {0, 3, 2}, {0, 2, 1}, // abajo
+            {4, 5, 6}, {4, 6, 7}, // arriba
+            {0, 1, 5}, {0, 5, 4}, // frente
+            {2, 3, 7}, {2, 7, 6}, // fondo
+            {1, 2, 6}, {1, 6, 5}, // derecha
+            {3, 0, 4}, {3, 4, 7}  // izquierda
+        };
+        float[] triangulo = new float[12];
+        for (int[] cara : caras) {
+            for (int j = 0; j < 3; j++) {
+                System.arraycopy(v[cara[j]], 0, triangulo, 3 + j * 3, 3);
+            }
+            normal(triangulo, 0);
+            for (float valor : triangulo) {
+                buffer.putFloat(valor);
+            }
+            buffer.putShort((short) 0);
+        }
+    }
+
+    /**
+     * Calcula la normal del triángulo que empieza en t (12 floats: normal
+     * y tres vértices en sentido antihorario visto desde afuera).
+     */
+    private static void normal(float[] triangulos, int t) {
+        float ax = triangulos[t + 6] - triangulos[t + 3];
+        float ay = triangulos[t + 7] - triangulos[t + 4];
+        float az = triangulos[t + 8] - triangulos[t + 5];
+        float bx = triangulos[t + 9] - triangulos[t + 3];
+        float by = triangulos[t + 10] - triangulos[t + 4];
+        float bz = triangulos[t + 11] - triangulos[t + 5];
+        float nx = ay * bz - az * by;
+        float ny = az * bx - ax * bz;
+        float nz = ax * by - ay * bx;
+        float largo = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (largo > 0) {
+            triangulos[t] = nx / largo;
+            triangulos[t + 1] = ny / largo;
+            triangulos[t + 2] = nz / largo;
+        }
+    }
+
+    /**
+     * Mallas de una forma: la de un punto y, a medida que se piden, la de
+     * cada patrón.
+     */
+    private static final class Mallas {
+
+        private final double escala;
+        private final double grosor;
+        private final float[] punto;
+        private final AtomicReferenceArray<float[]> patrones = new AtomicReferenceArray<>(256);
+
+        Mallas(double alturaPunto, double distanciaPuntos, double grosorPlaca) {
+            this.escala = distanciaPuntos / DisenoSenaletica.DISTANCIA_PUNTOS;
+            this.grosor = grosorPlaca;
+            this.punto = punto(DisenoSenaletica.DIAMETRO_PUNTO / 2 * escala, alturaPunto, grosorPlaca);
+        }
+
+        /**
+         * La malla de un patrón, con el centro del punto 1 en el origen.
+         * Si dos hilos la piden a la vez se calcula dos veces, con el
+         * mismo resultado.
+         */
+        float[] patron(int patron) {
+            float[] malla = patrones.get(patron);
+            if (malla == null) {
+                malla = new float[Integer.bitCount(patron) * punto.length];
+                int desde = 0;
+                for (int p = 0; p < 8; p++) {
+                    if ((patron & (1 << p)) == 0) {
+                        continue;
+                    }
+                    float dx = (float) (DisenoSenaletica.xPunto(p) * escala);
+                    float dy = (float) (-DisenoSenaletica.yPunto(p) * escala);
+                    for (int t = 0; t < punto.length; t += 12) {
+                        System.arraycopy(punto, t, malla, desde + t, 3);
+                        for (int v = 3; v < 12; v += 3) {
+                            malla[desde + t + v] = punto[t + v] + dx;
+                            malla[desde + t + v + 1] = punto[t + v + 1] + dy;
+                            malla[desde + t + v + 2] = punto[t + v + 2];
+                        }
+                    }
+                    desde += punto.length;
+                }
+                patrones.set(patron, malla);
+            }
+            return malla;
+        }
+
+        /**
+         * Un punto centrado en el origen: casquete esférico de base
+         * {@code radio} y altura {@code altura} sobre z = grosor, un
+         * cilindro que baja {@link #HUNDIMIENTO} dentro de la placa y la
+         * tapa de abajo.
+         */
+        private static float[] punto(double radio, double altura, double grosor) {
+            // Esfera que pasa por el borde de la base y por la cima
+            double r = (radio * radio + altura * altura) / (2 * altura);
+            double centro = grosor + altura - r;
+            double anguloBase = Math.acos((r - altura) / r);
+
+            // Anillos de la cima (0) a la base (ANILLOS), más el borde hundido
+            float[][] x = new float[ANILLOS + 2][SEGMENTOS];
+            float[][] y = new float[ANILLOS + 2][SEGMENTOS];
+            float[] z = new float[ANILLOS + 2];
+            for (int anillo = 0; anillo <= ANILLOS + 1; anillo++) {
+                double radioAnillo;
+                if (anillo < ANILLOS) {
+                    double angulo = anguloBase * anillo / ANILLOS;
+                    radioAnillo = r * Math.sin(angulo);
+                    z[anillo] = (float) (centro + r * Math.cos(angulo));
+                } else {
+                    radioAnillo = radio;
+                    z[anillo] = (float) (anillo == ANILLOS ? grosor : grosor - HUNDIMIENTO);
+                }
+                for (int s = 0; s < SEGMENTOS; s++) {
+                    double fi = 2 * Math.PI * s / SEGMENTOS;
+                    x[anillo][s] = (float) (radioAnillo * Math.cos(fi));
+                    y[anillo][s] = (float) (radioAnillo * Math.sin(fi));
+                }
+            }
+
+            float[] malla = new float[TRIANGULOS_POR_PUNTO * 12];
+            int t = 0;
+            for (int s = 0; s < SEGMENTOS; s++) {
+                int siguiente = (s + 1) % SEGMENTOS;
+                // Cima: abanico desde el anillo 0, que es un solo punto
+                t = triangulo(malla, t, 0, 0, z[0], x[1][s], y[1][s], z[1], x[1][siguiente], y[1][siguiente], z[1]);
+                // Del anillo 1 al borde hundido: dos triángulos por segmento
+                for (int anillo = 1; anillo <= ANILLOS; anillo++) {
+                    int abajo = anillo + 1;
+                    t = triangulo(malla, t, x[anillo][s], y[anillo][s], z[anillo],
+                        x[abajo][s], y[abajo][s], z[abajo],
+                        x[abajo][siguiente], y[abajo][siguiente], z[abajo]);
+                    t = triangulo(malla, t, x[anillo][s], y[anillo][s], z[anillo],
+                        x[abajo][siguiente], y[abajo][siguiente], z[abajo],
+                        x[anillo][siguiente], y[anillo][siguiente], z[anillo]);
+                }
+                // Tapa de abajo: abanico desde el centro, mirando hacia abajo
+                int fondo = ANILLOS + 1;
+                t = triangulo(malla, t, 0, 0, z[fondo], x[fondo][siguiente], y[fondo][siguiente], z[fondo],
+                    x[fondo][s], y[fondo][s], z[fondo]);
+            }
+            return malla;
+        }
+
+        private static int triangulo(float[] malla, int t, float x1, float y1, float z1, float x2, float y2,
+                                     float z2, float x3, float y3, float z3) {
+            malla[t + 3] = x1;
+            malla[t + 4] = y1;
+            malla[t + 5] = z1;
+            malla[t + 6] = x2;
+            malla[t + 7] = y2;
+            malla[t + 8] = z2;
+            malla[t + 9] = x3;
+            malla[t + 10] = y3;
+            malla[t + 11] = z3;
+            normal(malla, t);
+            return t + 12;
+        }
+    }
+}
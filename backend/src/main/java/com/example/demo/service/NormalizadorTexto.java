@@ -0,0 +1,260 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Normalización y transliteración del texto antes de convertirlo a Braille,
+ * para una tabla concreta. El texto copiado de Word o de un PDF suele venir
+ * en NFD (la 'a' seguida del acento combinante), con comillas tipográficas,
+ * rayas, ligaduras o espacios especiales que la tabla no tiene.
+ *
+ * Solo se transforma lo que la tabla no sabe convertir:
+ * - Camino rápido: si todos los caracteres son ASCII o convertibles, el
+ *   texto se devuelve tal cual, sin copias.
+ * - Si no está en NFC se compone (a + U+0301 pasa a á).
+ * - Los signos tipográficos habituales se reemplazan con una tabla
+ *   precompilada (“ ” a ", — a -, … a ..., ﬁ a fi) y los invisibles
+ *   (guion suave, espacio de ancho cero, selectores de variante) se quitan.
+ * - El resto pasa por NFKD sin diacríticos, y el resultado por carácter se
+ *   guarda en una cache. Si tampoco así se puede convertir, el carácter se
+ *   deja como venía (por ejemplo un emoji).
+ */
+final class NormalizadorTexto {
+
+    // Tope de entradas de la cache del camino lento por tabla
+    private static final int MAX_CACHE = 4096;
+
+    // Marca de "sin transliteración" en la cache
+    private static final String SIN_CAMBIO = new String();
+
+    /**
+     * Reemplazos tipográficos, ordenados por carácter para buscarlos por
+     * búsqueda binaria. La cadena vacía elimina el carácter.
+     */
+    private static final char[] TIPOGRAFICOS_CLAVES;
+    private static final String[] TIPOGRAFICOS_VALORES;
+
+    static {
+        Map<Character, String> reemplazos = new TreeMap<>();
+        // Espacios
+        for (char espacio : "\u00A0\u2000\u2001\u2002\u2003\u2004\u2005\u2006\u2007\u2008\u2009\u200A\u202F\u205F\u3000".toCharArray()) {
+            reemplazos.put(espacio, " ");
+        }
+        reemplazos.put('\u2028', "\n");
+        reemplazos.put('\u2029', "\n");
+        // Invisibles: guion suave, ancho cero, marcas de dirección, BOM, selectores de variante
+        for (char invisible : "\u00AD\u200B\u200C\u200D\u200E\u200F\u2060\u2061\u2062\u2063\u2064\uFEFF".toCharArray()) {
+            reemplazos.put(invisible, "");
+        }
+        for (char selector = '\uFE00'; selector <= '\uFE0F'; selector++) {
+            reemplazos.put(selector, "");
+        }
+        // Comillas y apóstrofos
+        for (char simple : "‘’‚‛′‵‹›".toCharArray()) {
+            reemplazos.put(simple, "'");
+        }
+        for (char doble : "«»“”„‟″‶".toCharArray()) {
+            reemplazos.put(doble, "\"");
+        }
+        // Guiones, rayas y signo menos
+        for (char guion : "‐‑‒–—―−".toCharArray()) {
+            reemplazos.put(guion, "-");
+        }
+        reemplazos.put('…', "...");
+        reemplazos.put('⁄', "/");
+        reemplazos.put('∕', "/");
+        // Ligaduras
+        reemplazos.put('ﬀ', "ff");
+        reemplazos.put('ﬁ', "fi");
+        reemplazos.put('ﬂ', "fl");
+        reemplazos.put('ﬃ', "ffi");
+        reemplazos.put('ﬄ', "ffl");
+        reemplazos.put('ﬅ', "st");
+        reemplazos.put('ﬆ', "st");
+
+        TIPOGRAFICOS_CLAVES = new char[reemplazos.size()];
+        TIPOGRAFICOS_VALORES = new String[reemplazos.size()];
+        int i = 0;
+        for (Map.Entry<Character, String> reemplazo : reemplazos.entrySet()) {
+            TIPOGRAFICOS_CLAVES[i] = reemplazo.getKey();
+            TIPOGRAFICOS_VALORES[i] = reemplazo.getValue();
+            i++;
+        }
+    }
+
+    private final TablaBraille tabla;
+
+    /**
+     * Camino lento: transliteración ya calculada de cada carácter, o
+     * SIN_CAMBIO si se deja como está.
+     */
+    private final Map<Character, String> cache = new ConcurrentHashMap<>();
+
+    NormalizadorTexto(TablaBraille tabla) {
+        this.tabla = tabla;
+    }
+
+    /**
+     * Normaliza el texto para la tabla.
+     *
+     * @return el mismo objeto si no hay nada que cambiar
+     */
+    String normalizar(String texto) {
+        if (texto == null || esLimpio(texto, 0, texto.length())) {
+            return texto;
+        }
+        if (!Normalizer.isNormalized(texto, Normalizer.Form.NFC)) {
+            texto = Normalizer.normalize(texto, Normalizer.Form.NFC);
+        }
+        StringBuilder resultado = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char caracter = texto.charAt(i);
+            if (caracter < 0x80 || tabla.esConvertible(caracter) || Character.isSurrogate(caracter)) {
+                resultado.append(caracter);
+                continue;
+            }
+            String reemplazo = tipografico(caracter);
+            if (reemplazo == null) {
+                reemplazo = transliterar(caracter);
+            }
+            resultado.append(reemplazo == SIN_CAMBIO ? String.valueOf(caracter) : reemplazo);
+        }
+        return resultado.toString();
+    }
+
+    /**
+     * Indica si el tramo solo tiene caracteres ASCII o convertibles, es
+     * decir, si normalizarlo no cambia nada.
+     */
+    private boolean esLimpio(CharSequence texto, int inicio, int fin) {
+        for (int i = inicio; i < fin; i++) {
+            char caracter = texto.charAt(i);
+            if (caracter >= 0x80 && !tabla.esConvertible(caracter)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String tipografico(char caracter) {
+        int indice = Arrays.binarySearch(TIPOGRAFICOS_CLAVES, caracter);
+        return indice >= 0 ? TIPOGRAFICOS_VALORES[indice] : null;
+    }
+
+    /**
+     * Descompone el carácter en NFKD y quita los diacríticos (ǎ pasa a a,
+     * ² a 2, ™ a tm). Solo se usa si todo el resultado es convertible.
+     */
+    private String transliterar(char caracter) {
+        String guardado = cache.get(caracter);
+        if (guardado != null) {
+            return guardado;
+        }
+        String descompuesto = Normalizer.normalize(String.valueOf(caracter), Normalizer.Form.NFKD);
+        StringBuilder resultado = new StringBuilder(descompuesto.length());
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char parte = descompuesto.charAt(i);
+            if (Character.getType(parte) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            String reemplazo = tipografico(parte);
+            resultado.append(reemplazo != null ? reemplazo : String.valueOf(parte));
+        }
+        String transliterado = resultado.length() > 0 && esLimpio(resultado, 0, resultado.length())
+            ? resultado.toString() : SIN_CAMBIO;
+        if (cache.size() < MAX_CACHE) {
+            cache.put(caracter, transliterado);
+        }
+        return transliterado;
+    }
+
+    /**
+     * Normaliza un flujo de texto por bloques. El final de cada bloque,
+     * desde el último carácter que puede empezar una composición, se guarda
+     * para el bloque siguiente: así un acento combinante o un par sustituto
+     * partido entre dos lecturas se normaliza igual que en el texto entero.
+     */
+    Reader normalizar(Reader entrada) {
+        return new LectorNormalizado(entrada);
+    }
+
+    private final class LectorNormalizado extends Reader {
+
+        private final Reader entrada;
+        private final char[] leidos = new char[8192];
+        private int pendientes; // Caracteres del bloque anterior aún sin normalizar
+        private boolean fin;
+        private String normalizado = "";
+        private int posicion;
+
+        LectorNormalizado(Reader entrada) {
+            this.entrada = entrada;
+        }
+
+        @Override
+        public int read(char[] destino, int desde, int cantidad) throws IOException {
+            while (posicion == normalizado.length()) {
+                if (fin && pendientes == 0) {
+                    return -1;
+                }
+                rellenar();
+            }
+            int copiados = Math.min(cantidad, normalizado.length() - posicion);
+            normalizado.getChars(posicion, posicion + copiados, destino, desde);
+            posicion += copiados;
+            return copiados;
+        }
+
+        private void rellenar() throws IOException {
+            int total = pendientes;
+            if (!fin) {
+                int n = entrada.read(leidos, pendientes, leidos.length - pendientes);
+                if (n == -1) {
+                    fin = true;
+                } else {
+                    total += n;
+                }
+            }
+            int corte = fin ? total : ultimoInicio(total);
+            if (corte == 0 && total == leidos.length) {
+                // Un bloque entero sin ningún inicio posible: se normaliza igual
+                corte = total;
+            }
+            normalizado = normalizar(new String(leidos, 0, corte));
+            posicion = 0;
+            pendientes = total - corte;
+            System.arraycopy(leidos, corte, leidos, 0, pendientes);
+        }
+
+        /**
+         * Posición del último carácter que no se compone con el anterior.
+         */
+        private int ultimoInicio(int total) {
+            for (int i = total - 1; i > 0; i--) {
+                if (esInicio(leidos[i])) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+
+        private boolean esInicio(char caracter) {
+            int tipo = Character.getType(caracter);
+            return tipo != Character.NON_SPACING_MARK && tipo != Character.COMBINING_SPACING_MARK
+                && tipo != Character.ENCLOSING_MARK && !Character.isLowSurrogate(caracter)
+                // Las vocales y finales jamo se componen con la consonante anterior
+                && !(caracter >= '\u1160' && caracter <= '\u11FF');
+        }
+
+        @Override
+        public void close() throws IOException {
+            entrada.close();
+        }
+    }
+}
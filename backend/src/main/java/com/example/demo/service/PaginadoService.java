@@ -0,0 +1,136 @@
+package com.example.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Compaginación de documentos para impresoras Braille. El texto se lee por
+ * flujo, se convierte y se compagina a un archivo temporal sin tener el
+ * documento completo en memoria; después cada página se pide por número.
+ *
+ * Los documentos se descartan (y se borra su archivo) tras un tiempo sin
+ * uso o al superar el máximo.
+ */
+@Service
+public class PaginadoService {
+
+    /**
+     * Formato por defecto: 40 celdas por 25 líneas, el habitual de las
+     * impresoras Braille en papel de 11 x 11,5 pulgadas.
+     */
+    public static final int CELDAS_POR_LINEA_POR_DEFECTO = 40;
+    public static final int LINEAS_POR_PAGINA_POR_DEFECTO = 25;
+
+    // Límites del formato de página
+    private static final int MIN_CELDAS_POR_LINEA = 10;
+    private static final int MAX_CELDAS_POR_LINEA = 100;
+    private static final int MIN_LINEAS_POR_PAGINA = 2;
+    private static final int MAX_LINEAS_POR_PAGINA = 100;
+
+    private final BrailleService brailleService;
+    private final Cache<String, DocumentoPaginado> documentos;
+
+    public PaginadoService(
+            BrailleService brailleService,
+            @Value("${braille.paginado.max-documentos:100}") long maxDocumentos,
+            @Value("${braille.paginado.minutos-inactividad:30}") long minutosInactividad) {
+        this.brailleService = brailleService;
+        this.documentos = Caffeine.newBuilder()
+            .maximumSize(maxDocumentos)
+            .expireAfterAccess(Duration.ofMinutes(minutosInactividad))
+            .removalListener((String id, DocumentoPaginado documento, RemovalCause causa) -> {
+                if (documento != null) {
+                    documento.eliminar();
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Valida el formato de página
+     *
+     * @return el mensaje de error, o null si es válido
+     */
+    public String validarFormato(int celdasPorLinea, int lineasPorPagina) {
+        if (celdasPorLinea < MIN_CELDAS_POR_LINEA || celdasPorLinea > MAX_CELDAS_POR_LINEA) {
+            return "celdasPorLinea debe estar entre " + MIN_CELDAS_POR_LINEA + " y " + MAX_CELDAS_POR_LINEA;
+        }
+        if (lineasPorPagina < MIN_LINEAS_POR_PAGINA || lineasPorPagina > MAX_LINEAS_POR_PAGINA) {
+            return "lineasPorPagina debe estar entre " + MIN_LINEAS_POR_PAGINA + " y " + MAX_LINEAS_POR_PAGINA;
+        }
+        return null;
+    }
+
+    /**
+     * Convierte y compagina un texto leído por flujo.
+     *
+     * @param texto el texto a convertir
+     * @param codigoTabla la tabla a usar, o null para la tabla por defecto
+     * @param celdasPorLinea celdas de cada línea
+     * @param lineasPorPagina líneas de cada página, incluida la del encabezado
+     * @param encabezado texto del encabezado que se repite en cada página, o null
+     * @param numerar si se numeran las páginas
+     * @param normalizar si el texto pasa por la etapa de normalización
+     * @return el identificador del documento
+     * @throws IllegalArgumentException si la tabla o el formato no son válidos
+     */
+    public String paginar(Reader texto, String codigoTabla, int celdasPorLinea, int lineasPorPagina,
+                          String encabezado, boolean numerar, boolean normalizar) throws IOException {
+        String error = validarFormato(celdasPorLinea, lineasPorPagina);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        TablaBraille tabla = brailleService.getTabla(codigoTabla);
+        String encabezadoBraille = encabezado == null || encabezado.isBlank() ? null
+            : brailleService.textoABraille(brailleService.normalizar(encabezado.strip(), tabla), tabla);
+        Reader entrada = normalizar ? brailleService.normalizar(texto, tabla) : texto;
+
+        Path archivo = Files.createTempFile("braille-paginado-", ".txt");
+        try {
+            PaginadorBraille paginador;
+            try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(archivo))) {
+                paginador = new PaginadorBraille(tabla, celdasPorLinea, lineasPorPagina, encabezadoBraille, numerar,
+                    new PaginadorBraille.DestinoUtf8(salida, celdasPorLinea));
+                brailleService.textoABraille(entrada, paginador, tabla);
+                paginador.close();
+            }
+            DocumentoPaginado documento = new DocumentoPaginado(archivo, paginador.getInicioPaginas(),
+                celdasPorLinea, lineasPorPagina, tabla);
+            String id = UUID.randomUUID().toString();
+            documentos.put(id, documento);
+            return id;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(archivo);
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene un documento compaginado
+     */
+    public Optional<DocumentoPaginado> obtener(String id) {
+        return Optional.ofNullable(documentos.getIfPresent(id));
+    }
+
+    /**
+     * Cierra un documento y borra su archivo
+     *
+     * @return true si el documento existía
+     */
+    public boolean cerrar(String id) {
+        return documentos.asMap().remove(id) != null;
+    }
+}
@@ -0,0 +1,386 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Compagina Braille para imprimir en una impresora Braille: líneas de un
+ * número fijo de celdas cortadas entre palabras, páginas de un número
+ * fijo de líneas y, si se pide, una primera línea por página con el
+ * encabezado y el número de página a la derecha.
+ *
+ * Es un Writer: recibe el Braille a medida que se convierte (por ejemplo
+ * desde {@link BrailleService#textoABraille(java.io.Reader, Writer, TablaBraille)})
+ * y escribe cada línea en un {@link Destino} en cuanto se completa. Solo
+ * guarda la línea y la palabra en curso más el inicio de cada página, así
+ * un libro entero se compagina con memoria acotada y la página N se
+ * localiza en O(1) por su posición en el destino.
+ *
+ * Reglas:
+ * - Los espacios separan palabras; varios seguidos cuentan como uno y no
+ *   se escriben al principio ni al final de una línea.
+ * - Una palabra más larga que la línea se parte en trozos de línea entera.
+ * - Un salto de línea termina la línea (párrafo); las líneas en blanco al
+ *   principio de una página se omiten. Un salto de página (\f) cierra la
+ *   página en curso.
+ */
+public final class PaginadorBraille extends Writer {
+
+    /**
+     * Donde se escriben las páginas compaginadas.
+     */
+    public interface Destino {
+
+        /**
+         * Posición actual en el destino (por ejemplo bytes escritos), que
+         * se guarda como inicio de cada página.
+         */
+        long posicion();
+
+        /**
+         * Escribe una línea completa.
+         *
+         * @param celdas celdas Braille y espacios, sin salto de línea
+         * @param cantidad cuántas celdas usar del arreglo
+         */
+        void linea(char[] celdas, int cantidad) throws IOException;
+
+        /**
+         * Cierra la página en curso.
+         */
+        void finPagina() throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private final TablaBraille tabla;
+    private final int celdasPorLinea;
+    private final int lineasCuerpo;
+    private final char[] encabezado; // Braille del encabezado, o null
+    private final boolean numerar;
+    private final Destino destino;
+
+    private final char[] linea;
+    private int longitudLinea;
+    private final char[] palabra;
+    private int longitudPalabra;
+    private boolean espacioPendiente;
+
+    private boolean paginaAbierta;
+    private int lineasEnPagina;
+    private int pagina = 1;
+    private long[] inicios = new long[64];
+    private boolean cerrado;
+
+    /**
+     * @param tabla la tabla con la que se escriben los números de página
+     * @param celdasPorLinea celdas de cada línea
+     * @param lineasPorPagina líneas de cada página, incluida la del encabezado
+     * @param encabezado el encabezado ya en Braille, o null
+     * @param numerar si se numeran las páginas
+     * @param destino donde se escriben las páginas
+     */
+    public PaginadorBraille(TablaBraille tabla, int celdasPorLinea, int lineasPorPagina, String encabezado,
+                            boolean numerar, Destino destino) {
+        boolean reservaEncabezado = (encabezado != null && !encabezado.isEmpty()) || numerar;
+        if (celdasPorLinea < 1 || lineasPorPagina < (reservaEncabezado ? 2 : 1)) {
+            throw new IllegalArgumentException("Formato de página no válido: "
+                + celdasPorLinea + " celdas por línea, " + lineasPorPagina + " líneas por página");
+        }
+        this.tabla = tabla;
+        this.celdasPorLinea = celdasPorLinea;
+        this.lineasCuerpo = reservaEncabezado ? lineasPorPagina - 1 : lineasPorPagina;
+        this.encabezado = encabezado == null || encabezado.isEmpty() ? null : encabezado.toCharArray();
+        this.numerar = numerar;
+        this.destino = destino;
+        this.linea = new char[celdasPorLinea];
+        this.palabra = new char[celdasPorLinea];
+    }
+
+    @Override
+    public void write(char[] texto, int desde, int cantidad) throws IOException {
+        if (cerrado) {
+            throw new IOException("El paginador ya está cerrado");
+        }
+        for (int i = desde; i < desde + cantidad; i++) {
+            char caracter = texto[i];
+            switch (caracter) {
+                case '\r':
+                    break;
+                case '\n':
+                    colocarPalabra();
+                    cerrarLinea();
+                    break;
+                case '\f':
+                    colocarPalabra();
+                    if (longitudLinea > 0) {
+                        cerrarLinea();
+                    }
+                    if (paginaAbierta) {
+                        cerrarPagina();
+                    }
+                    break;
+                case ' ':
+                case '\t':
+                case '\u2800':
+                    colocarPalabra();
+                    espacioPendiente = longitudLinea > 0;
+                    break;
+                default:
+                    if (longitudPalabra == celdasPorLinea) {
+                        // Palabra más larga que la línea: sale un trozo de línea entera
+                        colocarPalabra();
+                    }
+                    palabra[longitudPalabra++] = caracter;
+            }
+        }
+    }
+
+    /**
+     * Pone la palabra en curso en la línea, o en la siguiente si no cabe.
+     */
+    private void colocarPalabra() throws IOException {
+        if (longitudPalabra == 0) {
+            return;
+        }
+        int separador = espacioPendiente && longitudLinea > 0 ? 1 : 0;
+        if (longitudLinea > 0 && longitudLinea + separador + longitudPalabra > celdasPorLinea) {
+            cerrarLinea();
+            separador = 0;
+        }
+        if (separador == 1) {
+            linea[longitudLinea++] = ' ';
+        }
+        System.arraycopy(palabra, 0, linea, longitudLinea, longitudPalabra);
+        longitudLinea += longitudPalabra;
+        longitudPalabra = 0;
+        espacioPendiente = false;
+    }
+
+    private void cerrarLinea() throws IOException {
+        if (longitudLinea == 0 && lineasEnPagina == 0) {
+            // Sin líneas en blanco al principio de una página
+            return;
+        }
+        if (!paginaAbierta) {
+            abrirPagina();
+        }
+        destino.linea(linea, longitudLinea);
+        longitudLinea = 0;
+        espacioPendiente = false;
+        if (++lineasEnPagina == lineasCuerpo) {
+            cerrarPagina();
+        }
+    }
+
+    private void abrirPagina() throws IOException {
+        if (pagina == inicios.length) {
+            inicios = Arrays.copyOf(inicios, inicios.length * 2);
+        }
+        inicios[pagina - 1] = destino.posicion();
+        paginaAbierta = true;
+        lineasEnPagina = 0;
+        if (encabezado != null || numerar) {
+            char[] lineaEncabezado = lineaEncabezado();
+            destino.linea(lineaEncabezado, lineaEncabezado.length);
+        }
+    }
+
+    private void cerrarPagina() throws IOException {
+        destino.finPagina();
+        paginaAbierta = false;
+        lineasEnPagina = 0;
+        pagina++;
+    }
+
+    /**
+     * Encabezado a la izquierda (recortado si no cabe) y número de página
+     * a la derecha, separados al menos por una celda vacía.
+     */
+    private char[] lineaEncabezado() {
+        String numero = numerar ? numeroPagina(pagina) : "";
+        int espacioTitulo = celdasPorLinea - (numero.isEmpty() ? 0 : numero.length() + 1);
+        int titulo = encabezado == null ? 0 : Math.max(0, Math.min(encabezado.length, espacioTitulo));
+        char[] resultado = new char[numero.isEmpty() ? titulo : celdasPorLinea];
+        Arrays.fill(resultado, ' ');
+        if (titulo > 0) {
+            System.arraycopy(encabezado, 0, resultado, 0, titulo);
+        }
+        if (!numero.isEmpty()) {
+            int desde = Math.max(0, celdasPorLinea - numero.length());
+            numero.getChars(0, Math.min(numero.length(), celdasPorLinea), resultado, desde);
+        }
+        return resultado;
+    }
+
+    /**
+     * Número de página en Braille: indicador de número y las celdas de
+     * cada dígito en la tabla.
+     */
+    private String numeroPagina(int numero) {
+        StringBuilder resultado = new StringBuilder(8);
+        if (tabla.getIndicadorNumero() != TablaBraille.SIN_INDICADOR) {
+            resultado.append(tabla.getIndicadorNumero());
+        }
+        String digitos = Integer.toString(numero);
+        for (int i = 0; i < digitos.length(); i++) {
+            String braille = tabla.buscarBraille(digitos.charAt(i));
+            resultado.append(braille != null ? braille : String.valueOf(digitos.charAt(i)));
+        }
+        return resultado.toString();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        destino.flush();
+    }
+
+    /**
+     * Termina la última línea y la última página y vacía el destino. No
+     * cierra el flujo del destino.
+     */
+    @Override
+    public void close() throws IOException {
+        if (cerrado) {
+            return;
+        }
+        colocarPalabra();
+        if (longitudLinea > 0) {
+            cerrarLinea();
+        }
+        if (paginaAbierta) {
+            cerrarPagina();
+        }
+        inicios = Arrays.copyOf(inicios, pagina);
+        inicios[pagina - 1] = destino.posicion();
+        cerrado = true;
+        destino.flush();
+    }
+
+    /**
+     * Índice de páginas, disponible después de {@link #close()}: la página
+     * N (desde 1) ocupa en el destino de inicios[N - 1] a inicios[N].
+     *
+     * @return un arreglo de páginas + 1 posiciones
+     */
+    public long[] getInicioPaginas() {
+        if (!cerrado) {
+            throw new IllegalStateException("El paginador no está cerrado");
+        }
+        return inicios.clone();
+    }
+
+    /**
+     * @return las páginas escritas (completas tras {@link #close()})
+     */
+    public int getPaginas() {
+        return paginaAbierta ? pagina : pagina - 1;
+    }
+
+    /**
+     * Destino que escribe las páginas como texto UTF-8: cada línea termina
+     * en '\n' y cada página en '\f'. La posición es el número de bytes
+     * escritos.
+     */
+    public static final class DestinoUtf8 implements Destino {
+
+        private final OutputStream salida;
+        private final byte[] bytes;
+        private long posicion;
+
+        public DestinoUtf8(OutputStream salida, int celdasPorLinea) {
+            this.salida = salida;
+            this.bytes = new byte[celdasPorLinea * 4 + 1];
+        }
+
+        @Override
+        public long posicion() {
+            return posicion;
+        }
+
+        @Override
+        public void linea(char[] celdas, int cantidad) throws IOException {
+            int longitud = 0;
+            for (int i = 0; i < cantidad; i++) {
+                char caracter = celdas[i];
+                if (caracter < 0x80) {
+                    bytes[longitud++] = (byte) caracter;
+                } else if (caracter < 0x800) {
+                    bytes[longitud++] = (byte) (0xC0 | (caracter >> 6));
+                    bytes[longitud++] = (byte) (0x80 | (caracter & 0x3F));
+                } else if (Character.isHighSurrogate(caracter) && i + 1 < cantidad
+                        && Character.isLowSurrogate(celdas[i + 1])) {
+                    int codigo = Character.toCodePoint(caracter, celdas[++i]);
+                    bytes[longitud++] = (byte) (0xF0 | (codigo >> 18));
+                    bytes[longitud++] = (byte) (0x80 | ((codigo >> 12) & 0x3F));
+                    bytes[longitud++] = (byte) (0x80 | ((codigo >> 6) & 0x3F));
+                    bytes[longitud++] = (byte) (0x80 | (codigo & 0x3F));
+                } else if (Character.isSurrogate(caracter)) {
+                    bytes[longitud++] = '?';
+                } else {
+                    bytes[longitud++] = (byte) (0xE0 | (caracter >> 12));
+                    bytes[longitud++] = (byte) (0x80 | ((caracter >> 6) & 0x3F));
+                    bytes[longitud++] = (byte) (0x80 | (caracter & 0x3F));
+                }
+            }
+            bytes[longitud++] = '\n';
+            salida.write(bytes, 0, longitud);
+            posicion += longitud;
+        }
+
+        @Override
+        public void finPagina() throws IOException {
+            salida.write('\f');
+            posicion++;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            salida.flush();
+        }
+    }
+
+    /**
+     * Destino que escribe las páginas en BRF (ver {@link CodificadorBrf}):
+     * un byte por celda, cada línea termina en CR LF y cada página en '\f'.
+     * La posición es el número de bytes escritos.
+     */
+    public static final class DestinoBrf implements Destino {
+
+        private final OutputStream salida;
+        private final byte[] bytes;
+        private long posicion;
+
+        public DestinoBrf(OutputStream salida, int celdasPorLinea) {
+            this.salida = salida;
+            this.bytes = new byte[celdasPorLinea + 2];
+        }
+
+        @Override
+        public long posicion() {
+            return posicion;
+        }
+
+        @Override
+        public void linea(char[] celdas, int cantidad) throws IOException {
+            int longitud = CodificadorBrf.codificar(celdas, 0, cantidad, bytes, 0);
+            bytes[longitud++] = '\r';
+            bytes[longitud++] = '\n';
+            salida.write(bytes, 0, longitud);
+            posicion += longitud;
+        }
+
+        @Override
+        public void finPagina() throws IOException {
+            salida.write('\f');
+            posicion++;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            salida.flush();
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.Normalizer;
+
+/**
+ * Recorrido de una máquina CNC o prensa de punzones para marcar los puntos
+ * Braille de una señalética, y su G-code.
+ *
+ * Coordenadas en mm con el origen en la esquina inferior izquierda de la
+ * señalética (X a la derecha, Y hacia arriba) y Z = 0 en la superficie de
+ * la chapa. Cada punto es bajar a -profundidad al avance de punzonado y
+ * subir a la altura segura; entre puntos la máquina se mueve a la altura
+ * segura. Todos los movimientos van con G1: los desplazamientos y las
+ * subidas (también la inicial a la altura segura) a la velocidad
+ * pedida (no con G0, que iría a la velocidad rápida de la máquina), así el
+ * tiempo estimado corresponde al G-code.
+ *
+ * El orden de los puntos se arma con el vecino más cercano, buscado en una
+ * grilla de celdas cuadradas (cada búsqueda mira solo las celdas cercanas,
+ * así el plan crece casi linealmente con los puntos), y se mejora con
+ * 2-opt limitado a una ventana de posiciones. El recorrido empieza y
+ * termina en el origen.
+ *
+ * El plan guarda solo las coordenadas de los puntos en orden; el G-code se
+ * escribe en el Writer por partes.
+ */
+public final class PlanGcode {
+
+    public static final String TIPO_CONTENIDO = "text/x-gcode";
+
+    // Máquina por defecto: mm y mm/min
+    public static final double PROFUNDIDAD_POR_DEFECTO = 0.6;
+    public static final double ALTURA_SEGURA_POR_DEFECTO = 2.0;
+    public static final double VELOCIDAD_POR_DEFECTO = 3000;
+    public static final double AVANCE_POR_DEFECTO = 600;
+    private static final double MIN_PROFUNDIDAD = 0.1;
+    private static final double MAX_PROFUNDIDAD = 5;
+    private static final double MIN_ALTURA_SEGURA = 0.5;
+    private static final double MAX_ALTURA_SEGURA = 20;
+    private static final double MIN_VELOCIDAD = 100;
+    private static final double MAX_VELOCIDAD = 20000;
+    private static final double MIN_AVANCE = 10;
+    private static final double MAX_AVANCE = 5000;
+
+    // Lado de las celdas de la grilla, en mm: unos pocos puntos por celda
+    private static final double LADO_GRILLA = 2 * DisenoSenaletica.DISTANCIA_PUNTOS;
+    // Posiciones del recorrido que se comparan en 2-opt, y pasadas como máximo
+    private static final int VENTANA_2OPT = 24;
+    private static final int PASADAS_2OPT = 4;
+
+    // Se vuelca al Writer cada vez que el búfer pasa este tamaño
+    private static final int TAMANO_BUFFER = 8 * 1024;
+
+    private final String titulo;
+    private final double[] x;
+    private final double[] y;
+    private final double profundidad;
+    private final double alturaSegura;
+    private final double velocidad;
+    private final double avance;
+    private final double recorrido;
+    private final double recorridoSinOrdenar;
+
+    private PlanGcode(String titulo, double[] x, double[] y, double profundidad, double alturaSegura,
+                      double velocidad, double avance, double recorridoSinOrdenar) {
+        this.titulo = titulo;
+        this.x = x;
+        this.y = y;
+        this.profundidad = profundidad;
+        this.alturaSegura = alturaSegura;
+        this.velocidad = velocidad;
+        this.avance = avance;
+        this.recorrido = longitud(x, y);
+        this.recorridoSinOrdenar = recorridoSinOrdenar;
+    }
+
+    /**
+     * Valida la máquina
+     *
+     * @return el mensaje de error, o null si es válida
+     */
+    public static String validarMaquina(double profundidad, double alturaSegura, double velocidad, double avance) {
+        if (!(profundidad >= MIN_PROFUNDIDAD && profundidad <= MAX_PROFUNDIDAD)) {
+            return "profundidad debe estar entre " + MIN_PROFUNDIDAD + " y " + MAX_PROFUNDIDAD + " mm";
+        }
+        if (!(alturaSegura >= MIN_ALTURA_SEGURA && alturaSegura <= MAX_ALTURA_SEGURA)) {
+            return "alturaSegura debe estar entre " + MIN_ALTURA_SEGURA + " y " + MAX_ALTURA_SEGURA + " mm";
+        }
+        if (!(velocidad >= MIN_VELOCIDAD && velocidad <= MAX_VELOCIDAD)) {
+            return "velocidad debe estar entre " + (int) MIN_VELOCIDAD + " y " + (int) MAX_VELOCIDAD + " mm/min";
+        }
+        if (!(avance >= MIN_AVANCE && avance <= MAX_AVANCE)) {
+            return "avance debe estar entre " + (int) MIN_AVANCE + " y " + (int) MAX_AVANCE + " mm/min";
+        }
+        return null;
+    }
+
+    /**
+     * Planifica el recorrido de los puntos de una señalética.
+     *
+     * @param profundidad cuánto baja el punzón bajo la superficie, en mm
+     * @param alturaSegura la altura de los desplazamientos, en mm
+     * @param velocidad la velocidad de los desplazamientos, en mm/min
+     * @param avance la velocidad de bajada del punzón, en mm/min
+     * @throws IllegalArgumentException si la máquina no es válida
+     */
+    public static PlanGcode planificar(DisenoSenaletica diseno, double profundidad, double alturaSegura,
+                                       double velocidad, double avance) {
+        String error = validarMaquina(profundidad, alturaSegura, velocidad, avance);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+
+        // Puntos en orden de lectura
+        int puntos = 0;
+        for (int i = 0; i < diseno.getCeldas(); i++) {
+            puntos += Integer.bitCount(diseno.patron(i));
+        }
+        double[] x = new double[puntos];
+        double[] y = new double[puntos];
+        int n = 0;
+        for (int i = 0; i < diseno.getCeldas(); i++) {
+            int patron = diseno.patron(i);
+            for (int punto = 0; punto < 8; punto++) {
+                if ((patron & (1 << punto)) != 0) {
+                    x[n] = diseno.x(i) + DisenoSenaletica.xPunto(punto);
+                    // El eje y del diseño va hacia abajo; el de la máquina, hacia arriba
+                    y[n] = diseno.getAlto() - diseno.y(i) - DisenoSenaletica.yPunto(punto);
+                    n++;
+                }
+            }
+        }
+        double sinOrdenar = longitud(x, y);
+
+        int[] orden = vecinoMasCercano(x, y, diseno.getAncho(), diseno.getAlto());
+        mejorar2Opt(orden, x, y);
+        double[] xOrdenado = new double[puntos];
+        double[] yOrdenado = new double[puntos];
+        for (int i = 0; i < puntos; i++) {
+            xOrdenado[i] = x[orden[i]];
+            yOrdenado[i] = y[orden[i]];
+        }
+        return new PlanGcode(diseno.getTitulo(), xOrdenado, yOrdenado, profundidad, alturaSegura, velocidad,
+            avance, sinOrdenar);
+    }
+
+    /**
+     * Recorrido del vecino más cercano desde el origen. Los puntos van en
+     * una grilla guardada como listas contiguas por celda (orden, con el
+     * inicio de cada celda); al visitar un punto se cambia por el último
+     * sin visitar de su celda, así cada celda tiene sus pendientes al
+     * principio. La búsqueda recorre anillos de celdas alrededor de la
+     * posición actual hasta que ningún anillo más lejano puede tener un
+     * punto más cerca que el mejor encontrado.
+     */
+    private static int[] vecinoMasCercano(double[] x, double[] y, double ancho, double alto) {
+        int n = x.length;
+        int columnas = Math.max(1, (int) Math.ceil(ancho / LADO_GRILLA));
+        int filas = Math.max(1, (int) Math.ceil(alto / LADO_GRILLA));
+        int[] celda = new int[n];
+        int[] inicio = new int[columnas * filas + 1];
+        for (int p = 0; p < n; p++) {
+            celda[p] = columna(x[p], columnas) + fila(y[p], filas) * columnas;
+            inicio[celda[p] + 1]++;
+        }
+        for (int c = 0; c < columnas * filas; c++) {
+            inicio[c + 1] += inicio[c];
+        }
+        int[] pendientes = new int[columnas * filas];
+        int[] enCelda = new int[n];
+        int[] posicion = new int[n];
+        for (int p = 0; p < n; p++) {
+            int c = celda[p];
+            int i = inicio[c] + pendientes[c]++;
+            enCelda[i] = p;
+            posicion[p] = i;
+        }
+
+        int[] orden = new int[n];
+        double actualX = 0;
+        double actualY = 0;
+        for (int k = 0; k < n; k++) {
+            int columna = columna(actualX, columnas);
+            int fila = fila(actualY, filas);
+            int mejor = -1;
+            double mejorDistancia = Double.MAX_VALUE;
+            int maxAnillo = Math.max(columnas, filas);
+            for (int anillo = 0; anillo <= maxAnillo; anillo++) {
+                for (int f = fila - anillo; f <= fila + anillo; f++) {
+                    if (f < 0 || f >= filas) {
+                        continue;
+                    }
+                    // En las filas del medio del anillo solo las dos columnas de los extremos
+                    boolean borde = f == fila - anillo || f == fila + anillo;
+                    int paso = borde ? 1 : Math.max(1, 2 * anillo);
+                    for (int c = columna - anillo; c <= columna + anillo; c += paso) {
+                        if (c < 0 || c >= columnas) {
+                            continue;
+                        }
+                        int indiceCelda = c + f * columnas;
+                        int desde = inicio[indiceCelda];
+                        int hasta = desde + pendientes[indiceCelda];
+                        for (int i = desde; i < hasta; i++) {
+                            int p = enCelda[i];
+                            double dx = x[p] - actualX;
+                            double dy = y[p] - actualY;
+                            double distancia = dx * dx + dy * dy;
+                            if (distancia < mejorDistancia) {
+                                mejorDistancia = distancia;
+                                mejor = p;
+                            }
+                        }
+                    }
+                }
+                // Cualquier punto de un anillo más lejano está al menos a anillo * lado
+                double alcance = anillo * LADO_GRILLA;
+                if (mejor >= 0 && mejorDistancia <= alcance * alcance) {
+                    break;
+                }
+            }
+
+            orden[k] = mejor;
+            int c = celda[mejor];
+            int ultimo = inicio[c] + --pendientes[c];
+            int otro = enCelda[ultimo];
+            enCelda[posicion[mejor]] = otro;
+            posicion[otro] = posicion[mejor];
+            enCelda[ultimo] = mejor;
+            posicion[mejor] = ultimo;
+            actualX = x[mejor];
+            actualY = y[mejor];
+        }
+        return orden;
+    }
+
+    private static int columna(double valor, int columnas) {
+        return Math.min(columnas - 1, Math.max(0, (int) (valor / LADO_GRILLA)));
+    }
+
+    private static int fila(double valor, int filas) {
+        return Math.min(filas - 1, Math.max(0, (int) (valor / LADO_GRILLA)));
+    }
+
+    /**
+     * 2-opt sobre el recorrido cerrado en el origen: invierte el tramo
+     * orden[i..j] si acorta el camino, con j a lo sumo VENTANA_2OPT
+     * posiciones después de i. Corrige los cruces locales que deja el
+     * vecino más cercano sin el costo cuadrático del 2-opt completo.
+     */
+    private static void mejorar2Opt(int[] orden, double[] x, double[] y) {
+        int n = orden.length;
+        for (int pasada = 0; pasada < PASADAS_2OPT; pasada++) {
+            boolean mejoro = false;
+            for (int i = 0; i < n - 1; i++) {
+                double ax = i == 0 ? 0 : x[orden[i - 1]];
+                double ay = i == 0 ? 0 : y[orden[i - 1]];
+                int hastaJ = Math.min(n - 1, i + VENTANA_2OPT);
+                for (int j = i + 1; j <= hastaJ; j++) {
+                    double bx = x[orden[i]];
+                    double by = y[orden[i]];
+                    double cx = x[orden[j]];
+                    double cy = y[orden[j]];
+                    double dx = j == n - 1 ? 0 : x[orden[j + 1]];
+                    double dy = j == n - 1 ? 0 : y[orden[j + 1]];
+                    double antes = distancia(ax, ay, bx, by) + distancia(cx, cy, dx, dy);
+                    double despues = distancia(ax, ay, cx, cy) + distancia(bx, by, dx, dy);
+                    if (despues < antes - 1e-9) {
+                        for (int a = i, b = j; a < b; a++, b--) {
+                            int temporal = orden[a];
+                            orden[a] = orden[b];
+                            orden[b] = temporal;
+                        }
+                        mejoro = true;
+                    }
+                }
+            }
+            if (!mejoro) {
+                break;
+            }
+        }
+    }
+
+    // Math.hypot evita desbordes que aquí no pueden pasar, y es varias veces más lento
+    private static double distancia(double x1, double y1, double x2, double y2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Largo del recorrido desde el origen por los puntos en orden y de
+     * vuelta al origen.
+     */
+    private static double longitud(double[] x, double[] y) {
+        double total = 0;
+        double anteriorX = 0;
+        double anteriorY = 0;
+        for (int i = 0; i < x.length; i++) {
+            total += distancia(anteriorX, anteriorY, x[i], y[i]);
+            anteriorX = x[i];
+            anteriorY = y[i];
+        }
+        return total + distancia(anteriorX, anteriorY, 0, 0);
+    }
+
+    public int getPuntos() {
+        return x.length;
+    }
+
+    /**
+     * @return los mm de desplazamiento entre puntos, ida y vuelta al origen incluidas
+     */
+    public double getRecorrido() {
+        return recorrido;
+    }
+
+    /**
+     * @return los mm de desplazamiento si los puntos se marcaran en orden de lectura
+     */
+    public double getRecorridoSinOrdenar() {
+        return recorridoSinOrdenar;
+    }
+
+    /**
+     * Tiempo estimado de máquina: desplazamientos a la velocidad, bajadas
+     * al avance y subidas a la velocidad, sin aceleraciones. No cuenta la
+     * subida inicial a la altura segura, porque no se sabe desde dónde
+     * parte la máquina.
+     *
+     * @return el tiempo en segundos
+     */
+    public double getTiempoEstimado() {
+        double carrera = alturaSegura + profundidad;
+        double minutos = recorrido / velocidad + x.length * (carrera / avance + carrera / velocidad);
+        return minutos * 60;
+    }
+
+    /**
+     * Escribe el G-code. No cierra el Writer.
+     */
+    public void escribir(Writer salida) throws IOException {
+        StringBuilder buffer = new StringBuilder(TAMANO_BUFFER + 128);
+        long segundos = Math.round(getTiempoEstimado());
+        buffer.append("; Senaletica Braille");
+        if (titulo != null && !titulo.isBlank()) {
+            buffer.append(": ").append(ascii(titulo));
+        }
+        buffer.append("\n; Puntos: ").append(x.length).append("\n; Recorrido: ");
+        FormatoNumero.anexar(buffer, recorrido).append(" mm (en orden de lectura: ");
+        FormatoNumero.anexar(buffer, recorridoSinOrdenar).append(" mm)\n; Tiempo estimado: ")
+            .append(segundos / 60).append(" min ").append(segundos % 60).append(" s\n")
+            .append("G21\nG90\nG1 Z");
+        FormatoNumero.anexar(buffer, alturaSegura).append(" F");
+        FormatoNumero.anexar(buffer, velocidad).append('\n');
+
+        for (int i = 0; i < x.length; i++) {
+            buffer.append("G1 X");
+            FormatoNumero.anexar(buffer, x[i]).append(" Y");
+            FormatoNumero.anexar(buffer, y[i]).append(" F");
+            FormatoNumero.anexar(buffer, velocidad).append("\nG1 Z");
+            FormatoNumero.anexar(buffer, -profundidad).append(" F");
+            FormatoNumero.anexar(buffer, avance).append("\nG1 Z");
+            FormatoNumero.anexar(buffer, alturaSegura).append(" F");
+            FormatoNumero.anexar(buffer, velocidad).append('\n');
+            if (buffer.length() >= TAMANO_BUFFER) {
+                salida.append(buffer);
+                buffer.setLength(0);
+            }
+        }
+
+        buffer.append("G1 X0 Y0 F");
+        FormatoNumero.anexar(buffer, velocidad).append("\nM2\n");
+        salida.append(buffer);
+        salida.flush();
+    }
+
+    /**
+     * El texto sin acentos ni caracteres fuera de ASCII, que muchos
+     * controladores no aceptan ni en comentarios.
+     */
+    private static String ascii(String texto) {
+        String sinAcentos = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder resultado = new StringBuilder(sinAcentos.length());
+        for (int i = 0; i < sinAcentos.length(); i++) {
+            char caracter = sinAcentos.charAt(i);
+            if (caracter >= 0x20 && caracter < 0x7F) {
+                resultado.append(caracter);
+            }
+        }
+        return resultado.toString();
+    }
+}
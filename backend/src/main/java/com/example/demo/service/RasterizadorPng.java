@@ -0,0 +1,243 @@
+package com.example.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Dibuja señaléticas en PNG en el servidor (Java2D sin pantalla).
+ *
+ * Los puntos no se dibujan uno por uno: para cada escala y par de colores
+ * se dibujan una vez, suavizados, las 64 celdas de seis puntos y las 4
+ * combinaciones de los puntos 7 y 8 en un atlas, y cada celda de la
+ * señalética es una copia de filas de píxeles (System.arraycopy) del atlas
+ * a la imagen. Los atlas se guardan en una cache acotada.
+ *
+ * La imagen se codifica con {@link CodificadorPng} directamente desde su
+ * int[] de píxeles.
+ */
+public final class RasterizadorPng {
+
+    public static final String TIPO_CONTENIDO = "image/png";
+
+    // Resolución por defecto y ancho de las miniaturas
+    public static final int PUNTOS_POR_PULGADA_POR_DEFECTO = 200;
+    public static final int ANCHO_MINIATURA = 240;
+    private static final int MIN_PUNTOS_POR_PULGADA = 50;
+    private static final int MAX_PUNTOS_POR_PULGADA = 600;
+
+    private static final double MM_POR_PULGADA = 25.4;
+    private static final double BORDE = 1.5; // mm, igual que en SVG
+
+    private final Cache<Long, Atlas> atlas;
+
+    /**
+     * @param maxAtlas cuántos atlas (escala y colores) se guardan
+     */
+    public RasterizadorPng(long maxAtlas) {
+        this.atlas = Caffeine.newBuilder()
+            .maximumSize(maxAtlas)
+            .build();
+    }
+
+    /**
+     * Valida la resolución
+     *
+     * @return el mensaje de error, o null si es válida
+     */
+    public static String validarResolucion(int puntosPorPulgada) {
+        if (puntosPorPulgada < MIN_PUNTOS_POR_PULGADA || puntosPorPulgada > MAX_PUNTOS_POR_PULGADA) {
+            return "dpi debe estar entre " + MIN_PUNTOS_POR_PULGADA + " y " + MAX_PUNTOS_POR_PULGADA;
+        }
+        return null;
+    }
+
+    /**
+     * Dibuja la señalética a la resolución indicada y la escribe en PNG.
+     */
+    public void escribir(DisenoSenaletica diseno, int puntosPorPulgada, OutputStream salida) throws IOException {
+        escribir(diseno, puntosPorPulgada / MM_POR_PULGADA, salida);
+    }
+
+    /**
+     * Dibuja la señalética en miniatura, de hasta {@link #ANCHO_MINIATURA}
+     * píxeles de ancho, y la escribe en PNG. La escala se redondea a
+     * cuartos de píxel por mm para que las miniaturas de señaléticas de
+     * distinto ancho compartan atlas.
+     */
+    public void escribirMiniatura(DisenoSenaletica diseno, OutputStream salida) throws IOException {
+        double pixelesPorMm = Math.max(0.5, Math.floor(ANCHO_MINIATURA / diseno.getAncho() * 4) / 4);
+        escribir(diseno, pixelesPorMm, salida);
+    }
+
+    private void escribir(DisenoSenaletica diseno, double pixelesPorMm, OutputStream salida) throws IOException {
+        BufferedImage imagen = dibujar(diseno, pixelesPorMm);
+        int[] pixeles = ((DataBufferInt) imagen.getRaster().getDataBuffer()).getData();
+        CodificadorPng.escribir(pixeles, imagen.getWidth(), imagen.getHeight(), Deflater.BEST_SPEED, salida);
+    }
+
+    /**
+     * Dibuja la señalética.
+     *
+     * @param pixelesPorMm la escala
+     * @return una imagen TYPE_INT_RGB
+     */
+    public BufferedImage dibujar(DisenoSenaletica diseno, double pixelesPorMm) {
+        int ancho = Math.max(1, (int) Math.round(diseno.getAncho() * pixelesPorMm));
+        int alto = Math.max(1, (int) Math.round(diseno.getAlto() * pixelesPorMm));
+        int fondo = rgb(diseno.getColorFondo());
+        int tinta = rgb(diseno.getColorTexto());
+
+        BufferedImage imagen = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+        int[] pixeles = ((DataBufferInt) imagen.getRaster().getDataBuffer()).getData();
+        Arrays.fill(pixeles, fondo);
+
+        // Borde y texto con Java2D
+        Graphics2D g = imagen.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(new Color(tinta));
+            float borde = (float) (BORDE * pixelesPorMm);
+            g.setStroke(new BasicStroke(borde));
+            g.draw(new Rectangle2D.Double(borde, borde, ancho - 2 * borde, alto - 2 * borde));
+
+            String[] lineas = diseno.getLineasTexto();
+            if (lineas.length > 0) {
+                double[] bases = diseno.getBaseLineasTexto();
+                float tamano = (float) (diseno.getTamanoTexto() * pixelesPorMm);
+                g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 1).deriveFont(tamano));
+                FontMetrics metricas = g.getFontMetrics();
+                for (int i = 0; i < lineas.length; i++) {
+                    float x = (float) ((ancho - metricas.stringWidth(lineas[i])) / 2.0);
+                    g.drawString(lineas[i], x, (float) (bases[i] * pixelesPorMm));
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+
+        // Celdas: copias del atlas
+        if (diseno.getCeldas() > 0) {
+            Atlas sprites = atlas(pixelesPorMm, fondo, tinta);
+            for (int i = 0; i < diseno.getCeldas(); i++) {
+                int x = (int) Math.round(diseno.x(i) * pixelesPorMm) - sprites.origen;
+                int y = (int) Math.round(diseno.y(i) * pixelesPorMm) - sprites.origen;
+                int patron = diseno.patron(i);
+                sprites.copiar(patron & 0x3F, x, y, pixeles, ancho, alto);
+                if (patron > 0x3F) {
+                    sprites.copiar(64 + (patron >> 6), x, y + sprites.desplazamientoInferior, pixeles, ancho, alto);
+                }
+            }
+        }
+        return imagen;
+    }
+
+    private Atlas atlas(double pixelesPorMm, int fondo, int tinta) {
+        // Escala en centésimas de píxel por mm: la misma escala pedida dos veces da el mismo atlas
+        long escala = Math.round(pixelesPorMm * 100);
+        long clave = (escala << 48) ^ ((long) fondo << 24) ^ tinta;
+        return atlas.get(clave, k -> new Atlas(escala / 100.0, fondo, tinta));
+    }
+
+    private static int rgb(String color) {
+        return Integer.parseInt(color.substring(1), 16);
+    }
+
+    /**
+     * Celdas dibujadas de antemano, una al lado de la otra en una imagen:
+     * 0-63 las celdas de seis puntos (puntos 1 a 6) y 64-67 la fila de los
+     * puntos 7 y 8 (ninguno, 7, 8, ambos). Cada celda está sobre el color
+     * de fondo, así copiarla es copiar píxeles sin mezclar.
+     */
+    private static final class Atlas {
+
+        private final int[] pixeles;
+        private final int anchoAtlas;
+        private final int anchoCelda;
+        private final int altoCelda;
+        private final int altoInferior;
+        private final int origen;                 // píxeles del borde del sprite al centro del punto 1
+        private final int desplazamientoInferior; // de la fila del punto 1 a la del punto 7
+
+        Atlas(double pixelesPorMm, int fondo, int tinta) {
+            double radio = DisenoSenaletica.DIAMETRO_PUNTO / 2 * pixelesPorMm;
+            this.origen = (int) Math.ceil(radio) + 1;
+            this.anchoCelda = origen * 2 + (int) Math.ceil(DisenoSenaletica.DISTANCIA_PUNTOS * pixelesPorMm);
+            this.altoCelda = origen * 2 + (int) Math.ceil(2 * DisenoSenaletica.DISTANCIA_PUNTOS * pixelesPorMm);
+            this.desplazamientoInferior = (int) Math.round(3 * DisenoSenaletica.DISTANCIA_PUNTOS * pixelesPorMm);
+            this.altoInferior = origen * 2;
+            this.anchoAtlas = anchoCelda * 68;
+
+            BufferedImage imagen = new BufferedImage(anchoAtlas, altoCelda, BufferedImage.TYPE_INT_RGB);
+            this.pixeles = ((DataBufferInt) imagen.getRaster().getDataBuffer()).getData();
+            Arrays.fill(pixeles, fondo);
+            Graphics2D g = imagen.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+                g.setColor(new Color(tinta));
+                for (int patron = 0; patron < 64; patron++) {
+                    for (int punto = 0; punto < 6; punto++) {
+                        if ((patron & (1 << punto)) != 0) {
+                            punto(g, patron * anchoCelda, punto, pixelesPorMm, radio);
+                        }
+                    }
+                }
+                for (int inferior = 1; inferior < 4; inferior++) {
+                    for (int punto = 6; punto < 8; punto++) {
+                        if ((inferior & (1 << (punto - 6))) != 0) {
+                            // Dibujados en la fila del punto 1; se copian desplazamientoInferior más abajo
+                            double x = (64 + inferior) * anchoCelda + origen
+                                + DisenoSenaletica.xPunto(punto) * pixelesPorMm;
+                            g.fill(new Ellipse2D.Double(x - radio, origen - radio, 2 * radio, 2 * radio));
+                        }
+                    }
+                }
+            } finally {
+                g.dispose();
+            }
+        }
+
+        private void punto(Graphics2D g, int xCelda, int punto, double pixelesPorMm, double radio) {
+            double x = xCelda + origen + DisenoSenaletica.xPunto(punto) * pixelesPorMm;
+            double y = origen + DisenoSenaletica.yPunto(punto) * pixelesPorMm;
+            g.fill(new Ellipse2D.Double(x - radio, y - radio, 2 * radio, 2 * radio));
+        }
+
+        /**
+         * Copia el sprite n a la imagen con su esquina en (x, y), recortado
+         * a los bordes de la imagen.
+         */
+        void copiar(int n, int x, int y, int[] destino, int ancho, int alto) {
+            int filas = n < 64 ? altoCelda : altoInferior;
+            int desdeX = Math.max(0, -x);
+            int hastaX = Math.min(anchoCelda, ancho - x);
+            if (hastaX <= desdeX) {
+                return;
+            }
+            int desdeY = Math.max(0, -y);
+            int hastaY = Math.min(filas, alto - y);
+            int columna = n * anchoCelda + desdeX;
+            int cantidad = hastaX - desdeX;
+            for (int fila = desdeY; fila < hastaY; fila++) {
+                System.arraycopy(pixeles, fila * anchoAtlas + columna,
+                    destino, (y + fila) * ancho + x + desdeX, cantidad);
+            }
+        }
+    }
+}
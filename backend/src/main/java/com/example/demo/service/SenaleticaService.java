@@ -18,10 +18,13 @@ public class SenaleticaService {
     
     private final SenaleticaRepository senaleticaRepository;
     private final BrailleService brailleService;
+    private final CacheConversionService cacheConversionService;
     
-    public SenaleticaService(SenaleticaRepository senaleticaRepository, BrailleService brailleService) {
+    public SenaleticaService(SenaleticaRepository senaleticaRepository, BrailleService brailleService,
+                             CacheConversionService cacheConversionService) {
         this.senaleticaRepository = senaleticaRepository;
         this.brailleService = brailleService;
+        this.cacheConversionService = cacheConversionService;
     }
     
     /**
@@ -44,8 +47,17 @@ public class SenaleticaService {
                 return response;
             }
             
-            // Convertir texto a braille
-            String textoBraille = brailleService.textoABraille(request.getTextoOriginal());
+            // Convertir texto a braille con la tabla pedida (español por defecto)
+            TablaBraille tabla;
+            try {
+                tabla = brailleService.getTabla(request.getTabla());
+            } catch (IllegalArgumentException e) {
+                response.setExito(false);
+                response.setMensaje(e.getMessage());
+                return response;
+            }
+            String textoBraille = cacheConversionService.obtener("texto-a-braille", tabla,
+                request.getTextoOriginal(), texto -> brailleService.textoABraille(texto, tabla));
             
             // Crear entidad
             Senaletica senaletica = new Senaletica(
@@ -55,6 +67,7 @@ public class SenaleticaService {
             );
             
             senaletica.setUser(user);
+            senaletica.setTabla(tabla.getCodigo());
             senaletica.setTipoSenaletica(request.getTipoSenaletica() != null ? 
                 request.getTipoSenaletica() : "personalizado");
             senaletica.setFormatoSalida(request.getFormatoSalida() != null ? 
@@ -79,6 +92,7 @@ public class SenaleticaService {
             response.setTipoSenaletica(senaletica.getTipoSenaletica());
             response.setFormatoSalida(senaletica.getFormatoSalida());
             response.setAltoContraste(senaletica.getAltoContraste());
+            response.setTabla(senaletica.getTabla());
             response.setFechaCreacion(senaletica.getFechaCreacion());
             response.setDescargas(senaletica.getDescargas());
             response.setExito(true);
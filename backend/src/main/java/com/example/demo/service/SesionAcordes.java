@@ -0,0 +1,160 @@
+package com.example.demo.service;
+
+import java.util.Arrays;
+
+/**
+ * Sesión de escritura Braille por acordes de seis puntos (estilo Perkins):
+ * cada acorde agrega una celda y el texto decodificado se actualiza con un
+ * parche sobre el anterior.
+ *
+ * El estado del decodificador (mayúscula y modo número) se conserva entre
+ * acordes. Después de cada espacio lo anterior ya no puede cambiar (ningún
+ * símbolo de varias celdas cruza un espacio), así que ahí se guarda un
+ * punto estable y cada acorde solo vuelve a decodificar la palabra en curso.
+ * Borrar una celda retrocede al punto estable anterior si hace falta.
+ */
+public final class SesionAcordes {
+
+    // Cada punto estable ocupa tres enteros: posición Braille, posición texto, estado
+    private static final int CAMPOS_PUNTO = 3;
+
+    private final TablaBraille tabla;
+    private final StringBuilder braille = new StringBuilder();
+    private final StringBuilder texto = new StringBuilder();
+    private int[] puntosEstables = new int[CAMPOS_PUNTO * 16];
+    private int cantidadPuntos;
+    private int version;
+
+    /**
+     * Abre una sesión vacía.
+     *
+     * @param tabla la tabla con la que se decodifica
+     */
+    public SesionAcordes(TablaBraille tabla) {
+        this.tabla = tabla;
+        agregarPuntoEstable(0, 0, new BrailleService.EstadoBrailleATexto(tabla, false).guardar());
+    }
+
+    /**
+     * Agrega un acorde. Los bits 0 a 5 son los puntos 1 a 6 (como en
+     * U+2800); un acorde sin puntos es la barra espaciadora.
+     *
+     * @param puntos los puntos pulsados
+     * @return el parche sobre el texto anterior
+     * @throws IllegalArgumentException si los puntos no forman una celda
+     *         de seis puntos (bits fuera de 0 a 5)
+     */
+    public synchronized DocumentoBraille.Parche acorde(int puntos) {
+        if (puntos < 0 || puntos > 0x3F) {
+            throw new IllegalArgumentException("Acorde no válido: " + puntos);
+        }
+        braille.append(puntos == 0 ? ' ' : (char) (TablaBraille.BRAILLE_BASE + puntos));
+        return recalcular();
+    }
+
+    /**
+     * Borra la última celda.
+     *
+     * @return el parche sobre el texto anterior
+     */
+    public synchronized DocumentoBraille.Parche borrar() {
+        if (braille.length() > 0) {
+            braille.setLength(braille.length() - 1);
+            // Descartar puntos estables que quedaron después del final
+            while (cantidadPuntos > 1 && puntoBraille(cantidadPuntos - 1) > braille.length()) {
+                cantidadPuntos--;
+            }
+        }
+        return recalcular();
+    }
+
+    /**
+     * Gets the Braille typed so far.
+     *
+     * @return the Braille text
+     */
+    public synchronized String getBraille() {
+        return braille.toString();
+    }
+
+    /**
+     * Gets the decoded text.
+     *
+     * @return the text
+     */
+    public synchronized String getTexto() {
+        return texto.toString();
+    }
+
+    /**
+     * Gets the number of cells and spaces typed.
+     *
+     * @return the Braille length
+     */
+    public synchronized int getLongitudBraille() {
+        return braille.length();
+    }
+
+    /**
+     * Decodifica desde el último punto estable y devuelve la diferencia con
+     * el texto anterior.
+     */
+    private DocumentoBraille.Parche recalcular() {
+        int ultimo = cantidadPuntos - 1;
+        int desdeBraille = puntoBraille(ultimo);
+        int desdeTexto = puntoTexto(ultimo);
+        BrailleService.EstadoBrailleATexto estado = new BrailleService.EstadoBrailleATexto(tabla, false);
+        estado.restaurar(puntoEstado(ultimo));
+
+        StringBuilder nuevo = new StringBuilder();
+        estado.decodificar(braille, desdeBraille, braille.length(), true, nuevo);
+
+        // Recortar lo que no cambió al principio y al final
+        int largoAnterior = texto.length() - desdeTexto;
+        int maximo = Math.min(largoAnterior, nuevo.length());
+        int comunInicio = 0;
+        while (comunInicio < maximo && texto.charAt(desdeTexto + comunInicio) == nuevo.charAt(comunInicio)) {
+            comunInicio++;
+        }
+        int comunFin = 0;
+        maximo -= comunInicio;
+        while (comunFin < maximo
+                && texto.charAt(texto.length() - 1 - comunFin) == nuevo.charAt(nuevo.length() - 1 - comunFin)) {
+            comunFin++;
+        }
+        String reemplazo = nuevo.substring(comunInicio, nuevo.length() - comunFin);
+        int parcheDesde = desdeTexto + comunInicio;
+        int parcheEliminados = largoAnterior - comunInicio - comunFin;
+        texto.replace(parcheDesde, parcheDesde + parcheEliminados, reemplazo);
+
+        int longitud = braille.length();
+        if (longitud > desdeBraille && braille.charAt(longitud - 1) == ' ') {
+            agregarPuntoEstable(longitud, texto.length(), estado.guardar());
+        }
+        version++;
+        return new DocumentoBraille.Parche(version, parcheDesde, parcheEliminados, reemplazo, texto.length());
+    }
+
+    private void agregarPuntoEstable(int posicionBraille, int posicionTexto, int estado) {
+        int indice = cantidadPuntos * CAMPOS_PUNTO;
+        if (indice + CAMPOS_PUNTO > puntosEstables.length) {
+            puntosEstables = Arrays.copyOf(puntosEstables, puntosEstables.length * 2);
+        }
+        puntosEstables[indice] = posicionBraille;
+        puntosEstables[indice + 1] = posicionTexto;
+        puntosEstables[indice + 2] = estado;
+        cantidadPuntos++;
+    }
+
+    private int puntoBraille(int punto) {
+        return puntosEstables[punto * CAMPOS_PUNTO];
+    }
+
+    private int puntoTexto(int punto) {
+        return puntosEstables[punto * CAMPOS_PUNTO + 1];
+    }
+
+    private int puntoEstado(int punto) {
+        return puntosEstables[punto * CAMPOS_PUNTO + 2];
+    }
+}
@@ -0,0 +1,408 @@
+package com.example.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tabla Braille compilada e inmutable.
+ *
+ * Contiene las tablas de búsqueda ya preparadas para convertir en ambos
+ * sentidos. Al recargar el diccionario se compila una tabla nueva y se
+ * reemplaza la anterior de una sola vez, así ninguna conversión ve una
+ * tabla a medio construir.
+ *
+ * Cada tabla lleva su código (p. ej. "es", "en-ueb") y sus indicadores de
+ * mayúscula y número, que varían entre códigos Braille.
+ */
+public final class TablaBraille {
+
+    // Inicio del bloque Unicode de patrones Braille (U+2800 - U+28FF)
+    static final char BRAILLE_BASE = '\u2800';
+    static final char SIN_TRADUCCION = '\0';
+    
+    // Indicadores de la tabla española, los más comunes en las tablas latinas
+    public static final char INDICADOR_MAYUSCULA = '⠨';
+    public static final char INDICADOR_NUMERO = '⠼';
+    // Marca un indicador que la tabla no usa (p. ej. Braille computacional)
+    public static final char SIN_INDICADOR = '\0';
+    private static final int CELDAS = 256;
+
+    /**
+     * Secuencias ambiguas cuyo carácter al decodificar se fija a mano.
+     * Solo se aplican si la tabla realmente codifica ese carácter así.
+     */
+    private static final Map<String, Character> PREFERENCIAS_DECODIFICACION = Map.of(
+        "⠌", 'í',  // í tiene prioridad sobre división simple
+        "⠸⠌", '/', // '/' tiene prioridad sobre '÷'
+        "⠄", '.'    // punto tiene prioridad sobre apóstrofo y punto volado catalán
+    );
+
+    // Caracteres que no cortan una secuencia numérica (1-2, 1,5, 1.000)
+    private static final char[] SEPARADORES_NUMERICOS = {'-', ',', '.'};
+
+    private final String codigo;
+    private final String nombre;
+    private final char indicadorMayuscula;
+    private final char indicadorNumero;
+    private final Map<Character, String> definiciones;
+    private final String version;
+    private final int entradas;
+
+    /**
+     * Texto a Braille: Latin-1 se indexa directamente por el carácter; el
+     * resto de códigos (por ejemplo '€') se busca por búsqueda binaria.
+     */
+    private final String[] textoABrailleLatin1 = new String[256];
+    private final char[] extraClaves;
+    private final String[] extraValores;
+
+    /**
+     * Las mismas entradas como patrones de puntos (un byte por celda), o
+     * null si el valor no es solo celdas y espacios.
+     */
+    private final byte[][] celdasLatin1 = new byte[256][];
+    private final byte[][] extraCeldas;
+
+    /**
+     * Braille a texto de una celda, indexado por el desplazamiento respecto
+     * a U+2800. SIN_TRADUCCION marca celdas sin mapeo.
+     */
+    private final char[] brailleATextoCelda = new char[CELDAS];
+
+    /**
+     * Trie sobre toda la tabla Braille a texto (una y varias celdas) para
+     * decodificar símbolos como "⠐⠣" por coincidencia más larga.
+     */
+    private final TrieBraille decodificador;
+
+    /**
+     * Celdas que representan un separador numérico en esta tabla, indexadas
+     * por desplazamiento respecto a U+2800.
+     */
+    private final boolean[] celdaSeparadorNumerico = new boolean[CELDAS];
+
+    /**
+     * Camino rápido texto a Braille: para cada carácter ASCII que no es
+     * mayúscula, dígito ni separador numérico y se escribe con una sola
+     * celda (o espacio), esa celda; SIN_TRADUCCION en otro caso. Estos
+     * caracteres no dependen del estado del codificador.
+     */
+    private final char[] celdaAsciiSimple = new char[128];
+
+    /**
+     * Caracteres que la tabla sabe convertir (una vez pasados a minúscula).
+     */
+    private final ConjuntoCaracteres convertibles;
+
+    /**
+     * Normalización del texto de entrada para esta tabla.
+     */
+    private final NormalizadorTexto normalizador;
+
+    private TablaBraille(String codigo, String nombre, Map<Character, String> definiciones,
+                         char indicadorMayuscula, char indicadorNumero) {
+        this.codigo = codigo;
+        this.nombre = nombre;
+        this.indicadorMayuscula = indicadorMayuscula;
+        this.indicadorNumero = indicadorNumero;
+        this.definiciones = Collections.unmodifiableMap(definiciones);
+        this.entradas = definiciones.size();
+        this.version = calcularVersion(codigo, indicadorMayuscula, indicadorNumero, definiciones);
+
+        // Compilar tabla texto -> Braille
+        int extra = 0;
+        for (char caracter : definiciones.keySet()) {
+            if (caracter >= textoABrailleLatin1.length) {
+                extra++;
+            }
+        }
+        this.extraClaves = new char[extra];
+        this.extraValores = new String[extra];
+        this.extraCeldas = new byte[extra][];
+        extra = 0;
+        for (Map.Entry<Character, String> definicion : definiciones.entrySet()) {
+            char caracter = definicion.getKey();
+            if (caracter < textoABrailleLatin1.length) {
+                textoABrailleLatin1[caracter] = definicion.getValue();
+                celdasLatin1[caracter] = aCeldas(definicion.getValue());
+            } else {
+                extraClaves[extra] = caracter;
+                extraValores[extra] = definicion.getValue();
+                extraCeldas[extra] = aCeldas(definicion.getValue());
+                extra++;
+            }
+        }
+
+        // Crear tabla inversa. Ante patrones repetidos gana el código mayor
+        // (p. ej. ⠁ -> 'a' y no '1', ⠄ -> '.' y no '\'')
+        Map<String, Character> secuencias = new LinkedHashMap<>();
+        definiciones.forEach((caracter, braille) -> {
+            if (esSecuenciaBraille(braille)) {
+                secuencias.put(braille, caracter);
+            }
+        });
+        PREFERENCIAS_DECODIFICACION.forEach((braille, caracter) -> {
+            if (braille.equals(definiciones.get(caracter))) {
+                secuencias.put(braille, caracter);
+            }
+        });
+        secuencias.forEach((braille, caracter) -> {
+            if (braille.length() == 1) {
+                brailleATextoCelda[braille.charAt(0) - BRAILLE_BASE] = caracter;
+            }
+        });
+        this.decodificador = new TrieBraille(secuencias);
+
+        for (char separador : SEPARADORES_NUMERICOS) {
+            String braille = definiciones.get(separador);
+            if (braille != null && braille.length() == 1 && esCeldaBraille(braille.charAt(0))) {
+                celdaSeparadorNumerico[braille.charAt(0) - BRAILLE_BASE] = true;
+            }
+        }
+
+        for (char caracter = 0; caracter < celdaAsciiSimple.length; caracter++) {
+            String braille = textoABrailleLatin1[caracter];
+            if (braille != null && braille.length() == 1
+                    && !Character.isUpperCase(caracter) && !Character.isDigit(caracter)
+                    && !esSeparadorNumericoTexto(caracter)) {
+                celdaAsciiSimple[caracter] = braille.charAt(0);
+            }
+        }
+
+        this.convertibles = ConjuntoCaracteres.porMinuscula(definiciones.keySet());
+        this.normalizador = new NormalizadorTexto(this);
+    }
+
+    /**
+     * Compila una tabla con los indicadores de mayúscula (⠨) y número (⠼).
+     *
+     * @param codigo el código de la tabla
+     * @param nombre el nombre para mostrar
+     * @param definiciones mapa de carácter (en minúscula) a su Braille
+     * @return la tabla compilada
+     */
+    public static TablaBraille compilar(String codigo, String nombre, Map<Character, String> definiciones) {
+        return compilar(codigo, nombre, definiciones, INDICADOR_MAYUSCULA, INDICADOR_NUMERO);
+    }
+
+    /**
+     * Compila una tabla a partir de sus definiciones carácter -> Braille.
+     *
+     * @param codigo el código de la tabla
+     * @param nombre el nombre para mostrar
+     * @param definiciones mapa de carácter (en minúscula) a su Braille
+     * @param indicadorMayuscula celda que precede a una mayúscula, o SIN_INDICADOR
+     * @param indicadorNumero celda que inicia una secuencia numérica, o SIN_INDICADOR
+     * @return la tabla compilada
+     */
+    public static TablaBraille compilar(String codigo, String nombre, Map<Character, String> definiciones,
+                                        char indicadorMayuscula, char indicadorNumero) {
+        // Ordenado por código para que el mapa inverso y la versión sean deterministas
+        return new TablaBraille(codigo, nombre, new TreeMap<>(definiciones), indicadorMayuscula, indicadorNumero);
+    }
+
+    /**
+     * Compila una tabla nueva con el mismo código e indicadores que esta
+     * pero otras definiciones (p. ej. al recargar el diccionario).
+     *
+     * @param definiciones las nuevas definiciones
+     * @return la tabla compilada
+     */
+    public TablaBraille conDefiniciones(Map<Character, String> definiciones) {
+        return compilar(codigo, nombre, definiciones, indicadorMayuscula, indicadorNumero);
+    }
+
+    /**
+     * Gets the table code, e.g. "es" or "en-ueb".
+     *
+     * @return the code
+     */
+    public String getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * Gets the display name of the table.
+     *
+     * @return the name
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Gets the capital indicator cell.
+     *
+     * @return the cell, or SIN_INDICADOR if the table has none
+     */
+    public char getIndicadorMayuscula() {
+        return indicadorMayuscula;
+    }
+
+    /**
+     * Gets the number indicator cell.
+     *
+     * @return the cell, or SIN_INDICADOR if the table has none
+     */
+    public char getIndicadorNumero() {
+        return indicadorNumero;
+    }
+
+    /**
+     * Gets the character to Braille definitions the table was compiled from.
+     *
+     * @return an unmodifiable map of character to Braille
+     */
+    public Map<Character, String> getDefiniciones() {
+        return definiciones;
+    }
+
+    /**
+     * Gets the dictionary version: a hash of the table content, so the same
+     * mappings always produce the same version.
+     *
+     * @return the version
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the number of characters defined in the table.
+     *
+     * @return the number of entries
+     */
+    public int getEntradas() {
+        return entradas;
+    }
+
+    /**
+     * Busca el Braille de un carácter sin crear objetos intermedios.
+     *
+     * @param caracter el carácter (ya en minúscula)
+     * @return la representación Braille, o null si no tiene
+     */
+    String buscarBraille(char caracter) {
+        if (caracter < textoABrailleLatin1.length) {
+            return textoABrailleLatin1[caracter];
+        }
+        int indice = Arrays.binarySearch(extraClaves, caracter);
+        return indice >= 0 ? extraValores[indice] : null;
+    }
+
+    /**
+     * Busca las celdas de un carácter como patrones de puntos.
+     *
+     * @param caracter el carácter (ya en minúscula)
+     * @return un byte por celda, o null si no tiene (no se debe modificar)
+     */
+    byte[] buscarCeldas(char caracter) {
+        if (caracter < celdasLatin1.length) {
+            return celdasLatin1[caracter];
+        }
+        int indice = Arrays.binarySearch(extraClaves, caracter);
+        return indice >= 0 ? extraCeldas[indice] : null;
+    }
+
+    /**
+     * Tabla del camino rápido (ver celdaAsciiSimple), indexada por carácter
+     * ASCII. No se debe modificar.
+     */
+    char[] getCeldasAsciiSimples() {
+        return celdaAsciiSimple;
+    }
+
+    /**
+     * Indica si el carácter tiene Braille en esta tabla, tal como lo
+     * convierte el codificador (pasándolo a minúscula).
+     */
+    boolean esConvertible(char caracter) {
+        return convertibles.contiene(caracter);
+    }
+
+    NormalizadorTexto getNormalizador() {
+        return normalizador;
+    }
+
+    /**
+     * Busca el carácter de una celda Braille.
+     *
+     * @param celda la celda Braille (o espacio)
+     * @return el carácter, o SIN_TRADUCCION si no tiene
+     */
+    char buscarTexto(char celda) {
+        if (celda == ' ') {
+            return ' ';
+        }
+        if (esCeldaBraille(celda)) {
+            return brailleATextoCelda[celda - BRAILLE_BASE];
+        }
+        return SIN_TRADUCCION;
+    }
+
+    /**
+     * Indica si la celda es la de un separador numérico (guion, coma, punto).
+     */
+    boolean esSeparadorNumerico(char celda) {
+        return esCeldaBraille(celda) && celdaSeparadorNumerico[celda - BRAILLE_BASE];
+    }
+
+    static boolean esSeparadorNumericoTexto(char caracter) {
+        return caracter == '-' || caracter == ',' || caracter == '.';
+    }
+
+    TrieBraille getDecodificador() {
+        return decodificador;
+    }
+
+    static boolean esCeldaBraille(char caracter) {
+        return caracter >= BRAILLE_BASE && caracter < BRAILLE_BASE + CELDAS;
+    }
+
+    private static byte[] aCeldas(String braille) {
+        byte[] celdas = new byte[braille.length()];
+        for (int i = 0; i < celdas.length; i++) {
+            char caracter = braille.charAt(i);
+            if (esCeldaBraille(caracter)) {
+                celdas[i] = (byte) (caracter - BRAILLE_BASE);
+            } else if (caracter != ' ') {
+                return null;
+            }
+        }
+        return celdas;
+    }
+
+    private static boolean esSecuenciaBraille(String braille) {
+        if (braille.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < braille.length(); i++) {
+            if (!esCeldaBraille(braille.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String calcularVersion(String codigo, char indicadorMayuscula, char indicadorNumero,
+                                          Map<Character, String> definiciones) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((codigo + "|" + indicadorMayuscula + "|" + indicadorNumero + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+            definiciones.forEach((caracter, braille) -> {
+                digest.update((caracter + "=" + braille + "\n").getBytes(StandardCharsets.UTF_8));
+            });
+            return HexFormat.of().formatHex(digest.digest(), 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
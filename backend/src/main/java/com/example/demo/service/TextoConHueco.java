@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+import java.util.Arrays;
+
+/**
+ * Texto editable con hueco (gap buffer): el espacio libre se mantiene en
+ * la posición de la última edición, así las ediciones seguidas en el mismo
+ * lugar (escribir, borrar) solo mueven los caracteres entre una edición y
+ * la siguiente, no el resto del documento como StringBuilder.
+ */
+final class TextoConHueco implements CharSequence {
+
+    private static final int HUECO_INICIAL = 64;
+
+    private char[] datos;
+    private int inicioHueco;
+    private int finHueco;
+
+    TextoConHueco(CharSequence texto) {
+        int longitud = texto.length();
+        this.datos = new char[longitud + HUECO_INICIAL];
+        for (int i = 0; i < longitud; i++) {
+            datos[i] = texto.charAt(i);
+        }
+        this.inicioHueco = longitud;
+        this.finHueco = datos.length;
+    }
+
+    /**
+     * Reemplaza [inicio, fin) por el texto dado.
+     */
+    void reemplazar(int inicio, int fin, CharSequence texto) {
+        moverHueco(inicio);
+        finHueco += fin - inicio;
+        int longitud = texto.length();
+        asegurarHueco(longitud);
+        for (int i = 0; i < longitud; i++) {
+            datos[inicioHueco++] = texto.charAt(i);
+        }
+    }
+
+    @Override
+    public int length() {
+        return datos.length - (finHueco - inicioHueco);
+    }
+
+    @Override
+    public char charAt(int indice) {
+        return indice < inicioHueco ? datos[indice] : datos[indice + finHueco - inicioHueco];
+    }
+
+    @Override
+    public CharSequence subSequence(int inicio, int fin) {
+        return toString(inicio, fin);
+    }
+
+    @Override
+    public String toString() {
+        return toString(0, length());
+    }
+
+    private String toString(int inicio, int fin) {
+        if (fin <= inicioHueco) {
+            return new String(datos, inicio, fin - inicio);
+        }
+        int hueco = finHueco - inicioHueco;
+        if (inicio >= inicioHueco) {
+            return new String(datos, inicio + hueco, fin - inicio);
+        }
+        StringBuilder texto = new StringBuilder(fin - inicio);
+        texto.append(datos, inicio, inicioHueco - inicio);
+        texto.append(datos, finHueco, fin - inicioHueco);
+        return texto.toString();
+    }
+
+    private void moverHueco(int posicion) {
+        if (posicion < inicioHueco) {
+            int cantidad = inicioHueco - posicion;
+            System.arraycopy(datos, posicion, datos, finHueco - cantidad, cantidad);
+            inicioHueco -= cantidad;
+            finHueco -= cantidad;
+        } else if (posicion > inicioHueco) {
+            int cantidad = posicion - inicioHueco;
+            System.arraycopy(datos, finHueco, datos, inicioHueco, cantidad);
+            inicioHueco += cantidad;
+            finHueco += cantidad;
+        }
+    }
+
+    private void asegurarHueco(int minimo) {
+        int hueco = finHueco - inicioHueco;
+        if (hueco >= minimo) {
+            return;
+        }
+        int capacidad = Math.max(datos.length + minimo - hueco, datos.length + datos.length / 2 + HUECO_INICIAL);
+        char[] nuevos = Arrays.copyOf(datos, capacidad);
+        int despues = datos.length - finHueco;
+        System.arraycopy(datos, finHueco, nuevos, capacidad - despues, despues);
+        finHueco = capacidad - despues;
+        datos = nuevos;
+    }
+}
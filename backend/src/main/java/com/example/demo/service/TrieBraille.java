@@ -0,0 +1,154 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie de prefijos compilado sobre la tabla Braille a texto.
+ * Permite decodificar símbolos de una o varias celdas (p. ej. "⠐⠣" -> '(')
+ * buscando siempre la coincidencia más larga, sin crear objetos por búsqueda.
+ *
+ * Las transiciones se guardan en un arreglo plano de filas de 256 entradas
+ * (una por celda U+2800 - U+28FF); solo los nodos con hijos tienen fila,
+ * así que el costo de cada paso no depende del número de símbolos.
+ */
+final class TrieBraille {
+
+    private static final char BRAILLE_BASE = '\u2800';
+    private static final int CELDAS = 256;
+    private static final int SIN_FILA = -1;
+
+    /**
+     * Resultado de {@link #buscar(CharSequence, int, int, boolean)} cuando la
+     * entrada se acaba en mitad de un posible símbolo y puede llegar más.
+     */
+    static final int INCOMPLETA = -1;
+
+    // Por nodo: carácter que produce la secuencia hasta ahí (0 si ninguno)
+    private final char[] salida;
+    // Por nodo: fila de transiciones, o SIN_FILA si es hoja
+    private final int[] filaDeNodo;
+    // fila * 256 + desplazamiento de celda -> nodo hijo (0 = sin transición)
+    private final int[] transiciones;
+
+    /**
+     * Compila el trie a partir de secuencias Braille y el carácter que representan.
+     *
+     * @param secuencias mapa de secuencia Braille a carácter
+     */
+    TrieBraille(Map<String, Character> secuencias) {
+        // Construcción con listas de hijos; luego se aplana
+        List<int[]> hijos = new ArrayList<>();
+        List<Character> salidas = new ArrayList<>();
+        hijos.add(null);
+        salidas.add('\0');
+
+        for (Map.Entry<String, Character> entrada : secuencias.entrySet()) {
+            String secuencia = entrada.getKey();
+            int nodo = 0;
+            for (int i = 0; i < secuencia.length(); i++) {
+                int celda = secuencia.charAt(i) - BRAILLE_BASE;
+                if (celda < 0 || celda >= CELDAS) {
+                    throw new IllegalArgumentException("Secuencia Braille no válida: " + secuencia);
+                }
+                if (hijos.get(nodo) == null) {
+                    hijos.set(nodo, new int[CELDAS]);
+                }
+                int siguiente = hijos.get(nodo)[celda];
+                if (siguiente == 0) {
+                    siguiente = hijos.size();
+                    hijos.get(nodo)[celda] = siguiente;
+                    hijos.add(null);
+                    salidas.add('\0');
+                }
+                nodo = siguiente;
+            }
+            salidas.set(nodo, entrada.getValue());
+        }
+
+        int nodos = hijos.size();
+        this.salida = new char[nodos];
+        this.filaDeNodo = new int[nodos];
+        Arrays.fill(filaDeNodo, SIN_FILA);
+
+        int filas = 0;
+        for (int[] fila : hijos) {
+            if (fila != null) {
+                filas++;
+            }
+        }
+        this.transiciones = new int[filas * CELDAS];
+
+        int fila = 0;
+        for (int nodo = 0; nodo < nodos; nodo++) {
+            salida[nodo] = salidas.get(nodo);
+            if (hijos.get(nodo) != null) {
+                filaDeNodo[nodo] = fila;
+                System.arraycopy(hijos.get(nodo), 0, transiciones, fila * CELDAS, CELDAS);
+                fila++;
+            }
+        }
+    }
+
+    /**
+     * Busca la coincidencia más larga que empieza en la posición indicada.
+     * El resultado empaqueta la longitud en los bits altos y el carácter en
+     * los 16 bits bajos; vale 0 si no hay coincidencia.
+     *
+     * @param braille el texto Braille
+     * @param inicio la posición de inicio
+     * @return la coincidencia empaquetada, o 0
+     */
+    int buscar(CharSequence braille, int inicio) {
+        return buscar(braille, inicio, braille.length(), true);
+    }
+
+    /**
+     * Busca la coincidencia más larga dentro de [inicio, fin).
+     *
+     * @param braille el texto Braille
+     * @param inicio la posición de inicio
+     * @param fin la posición final (exclusiva)
+     * @param ultimo si no llegará más entrada después de fin
+     * @return la coincidencia empaquetada, 0, o {@link #INCOMPLETA} si la
+     *         coincidencia podría continuar en la entrada que falta
+     */
+    int buscar(CharSequence braille, int inicio, int fin, boolean ultimo) {
+        int nodo = 0;
+        int mejor = 0;
+        for (int i = inicio; i < fin; i++) {
+            int fila = filaDeNodo[nodo];
+            int celda = braille.charAt(i) - BRAILLE_BASE;
+            if (fila == SIN_FILA || celda < 0 || celda >= CELDAS) {
+                break;
+            }
+            nodo = transiciones[fila * CELDAS + celda];
+            if (nodo == 0) {
+                break;
+            }
+            if (salida[nodo] != '\0') {
+                mejor = ((i - inicio + 1) << 16) | salida[nodo];
+            }
+            if (i + 1 == fin && !ultimo && filaDeNodo[nodo] != SIN_FILA) {
+                return INCOMPLETA;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Obtiene la longitud de una coincidencia devuelta por {@link #buscar}.
+     */
+    static int longitud(int coincidencia) {
+        return coincidencia >>> 16;
+    }
+
+    /**
+     * Obtiene el carácter de una coincidencia devuelta por {@link #buscar}.
+     */
+    static char caracter(int coincidencia) {
+        return (char) coincidencia;
+    }
+}
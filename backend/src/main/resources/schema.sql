@@ -35,9 +35,17 @@ CREATE TABLE IF NOT EXISTS conversiones (
     dispositivo VARCHAR(100),
     navegador VARCHAR(100),
     tiempo_conversion_ms INTEGER,
-    CONSTRAINT check_tipo CHECK (tipo IN ('texto-a-braille', 'braille-a-texto'))
+    version_diccionario VARCHAR(20),
+    tabla_braille VARCHAR(20) DEFAULT 'es',
+    CONSTRAINT check_tipo CHECK (tipo IN ('texto-a-braille', 'braille-a-texto', 'texto-a-grado2', 'grado2-a-texto'))
 );
 
+ALTER TABLE conversiones ADD COLUMN IF NOT EXISTS version_diccionario VARCHAR(20);
+ALTER TABLE conversiones ADD COLUMN IF NOT EXISTS tabla_braille VARCHAR(20) DEFAULT 'es';
+ALTER TABLE conversiones DROP CONSTRAINT IF EXISTS check_tipo;
+ALTER TABLE conversiones ADD CONSTRAINT check_tipo
+    CHECK (tipo IN ('texto-a-braille', 'braille-a-texto', 'texto-a-grado2', 'grado2-a-texto'));
+
 CREATE INDEX IF NOT EXISTS idx_conversiones_user_fecha ON conversiones(user_id, fecha DESC);
 CREATE INDEX IF NOT EXISTS idx_conversiones_tipo ON conversiones(tipo);
 CREATE INDEX IF NOT EXISTS idx_conversiones_fecha ON conversiones(fecha DESC);
@@ -56,6 +64,7 @@ CREATE TABLE IF NOT EXISTS senaleticas (
     color_fondo VARCHAR(7) DEFAULT '#FFFFFF',
     color_texto VARCHAR(7) DEFAULT '#000000',
     alto_contraste BOOLEAN DEFAULT true,
+    tabla_braille VARCHAR(20) DEFAULT 'es',
     url_archivo VARCHAR(500),
     fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     descargas INTEGER DEFAULT 0,
@@ -67,6 +76,8 @@ CREATE TABLE IF NOT EXISTS senaleticas (
     ))
 );
 
+ALTER TABLE senaleticas ADD COLUMN IF NOT EXISTS tabla_braille VARCHAR(20) DEFAULT 'es';
+
 CREATE INDEX IF NOT EXISTS idx_senaleticas_user_fecha ON senaleticas(user_id, fecha_creacion DESC);
 CREATE INDEX IF NOT EXISTS idx_senaleticas_tipo ON senaleticas(tipo_senaletica);
 CREATE INDEX IF NOT EXISTS idx_senaleticas_descargas ON senaleticas(descargas DESC);
@@ -102,7 +113,7 @@ CREATE TABLE IF NOT EXISTS estadisticas_uso (
 CREATE INDEX IF NOT EXISTS idx_estadisticas_fecha ON estadisticas_uso(fecha DESC);
 CREATE INDEX IF NOT EXISTS idx_estadisticas_user ON estadisticas_uso(user_id);
 
--- 6. Diccionario Braille (opcional, ya está en código)
+-- 6. Diccionario Braille (fuente de verdad; se carga al iniciar y con POST /api/diccionario/recargar)
 CREATE TABLE IF NOT EXISTS diccionario_braille (
     id SERIAL PRIMARY KEY,
     caracter VARCHAR(5) UNIQUE NOT NULL,
@@ -182,22 +193,72 @@ INSERT INTO diccionario_braille (caracter, braille, puntos, categoria, descripci
 ('á', '⠷', '1-2-3-5-6', 'acento', 'A con acento'),
 ('é', '⠮', '2-3-4-6', 'acento', 'E con acento'),
 ('í', '⠌', '3-4', 'acento', 'I con acento'),
-('ó', '⠾', '1-3-4-6', 'acento', 'O con acento'),
+('ó', '⠬', '3-4-6', 'acento', 'O con acento'),
 ('ú', '⠾', '1-3-4-6', 'acento', 'U con acento'),
 ('ü', '⠳', '1-2-5-6', 'acento', 'U con diéresis'),
 
 -- Signos de puntuación
 (',', '⠂', '2', 'signo', 'Coma'),
-('.', '⠲', '2-5-6', 'signo', 'Punto'),
+('.', '⠄', '3', 'signo', 'Punto'),
 ('?', '⠢', '2-6', 'signo', 'Signo de interrogación'),
 ('!', '⠖', '2-3-5', 'signo', 'Signo de exclamación'),
 (';', '⠆', '2-3', 'signo', 'Punto y coma'),
 (':', '⠒', '2-5', 'signo', 'Dos puntos'),
+-- Números (primera serie, precedidos por ⠼)
+('0', '⠚', '2-4-5', 'numero', 'Número 0'),
+('1', '⠁', '1', 'numero', 'Número 1'),
+('2', '⠃', '1-2', 'numero', 'Número 2'),
+('3', '⠉', '1-4', 'numero', 'Número 3'),
+('4', '⠙', '1-4-5', 'numero', 'Número 4'),
+('5', '⠑', '1-5', 'numero', 'Número 5'),
+('6', '⠋', '1-2-4', 'numero', 'Número 6'),
+('7', '⠛', '1-2-4-5', 'numero', 'Número 7'),
+('8', '⠓', '1-2-5', 'numero', 'Número 8'),
+('9', '⠊', '2-4', 'numero', 'Número 9'),
+
+-- Otros signos de puntuación
+('¿', '⠢', '2-6', 'signo', 'Apertura de interrogación'),
+('¡', '⠖', '2-3-5', 'signo', 'Apertura de exclamación'),
+('-', '⠤', '3-6', 'signo', 'Guion'),
+('(', '⠐⠣', NULL, 'signo', 'Paréntesis izquierdo'),
+(')', '⠐⠜', NULL, 'signo', 'Paréntesis derecho'),
+('"', '⠦', '2-3-6', 'signo', 'Comillas'),
+('''', '⠄', '3', 'signo', 'Apóstrofe'),
+
+-- Operadores y símbolos especiales
+('+', '⠐⠖', NULL, 'especial', 'Suma'),
+('*', '⠡', '1-6', 'especial', 'Multiplicación'),
+('×', '⠡', '1-6', 'especial', 'Multiplicación alternativo'),
+('/', '⠸⠌', NULL, 'especial', 'División'),
+('÷', '⠸⠌', NULL, 'especial', 'División alternativo'),
+('=', '⠶', '2-3-5-6', 'especial', 'Igual'),
+('<', '⠐⠅', NULL, 'especial', 'Menor que'),
+('>', '⠨⠂', NULL, 'especial', 'Mayor que'),
+('%', '⠚⠴', NULL, 'especial', 'Porcentaje'),
+('@', '⠈⠁', NULL, 'especial', 'Arroba'),
+('#', '⠼', '3-4-5-6', 'especial', 'Numeral'),
+('$', '⠈⠎', NULL, 'especial', 'Dólar'),
+('€', '⠈⠑', NULL, 'especial', 'Euro'),
+('&', '⠯', '1-2-3-4-6', 'especial', 'Ampersand'),
+('_', '⠤⠤', NULL, 'especial', 'Guion bajo'),
+('[', '⠷', '1-2-3-5-6', 'especial', 'Corchete izquierdo'),
+(']', '⠾', '2-3-4-5-6', 'especial', 'Corchete derecho'),
+('{', '⠐⠷', NULL, 'especial', 'Llave izquierda'),
+('}', '⠐⠾', NULL, 'especial', 'Llave derecha'),
+('\', '⠸⠡', NULL, 'especial', 'Barra invertida'),
+('`', '⠸⠳', NULL, 'especial', 'Acento grave'),
+('~', '⠈⠱', NULL, 'especial', 'Tilde'),
+('^', '⠈⠢', NULL, 'especial', 'Circunflejo'),
+('°', '⠴', '3-5-6', 'especial', 'Grado'),
 
 -- Indicador de mayúscula
 ('⠨', '⠨', '4-6', 'especial', 'Indicador de mayúscula')
 ON CONFLICT (caracter) DO NOTHING;
 
+-- Corregir valores de versiones anteriores del seed (ó se confundía con ú y el punto usaba ⠲)
+UPDATE diccionario_braille SET braille = '⠬', puntos = '3-4-6' WHERE caracter = 'ó' AND braille = '⠾';
+UPDATE diccionario_braille SET braille = '⠄', puntos = '3' WHERE caracter = '.' AND braille = '⠲';
+
 -- ==========================================
 -- COMENTARIOS FINALES
 -- ==========================================
@@ -0,0 +1,132 @@
+package com.example.demo.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Cabeceras Range e If-Range de las descargas: cada caso se envía sobre un
+ * archivo de 100 bytes y se comprueba el estado, Content-Range,
+ * Content-Length y los bytes enviados.
+ */
+class EnvioArchivoTest {
+
+    private static final int LONGITUD = 100;
+
+    @TempDir
+    Path directorio;
+
+    private Path archivo;
+    private byte[] contenido;
+    private String etag;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        contenido = new byte[LONGITUD];
+        for (int i = 0; i < LONGITUD; i++) {
+            contenido[i] = (byte) i;
+        }
+        archivo = directorio.resolve("conversion-1-40x25-abc.brf");
+        Files.write(archivo, contenido);
+        etag = "\"" + archivo.getFileName() + "\"";
+    }
+
+    @Test
+    void sinRangoEnviaTodo() throws Exception {
+        MockHttpServletResponse respuesta = enviar(null, null);
+        assertEquals(200, respuesta.getStatus());
+        assertEquals(LONGITUD, respuesta.getContentLengthLong());
+        assertEquals("bytes", respuesta.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(etag, respuesta.getHeader(HttpHeaders.ETAG));
+        assertArrayEquals(contenido, respuesta.getContentAsByteArray());
+    }
+
+    @Test
+    void rangoCerrado() throws Exception {
+        assertParcial(enviar("bytes=10-19", null), 10, 20);
+    }
+
+    @Test
+    void rangoAbierto() throws Exception {
+        assertParcial(enviar("bytes=90-", null), 90, LONGITUD);
+    }
+
+    @Test
+    void sufijo() throws Exception {
+        assertParcial(enviar("bytes=-30", null), 70, LONGITUD);
+        // Un sufijo mayor que el archivo es el archivo entero
+        assertParcial(enviar("bytes=-500", null), 0, LONGITUD);
+    }
+
+    @Test
+    void ultimoBytePasadoElFinalSeRecorta() throws Exception {
+        assertParcial(enviar("bytes=50-1000", null), 50, LONGITUD);
+        assertParcial(enviar("bytes=0-" + Long.MAX_VALUE, null), 0, LONGITUD);
+    }
+
+    @Test
+    void noSatisfacible() throws Exception {
+        for (String rango : new String[] {"bytes=100-", "bytes=500-600", "bytes=-0"}) {
+            MockHttpServletResponse respuesta = enviar(rango, null);
+            assertEquals(416, respuesta.getStatus(), rango);
+            assertEquals("bytes */" + LONGITUD, respuesta.getHeader(HttpHeaders.CONTENT_RANGE), rango);
+            assertEquals(0, respuesta.getContentAsByteArray().length, rango);
+        }
+    }
+
+    @Test
+    void variosRangosOInvalidoEnviaTodo() throws Exception {
+        for (String rango : new String[] {"bytes=0-9,20-29", "bytes=20-10", "items=0-9", "bytes=a-b"}) {
+            MockHttpServletResponse respuesta = enviar(rango, null);
+            assertEquals(200, respuesta.getStatus(), rango);
+            assertNull(respuesta.getHeader(HttpHeaders.CONTENT_RANGE), rango);
+            assertArrayEquals(contenido, respuesta.getContentAsByteArray(), rango);
+        }
+    }
+
+    @Test
+    void siRangoConEtagActual() throws Exception {
+        assertParcial(enviar("bytes=10-19", etag), 10, 20);
+    }
+
+    @Test
+    void siRangoConEtagViejoEnviaTodo() throws Exception {
+        MockHttpServletResponse respuesta = enviar("bytes=10-19", "\"conversion-1-40x25-viejo.brf\"");
+        assertEquals(200, respuesta.getStatus());
+        assertNull(respuesta.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(LONGITUD, respuesta.getContentLengthLong());
+        assertArrayEquals(contenido, respuesta.getContentAsByteArray());
+    }
+
+    private MockHttpServletResponse enviar(String rango, String siRango) throws Exception {
+        MockHttpServletRequest peticion = new MockHttpServletRequest("GET", "/api/exportar/historial/1/brf");
+        if (rango != null) {
+            peticion.addHeader(HttpHeaders.RANGE, rango);
+        }
+        if (siRango != null) {
+            peticion.addHeader(HttpHeaders.IF_RANGE, siRango);
+        }
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+        EnvioArchivo.enviar(archivo, "text/plain", "conversion-1.brf", peticion, respuesta);
+        return respuesta;
+    }
+
+    private void assertParcial(MockHttpServletResponse respuesta, int inicio, int fin) {
+        assertEquals(206, respuesta.getStatus());
+        assertEquals("bytes " + inicio + "-" + (fin - 1) + "/" + LONGITUD,
+            respuesta.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(fin - inicio, respuesta.getContentLengthLong());
+        assertArrayEquals(Arrays.copyOfRange(contenido, inicio, fin), respuesta.getContentAsByteArray());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * El PNG escrito por CodificadorPng, leído con ImageIO, debe dar
+ * exactamente los mismos píxeles: con paleta (hasta 256 colores) y en RGB
+ * (más de 256), con anchos pares e impares.
+ */
+class CodificadorPngTest {
+
+    private final RasterizadorPng rasterizador = new RasterizadorPng(8);
+    private final DisenoSenaletica diseno = new DisenoSenaletica("Baño", "Baño accesible",
+        new BrailleService().textoABraille("Baño accesible 3", new BrailleService().getTabla()), 24,
+        "#1A3C8B", "#FFFFFF", false);
+
+    @Test
+    void senaleticaConPaleta() throws Exception {
+        boolean impar = false;
+        for (double pixelesPorMm : new double[] {1, 2.3, 3.7, 7.87}) {
+            BufferedImage imagen = rasterizador.dibujar(diseno, pixelesPorMm);
+            impar |= imagen.getWidth() % 2 == 1;
+            assertTrue(colores(imagen) <= 256, "escala " + pixelesPorMm);
+            assertIgual(imagen, Deflater.BEST_SPEED);
+            assertIgual(imagen, Deflater.BEST_COMPRESSION);
+        }
+        assertTrue(impar, "ningún ancho impar");
+    }
+
+    @Test
+    void senaleticaConRuidoEnRgb() throws Exception {
+        BufferedImage imagen = rasterizador.dibujar(diseno, 3.7);
+        for (double pixelesPorMm = 3.71; imagen.getWidth() % 2 == 0; pixelesPorMm += 0.01) {
+            imagen = rasterizador.dibujar(diseno, pixelesPorMm);
+        }
+        int[] pixeles = datos(imagen);
+        Random azar = new Random(3);
+        for (int i = 0; i < pixeles.length; i += 7) {
+            pixeles[i] ^= azar.nextInt(0x1000000);
+        }
+        assertTrue(colores(imagen) > 256);
+        assertIgual(imagen, Deflater.BEST_SPEED);
+    }
+
+    @Test
+    void justoDoscientosCincuentaYSeisColores() throws Exception {
+        BufferedImage imagen = new BufferedImage(257, 3, BufferedImage.TYPE_INT_RGB);
+        int[] pixeles = datos(imagen);
+        for (int i = 0; i < pixeles.length; i++) {
+            pixeles[i] = (i % 256) * 0x010203 & 0xFFFFFF;
+        }
+        assertEquals(256, colores(imagen));
+        assertIgual(imagen, Deflater.BEST_SPEED);
+
+        pixeles[pixeles.length - 1] = 0x123457;
+        assertEquals(257, colores(imagen));
+        assertIgual(imagen, Deflater.BEST_SPEED);
+    }
+
+    @Test
+    void unPixelDeAncho() throws Exception {
+        BufferedImage imagen = new BufferedImage(1, 5, BufferedImage.TYPE_INT_RGB);
+        int[] pixeles = datos(imagen);
+        for (int i = 0; i < pixeles.length; i++) {
+            pixeles[i] = 0x808080 + i;
+        }
+        assertIgual(imagen, Deflater.BEST_SPEED);
+    }
+
+    private static void assertIgual(BufferedImage imagen, int nivel) throws Exception {
+        int ancho = imagen.getWidth();
+        int alto = imagen.getHeight();
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        CodificadorPng.escribir(datos(imagen), ancho, alto, nivel, salida);
+
+        BufferedImage leida = ImageIO.read(new ByteArrayInputStream(salida.toByteArray()));
+        assertNotNull(leida);
+        assertEquals(ancho, leida.getWidth());
+        assertEquals(alto, leida.getHeight());
+        for (int y = 0; y < alto; y++) {
+            for (int x = 0; x < ancho; x++) {
+                int esperado = imagen.getRGB(x, y) & 0xFFFFFF;
+                int leido = leida.getRGB(x, y) & 0xFFFFFF;
+                if (esperado != leido) {
+                    assertEquals(Integer.toHexString(esperado), Integer.toHexString(leido),
+                        "píxel " + x + "," + y + " de " + ancho + "x" + alto);
+                }
+            }
+        }
+    }
+
+    private static int[] datos(BufferedImage imagen) {
+        return ((DataBufferInt) imagen.getRaster().getDataBuffer()).getData();
+    }
+
+    private static int colores(BufferedImage imagen) {
+        Set<Integer> colores = new HashSet<>();
+        for (int pixel : datos(imagen)) {
+            colores.add(pixel);
+        }
+        return colores.size();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Braille grado 2: ida y vuelta texto -> Braille contraído -> texto, con
+ * las contracciones en los límites de palabra (palabra completa, inicio,
+ * final), junto a puntuación y números, y con mayúsculas.
+ */
+class ContraccionesBrailleTest {
+
+    private static final String[] PALABRAS = {
+        "bien", "con", "de", "fue", "gran", "hay", "los", "muy", "no", "para", "que", "por", "se", "todo",
+        "vez", "canción", "rápidamente", "ciudad", "cantando", "comiendo", "vamos", "contener", "deshacer",
+        "prever", "traer", "subir", "lleva", "queso", "chico", "señor", "entender", "dedo", "nosotros",
+        "condición", "desde", "presente", "trabajo", "mesa", "árbol", "pingüino", "año", "verdad",
+        "bienes", "conejo", "dentro", "veces", "porque", "todos", "fuego", "mayo", "el", "la", "y"
+    };
+
+    private final BrailleService brailleService = new BrailleService();
+    private final TablaBraille tabla = brailleService.getTabla("es");
+
+    @Test
+    void palabraCompletaSoloSolaYNoDentroDeOtra() {
+        assertEquals("⠙", grado2("de"));
+        assertEquals("⠝", grado2("no"));
+        assertEquals("⠙ ⠝", grado2("de no"));
+        assertEquals("⠙⠂", grado2("de,"));
+        assertEquals("⠐⠣⠉⠐⠜", grado2("(con)"));
+        // Dentro de otra palabra no se abrevia como palabra
+        assertTrue(grado2("dedo").length() > 1);
+        assertTrue(grado2("nosotros").length() > 1);
+        for (String palabra : new String[] {"de", "dedo", "no", "nosotros", "con", "conejo", "todo", "todos",
+                                            "se", "mesa", "vez", "veces", "que", "queso", "por", "porque"}) {
+            assertIdaYVuelta(palabra);
+        }
+    }
+
+    @Test
+    void contraccionesAlInicioYAlFinal() {
+        assertTrue(grado2("canción").endsWith("⠲"));
+        assertTrue(grado2("rápidamente").endsWith("⠰⠍"));
+        assertTrue(grado2("contener").startsWith("⠘⠉"));
+        assertTrue(grado2("deshacer").startsWith("⠘⠙"));
+        // "ción" solo al final y "des" solo al inicio
+        assertTrue(!grado2("cióna").contains("⠲"));
+        assertTrue(!grado2("andes").startsWith("⠘⠙"));
+        for (String palabra : new String[] {"canción", "cióna", "rápidamente", "mentecato", "ciudad", "dado",
+                                            "cantando", "andote", "comiendo", "vamos", "mosca", "contener",
+                                            "rincón", "deshacer", "andes", "prever", "traer", "extra",
+                                            "subir", "club", "entender", "lleva", "queso", "chico"}) {
+            assertIdaYVuelta(palabra);
+        }
+    }
+
+    @Test
+    void mayusculasNumerosYPuntuacion() {
+        assertEquals("⠨⠙", grado2("De"));
+        assertEquals("⠨⠨⠙", grado2("DE"));
+        for (String texto : new String[] {
+            "De", "DE", "Canción", "CANCIÓN", "McDonald", "de 25 de mayo", "con 3,5 kg", "Piso 3: de 10-20",
+            "¿Que", "¡No", "todo; nada.", "(de)", "de\nno"
+        }) {
+            assertIdaYVuelta(texto);
+        }
+        // "?" y "¿" comparten celda, como en grado 1; de vuelta dan "¿"
+        assertEquals("¿Que¿", brailleService.brailleGrado2ATexto(grado2("¿Que?"), tabla));
+    }
+
+    @Test
+    void corpusEnEspanol() {
+        Random azar = new Random(5);
+        for (int n = 0; n < 500; n++) {
+            StringBuilder texto = new StringBuilder();
+            boolean inicioFrase = true;
+            while (texto.length() < 300) {
+                String palabra = PALABRAS[azar.nextInt(PALABRAS.length)];
+                if (inicioFrase) {
+                    palabra = Character.toUpperCase(palabra.charAt(0)) + palabra.substring(1);
+                    inicioFrase = false;
+                } else if (azar.nextInt(25) == 0) {
+                    palabra = palabra.toUpperCase();
+                }
+                texto.append(palabra);
+                switch (azar.nextInt(10)) {
+                    case 0 -> texto.append(", ");
+                    case 1 -> {
+                        texto.append(". ");
+                        inicioFrase = true;
+                    }
+                    case 2 -> texto.append(' ').append(azar.nextInt(2030)).append(' ');
+                    default -> texto.append(' ');
+                }
+            }
+            assertIdaYVuelta(texto.toString());
+        }
+    }
+
+    private String grado2(String texto) {
+        return brailleService.textoABrailleGrado2(texto, tabla);
+    }
+
+    private void assertIdaYVuelta(String texto) {
+        String braille = grado2(texto);
+        assertEquals(texto, brailleService.brailleGrado2ATexto(braille, tabla), "\"" + texto + "\" -> " + braille);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Las ediciones incrementales deben dar el mismo Braille que convertir el
+ * texto completo, y el parche aplicado sobre el Braille anterior debe dar
+ * el nuevo. Ediciones al azar, cortas (como al escribir) y largas (que
+ * cruzan varios puntos de control), sobre texto con mayúsculas, acentos,
+ * números y puntuación, que son los que cambian el estado del codificador.
+ */
+class DocumentoBrailleTest {
+
+    private static final String ALFABETO = "abcdefghijklmnopqrstuvwxyz      ABCXYZáéíóúñüÁÉÑ0123456789.,;:-()%¿?¡!\n";
+
+    private final BrailleService brailleService = new BrailleService();
+
+    @Test
+    void edicionesIgualesAConversionCompleta() {
+        TablaBraille tabla = brailleService.getTabla();
+        for (long semilla = 1; semilla <= 4; semilla++) {
+            Random azar = new Random(semilla);
+            String inicial = textoAlAzar(azar, 5000);
+            DocumentoBraille documento = new DocumentoBraille(inicial, tabla);
+            StringBuilder texto = new StringBuilder(inicial);
+            StringBuilder braille = new StringBuilder(documento.getResultado());
+            assertEquals(brailleService.textoABraille(inicial, tabla), braille.toString());
+
+            for (int i = 0; i < 3000; i++) {
+                boolean larga = azar.nextInt(10) == 0;
+                int maximo = larga ? 3000 : 3;
+                int inicio = azar.nextInt(texto.length() + 1);
+                int eliminados = azar.nextInt(Math.min(maximo, texto.length() - inicio) + 1);
+                String insertado = textoAlAzar(azar, azar.nextInt(maximo + 1));
+                // Que el documento no se vacíe ni crezca sin límite
+                if (texto.length() > 20000) {
+                    insertado = "";
+                }
+
+                DocumentoBraille.Parche parche = documento.editar(documento.getVersion(), inicio, eliminados,
+                    insertado);
+                texto.replace(inicio, inicio + eliminados, insertado);
+                braille.replace(parche.getDesde(), parche.getDesde() + parche.getEliminados(),
+                    parche.getInsertado());
+
+                String completo = brailleService.textoABraille(texto.toString(), tabla);
+                String contexto = "semilla " + semilla + ", edición " + i;
+                assertEquals(texto.toString(), documento.getTexto(), contexto);
+                assertEquals(completo, documento.getResultado(), contexto);
+                assertEquals(completo, braille.toString(), contexto);
+                assertEquals(completo.length(), parche.getLongitudResultado(), contexto);
+            }
+        }
+    }
+
+    private static String textoAlAzar(Random azar, int longitud) {
+        StringBuilder texto = new StringBuilder(longitud);
+        for (int i = 0; i < longitud; i++) {
+            texto.append(ALFABETO.charAt(azar.nextInt(ALFABETO.length())));
+        }
+        return texto.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Un texto compaginado en varios volúmenes debe dar un PEF que cumpla el
+ * esquema de PEF 2008-1, con los volúmenes, páginas y filas esperados.
+ */
+class EscritorPefTest {
+
+    private static final int CELDAS = 40;
+    private static final int LINEAS = 25;
+    private static final int PAGINAS_POR_VOLUMEN = 3;
+
+    @Test
+    void variosVolumenesCumplenElEsquema() throws Exception {
+        TablaBraille tabla = new BrailleService().getTabla();
+        // 200 párrafos de una línea; con el número de página quedan 24
+        // líneas de texto por página: 9 páginas, 3 volúmenes
+        int parrafos = 200;
+        StringBuilder braille = new StringBuilder();
+        for (int i = 0; i < parrafos; i++) {
+            braille.append("⠓⠕⠇⠁ ⠍⠥⠝⠙⠕\n");
+        }
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        EscritorPef pef = new EscritorPef(salida, "prueba-1", "Prueba", CELDAS, LINEAS, PAGINAS_POR_VOLUMEN);
+        PaginadorBraille paginador = new PaginadorBraille(tabla, CELDAS, LINEAS, null, true, pef);
+        paginador.write(braille.toString());
+        paginador.close();
+        pef.terminar();
+        byte[] xml = salida.toByteArray();
+
+        Schema esquema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+            .newSchema(getClass().getResource("/pef/pef-2008-1.xsd"));
+        esquema.newValidator().validate(new StreamSource(new ByteArrayInputStream(xml)));
+
+        DocumentBuilderFactory fabrica = DocumentBuilderFactory.newInstance();
+        fabrica.setNamespaceAware(true);
+        Document documento = fabrica.newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+        NodeList volumenes = documento.getElementsByTagNameNS(EscritorPef.ESPACIO_NOMBRES, "volume");
+        NodeList paginas = documento.getElementsByTagNameNS(EscritorPef.ESPACIO_NOMBRES, "page");
+        NodeList filas = documento.getElementsByTagNameNS(EscritorPef.ESPACIO_NOMBRES, "row");
+
+        int paginasEsperadas = (parrafos + LINEAS - 2) / (LINEAS - 1);
+        assertEquals(9, paginasEsperadas);
+        assertEquals(paginasEsperadas, pef.getPaginas());
+        assertEquals(paginasEsperadas, paginas.getLength());
+        assertEquals(3, volumenes.getLength());
+        assertEquals(parrafos + paginasEsperadas, filas.getLength());
+        assertEquals(filas.getLength(), pef.posicion());
+
+        // Lo que el esquema no puede comprobar (el Schematron de PEF): filas
+        // por página y celdas por fila dentro de los límites del volumen
+        for (int v = 0; v < volumenes.getLength(); v++) {
+            Element volumen = (Element) volumenes.item(v);
+            assertEquals(Integer.toString(CELDAS), volumen.getAttribute("cols"));
+            assertEquals(Integer.toString(LINEAS), volumen.getAttribute("rows"));
+            NodeList paginasVolumen = volumen.getElementsByTagNameNS(EscritorPef.ESPACIO_NOMBRES, "page");
+            assertEquals(PAGINAS_POR_VOLUMEN, paginasVolumen.getLength());
+            for (int p = 0; p < paginasVolumen.getLength(); p++) {
+                NodeList filasPagina = ((Element) paginasVolumen.item(p))
+                    .getElementsByTagNameNS(EscritorPef.ESPACIO_NOMBRES, "row");
+                int esperadas = v == volumenes.getLength() - 1 && p == paginasVolumen.getLength() - 1
+                    ? 1 + parrafos - (paginasEsperadas - 1) * (LINEAS - 1) : LINEAS;
+                assertEquals(esperadas, filasPagina.getLength());
+                for (int f = 0; f < filasPagina.getLength(); f++) {
+                    assertTrue(filasPagina.item(f).getTextContent().length() <= CELDAS);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * El STL binario de una señalética: la cantidad de triángulos de la
+ * cabecera coincide con tamano(), cada arista la comparten exactamente dos
+ * triángulos que la recorren en sentidos opuestos (malla cerrada y con
+ * orientación coherente), y las normales apuntan hacia afuera: coinciden
+ * con el sentido de los vértices y cada sólido tiene volumen positivo.
+ */
+class ModeladorStlTest {
+
+    private final ModeladorStl modelador = new ModeladorStl(4);
+
+    @Test
+    void mallaCerradaConNormalesHaciaAfuera() throws Exception {
+        BrailleService brailleService = new BrailleService();
+        String braille = brailleService.textoABraille("Baño 3, Salida", brailleService.getTabla()) + "⠿⠀⠁";
+        DisenoSenaletica diseno = new DisenoSenaletica("Baño", "Baño", braille, 24, "#FFFFFF", "#000000", false);
+
+        int puntos = 0;
+        for (int i = 0; i < diseno.getCeldas(); i++) {
+            puntos += Integer.bitCount(diseno.patron(i));
+        }
+        // La placa y un sólido por punto
+        assertEquals(1 + puntos, verificar(diseno, ModeladorStl.ALTURA_PUNTO_POR_DEFECTO,
+            ModeladorStl.DISTANCIA_PUNTOS_POR_DEFECTO, ModeladorStl.GROSOR_PLACA_POR_DEFECTO));
+        // Casquete más bajo que una semiesfera, escala y placa distintas
+        verificar(diseno, 0.3, 2.0, 1.0);
+        verificar(diseno, 1.5, 4.0, 10.0);
+    }
+
+    @Test
+    void sinCeldasEsSoloLaPlaca() throws Exception {
+        DisenoSenaletica diseno = new DisenoSenaletica("Vacía", "Vacía", "", 24, "#FFFFFF", "#000000", false);
+        assertEquals(1, verificar(diseno, ModeladorStl.ALTURA_PUNTO_POR_DEFECTO,
+            ModeladorStl.DISTANCIA_PUNTOS_POR_DEFECTO, ModeladorStl.GROSOR_PLACA_POR_DEFECTO));
+    }
+
+    /**
+     * @return la cantidad de sólidos de la malla
+     */
+    private int verificar(DisenoSenaletica diseno, double altura, double distancia, double grosor)
+            throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        modelador.escribir(diseno, altura, distancia, grosor, Channels.newChannel(salida));
+        byte[] stl = salida.toByteArray();
+        String forma = altura + "/" + distancia + "/" + grosor;
+
+        assertEquals(ModeladorStl.tamano(diseno), stl.length, forma);
+        ByteBuffer buffer = ByteBuffer.wrap(stl).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(80);
+        int triangulos = buffer.getInt();
+        assertEquals((stl.length - 84) / 50, triangulos, forma);
+
+        // Vértices por su valor exacto; cada triángulo con sus tres índices
+        Map<String, Integer> indices = new HashMap<>();
+        float[][] vertices = new float[triangulos * 3][];
+        int[][] caras = new int[triangulos][3];
+        float[][] normales = new float[triangulos][];
+        for (int t = 0; t < triangulos; t++) {
+            normales[t] = new float[] {buffer.getFloat(), buffer.getFloat(), buffer.getFloat()};
+            for (int j = 0; j < 3; j++) {
+                float[] vertice = {buffer.getFloat(), buffer.getFloat(), buffer.getFloat()};
+                Integer indice = indices.putIfAbsent(Arrays.toString(vertice), indices.size());
+                if (indice == null) {
+                    indice = indices.size() - 1;
+                    vertices[indice] = vertice;
+                }
+                caras[t][j] = indice;
+            }
+            buffer.getShort();
+        }
+
+        // Cada arista dirigida una vez, y su inversa una vez
+        Map<Long, Integer> aristas = new HashMap<>();
+        for (int t = 0; t < triangulos; t++) {
+            for (int j = 0; j < 3; j++) {
+                long arista = (long) caras[t][j] << 32 | caras[t][(j + 1) % 3];
+                Integer anterior = aristas.put(arista, t);
+                assertEquals(null, anterior, forma + ": arista repetida en el triángulo " + t);
+            }
+        }
+        for (long arista : aristas.keySet()) {
+            long inversa = (arista & 0xFFFFFFFFL) << 32 | arista >>> 32;
+            assertTrue(aristas.containsKey(inversa), forma + ": arista sin pareja en el triángulo "
+                + aristas.get(arista));
+        }
+
+        // La normal guardada es la del sentido de los vértices
+        double[][] cruz = new double[triangulos][];
+        for (int t = 0; t < triangulos; t++) {
+            float[] a = vertices[caras[t][0]];
+            float[] b = vertices[caras[t][1]];
+            float[] c = vertices[caras[t][2]];
+            double[] n = producto(b[0] - a[0], b[1] - a[1], b[2] - a[2], c[0] - a[0], c[1] - a[1], c[2] - a[2]);
+            double largo = Math.sqrt(n[0] * n[0] + n[1] * n[1] + n[2] * n[2]);
+            assertTrue(largo > 0, forma + ": triángulo degenerado " + t);
+            double coseno = (n[0] * normales[t][0] + n[1] * normales[t][1] + n[2] * normales[t][2]) / largo;
+            assertTrue(coseno > 0.999, forma + ": normal del triángulo " + t + " no coincide");
+            cruz[t] = n;
+        }
+
+        // Sólidos: triángulos unidos por aristas; cada uno con volumen positivo
+        int[] padre = new int[triangulos];
+        for (int t = 0; t < triangulos; t++) {
+            padre[t] = t;
+        }
+        for (Map.Entry<Long, Integer> arista : aristas.entrySet()) {
+            long inversa = (arista.getKey() & 0xFFFFFFFFL) << 32 | arista.getKey() >>> 32;
+            unir(padre, arista.getValue(), aristas.get(inversa));
+        }
+        Map<Integer, Double> volumenes = new HashMap<>();
+        for (int t = 0; t < triangulos; t++) {
+            float[] a = vertices[caras[t][0]];
+            double volumen = (a[0] * cruz[t][0] + a[1] * cruz[t][1] + a[2] * cruz[t][2]) / 6;
+            volumenes.merge(raiz(padre, t), volumen, Double::sum);
+        }
+        for (double volumen : volumenes.values()) {
+            assertTrue(volumen > 0, forma + ": sólido con normales hacia adentro (" + volumen + ")");
+        }
+        return volumenes.size();
+    }
+
+    private static double[] producto(double ax, double ay, double az, double bx, double by, double bz) {
+        return new double[] {ay * bz - az * by, az * bx - ax * bz, ax * by - ay * bx};
+    }
+
+    private static int raiz(int[] padre, int t) {
+        while (padre[t] != t) {
+            padre[t] = padre[padre[t]];
+            t = padre[t];
+        }
+        return t;
+    }
+
+    private static void unir(int[] padre, int a, int b) {
+        padre[raiz(padre, a)] = raiz(padre, b);
+    }
+}
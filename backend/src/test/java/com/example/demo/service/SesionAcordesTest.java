@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Acordes y borrados al azar: el texto de la sesión debe ser siempre el de
+ * decodificar todo el Braille escrito, y el parche aplicado sobre el texto
+ * anterior debe dar el nuevo.
+ */
+class SesionAcordesTest {
+
+    private final BrailleService brailleService = new BrailleService();
+
+    @Test
+    void acordesIgualesADecodificacionCompleta() {
+        TablaBraille tabla = brailleService.getTabla();
+        for (long semilla = 1; semilla <= 4; semilla++) {
+            Random azar = new Random(semilla);
+            SesionAcordes sesion = new SesionAcordes(tabla);
+            StringBuilder texto = new StringBuilder();
+
+            for (int i = 0; i < 5000; i++) {
+                DocumentoBraille.Parche parche;
+                int tirada = azar.nextInt(20);
+                if (tirada < 3) {
+                    parche = sesion.borrar();
+                } else if (tirada < 6) {
+                    parche = sesion.acorde(0);
+                } else if (tirada < 8) {
+                    // Indicadores de número y mayúscula, que cambian el estado
+                    parche = sesion.acorde(tirada == 6 ? tabla.getIndicadorNumero() - TablaBraille.BRAILLE_BASE
+                        : tabla.getIndicadorMayuscula() - TablaBraille.BRAILLE_BASE);
+                } else {
+                    parche = sesion.acorde(1 + azar.nextInt(63));
+                }
+                texto.replace(parche.getDesde(), parche.getDesde() + parche.getEliminados(), parche.getInsertado());
+
+                String completo = brailleService.brailleATexto(sesion.getBraille(), tabla);
+                String contexto = "semilla " + semilla + ", paso " + i;
+                assertEquals(completo, sesion.getTexto(), contexto);
+                assertEquals(completo, texto.toString(), contexto);
+                assertEquals(completo.length(), parche.getLongitudResultado(), contexto);
+            }
+        }
+    }
+
+    @Test
+    void rechazaAcordesFueraDeSeisPuntos() {
+        SesionAcordes sesion = new SesionAcordes(brailleService.getTabla());
+        sesion.acorde(0x3F);
+        for (int puntos : new int[] {-1, 0x40, 0x80, 0xFF, 0x100}) {
+            assertThrows(IllegalArgumentException.class, () -> sesion.acorde(puntos), "puntos " + puntos);
+        }
+        assertEquals("\u283F", sesion.getBraille());
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Decodificación con el trie: coincidencia más larga, entrada incompleta y
+ * ida y vuelta texto -> Braille -> texto en cada tabla, con los
+ * indicadores de número y mayúscula.
+ *
+ * Algunos caracteres comparten celda con otro en la tabla (p. ej. "!" y
+ * "¡" en español); de vuelta dan siempre el preferido, y aquí quedan
+ * fijados uno por uno.
+ */
+class TrieBrailleTest {
+
+    private static final String[] CODIGOS = {"es", "pt", "ca", "en-ueb", "computacional"};
+
+    private static final Map<String, Map<Character, String>> AMBIGUOS = Map.of(
+        "es", Map.of('!', "¡", '?', "¿", '\'', ".", '*', "×", '÷', "/", '[', "á", ']', "ú",
+            '#', ""), // "#" es la celda del indicador de número
+        "pt", Map.of('!', "+"),
+        "ca", Map.of('!', "¡", '?', "¿", '\'', ".", '·', "."),
+        "en-ueb", Map.of(),
+        "computacional", Map.of());
+
+    private static final String[] PALABRAS = {
+        "el", "la", "de", "que", "y", "en", "un", "año", "niño", "también", "está", "más", "después",
+        "información", "país", "según", "pingüino", "corazón", "música", "lápiz", "árbol", "camión",
+        "mañana", "señal", "ciudad", "baño", "accesible", "salida", "ascensor", "escalera", "piso"
+    };
+
+    private final BrailleService brailleService = new BrailleService();
+
+    @Test
+    void coincidenciaMasLarga() {
+        Map<String, Character> secuencias = new LinkedHashMap<>();
+        secuencias.put("⠁", 'a');
+        secuencias.put("⠐⠣", '(');
+        secuencias.put("⠐⠣⠣", '[');
+        TrieBraille trie = new TrieBraille(secuencias);
+
+        assertCoincidencia(trie.buscar("⠁⠁", 0), 1, 'a');
+        assertCoincidencia(trie.buscar("⠐⠣⠁", 0), 2, '(');
+        assertCoincidencia(trie.buscar("⠐⠣⠣", 0), 3, '[');
+        assertCoincidencia(trie.buscar("⠁⠐⠣", 1), 2, '(');
+        // Un prefijo sin carácter propio no es coincidencia
+        assertEquals(0, trie.buscar("⠐", 0));
+        assertEquals(0, trie.buscar("⠃", 0));
+        assertEquals(0, trie.buscar("b", 0));
+        // Al final de un trozo, si puede llegar más, se espera
+        assertEquals(TrieBraille.INCOMPLETA, trie.buscar("⠐", 0, 1, false));
+        assertEquals(TrieBraille.INCOMPLETA, trie.buscar("⠐⠣", 0, 2, false));
+        assertCoincidencia(trie.buscar("⠐⠣", 0, 2, true), 2, '(');
+        assertCoincidencia(trie.buscar("⠐⠣⠣", 0, 3, false), 3, '[');
+    }
+
+    @Test
+    void cadaCaracterDeCadaTabla() {
+        for (String codigo : CODIGOS) {
+            TablaBraille tabla = brailleService.getTabla(codigo);
+            boolean conMayusculas = tabla.getIndicadorMayuscula() != TablaBraille.SIN_INDICADOR;
+            for (char caracter : new TreeSet<>(definiciones(codigo).keySet())) {
+                String esperado = AMBIGUOS.get(codigo).getOrDefault(caracter, String.valueOf(caracter));
+                for (String contexto : new String[] {"x%sx", " %s ", "1%s2", "%s"}) {
+                    if (contexto.startsWith("1") && caracter >= 'a' && caracter <= 'j') {
+                        continue; // Se leería como cifra; ver indicadoresDeNumeroYMayuscula
+                    }
+                    assertIdaYVuelta(tabla, contexto.replace("%s", String.valueOf(caracter)),
+                        contexto.replace("%s", esperado));
+                }
+                if (Character.isLetter(caracter)) {
+                    String mayuscula = "X" + Character.toUpperCase(caracter) + "x";
+                    assertIdaYVuelta(tabla, mayuscula, conMayusculas ? mayuscula : mayuscula.toLowerCase());
+                }
+            }
+        }
+    }
+
+    @Test
+    void indicadoresDeNumeroYMayuscula() {
+        String[] casos = {
+            "Piso 3", "25 de mayo", "3,5 kg", "1.200", "10-20", "Sala 101, piso 2.", "3x", "2024 y 2025",
+            "0", "9 0 9", "Hola", "HOLA", "McDonald", "Año 1999", "A1", "B-12", "x = 5 + 7"
+        };
+        for (String codigo : new String[] {"es", "pt", "ca", "en-ueb"}) {
+            TablaBraille tabla = brailleService.getTabla(codigo);
+            for (String caso : casos) {
+                assertIdaYVuelta(tabla, caso, caso);
+            }
+        }
+        TablaBraille tabla = brailleService.getTabla("es");
+        assertEquals("⠼⠉⠂⠼⠑", brailleService.textoABraille("3,5", tabla));
+        assertEquals("⠨⠓⠕⠇⠁", brailleService.textoABraille("Hola", tabla));
+        // Una letra de la a a la j justo después de un número se leería como cifra
+        assertEquals("11", brailleService.brailleATexto(brailleService.textoABraille("1a", tabla), tabla));
+    }
+
+    @Test
+    void corpusEnEspanol() {
+        TablaBraille tabla = brailleService.getTabla("es");
+        Random azar = new Random(11);
+        for (int n = 0; n < 500; n++) {
+            String texto = prosa(azar);
+            assertIdaYVuelta(tabla, texto, texto);
+        }
+    }
+
+    private static String prosa(Random azar) {
+        StringBuilder texto = new StringBuilder();
+        boolean inicioFrase = true;
+        while (texto.length() < 400) {
+            String palabra = PALABRAS[azar.nextInt(PALABRAS.length)];
+            if (inicioFrase) {
+                if (azar.nextInt(5) == 0) {
+                    texto.append(azar.nextBoolean() ? '¿' : '¡');
+                }
+                palabra = Character.toUpperCase(palabra.charAt(0)) + palabra.substring(1);
+                inicioFrase = false;
+            } else if (azar.nextInt(20) == 0) {
+                palabra = palabra.toUpperCase();
+            }
+            texto.append(palabra);
+            switch (azar.nextInt(12)) {
+                case 0 -> texto.append(", ");
+                case 1 -> {
+                    texto.append(". ");
+                    inicioFrase = true;
+                }
+                case 2 -> texto.append(' ').append(azar.nextInt(5000)).append(' ');
+                case 3 -> texto.append(" (").append(azar.nextInt(100)).append(",").append(azar.nextInt(10))
+                    .append(") ");
+                case 4 -> texto.append(";\n");
+                default -> texto.append(' ');
+            }
+        }
+        return texto.toString();
+    }
+
+    private void assertIdaYVuelta(TablaBraille tabla, String texto, String esperado) {
+        String braille = brailleService.textoABraille(texto, tabla);
+        assertEquals(esperado, brailleService.brailleATexto(braille, tabla),
+            tabla.getCodigo() + ": \"" + texto + "\" -> " + braille);
+    }
+
+    private static void assertCoincidencia(int coincidencia, int longitud, char caracter) {
+        assertEquals(longitud, TrieBraille.longitud(coincidencia));
+        assertEquals(caracter, TrieBraille.caracter(coincidencia));
+    }
+
+    private static Map<Character, String> definiciones(String codigo) {
+        return switch (codigo) {
+            case "es" -> DefinicionesBraille.espanol();
+            case "pt" -> DefinicionesBraille.portugues();
+            case "ca" -> DefinicionesBraille.catalan();
+            case "en-ueb" -> DefinicionesBraille.inglesUeb();
+            default -> DefinicionesBraille.computacional();
+        };
+    }
+}